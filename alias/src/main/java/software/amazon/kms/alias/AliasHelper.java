@@ -1,6 +1,9 @@
 package software.amazon.kms.alias;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.AlreadyExistsException;
 import software.amazon.awssdk.services.kms.model.CreateAliasRequest;
@@ -42,10 +45,10 @@ public class AliasHelper {
     static final String ACCESS_DENIED_ERROR_CODE = "AccessDeniedException";
     static final String VALIDATION_ERROR_CODE = "ValidationException";
 
-    private static final String CREATE_ALIAS = "CreateAlias";
+    static final String CREATE_ALIAS = "CreateAlias";
     private static final String DELETE_ALIAS = "DeleteAlias";
     private static final String LIST_ALIASES = "ListAliases";
-    private static final String UPDATE_ALIAS = "UpdateAlias";
+    static final String UPDATE_ALIAS = "UpdateAlias";
 
     public CreateAliasResponse createAlias(final CreateAliasRequest createAliasRequest,
                                            final ProxyClient<KmsClient> proxyClient) {
@@ -75,32 +78,134 @@ public class AliasHelper {
                 proxyClient.client()::updateAlias));
     }
 
+    // Async variants of the calls above, for callers that run several KMS calls at once. The
+    // returned futures fail with the same CloudFormation exceptions, wrapped in a
+    // CompletionException.
+    /**
+     * Calls CreateAlias without blocking.
+     *
+     * @param createAliasRequest the request
+     * @param proxyClient        the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<CreateAliasResponse> createAliasAsync(
+        final CreateAliasRequest createAliasRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(CREATE_ALIAS,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                createAliasRequest, proxyClient.client()::createAlias));
+    }
+
+    /**
+     * Calls DeleteAlias without blocking.
+     *
+     * @param deleteAliasRequest the request
+     * @param proxyClient        the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<DeleteAliasResponse> deleteAliasAsync(
+        final DeleteAliasRequest deleteAliasRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(DELETE_ALIAS,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                deleteAliasRequest, proxyClient.client()::deleteAlias));
+    }
+
+    /**
+     * Calls ListAliases without blocking.
+     *
+     * @param listAliasesRequest the request
+     * @param proxyClient        the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<ListAliasesResponse> listAliasesAsync(
+        final ListAliasesRequest listAliasesRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(LIST_ALIASES,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                listAliasesRequest, proxyClient.client()::listAliases));
+    }
+
+    /**
+     * Calls UpdateAlias without blocking.
+     *
+     * @param updateAliasRequest the request
+     * @param proxyClient        the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<UpdateAliasResponse> updateAliasAsync(
+        final UpdateAliasRequest updateAliasRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(UPDATE_ALIAS,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                updateAliasRequest, proxyClient.client()::updateAlias));
+    }
+
     private <T> T wrapKmsExceptions(final String operation, final Supplier<T> serviceCall) {
         try {
             return serviceCall.get();
-        } catch (final AlreadyExistsException e) {
-            throw new CfnAlreadyExistsException(ResourceModel.TYPE_NAME, e.getMessage());
-        } catch (final InvalidAliasNameException | KmsInvalidStateException | InvalidArnException e) {
-            throw new CfnInvalidRequestException(e);
-        } catch (final LimitExceededException e) {
-            throw new CfnServiceLimitExceededException(ResourceModel.TYPE_NAME, e.getMessage());
-        } catch (final InvalidMarkerException e) {
-            // We should never make a call with an invalid marker, if we did, there is an issue
-            throw new CfnInternalFailureException(e);
-        } catch (final KmsInternalException | DependencyTimeoutException e) {
-            throw new CfnServiceInternalErrorException(e);
-        } catch (final NotFoundException e) {
-            throw new CfnNotFoundException(e);
         } catch (final KmsException e) {
-            if (ACCESS_DENIED_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
-                throw new CfnAccessDeniedException(operation, e);
-            } else if (VALIDATION_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
-                throw new CfnInvalidRequestException(e);
-            } else if (THROTTLING_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
-                throw new CfnThrottlingException(operation, e);
+            throw translateKmsException(operation, e);
+        }
+    }
+
+    private <T> CompletableFuture<T> wrapKmsExceptionsAsync(
+        final String operation, final Supplier<CompletableFuture<T>> serviceCall) {
+        return invokeAsync(serviceCall).handle((response, exception) -> {
+            if (exception == null) {
+                return response;
             }
 
-            throw new CfnGeneralServiceException(operation, e);
+            final Throwable cause = unwrap(exception);
+            throw new CompletionException(cause instanceof KmsException
+                ? translateKmsException(operation, (KmsException) cause) : cause);
+        });
+    }
+
+    // A call that fails before returning its future is handled like a failed request
+    private static <T> CompletableFuture<T> invokeAsync(
+        final Supplier<CompletableFuture<T>> serviceCall) {
+        try {
+            return serviceCall.get();
+        } catch (final RuntimeException e) {
+            final CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static Throwable unwrap(final Throwable exception) {
+        return exception instanceof CompletionException && exception.getCause() != null
+            ? exception.getCause() : exception;
+    }
+
+    static RuntimeException translateKmsException(final String operation, final KmsException e) {
+        if (e instanceof AlreadyExistsException) {
+            return new CfnAlreadyExistsException(ResourceModel.TYPE_NAME, e.getMessage());
+        } else if (e instanceof InvalidAliasNameException || e instanceof KmsInvalidStateException
+            || e instanceof InvalidArnException) {
+            return new CfnInvalidRequestException(e);
+        } else if (e instanceof LimitExceededException) {
+            return new CfnServiceLimitExceededException(ResourceModel.TYPE_NAME, e.getMessage());
+        } else if (e instanceof InvalidMarkerException) {
+            // We should never make a call with an invalid marker, if we did, there is an issue
+            return new CfnInternalFailureException(e);
+        } else if (e instanceof KmsInternalException || e instanceof DependencyTimeoutException) {
+            return new CfnServiceInternalErrorException(e);
+        } else if (e instanceof NotFoundException) {
+            return new CfnNotFoundException(e);
         }
+
+        final String errorCode = e.awsErrorDetails() == null ? null
+            : e.awsErrorDetails().errorCode();
+        if (ACCESS_DENIED_ERROR_CODE.equals(errorCode)) {
+            return new CfnAccessDeniedException(operation, e);
+        } else if (VALIDATION_ERROR_CODE.equals(errorCode)) {
+            return new CfnInvalidRequestException(e);
+        } else if (THROTTLING_ERROR_CODE.equals(errorCode)) {
+            return new CfnThrottlingException(operation, e);
+        }
+
+        return new CfnGeneralServiceException(operation, e);
     }
 }
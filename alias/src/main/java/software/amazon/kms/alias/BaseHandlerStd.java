@@ -3,6 +3,7 @@ package software.amazon.kms.alias;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
@@ -10,6 +11,13 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
     protected static final int CALLBACK_DELAY_SECONDS = 60;
 
+    static {
+        // The handler wrapper creates the handlers during the init phase, before it reads its
+        // first request
+        ModelSerialization.registerWithWrapper();
+        Priming.primeContainer();
+    }
+
     final AliasHelper aliasHelper;
 
     public BaseHandlerStd() {
@@ -31,7 +39,7 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
             proxy,
             request,
             callbackContext != null ? callbackContext : new CallbackContext(),
-            proxy.newProxy(ClientBuilder::getClient),
+            proxy.newProxy(() -> ClientBuilder.getClient(request.getRegion())),
             logger);
     }
 
@@ -42,6 +50,42 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         ProxyClient<KmsClient> proxyClient,
         Logger logger);
 
+    /**
+     * Identifies the caller of a request by what stays the same across its invocations, as the
+     * credentials are issued anew for each of them. The role of the caller is not part of the
+     * request, so the requests of a stack are told apart by the stack, and other requests only
+     * by the account and region.
+     *
+     * @return the scope of the caller, null if the account of the request is unknown
+     */
+    protected static String callerPrincipal(final ResourceHandlerRequest<ResourceModel> request) {
+        if (request.getAwsAccountId() == null) {
+            return null;
+        }
+
+        return request.getStackId() != null ? request.getStackId()
+            : String.format("%s:%s", request.getAwsAccountId(), request.getRegion());
+    }
+
+    /**
+     * Completes a dry run with the calls the handler would make, in the message and the
+     * callback context.
+     */
+    protected static ProgressEvent<ResourceModel, CallbackContext> explained(
+        final ExplainPlan explainPlan,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final Logger logger) {
+        logger.log(String.format("Dry run for alias %s: %s", model.getAliasName(), explainPlan));
+        callbackContext.setExplainPlan(explainPlan);
+        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+            .status(OperationStatus.SUCCESS)
+            .resourceModel(model)
+            .callbackContext(callbackContext)
+            .message(explainPlan.describe())
+            .build();
+    }
+
     /**
      * Perform the final propagation delay to make sure the latest
      * changes to the alias are available throughout the region.
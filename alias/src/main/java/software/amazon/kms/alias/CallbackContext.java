@@ -1,11 +1,16 @@
 package software.amazon.kms.alias;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import software.amazon.cloudformation.proxy.StdCallbackContext;
 
 @lombok.Getter
 @lombok.Setter
 @lombok.ToString
 @lombok.EqualsAndHashCode(callSuper = true)
+@JsonSerialize(using = ModelSerialization.CallbackContextSerializer.class)
 public class CallbackContext extends StdCallbackContext {
     protected boolean propagated;
+    // Set by the test entrypoint payload, to explain the calls instead of making them
+    protected boolean dryRun;
+    protected ExplainPlan explainPlan;
 }
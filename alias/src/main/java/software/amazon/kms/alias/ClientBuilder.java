@@ -1,10 +1,135 @@
 package software.amazon.kms.alias;
 
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.regions.providers.DefaultAwsRegionProviderChain;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
 import software.amazon.awssdk.services.kms.KmsClient;
-import software.amazon.cloudformation.LambdaWrapper;
 
 public class ClientBuilder {
+    private static final ClientConfiguration CONFIGURATION = ClientConfiguration.fromEnvironment();
+    private static final EndpointConfiguration ENDPOINTS = EndpointConfiguration.fromEnvironment();
+
+    private static SdkHttpClient httpClient;
+    private static SdkAsyncHttpClient asyncHttpClient;
+    private static KmsClientPool<KmsClient> clientPool;
+    private static KmsClientPool<KmsAsyncClient> asyncClientPool;
+    private static Region defaultRegion;
+
+    /**
+     * Gets the KMS client of the region the handler function runs in. The client is shared by
+     * every invocation in the container, which is safe since the proxy provides the caller
+     * credentials with every request.
+     */
     public static KmsClient getClient() {
-        return KmsClient.builder().httpClient(LambdaWrapper.HTTP_CLIENT).build();
+        return getClient(null);
+    }
+
+    /**
+     * Gets the KMS client of a region, from the clients kept for the lifetime of the container.
+     *
+     * @param region the region of the request, or null for the region the handler function
+     *               runs in
+     */
+    public static KmsClient getClient(final String region) {
+        return getClientPool().getClient(region != null ? Region.of(region) : getDefaultRegion());
+    }
+
+    /**
+     * Gets the asynchronous KMS client of a region, for callers that run several KMS calls at
+     * once. Its HTTP client is only started on first use. No handler calls it, so the Netty
+     * client it needs is left out of the handler jar, and must be added back to the shade
+     * plugin before a handler does.
+     *
+     * @param region the region of the request, or null for the region the handler function
+     *               runs in
+     */
+    public static KmsAsyncClient getAsyncClient(final String region) {
+        return getAsyncClientPool()
+            .getClient(region != null ? Region.of(region) : getDefaultRegion());
+    }
+
+    /**
+     * Gets the HTTP client of the KMS clients, as configured by the handler environment.
+     */
+    public static synchronized SdkHttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = CONFIGURATION.buildHttpClient();
+        }
+
+        return httpClient;
+    }
+
+    private static synchronized SdkAsyncHttpClient getAsyncHttpClient() {
+        if (asyncHttpClient == null) {
+            asyncHttpClient = CONFIGURATION.buildAsyncHttpClient();
+        }
+
+        return asyncHttpClient;
+    }
+
+    private static synchronized KmsClientPool<KmsClient> getClientPool() {
+        if (clientPool == null) {
+            clientPool = new KmsClientPool<>(region ->
+                buildClient(CONFIGURATION, ENDPOINTS, getHttpClient(), region));
+        }
+
+        return clientPool;
+    }
+
+    private static synchronized KmsClientPool<KmsAsyncClient> getAsyncClientPool() {
+        if (asyncClientPool == null) {
+            asyncClientPool = new KmsClientPool<>(region ->
+                buildAsyncClient(CONFIGURATION, ENDPOINTS, getAsyncHttpClient(), region));
+        }
+
+        return asyncClientPool;
+    }
+
+    private static synchronized Region getDefaultRegion() {
+        if (defaultRegion == null) {
+            defaultRegion = new DefaultAwsRegionProviderChain().getRegion();
+        }
+
+        return defaultRegion;
+    }
+
+    static KmsClient buildClient(final ClientConfiguration configuration,
+                                 final EndpointConfiguration endpoints,
+                                 final SdkHttpClient httpClient,
+                                 final Region region) {
+        return configure(KmsClient.builder().httpClient(httpClient), configuration, endpoints,
+            region, configuration.getHttpClientType()).build();
+    }
+
+    static KmsAsyncClient buildAsyncClient(final ClientConfiguration configuration,
+                                           final EndpointConfiguration endpoints,
+                                           final SdkAsyncHttpClient asyncHttpClient,
+                                           final Region region) {
+        return configure(KmsAsyncClient.builder().httpClient(asyncHttpClient), configuration,
+            endpoints, region, null).build();
+    }
+
+    private static <BuilderT extends AwsClientBuilder<BuilderT, ?>> BuilderT configure(
+        final BuilderT builder,
+        final ClientConfiguration configuration,
+        final EndpointConfiguration endpoints,
+        final Region region,
+        final ClientConfiguration.HttpClientType httpClientType) {
+        builder.region(region);
+        endpoints.endpointFor(region).ifPresent(builder::endpointOverride);
+        // Only the Apache client reports its pool, the type of the asynchronous clients is null
+        if (configuration.isPoolMetrics()
+            && httpClientType == ClientConfiguration.HttpClientType.APACHE) {
+            builder.overrideConfiguration(override ->
+                override.addMetricPublisher(HttpPoolMetrics.getInstance()));
+        } else if (configuration.isPoolMetrics()) {
+            HttpPoolMetrics.getInstance().warnUnpooled(
+                httpClientType != null ? httpClientType.name() : "Netty");
+        }
+
+        return builder;
     }
 }
@@ -0,0 +1,156 @@
+package software.amazon.kms.alias;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.cloudformation.LambdaWrapper;
+
+/**
+ * Settings of the HTTP client used by the KMS client, read from the environment variables of
+ * the handler function. Settings that are not configured keep the SDK defaults, and when
+ * nothing is configured, the KMS client shares the HTTP client of the handler wrapper.
+ * Misconfigured values are ignored.
+ */
+@lombok.Value
+@lombok.Builder
+public class ClientConfiguration {
+    static final String HTTP_CLIENT = "KMS_HTTP_CLIENT";
+    static final String MAX_CONNECTIONS = "KMS_MAX_CONNECTIONS";
+    static final String CONNECTION_TIMEOUT = "KMS_CONNECTION_TIMEOUT_MS";
+    static final String CONNECTION_ACQUISITION_TIMEOUT = "KMS_CONNECTION_ACQUISITION_TIMEOUT_MS";
+    static final String SOCKET_TIMEOUT = "KMS_SOCKET_TIMEOUT_MS";
+    static final String CONNECTION_TIME_TO_LIVE = "KMS_CONNECTION_TTL_MS";
+    static final String CONNECTION_MAX_IDLE_TIME = "KMS_CONNECTION_MAX_IDLE_MS";
+    static final String POOL_METRICS = "KMS_POOL_METRICS";
+
+    /**
+     * The HTTP client implementations the handlers can use.
+     */
+    public enum HttpClientType {
+        // Pooled Apache client, shared with the handler wrapper unless it is tuned
+        APACHE,
+        // Lighter client built on HttpURLConnection, with faster start up but no pool settings
+        URL_CONNECTION
+    }
+
+    @lombok.Builder.Default
+    HttpClientType httpClientType = HttpClientType.APACHE;
+    Integer maxConnections;
+    Duration connectionTimeout;
+    Duration connectionAcquisitionTimeout;
+    Duration socketTimeout;
+    Duration connectionTimeToLive;
+    Duration connectionMaxIdleTime;
+    // Publishes the connection pool metrics of every KMS call, see HttpPoolMetrics
+    boolean poolMetrics;
+
+    /**
+     * Reads the client configuration from the environment variables of the handler function.
+     */
+    public static ClientConfiguration fromEnvironment() {
+        return fromMap(System.getenv());
+    }
+
+    static ClientConfiguration fromMap(final Map<String, String> environment) {
+        return ClientConfiguration.builder()
+            .httpClientType(parseHttpClientType(environment.get(HTTP_CLIENT)))
+            .maxConnections(parsePositive(environment.get(MAX_CONNECTIONS)))
+            .connectionTimeout(parseMillis(environment.get(CONNECTION_TIMEOUT)))
+            .connectionAcquisitionTimeout(
+                parseMillis(environment.get(CONNECTION_ACQUISITION_TIMEOUT)))
+            .socketTimeout(parseMillis(environment.get(SOCKET_TIMEOUT)))
+            .connectionTimeToLive(parseMillis(environment.get(CONNECTION_TIME_TO_LIVE)))
+            .connectionMaxIdleTime(parseMillis(environment.get(CONNECTION_MAX_IDLE_TIME)))
+            .poolMetrics(Boolean.parseBoolean(environment.get(POOL_METRICS)))
+            .build();
+    }
+
+    /**
+     * Builds the HTTP client for the configuration.
+     *
+     * @return the HTTP client of the handler wrapper if the configuration has no settings,
+     *     a new HTTP client otherwise
+     */
+    public SdkHttpClient buildHttpClient() {
+        if (httpClientType == HttpClientType.URL_CONNECTION) {
+            final UrlConnectionHttpClient.Builder builder = UrlConnectionHttpClient.builder();
+            setIfPresent(connectionTimeout, builder::connectionTimeout);
+            setIfPresent(socketTimeout, builder::socketTimeout);
+            return builder.build();
+        }
+
+        if (maxConnections == null && connectionTimeout == null
+            && connectionAcquisitionTimeout == null && socketTimeout == null
+            && connectionTimeToLive == null && connectionMaxIdleTime == null) {
+            return LambdaWrapper.HTTP_CLIENT;
+        }
+
+        final ApacheHttpClient.Builder builder = ApacheHttpClient.builder();
+        setIfPresent(maxConnections, builder::maxConnections);
+        setIfPresent(connectionTimeout, builder::connectionTimeout);
+        setIfPresent(connectionAcquisitionTimeout, builder::connectionAcquisitionTimeout);
+        setIfPresent(socketTimeout, builder::socketTimeout);
+        setIfPresent(connectionTimeToLive, builder::connectionTimeToLive);
+        setIfPresent(connectionMaxIdleTime, builder::connectionMaxIdleTime);
+        return builder.build();
+    }
+
+    /**
+     * Builds the asynchronous HTTP client for the configuration. The client type does not
+     * apply, asynchronous calls always use the Netty client.
+     */
+    public SdkAsyncHttpClient buildAsyncHttpClient() {
+        final NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder();
+        setIfPresent(maxConnections, builder::maxConcurrency);
+        setIfPresent(connectionTimeout, builder::connectionTimeout);
+        setIfPresent(connectionAcquisitionTimeout, builder::connectionAcquisitionTimeout);
+        setIfPresent(socketTimeout, builder::readTimeout);
+        setIfPresent(socketTimeout, builder::writeTimeout);
+        setIfPresent(connectionTimeToLive, builder::connectionTimeToLive);
+        setIfPresent(connectionMaxIdleTime, builder::connectionMaxIdleTime);
+        return builder.build();
+    }
+
+    private static <T> void setIfPresent(final T value, final Consumer<T> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    private static HttpClientType parseHttpClientType(final String httpClientType) {
+        if (httpClientType == null) {
+            return HttpClientType.APACHE;
+        }
+
+        try {
+            return HttpClientType.valueOf(httpClientType.trim().toUpperCase(Locale.ROOT)
+                .replace('-', '_'));
+        } catch (final IllegalArgumentException e) {
+            return HttpClientType.APACHE;
+        }
+    }
+
+    private static Integer parsePositive(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            final int parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : null;
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Duration parseMillis(final String value) {
+        final Integer millis = parsePositive(value);
+        return millis == null ? null : Duration.ofMillis(millis);
+    }
+}
@@ -5,12 +5,21 @@ import org.json.JSONTokener;
 
 class Configuration extends BaseConfiguration {
 
+    private static final String SCHEMA_FILENAME = "aws-kms-alias.json";
+
     public Configuration() {
-        super("aws-kms-alias.json");
+        super(SCHEMA_FILENAME);
     }
 
+    // The schema cannot change for the lifetime of the container, so it is only parsed once.
+    // The schema is shared, and must not be modified.
+    @Override
     public JSONObject resourceSchemaJSONObject() {
-        return new JSONObject(
-            new JSONTokener(this.getClass().getClassLoader().getResourceAsStream(schemaFilename)));
+        return SchemaHolder.RESOURCE_SCHEMA;
+    }
+
+    private static final class SchemaHolder {
+        private static final JSONObject RESOURCE_SCHEMA = new JSONObject(new JSONTokener(
+            Configuration.class.getClassLoader().getResourceAsStream(SCHEMA_FILENAME)));
     }
 }
@@ -1,5 +1,6 @@
 package software.amazon.kms.alias;
 
+import java.util.Collections;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
@@ -26,6 +27,9 @@ public class CreateHandler extends BaseHandlerStd {
         final ResourceModel model = request.getDesiredResourceState();
 
         return ProgressEvent.progress(model, callbackContext)
+            .then(progress -> callbackContext.isDryRun()
+                ? explained(explainCreate(callbackContext), model, callbackContext, logger)
+                : progress)
             .then(
                 progress -> proxy.initiate("kms::create-alias", proxyClient, model, callbackContext)
                     .translateToServiceRequest(Translator::createAliasRequest)
@@ -41,4 +45,14 @@ public class CreateHandler extends BaseHandlerStd {
             .then(BaseHandlerStd::propagate)
             .then(progress -> ProgressEvent.defaultSuccessHandler(model));
     }
+
+    // The calls above, as a dry run explains them
+    private static ExplainPlan explainCreate(final CallbackContext callbackContext) {
+        final ExplainPlan explainPlan = new ExplainPlan()
+            .addStage(Collections.singletonList(AliasHelper.CREATE_ALIAS), 1);
+        if (!callbackContext.isPropagated()) {
+            explainPlan.addWait(CALLBACK_DELAY_SECONDS);
+        }
+        return explainPlan;
+    }
 }
@@ -0,0 +1,111 @@
+package software.amazon.kms.alias;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+import software.amazon.cloudformation.proxy.Logger;
+
+/**
+ * Keeps track of the connection pool of the HTTP client, from the metrics the SDK reports for
+ * every KMS call, and logs the state of the pool after each call to the Lambda log. The pool
+ * metrics are only reported by the Apache HTTP client, so the publisher is only added to the
+ * clients that use it, see {@link #warnUnpooled(String)}.
+ */
+public class HttpPoolMetrics implements MetricPublisher {
+    // Clients are also built during the init phase, before any request logger
+    private static final HttpPoolMetrics INSTANCE = new HttpPoolMetrics(
+        com.amazonaws.services.lambda.runtime.LambdaRuntime.getLogger()::log);
+
+    private final Logger logger;
+    private long calls;
+    private int maxLeased;
+    private int maxPending;
+    private long serviceCallMillis;
+    private long maxServiceCallMillis;
+
+    HttpPoolMetrics(final Logger logger) {
+        this.logger = logger;
+    }
+
+    public static HttpPoolMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void publish(final MetricCollection metrics) {
+        final String operation = first(metrics, CoreMetric.OPERATION_NAME).orElse("Unknown");
+        final int leased = first(metrics, HttpMetric.LEASED_CONCURRENCY).orElse(0);
+        final int pending = first(metrics, HttpMetric.PENDING_CONCURRENCY_ACQUIRES).orElse(0);
+        final int available = first(metrics, HttpMetric.AVAILABLE_CONCURRENCY).orElse(0);
+        final int max = first(metrics, HttpMetric.MAX_CONCURRENCY).orElse(0);
+        final long serviceCall = first(metrics, CoreMetric.SERVICE_CALL_DURATION)
+            .map(Duration::toMillis).orElse(0L);
+
+        synchronized (this) {
+            calls++;
+            maxLeased = Math.max(maxLeased, leased);
+            maxPending = Math.max(maxPending, pending);
+            serviceCallMillis += serviceCall;
+            maxServiceCallMillis = Math.max(maxServiceCallMillis, serviceCall);
+        }
+
+        logger.log(String.format("KMS %s: %d leased, %d pending, %d available of %d "
+            + "connections, service call %d ms", operation, leased, pending, available, max,
+            serviceCall));
+    }
+
+    /**
+     * Logs that the pool metrics of a client are not published, as its HTTP client does not
+     * report them, instead of publishing zeros.
+     *
+     * @param httpClient the name of the HTTP client of the KMS client
+     */
+    public void warnUnpooled(final String httpClient) {
+        logger.log(String.format("KMS pool metrics are not published for the %s HTTP client, "
+            + "which does not report its connection pool", httpClient));
+    }
+
+    /**
+     * Gets the pool statistics since the container started.
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(calls, maxLeased, maxPending,
+            calls == 0 ? 0 : serviceCallMillis / calls, maxServiceCallMillis);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release, the metrics are only logged
+    }
+
+    // The pool metrics are reported by the HTTP client in a child collection of the call
+    private static <T> Optional<T> first(final MetricCollection metrics,
+                                         final SdkMetric<T> metric) {
+        final List<T> values = metrics.metricValues(metric);
+        if (!values.isEmpty()) {
+            return Optional.of(values.get(0));
+        }
+
+        return metrics.children().stream()
+            .flatMap(child -> first(child, metric).map(Stream::of).orElseGet(Stream::empty))
+            .findFirst();
+    }
+
+    /**
+     * Connection pool statistics.
+     */
+    @lombok.Value
+    public static class Snapshot {
+        long calls;
+        int maxLeased;
+        int maxPending;
+        long averageServiceCallMillis;
+        long maxServiceCallMillis;
+    }
+}
@@ -0,0 +1,128 @@
+package software.amazon.kms.alias;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * Keeps one KMS client per region for the lifetime of the container, so that requests for
+ * other regions (e.g. from multi-region stack sets) reuse a warm client instead of building a
+ * new one. Clients are built lazily, once per region, and are safe to share across threads.
+ *
+ * <p>The pool only grows when a client is built for a new region, so that is when it evicts
+ * the clients that were not used within the idle timeout, and then the least recently used
+ * clients while it holds more than the maximum number of clients. The client of the region
+ * being requested is never evicted.
+ *
+ * <p>A request may still be using an evicted client, so evicted clients are retired rather
+ * than closed: the next region gets a new client, and a retired client is only closed by a
+ * later eviction once it has not been used for the idle timeout, which is longer than any
+ * invocation of the handler can hold it.
+ *
+ * @param <ClientT> the KMS client type, synchronous or asynchronous
+ */
+public class KmsClientPool<ClientT extends SdkClient> {
+    static final int DEFAULT_MAX_CLIENTS = 8;
+    static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofHours(1);
+
+    private final ConcurrentMap<Region, PooledClient<ClientT>> clients = new ConcurrentHashMap<>();
+    // Evicted clients that were used too recently to be closed, guarded by the pool
+    private final List<PooledClient<ClientT>> retiredClients = new ArrayList<>();
+    private final Function<Region, ClientT> clientFactory;
+    private final int maxClients;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    public KmsClientPool(final Function<Region, ClientT> clientFactory) {
+        this(clientFactory, DEFAULT_MAX_CLIENTS, DEFAULT_IDLE_TIMEOUT, System::nanoTime);
+    }
+
+    KmsClientPool(final Function<Region, ClientT> clientFactory, final int maxClients,
+                  final Duration idleTimeout, final LongSupplier nanoClock) {
+        this.clientFactory = clientFactory;
+        this.maxClients = Math.max(1, maxClients);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Gets the client of a region, building it on first use.
+     *
+     * @param region the region the client calls KMS in
+     * @return the client shared by every caller of the region
+     */
+    public ClientT getClient(final Region region) {
+        final long now = nanoClock.getAsLong();
+        PooledClient<ClientT> pooled = clients.get(region);
+        if (pooled == null) {
+            // Concurrent callers of a new region wait for a single client to be built
+            pooled = clients.computeIfAbsent(region,
+                key -> new PooledClient<>(clientFactory.apply(key), now));
+            evict(region, now);
+        }
+
+        pooled.lastUsedNanos = now;
+        return pooled.client;
+    }
+
+    int size() {
+        return clients.size();
+    }
+
+    synchronized int retiredSize() {
+        return retiredClients.size();
+    }
+
+    private synchronized void evict(final Region requested, final long now) {
+        // Clients retired by an earlier eviction, as a client retired by this one may have been
+        // handed out just before
+        retiredClients.removeIf(retired -> {
+            if (now - retired.lastUsedNanos < idleTimeoutNanos) {
+                return false;
+            }
+            retired.client.close();
+            return true;
+        });
+
+        clients.forEach((region, pooled) -> {
+            if (!region.equals(requested) && now - pooled.lastUsedNanos >= idleTimeoutNanos) {
+                remove(region, pooled);
+            }
+        });
+
+        final int excess = clients.size() - maxClients;
+        if (excess > 0) {
+            clients.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(requested))
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastUsedNanos))
+                .limit(excess)
+                .collect(Collectors.toList())
+                .forEach(entry -> remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    // The HTTP clients are shared with the other clients, closing the KMS client leaves them open
+    private void remove(final Region region, final PooledClient<ClientT> pooled) {
+        if (clients.remove(region, pooled)) {
+            retiredClients.add(pooled);
+        }
+    }
+
+    private static final class PooledClient<ClientT extends SdkClient> {
+        private final ClientT client;
+        private volatile long lastUsedNanos;
+
+        private PooledClient(final ClientT client, final long lastUsedNanos) {
+            this.client = client;
+            this.lastUsedNanos = lastUsedNanos;
+        }
+    }
+}
@@ -10,12 +10,31 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class ListHandler extends BaseHandlerStd {
+    // The most aliases ListAliases returns in a page
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final Paging paging;
+    private final PagePrefetcher pagePrefetcher;
+
+    /**
+     * Builds the handler run by the handler wrapper, with the paging of the environment and the
+     * caches shared by the container.
+     */
     public ListHandler() {
         super();
+        this.paging = Paging.fromEnvironment();
+        this.pagePrefetcher = PagePrefetcher.getInstance();
     }
 
     public ListHandler(final AliasHelper aliasHelper) {
+        this(aliasHelper, Paging.builder().build(), PagePrefetcher.getInstance());
+    }
+
+    ListHandler(final AliasHelper aliasHelper, final Paging paging,
+                final PagePrefetcher pagePrefetcher) {
         super(aliasHelper);
+        this.paging = paging;
+        this.pagePrefetcher = pagePrefetcher;
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -26,17 +45,29 @@ public class ListHandler extends BaseHandlerStd {
         final Logger logger) {
 
         final ResourceModel model = request.getDesiredResourceState();
+        // The credentials are new for each invocation, pages are served by their marker
+        final String caller = callerPrincipal(request);
 
         return proxy.initiate("kms::list-aliases", proxyClient, model, callbackContext)
-            .translateToServiceRequest(
-                m -> Translator.listAliasesRequest(m, request.getNextToken()))
-            .makeServiceCall(aliasHelper::listAliases)
-            .done(listAliasesResponse -> ProgressEvent.<ResourceModel, CallbackContext>builder()
-                .resourceModels(listAliasesResponse.aliases().stream()
-                    .map(Translator::translateToResourceModel)
-                    .collect(Collectors.toList()))
-                .status(OperationStatus.SUCCESS)
-                .nextToken(listAliasesResponse.nextMarker())
-                .build());
+            .translateToServiceRequest(m -> Translator.listAliasesRequest(m,
+                request.getNextToken(), paging.limit(MAX_PAGE_SIZE)))
+            .makeServiceCall((listAliasesRequest, client) -> pagePrefetcher.fetch(caller,
+                listAliasesRequest, pageRequest -> aliasHelper.listAliases(pageRequest, client)))
+            .done(listAliasesResponse -> {
+                if (paging.isPrefetch() && listAliasesResponse.nextMarker() != null) {
+                    // The next page is asked for while this one is converted and searched
+                    pagePrefetcher.prefetch(caller, Translator.listAliasesRequest(model,
+                        listAliasesResponse.nextMarker(), paging.limit(MAX_PAGE_SIZE)),
+                        pageRequest -> aliasHelper.listAliases(pageRequest, proxyClient));
+                }
+
+                return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                    .resourceModels(listAliasesResponse.aliases().stream()
+                        .map(Translator::translateToResourceModel)
+                        .collect(Collectors.toList()))
+                    .status(OperationStatus.SUCCESS)
+                    .nextToken(listAliasesResponse.nextMarker())
+                    .build();
+            });
     }
 }
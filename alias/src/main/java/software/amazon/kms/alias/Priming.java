@@ -0,0 +1,189 @@
+package software.amazon.kms.alias;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.function.Function;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Primes a fresh container during the init phase, so that its first request does not pay for
+ * loading the request handling classes and for connecting to KMS. Priming builds the shared
+ * KMS client, runs the model translation and exception paths with synthetic data, and opens a
+ * connection to the configured KMS endpoint, which the shared HTTP client keeps alive.
+ *
+ * <p>Priming only runs in Lambda, unless it is disabled with HANDLER_PRIMING=false, and never
+ * fails the init phase: a failed step is logged to the Lambda log, with its stack trace, and
+ * left to the first request. It is also a CRaC resource, so that it runs again before a snapshot of
+ * the container is taken, and reconnects after the snapshot is restored.
+ */
+public final class Priming implements Resource {
+    static final String ENVIRONMENT_VARIABLE = "HANDLER_PRIMING";
+
+    // Priming runs before any request, so it logs through the logger of the init phase
+    private static final Priming INSTANCE = new Priming(System.getenv(),
+        ClientBuilder.getHttpClient(),
+        com.amazonaws.services.lambda.runtime.LambdaRuntime.getLogger()::log);
+
+    private final Map<String, String> environment;
+    private final SdkHttpClient httpClient;
+    private final Logger logger;
+    private boolean primed;
+
+    Priming(final Map<String, String> environment, final SdkHttpClient httpClient,
+            final Logger logger) {
+        this.environment = environment;
+        this.httpClient = httpClient;
+        this.logger = logger;
+    }
+
+    /**
+     * Primes the container once, if it runs in Lambda.
+     */
+    public static void primeContainer() {
+        INSTANCE.primeOnce();
+    }
+
+    synchronized void primeOnce() {
+        if (primed || !isEnabled()) {
+            return;
+        }
+
+        primed = true;
+        Core.getGlobalContext().register(this);
+        primeHandlers();
+        primeConnection();
+    }
+
+    boolean isEnabled() {
+        return environment.containsKey("AWS_LAMBDA_FUNCTION_NAME")
+            && !"false".equalsIgnoreCase(environment.get(ENVIRONMENT_VARIABLE));
+    }
+
+    @Override
+    public void beforeCheckpoint(final Context<? extends Resource> context) {
+        primeHandlers();
+    }
+
+    @Override
+    public void afterRestore(final Context<? extends Resource> context) {
+        // Connections opened before the snapshot are stale once it is restored
+        primeConnection();
+    }
+
+    void primeHandlers() {
+        prime("the KMS client", ClientBuilder::getClient);
+        prime("the request handling", Priming::primeRequestHandling);
+    }
+
+    private static void primeRequestHandling() {
+        final ResourceModel model = ResourceModel.builder()
+            .aliasName("alias/priming")
+            .targetKeyId("priming")
+            .build();
+        Translator.createAliasRequest(model);
+        Translator.updateAliasRequest(model);
+        Translator.deleteAliasRequest(model);
+
+        try {
+            new AliasHelper().listAliases(Translator.listAliasesRequest(model, null),
+                new NotFoundProxyClient());
+        } catch (final CfnNotFoundException e) {
+            // Expected, the synthetic client fails every call
+        }
+    }
+
+    void primeConnection() {
+        final String region = environment.get("AWS_REGION");
+        if (region != null) {
+            prime("the KMS connection", () -> connect(region));
+        }
+    }
+
+    private void connect(final String region) {
+        final URI endpoint = new EndpointConfiguration(environment)
+            .endpointFor(Region.of(region))
+            .orElseGet(() -> URI.create("https://"
+                + KmsClient.serviceMetadata().endpointFor(Region.of(region))));
+        final SdkHttpFullRequest request = SdkHttpFullRequest.builder()
+            .method(SdkHttpMethod.GET)
+            .uri(endpoint)
+            .build();
+        try {
+            // Only the connection matters, the response is an error without a signed request
+            final HttpExecuteResponse response = httpClient.prepareRequest(
+                HttpExecuteRequest.builder().request(request).build()).call();
+            if (response.responseBody().isPresent()) {
+                try (InputStream body = response.responseBody().get()) {
+                    drain(body);
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Reading the body to the end releases the connection to the pool of the client
+    private static void drain(final InputStream body) throws IOException {
+        final byte[] buffer = new byte[1024];
+        while (body.read(buffer) != -1) {
+            // Discarded
+        }
+    }
+
+    // Priming is best effort, a failed step is logged and left to the first request
+    private void prime(final String step, final Runnable priming) {
+        try {
+            priming.run();
+        } catch (final RuntimeException e) {
+            final StringWriter stackTrace = new StringWriter();
+            e.printStackTrace(new PrintWriter(stackTrace));
+            logger.log(String.format("Priming %s failed: %s", step, stackTrace));
+        }
+    }
+
+    private static final class NotFoundProxyClient implements ProxyClient<KmsClient> {
+        private final KmsClient client = new KmsClient() {
+            @Override
+            public String serviceName() {
+                return KmsClient.SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+                // Nothing to release
+            }
+        };
+
+        @Override
+        public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT
+            injectCredentialsAndInvokeV2(final RequestT request,
+                                         final Function<RequestT, ResponseT> requestFunction) {
+            throw NotFoundException.builder().message("Priming").build();
+        }
+
+        @Override
+        public KmsClient client() {
+            return client;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package software.amazon.kms.alias;
 
-import com.amazonaws.util.StringUtils;
 import java.util.Optional;
 import java.util.function.Predicate;
 import software.amazon.awssdk.services.kms.KmsClient;
@@ -14,12 +13,28 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 
 public class ReadHandler extends BaseHandlerStd {
+    private final Paging paging;
+    private final PagePrefetcher pagePrefetcher;
+
+    /**
+     * Builds the handler run by the handler wrapper, with the paging of the environment and the
+     * caches shared by the container.
+     */
     public ReadHandler() {
         super();
+        this.paging = Paging.fromEnvironment();
+        this.pagePrefetcher = PagePrefetcher.getInstance();
     }
 
     public ReadHandler(final AliasHelper aliasHelper) {
+        this(aliasHelper, Paging.builder().build(), PagePrefetcher.getInstance());
+    }
+
+    ReadHandler(final AliasHelper aliasHelper, final Paging paging,
+                final PagePrefetcher pagePrefetcher) {
         super(aliasHelper);
+        this.paging = paging;
+        this.pagePrefetcher = pagePrefetcher;
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -37,7 +52,7 @@ public class ReadHandler extends BaseHandlerStd {
         do {
             request.setNextToken(marker);
             final ProgressEvent<ResourceModel, CallbackContext> listModelsResponse =
-                new ListHandler(this.aliasHelper)
+                new ListHandler(this.aliasHelper, paging, pagePrefetcher)
                     .handleRequest(proxy, request, callbackContext, proxyClient, logger);
 
             final Optional<ResourceModel> targetResourceModel =
@@ -47,7 +62,7 @@ public class ReadHandler extends BaseHandlerStd {
                 return ProgressEvent.defaultSuccessHandler(targetResourceModel.get());
             }
             marker = listModelsResponse.getNextToken();
-        } while (!StringUtils.isNullOrEmpty(marker));
+        } while (!Utils.isNullOrEmpty(marker));
 
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
             .status(OperationStatus.FAILED)
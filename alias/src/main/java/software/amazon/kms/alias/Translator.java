@@ -1,5 +1,6 @@
 package software.amazon.kms.alias;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import software.amazon.awssdk.services.kms.model.AliasListEntry;
 import software.amazon.awssdk.services.kms.model.CreateAliasRequest;
 import software.amazon.awssdk.services.kms.model.DeleteAliasRequest;
@@ -8,6 +9,9 @@ import software.amazon.awssdk.services.kms.model.UpdateAliasRequest;
 
 
 public class Translator {
+    public static final ObjectMapper MAPPER =
+        new ObjectMapper().registerModule(ModelSerialization.MODULE);
+
     private Translator() {
         // Prevent instantiation
     }
@@ -27,9 +31,16 @@ public class Translator {
 
     static ListAliasesRequest listAliasesRequest(final ResourceModel resourceModel,
                                                  final String nextToken) {
+        return listAliasesRequest(resourceModel, nextToken, null);
+    }
+
+    static ListAliasesRequest listAliasesRequest(final ResourceModel resourceModel,
+                                                 final String nextToken,
+                                                 final Integer limit) {
         return ListAliasesRequest.builder()
             .keyId(resourceModel.getTargetKeyId())
-            .marker(nextToken).build();
+            .marker(nextToken)
+            .limit(limit).build();
     }
 
     static ResourceModel translateToResourceModel(final AliasListEntry aliasListEntry) {
@@ -1,5 +1,6 @@
 package software.amazon.kms.alias;
 
+import java.util.Collections;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
@@ -26,6 +27,9 @@ public class UpdateHandler extends BaseHandlerStd {
         final ResourceModel model = request.getDesiredResourceState();
 
         return ProgressEvent.progress(model, callbackContext)
+            .then(progress -> callbackContext.isDryRun()
+                ? explained(explainUpdate(callbackContext), model, callbackContext, logger)
+                : progress)
             .then(
                 progress -> proxy.initiate("kms::update-alias", proxyClient, model, callbackContext)
                     .translateToServiceRequest(Translator::updateAliasRequest)
@@ -41,4 +45,14 @@ public class UpdateHandler extends BaseHandlerStd {
             .then(BaseHandlerStd::propagate)
             .then(progress -> ProgressEvent.defaultSuccessHandler(model));
     }
+
+    // The calls above, as a dry run explains them
+    private static ExplainPlan explainUpdate(final CallbackContext callbackContext) {
+        final ExplainPlan explainPlan = new ExplainPlan()
+            .addStage(Collections.singletonList(AliasHelper.UPDATE_ALIAS), 1);
+        if (!callbackContext.isPropagated()) {
+            explainPlan.addWait(CALLBACK_DELAY_SECONDS);
+        }
+        return explainPlan;
+    }
 }
@@ -0,0 +1,15 @@
+package software.amazon.kms.alias;
+
+/**
+ * Small helpers used on the handler path, so that the handlers do not need to load the
+ * utility classes of larger libraries.
+ */
+public final class Utils {
+    private Utils() {
+        // Prevent instantiation
+    }
+
+    public static boolean isNullOrEmpty(final String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -1,13 +1,18 @@
 package software.amazon.kms.alias;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.awscore.AwsRequest;
 import software.amazon.awssdk.awscore.AwsResponse;
 import software.amazon.awssdk.core.ResponseBytes;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Credentials;
@@ -77,4 +82,44 @@ public class AbstractTestBase {
             }
         };
     }
+
+    static ProxyClient<KmsAsyncClient> MOCK_ASYNC_PROXY(
+        final AmazonWebServicesClientProxy proxy,
+        final KmsAsyncClient kmsAsyncClient
+    ) {
+        return new ProxyClient<KmsAsyncClient>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse>
+            ResponseT
+            injectCredentialsAndInvokeV2(RequestT request,
+                                         Function<RequestT, ResponseT> requestFunction) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse>
+            CompletableFuture<ResponseT>
+            injectCredentialsAndInvokeV2Async(RequestT request,
+                                              Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+                return proxy.injectCredentialsAndInvokeV2Async(request, requestFunction);
+            }
+
+            @Override
+            public KmsAsyncClient client() {
+                return kmsAsyncClient;
+            }
+        };
+    }
+
+    // The KMS operations of the helper calls made since the last time, after which the calls
+    // are cleared
+    static List<String> operationsCalled(final Object helper) {
+        final List<String> operations = new ArrayList<>();
+        for (final Invocation invocation : Mockito.mockingDetails(helper).getInvocations()) {
+            final String method = invocation.getMethod().getName();
+            operations.add(Character.toUpperCase(method.charAt(0)) + method.substring(1));
+        }
+        Mockito.clearInvocations(helper);
+        return operations;
+    }
 }
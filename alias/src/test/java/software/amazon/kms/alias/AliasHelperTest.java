@@ -1,7 +1,9 @@
 package software.amazon.kms.alias;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doReturn;
@@ -11,6 +13,9 @@ import static software.amazon.kms.alias.AliasHelper.THROTTLING_ERROR_CODE;
 import static software.amazon.kms.alias.AliasHelper.VALIDATION_ERROR_CODE;
 
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,9 +23,13 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.AlreadyExistsException;
 import software.amazon.awssdk.services.kms.model.CreateAliasRequest;
@@ -58,16 +67,21 @@ public class AliasHelperTest extends AbstractTestBase {
     @Mock
     private KmsClient kms;
 
+    @Mock
+    private KmsAsyncClient kmsAsync;
+
     @Mock
     private AmazonWebServicesClientProxy proxy;
 
     private AliasHelper aliasHelper;
     private ProxyClient<KmsClient> proxyKmsClient;
+    private ProxyClient<KmsAsyncClient> proxyKmsAsyncClient;
 
     @BeforeEach
     public void setup() {
         aliasHelper = new AliasHelper();
         proxyKmsClient = MOCK_PROXY(proxy, kms);
+        proxyKmsAsyncClient = MOCK_ASYNC_PROXY(proxy, kmsAsync);
     }
 
     @Test
@@ -221,6 +235,68 @@ public class AliasHelperTest extends AbstractTestBase {
         assertAllRequestsThrow(CfnGeneralServiceException.class);
     }
 
+    @Test
+    public void testAsyncRequests() {
+        assertAsyncRequest(CreateAliasRequest.builder().build(),
+            CreateAliasResponse.builder().build(), aliasHelper::createAliasAsync);
+        assertAsyncRequest(DeleteAliasRequest.builder().build(),
+            DeleteAliasResponse.builder().build(), aliasHelper::deleteAliasAsync);
+        assertAsyncRequest(ListAliasesRequest.builder().build(),
+            ListAliasesResponse.builder().build(), aliasHelper::listAliasesAsync);
+        assertAsyncRequest(UpdateAliasRequest.builder().build(),
+            UpdateAliasResponse.builder().build(), aliasHelper::updateAliasAsync);
+    }
+
+    @Test
+    public void testAsyncNotFound() {
+        doReturn(failedFuture(NotFoundException.builder().build())).when(proxy)
+            .injectCredentialsAndInvokeV2Async(any(), any());
+
+        assertAllAsyncRequestsFail(CfnNotFoundException.class);
+    }
+
+    @Test
+    public void testAsyncAccessDenied() {
+        final AwsServiceException accessDeniedException = KmsException.builder().awsErrorDetails(
+            AwsErrorDetails.builder()
+                .errorCode(ACCESS_DENIED_ERROR_CODE)
+                .build())
+            .build();
+        doReturn(failedFuture(new CompletionException(accessDeniedException))).when(proxy)
+            .injectCredentialsAndInvokeV2Async(any(), any());
+
+        assertAllAsyncRequestsFail(CfnAccessDeniedException.class);
+    }
+
+    @Test
+    public void testAsyncThrottling() {
+        // Failures before the future is returned complete the future as well
+        doThrow(KmsException.builder().awsErrorDetails(AwsErrorDetails.builder()
+            .errorCode(THROTTLING_ERROR_CODE)
+            .build()).build()).when(proxy).injectCredentialsAndInvokeV2Async(any(), any());
+
+        assertAllAsyncRequestsFail(CfnThrottlingException.class);
+    }
+
+    @Test
+    public void testAsyncClientErrors() {
+        // Errors that do not come from KMS are passed through as is
+        final SdkClientException clientException =
+            SdkClientException.builder().message("Unable to execute HTTP request").build();
+        doReturn(failedFuture(clientException)).when(proxy)
+            .injectCredentialsAndInvokeV2Async(any(), any());
+
+        assertAllAsyncRequestsFail(SdkClientException.class);
+
+        final CompletionException completionException = new CompletionException("Failed", null);
+        doReturn(failedFuture(completionException)).when(proxy)
+            .injectCredentialsAndInvokeV2Async(any(), any());
+
+        final CompletionException e = assertThrows(CompletionException.class, () -> aliasHelper
+            .listAliasesAsync(ListAliasesRequest.builder().build(), proxyKmsAsyncClient).join());
+        assertSame(completionException, e.getCause());
+    }
+
     private void assertAllRequestsThrow(final Class<? extends Throwable> cfnException) {
         final CreateAliasRequest createAliasRequest = CreateAliasRequest.builder().build();
         assertThrows(cfnException,
@@ -238,4 +314,40 @@ public class AliasHelperTest extends AbstractTestBase {
         assertThrows(cfnException,
             () -> aliasHelper.updateAlias(updateAliasRequest, proxyKmsClient));
     }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> void assertAsyncRequest(
+        final RequestT request,
+        final ResponseT response,
+        final BiFunction<RequestT, ProxyClient<KmsAsyncClient>, CompletableFuture<ResponseT>> call) {
+        doReturn(CompletableFuture.completedFuture(response)).when(proxy)
+            .injectCredentialsAndInvokeV2Async(same(request), any());
+
+        assertEquals(response, call.apply(request, proxyKmsAsyncClient).join());
+    }
+
+    private void assertAllAsyncRequestsFail(final Class<? extends Throwable> cfnException) {
+        assertAsyncFailure(cfnException, aliasHelper.createAliasAsync(
+            CreateAliasRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, aliasHelper.deleteAliasAsync(
+            DeleteAliasRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, aliasHelper.listAliasesAsync(
+            ListAliasesRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, aliasHelper.updateAliasAsync(
+            UpdateAliasRequest.builder().build(), proxyKmsAsyncClient));
+    }
+
+    private static void assertAsyncFailure(final Class<? extends Throwable> expected,
+                                           final CompletableFuture<?> future) {
+        final CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertTrue(expected.isInstance(e.getCause()), () -> "Unexpected " + e.getCause());
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(final Throwable exception) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        return future;
+    }
 }
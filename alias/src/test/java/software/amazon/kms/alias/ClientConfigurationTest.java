@@ -0,0 +1,109 @@
+package software.amazon.kms.alias;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.cloudformation.LambdaWrapper;
+
+public class ClientConfigurationTest {
+    @Test
+    public void testFromMap() {
+        final ClientConfiguration configuration = ClientConfiguration.fromMap(
+            ImmutableMap.<String, String>builder()
+                .put(ClientConfiguration.HTTP_CLIENT, "url-connection")
+                .put(ClientConfiguration.MAX_CONNECTIONS, "100")
+                .put(ClientConfiguration.CONNECTION_TIMEOUT, "1000")
+                .put(ClientConfiguration.CONNECTION_ACQUISITION_TIMEOUT, "2000")
+                .put(ClientConfiguration.SOCKET_TIMEOUT, "3000")
+                .put(ClientConfiguration.CONNECTION_TIME_TO_LIVE, "4000")
+                .put(ClientConfiguration.CONNECTION_MAX_IDLE_TIME, "5000")
+                .put(ClientConfiguration.POOL_METRICS, "true")
+                .build());
+
+        assertThat(configuration).isEqualTo(ClientConfiguration.builder()
+            .httpClientType(ClientConfiguration.HttpClientType.URL_CONNECTION)
+            .maxConnections(100)
+            .connectionTimeout(Duration.ofSeconds(1))
+            .connectionAcquisitionTimeout(Duration.ofSeconds(2))
+            .socketTimeout(Duration.ofSeconds(3))
+            .connectionTimeToLive(Duration.ofSeconds(4))
+            .connectionMaxIdleTime(Duration.ofSeconds(5))
+            .poolMetrics(true)
+            .build());
+    }
+
+    @Test
+    public void testFromMap_Defaults() {
+        assertThat(ClientConfiguration.fromMap(Collections.emptyMap()))
+            .isEqualTo(ClientConfiguration.builder().build());
+    }
+
+    @Test
+    public void testFromMap_InvalidValues() {
+        final ClientConfiguration configuration = ClientConfiguration.fromMap(ImmutableMap.of(
+            ClientConfiguration.HTTP_CLIENT, "netty",
+            ClientConfiguration.MAX_CONNECTIONS, "-1",
+            ClientConfiguration.SOCKET_TIMEOUT, "soon",
+            ClientConfiguration.POOL_METRICS, "yes"));
+
+        assertThat(configuration).isEqualTo(ClientConfiguration.builder().build());
+    }
+
+    @Test
+    public void testBuildHttpClient_Default() {
+        assertThat(ClientConfiguration.builder().build().buildHttpClient())
+            .isSameAs(LambdaWrapper.HTTP_CLIENT);
+    }
+
+    @Test
+    public void testBuildHttpClient_Apache() {
+        try (SdkHttpClient httpClient = ClientConfiguration.builder()
+            .maxConnections(100)
+            .connectionTimeout(Duration.ofSeconds(1))
+            .connectionAcquisitionTimeout(Duration.ofSeconds(2))
+            .socketTimeout(Duration.ofSeconds(3))
+            .connectionTimeToLive(Duration.ofSeconds(4))
+            .connectionMaxIdleTime(Duration.ofSeconds(5))
+            .build()
+            .buildHttpClient()) {
+            assertThat(httpClient).isInstanceOf(ApacheHttpClient.class)
+                .isNotSameAs(LambdaWrapper.HTTP_CLIENT);
+        }
+    }
+
+    @Test
+    public void testBuildHttpClient_UrlConnection() {
+        try (SdkHttpClient httpClient = ClientConfiguration.builder()
+            .httpClientType(ClientConfiguration.HttpClientType.URL_CONNECTION)
+            .connectionTimeout(Duration.ofSeconds(1))
+            .socketTimeout(Duration.ofSeconds(3))
+            .build()
+            .buildHttpClient()) {
+            assertThat(httpClient).isInstanceOf(UrlConnectionHttpClient.class);
+        }
+    }
+
+    @Test
+    public void testBuildAsyncHttpClient() {
+        try (SdkAsyncHttpClient asyncHttpClient = ClientConfiguration.builder()
+            .httpClientType(ClientConfiguration.HttpClientType.URL_CONNECTION)
+            .maxConnections(100)
+            .connectionTimeout(Duration.ofSeconds(1))
+            .connectionAcquisitionTimeout(Duration.ofSeconds(2))
+            .socketTimeout(Duration.ofSeconds(3))
+            .connectionTimeToLive(Duration.ofSeconds(4))
+            .connectionMaxIdleTime(Duration.ofSeconds(5))
+            .build()
+            .buildAsyncHttpClient()) {
+            assertThat(asyncHttpClient).isInstanceOf(NettyNioAsyncHttpClient.class);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package software.amazon.kms.alias;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationTest {
+
+    @Test
+    public void testResourceSchemaIsParsedOnce() {
+        final JSONObject resourceSchema = new Configuration().resourceSchemaJSONObject();
+
+        assertEquals(ResourceModel.TYPE_NAME, resourceSchema.getString("typeName"));
+        assertSame(resourceSchema, new Configuration().resourceSchemaJSONObject());
+    }
+
+}
@@ -0,0 +1,43 @@
+package software.amazon.kms.alias;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+public class ExplainPlanTest {
+    @Test
+    public void testAddStage() {
+        final ExplainPlan explainPlan = new ExplainPlan()
+            .addStage(Collections.singletonList(AliasHelper.UPDATE_ALIAS), 1)
+            .addWait(60);
+
+        assertThat(explainPlan.getStages()).containsExactly(
+            new ExplainPlan.Stage(Collections.singletonList(AliasHelper.UPDATE_ALIAS), 1, 60));
+        assertThat(explainPlan.getCalls()).isEqualTo(1);
+        assertThat(explainPlan.getMutatingCalls()).isEqualTo(1);
+        assertThat(explainPlan.getWaits()).isEqualTo(1);
+        assertThat(explainPlan.getEstimatedMillis())
+            .isEqualTo(ExplainPlan.ESTIMATED_CALL_MILLIS + 60_000);
+        assertThat(explainPlan.describe()).isEqualTo("Dry run: 1 KMS calls, 1 of them mutating, "
+            + "in 1 stages, with 1 callback waits, about 61 seconds");
+    }
+
+    @Test
+    public void testAddWait_NoStages() {
+        final ExplainPlan explainPlan = new ExplainPlan().addWait(60).addWait(60);
+
+        assertThat(explainPlan.getStages())
+            .containsExactly(new ExplainPlan.Stage(Collections.emptyList(), 0, 120));
+        assertThat(explainPlan.getCalls()).isZero();
+        assertThat(explainPlan.getWaits()).isEqualTo(2);
+    }
+
+    @Test
+    public void testIsMutating() {
+        assertThat(ExplainPlan.isMutating("ListAliases")).isFalse();
+        assertThat(ExplainPlan.isMutating("DescribeKey")).isFalse();
+        assertThat(ExplainPlan.isMutating(AliasHelper.CREATE_ALIAS)).isTrue();
+        assertThat(ExplainPlan.isMutating(AliasHelper.UPDATE_ALIAS)).isTrue();
+    }
+}
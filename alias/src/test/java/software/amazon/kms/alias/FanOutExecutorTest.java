@@ -0,0 +1,279 @@
+package software.amazon.kms.alias;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
+
+public class FanOutExecutorTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private FanOutExecutor fanOutExecutor;
+
+    @BeforeEach
+    public void setup() {
+        fanOutExecutor = new FanOutExecutor(FanOutExecutor.Backend.PLATFORM, 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fanOutExecutor.shutdown();
+    }
+
+    @Test
+    public void testGetInstance() {
+        assertThat(FanOutExecutor.getInstance()).isSameAs(FanOutExecutor.getInstance());
+    }
+
+    @Test
+    public void testFromMap() {
+        final FanOutExecutor platform = FanOutExecutor.fromMap(Collections.singletonMap(
+            FanOutExecutor.BACKEND, "platform"));
+        assertThat(platform.getBackend()).isEqualTo(FanOutExecutor.Backend.PLATFORM);
+        assertThat(platform.getMaxConcurrency()).isEqualTo(FanOutExecutor.platformThreads())
+            .isBetween(FanOutExecutor.MIN_PLATFORM_THREADS, FanOutExecutor.MAX_PLATFORM_THREADS);
+        platform.shutdown();
+
+        final FanOutExecutor bounded = FanOutExecutor.fromMap(Collections.singletonMap(
+            FanOutExecutor.MAX_CONCURRENCY, "3"));
+        assertThat(bounded.getMaxConcurrency()).isEqualTo(3);
+        bounded.shutdown();
+    }
+
+    @Test
+    public void testFromMap_VirtualThreads() {
+        final FanOutExecutor virtual = FanOutExecutor.fromMap(Collections.singletonMap(
+            FanOutExecutor.BACKEND, "invalid"));
+        if (virtualThreadsSupported()) {
+            assertThat(virtual.getBackend()).isEqualTo(FanOutExecutor.Backend.VIRTUAL);
+            assertThat(virtual.getMaxConcurrency())
+                .isEqualTo(FanOutExecutor.DEFAULT_VIRTUAL_CONCURRENCY);
+        } else {
+            // Falls back to platform threads on runtimes without virtual threads
+            assertThat(virtual.getBackend()).isEqualTo(FanOutExecutor.Backend.PLATFORM);
+            assertThat(virtual.getMaxConcurrency()).isEqualTo(FanOutExecutor.platformThreads());
+        }
+
+        assertThat(virtual.invokeAll(Arrays.asList(() -> 1, () -> 2), TIMEOUT))
+            .containsExactly(1, 2);
+        virtual.shutdown();
+    }
+
+    @Test
+    public void testInvokeAll() {
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final int task = i;
+            tasks.add(() -> {
+                // Completes the tasks out of order
+                Thread.sleep((20 - task) % 5);
+                return task;
+            });
+        }
+
+        final List<Integer> results = fanOutExecutor.invokeAll(tasks, TIMEOUT);
+
+        assertThat(results).hasSize(20).isSorted();
+        final FanOutExecutor.Snapshot snapshot = fanOutExecutor.snapshot();
+        assertThat(snapshot.getTasks()).isEqualTo(20);
+        assertThat(snapshot.getFailures()).isZero();
+        assertThat(snapshot.getMaxActive()).isBetween(1, 4);
+    }
+
+    @Test
+    public void testInvokeAll_Empty() {
+        assertThat(fanOutExecutor.invokeAll(Collections.<Callable<Object>>emptyList(), TIMEOUT))
+            .isEmpty();
+    }
+
+    @Test
+    public void testInvokeAll_BoundedConcurrency() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            tasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                return running.decrementAndGet();
+            });
+        }
+
+        fanOutExecutor.invokeAll(tasks, TIMEOUT);
+
+        assertThat(maxRunning.get()).isBetween(1, 4);
+    }
+
+    @Test
+    public void testInvokeAll_FailureCancelsRunningTasks() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final List<Callable<String>> tasks = Arrays.asList(
+            () -> {
+                try {
+                    started.countDown();
+                    Thread.sleep(TIMEOUT.toMillis());
+                    return "completed";
+                } catch (final InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            },
+            () -> {
+                // Fails once the other task is running, rather than before it starts
+                started.await();
+                throw new CfnNotFoundException(ResourceModel.TYPE_NAME, "mock-alias");
+            });
+
+        // The failure of the task is thrown as is, without waiting for the other task
+        assertThrows(CfnNotFoundException.class, () -> fanOutExecutor.invokeAll(tasks, TIMEOUT));
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void testInvokeAll_CheckedException() {
+        final List<Callable<String>> tasks = Collections.singletonList(() -> {
+            throw new IOException("Connection reset");
+        });
+
+        final CfnInternalFailureException e = assertThrows(CfnInternalFailureException.class,
+            () -> fanOutExecutor.invokeAll(tasks, TIMEOUT));
+        assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testInvokeAll_Timeout() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final List<Callable<String>> tasks = Arrays.asList(() -> {
+            started.await();
+            return "fast";
+        }, () -> {
+            try {
+                started.countDown();
+                Thread.sleep(TIMEOUT.toMillis());
+                return "slow";
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        });
+
+        assertThrows(CfnServiceInternalErrorException.class,
+            () -> fanOutExecutor.invokeAll(tasks, Duration.ofMillis(50)));
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fanOutExecutor.snapshot().getTimeouts()).isEqualTo(1);
+    }
+
+    @Test
+    public void testInvokeAll_Interrupted() {
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CfnInternalFailureException.class, () -> fanOutExecutor.invokeAll(
+                Collections.singletonList(() -> "task"), TIMEOUT));
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testInvokeAll_Nested() {
+        assertThat(FanOutExecutor.remainingTime()).isEmpty();
+
+        // Four tasks holding every thread of the pool fan out again without deadlocking
+        final List<Callable<List<Duration>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(() -> {
+                final Duration remaining = FanOutExecutor.remainingTime().get();
+                final List<Duration> nested = fanOutExecutor.invokeAll(Arrays.asList(
+                    () -> FanOutExecutor.remainingTime().get(),
+                    () -> FanOutExecutor.remainingTime().get()), TIMEOUT.multipliedBy(2));
+                assertThat(FanOutExecutor.remainingTime()).isPresent();
+                return Arrays.asList(remaining, nested.get(0), nested.get(1));
+            });
+        }
+
+        final List<List<Duration>> results = fanOutExecutor.invokeAll(tasks, TIMEOUT);
+
+        // The nested fan-outs keep the deadline of their parent task
+        results.forEach(remaining -> assertThat(remaining)
+            .allSatisfy(duration -> assertThat(duration).isLessThanOrEqualTo(TIMEOUT)));
+        assertThat(FanOutExecutor.remainingTime()).isEmpty();
+    }
+
+    @Test
+    public void testInvokeAll_NestedTimeout() {
+        final List<Callable<List<String>>> tasks = Collections.singletonList(() ->
+            fanOutExecutor.invokeAll(Arrays.asList(() -> {
+                Thread.sleep(20);
+                return "first";
+            }, () -> "second"), Duration.ofMillis(10)));
+
+        assertThrows(CfnServiceInternalErrorException.class,
+            () -> fanOutExecutor.invokeAll(tasks, TIMEOUT));
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CompletableFuture<String> future = fanOutExecutor.submit(() -> {
+            release.await(5, TimeUnit.SECONDS);
+            assertThat(FanOutExecutor.remainingTime()).isPresent();
+            return "page";
+        }, TIMEOUT);
+
+        // Runs in the background until released
+        assertThat(future).isNotDone();
+        release.countDown();
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("page");
+        assertThat(fanOutExecutor.snapshot().getTasks()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSubmit_Failure() {
+        final CompletableFuture<String> future = fanOutExecutor.submit(() -> {
+            throw new IOException("Connection reset");
+        }, TIMEOUT);
+
+        final ExecutionException e = assertThrows(ExecutionException.class,
+            () -> future.get(5, TimeUnit.SECONDS));
+        assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testSubmit_Nested() {
+        // A task holding a thread of the pool runs what it submits inline
+        final List<Callable<Boolean>> tasks = Collections.singletonList(() ->
+            fanOutExecutor.submit(() -> "page", TIMEOUT).isDone());
+
+        assertThat(fanOutExecutor.invokeAll(tasks, TIMEOUT)).containsExactly(true);
+    }
+
+    private static boolean virtualThreadsSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
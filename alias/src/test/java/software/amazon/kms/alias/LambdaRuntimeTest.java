@@ -0,0 +1,142 @@
+package software.amazon.kms.alias;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LambdaRuntimeTest {
+    private static final String REQUEST_ID = "mock-request-id";
+    private static final String FUNCTION_ARN =
+        "arn:aws:lambda:us-east-1:123456789012:function:mock-function";
+    private static final String EVENT = "{\"action\":\"READ\"}";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, String> posted = new HashMap<>();
+    private final Map<String, String> environment = new HashMap<>();
+    private final AtomicReference<Context> invocationContext = new AtomicReference<>();
+    private HttpServer runtimeApi;
+    private String deadline;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        deadline = String.valueOf(System.currentTimeMillis() + 60_000);
+        environment.put("AWS_LAMBDA_FUNCTION_NAME", "mock-function");
+        environment.put("AWS_LAMBDA_FUNCTION_VERSION", "$LATEST");
+        environment.put("AWS_LAMBDA_FUNCTION_MEMORY_SIZE", "512");
+        environment.put("AWS_LAMBDA_LOG_GROUP_NAME", "mock-log-group");
+        environment.put("AWS_LAMBDA_LOG_STREAM_NAME", "mock-log-stream");
+
+        runtimeApi = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        runtimeApi.createContext("/2018-06-01/runtime/invocation/next", exchange -> {
+            exchange.getResponseHeaders().add("Lambda-Runtime-Aws-Request-Id", REQUEST_ID);
+            exchange.getResponseHeaders().add("Lambda-Runtime-Invoked-Function-Arn",
+                FUNCTION_ARN);
+            if (deadline != null) {
+                exchange.getResponseHeaders().add("Lambda-Runtime-Deadline-Ms", deadline);
+            }
+            respond(exchange, EVENT);
+        });
+        runtimeApi.createContext("/2018-06-01/runtime/invocation/" + REQUEST_ID, exchange -> {
+            posted.put(exchange.getRequestURI().getPath(), read(exchange.getRequestBody()));
+            respond(exchange, "");
+        });
+        runtimeApi.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        runtimeApi.stop(0);
+    }
+
+    @Test
+    public void testProcessNextInvocation() throws IOException {
+        runtime((input, output, context) -> {
+            invocationContext.set(context);
+            context.getLogger().log("Handling " + context.getAwsRequestId());
+            context.getLogger().log("Handled".getBytes(StandardCharsets.UTF_8));
+            output.write(read(input).toUpperCase().getBytes(StandardCharsets.UTF_8));
+        }).processNextInvocation();
+
+        assertThat(posted).containsOnly(entry(
+            "/2018-06-01/runtime/invocation/" + REQUEST_ID + "/response", EVENT.toUpperCase()));
+
+        final Context context = invocationContext.get();
+        assertThat(context.getAwsRequestId()).isEqualTo(REQUEST_ID);
+        assertThat(context.getInvokedFunctionArn()).isEqualTo(FUNCTION_ARN);
+        assertThat(context.getFunctionName()).isEqualTo("mock-function");
+        assertThat(context.getFunctionVersion()).isEqualTo("$LATEST");
+        assertThat(context.getMemoryLimitInMB()).isEqualTo(512);
+        assertThat(context.getLogGroupName()).isEqualTo("mock-log-group");
+        assertThat(context.getLogStreamName()).isEqualTo("mock-log-stream");
+        assertThat(context.getRemainingTimeInMillis()).isPositive();
+        assertThat(context.getIdentity()).isNull();
+        assertThat(context.getClientContext()).isNull();
+    }
+
+    @Test
+    public void testProcessNextInvocation_HandlerFailure() throws IOException {
+        runtime((input, output, context) -> {
+            throw new IllegalStateException("Mock failure");
+        }).processNextInvocation();
+
+        assertThat(posted).containsOnlyKeys(
+            "/2018-06-01/runtime/invocation/" + REQUEST_ID + "/error");
+        assertThat(MAPPER.readTree(posted.values().iterator().next()))
+            .isEqualTo(MAPPER.createObjectNode()
+                .put("errorMessage", "Mock failure")
+                .put("errorType", IllegalStateException.class.getName()));
+    }
+
+    @Test
+    public void testProcessNextInvocation_NoDeadline() throws IOException {
+        deadline = null;
+        environment.remove("AWS_LAMBDA_FUNCTION_MEMORY_SIZE");
+
+        runtime((input, output, context) -> invocationContext.set(context))
+            .processNextInvocation();
+
+        assertThat(invocationContext.get().getRemainingTimeInMillis()).isZero();
+        assertThat(invocationContext.get().getMemoryLimitInMB()).isZero();
+    }
+
+    private LambdaRuntime runtime(final RequestStreamHandler handler) {
+        return new LambdaRuntime("localhost:" + runtimeApi.getAddress().getPort(), handler,
+            environment);
+    }
+
+    private static void respond(final HttpExchange exchange, final String body)
+        throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static String read(final InputStream input) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+            output.write(buffer, 0, read);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -1,10 +1,13 @@
 package software.amazon.kms.alias;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 
@@ -18,8 +21,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.AliasListEntry;
+import software.amazon.awssdk.services.kms.model.ListAliasesRequest;
 import software.amazon.awssdk.services.kms.model.ListAliasesResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
@@ -85,4 +90,64 @@ public class ListHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_PrefetchedPageServedToSameAccount() {
+        final FanOutExecutor fanOutExecutor =
+            new FanOutExecutor(FanOutExecutor.Backend.PLATFORM, 2);
+        final PagePrefetcher pagePrefetcher =
+            new PagePrefetcher(fanOutExecutor, Duration.ofSeconds(30), System::nanoTime);
+        handler = new ListHandler(aliasHelper, Paging.builder().prefetch(true).build(),
+            pagePrefetcher);
+        // The next invocation of the listing runs with new session credentials
+        final AmazonWebServicesClientProxy otherProxy = new AmazonWebServicesClientProxy(logger,
+            new Credentials("otherAccessKey", "otherSecretKey", "otherToken"),
+            () -> Duration.ofSeconds(600).toMillis());
+        final ProxyClient<KmsClient> otherProxyKmsClient = MOCK_PROXY(otherProxy, kms);
+        final ListAliasesRequest secondPage = Translator.listAliasesRequest(model, "marker");
+        when(aliasHelper.listAliases(any(ListAliasesRequest.class), any()))
+            .thenAnswer(invocation -> ((ListAliasesRequest) invocation.getArgument(0))
+                .marker() == null
+                ? ListAliasesResponse.builder()
+                    .aliases(Lists.newArrayList(AliasListEntry.builder()
+                        .aliasName(ALIAS_NAME).targetKeyId(KEY_ID).build()))
+                    .nextMarker("marker")
+                    .build()
+                : ListAliasesResponse.builder().build());
+
+        try {
+            handler.handleRequest(proxy, accountRequest("mock-account-id", null),
+                new CallbackContext(), proxyKmsClient, logger);
+            verify(aliasHelper, timeout(5000)).listAliases(eq(secondPage), eq(proxyKmsClient));
+
+            // Another account asking for the same marker lists the page itself
+            final ProgressEvent<ResourceModel, CallbackContext> otherResponse = handler
+                .handleRequest(otherProxy, accountRequest("other-account-id", "marker"),
+                    new CallbackContext(), otherProxyKmsClient, logger);
+            assertThat(otherResponse.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            assertThat(pagePrefetcher.size()).isEqualTo(1);
+
+            // while the listing of the account is served the prefetched page
+            final ProgressEvent<ResourceModel, CallbackContext> response = handler
+                .handleRequest(otherProxy, accountRequest("mock-account-id", "marker"),
+                    new CallbackContext(), otherProxyKmsClient, logger);
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            assertThat(pagePrefetcher.size()).isZero();
+            verify(aliasHelper).listAliases(eq(Translator.listAliasesRequest(model, null)),
+                eq(proxyKmsClient));
+            verify(aliasHelper).listAliases(eq(secondPage), eq(otherProxyKmsClient));
+        } finally {
+            fanOutExecutor.shutdown();
+        }
+    }
+
+    private ResourceHandlerRequest<ResourceModel> accountRequest(final String awsAccountId,
+                                                                 final String nextToken) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .awsAccountId(awsAccountId)
+            .region("us-east-1")
+            .desiredResourceState(model)
+            .nextToken(nextToken)
+            .build();
+    }
 }
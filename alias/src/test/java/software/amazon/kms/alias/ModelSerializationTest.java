@@ -0,0 +1,186 @@
+package software.amazon.kms.alias;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class ModelSerializationTest extends AbstractTestBase {
+    // Binds the models through reflection, as the serializers replace
+    private static final ObjectMapper BINDING_MAPPER = new ObjectMapper();
+    // Leaves nulls out and skips unknown properties, like the serializer of the handler wrapper
+    private static final ObjectMapper WRAPPER_MAPPER = new ObjectMapper()
+        .registerModule(ModelSerialization.MODULE)
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ResourceModel FULL_MODEL = ResourceModel.builder()
+        .aliasName("alias/mock-alias")
+        .targetKeyId("mock-key-id")
+        .build();
+
+    @Test
+    public void testRegisterWithWrapper() throws IOException {
+        assertThat(ModelSerialization.registerWithWrapper()).isTrue();
+        // A copy looks the serializers up again, instead of reading the cache of the mapper
+        final List<ObjectMapper> mappers = ModelSerialization.wrapperMappers();
+
+        assertThat(mappers).hasSize(2);
+        for (final ObjectMapper mapper : mappers) {
+            assertThat(mapper.copy().getSerializerProviderInstance()
+                .findValueSerializer(ResourceModel.class))
+                .isInstanceOf(ModelSerialization.ResourceModelSerializer.class);
+        }
+    }
+
+    @Test
+    public void testSerializers_WriteEveryField() throws IOException {
+        for (final Class<?> model : Arrays.<Class<?>>asList(ResourceModel.class)) {
+            final Object empty = BINDING_MAPPER.readValue("{}", model);
+
+            assertThat(fieldNames(Translator.MAPPER.valueToTree(empty)))
+                .isEqualTo(Arrays.stream(model.getDeclaredFields())
+                    .filter(field -> field.isAnnotationPresent(JsonProperty.class))
+                    .map(field -> field.getAnnotation(JsonProperty.class).value())
+                    .collect(Collectors.toSet()));
+        }
+        // The call graphs are the state of the base class
+        final Set<String> contextFields = Arrays.stream(CallbackContext.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+            .map(Field::getName)
+            .collect(Collectors.toSet());
+        contextFields.add("callGraphs");
+        assertThat(fieldNames(Translator.MAPPER.valueToTree(new CallbackContext())))
+            .isEqualTo(contextFields);
+    }
+
+    private static Set<String> fieldNames(final JsonNode node) {
+        final Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    static Stream<Path> inputs() throws IOException {
+        return SerializationTest.inputs();
+    }
+
+    @ParameterizedTest
+    @MethodSource("inputs")
+    public void testResourceModel_ReadsInputs(final Path input) throws IOException {
+        final String json = new String(Files.readAllBytes(input), StandardCharsets.UTF_8);
+
+        assertThat(Translator.MAPPER.readValue(json, ResourceModel.class))
+            .isEqualTo(BINDING_MAPPER.readValue(json, ResourceModel.class));
+    }
+
+    @Test
+    public void testResourceModel_WritesAsBinding() throws IOException {
+        for (final ResourceModel model : Arrays.asList(FULL_MODEL, new ResourceModel())) {
+            assertThat(Translator.MAPPER.writeValueAsString(model))
+                .isEqualTo(BINDING_MAPPER.writeValueAsString(model));
+            assertThat(WRAPPER_MAPPER.writeValueAsString(model)).isEqualTo(BINDING_MAPPER.copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .writeValueAsString(model));
+        }
+    }
+
+    @Test
+    public void testResourceModel_RoundTrip() throws IOException {
+        assertThat(Translator.MAPPER.readValue(
+            Translator.MAPPER.writeValueAsString(FULL_MODEL), ResourceModel.class))
+            .isEqualTo(FULL_MODEL);
+        assertThat(WRAPPER_MAPPER.readValue(
+            WRAPPER_MAPPER.writeValueAsString(new ResourceModel()), ResourceModel.class))
+            .isEqualTo(new ResourceModel());
+    }
+
+    @Test
+    public void testResourceModel_CoercesScalars() throws IOException {
+        final String json = "{\"AliasName\":null,\"TargetKeyId\":7}";
+
+        assertThat(Translator.MAPPER.readValue(json, ResourceModel.class))
+            .isEqualTo(BINDING_MAPPER.readValue(json, ResourceModel.class))
+            .isEqualTo(ResourceModel.builder().targetKeyId("7").build());
+    }
+
+    @Test
+    public void testResourceModel_UnknownProperty() throws IOException {
+        final String json = "{\"AliasName\":\"alias/mock-alias\",\"Unknown\":{\"Nested\":[1]}}";
+
+        assertThrows(UnrecognizedPropertyException.class,
+            () -> Translator.MAPPER.readValue(json, ResourceModel.class));
+        assertThat(WRAPPER_MAPPER.readValue(json, ResourceModel.class))
+            .isEqualTo(ResourceModel.builder().aliasName("alias/mock-alias").build());
+    }
+
+    @Test
+    public void testResourceModel_UnexpectedToken() {
+        assertThrows(MismatchedInputException.class,
+            () -> Translator.MAPPER.readValue("[]", ResourceModel.class));
+        assertThrows(MismatchedInputException.class,
+            () -> Translator.MAPPER.readValue("{\"AliasName\":[]}", ResourceModel.class));
+    }
+
+    @Test
+    public void testCallbackContext_Format() throws IOException {
+        final CallbackContext callbackContext = new CallbackContext();
+
+        assertThat(WRAPPER_MAPPER.writeValueAsString(callbackContext))
+            .isEqualTo("{\"callGraphs\":{},\"propagated\":false,\"dryRun\":false}");
+        assertThat(Translator.MAPPER.writeValueAsString(callbackContext)).isEqualTo(
+            "{\"callGraphs\":{},\"propagated\":false,\"dryRun\":false,\"explainPlan\":null}");
+
+        callbackContext.attempts("kms::create-alias", 2);
+        callbackContext.setPropagated(true);
+        callbackContext.setExplainPlan(new ExplainPlan()
+            .addStage(Collections.singletonList(AliasHelper.CREATE_ALIAS), 1)
+            .addWait(60));
+
+        final String json = WRAPPER_MAPPER.writeValueAsString(callbackContext);
+
+        assertThat(json).isEqualTo("{\"callGraphs\":{\"kms::create-alias.attempts\":2},"
+            + "\"propagated\":true,\"dryRun\":false,\"explainPlan\":{\"stages\":[{\"operations\":"
+            + "[\"CreateAlias\"],\"sequentialCalls\":1,\"waitSeconds\":60}],\"calls\":1,"
+            + "\"mutatingCalls\":1,\"waits\":1,\"estimatedMillis\":60050}}");
+        assertThat(WRAPPER_MAPPER.readValue(json, CallbackContext.class))
+            .isEqualTo(callbackContext);
+    }
+
+    @Test
+    public void testExplainPlan_RoundTrip() throws IOException {
+        final ExplainPlan explainPlan = new ExplainPlan()
+            .addStage(Collections.singletonList(AliasHelper.CREATE_ALIAS), 1)
+            .addStage(Collections.singletonList(AliasHelper.UPDATE_ALIAS), 1)
+            .addWait(60);
+
+        assertThat(Translator.MAPPER.readValue(Translator.MAPPER.writeValueAsString(explainPlan),
+            ExplainPlan.class)).isEqualTo(explainPlan);
+        final ExplainPlan partialPlan = new ExplainPlan();
+        partialPlan.getStages().add(new ExplainPlan.Stage(null, 0, 5));
+        partialPlan.setCalls(2);
+        assertThat(WRAPPER_MAPPER.readValue("{\"calls\":2,\"Unknown\":true,"
+            + "\"stages\":[{\"operations\":null,\"waitSeconds\":5,\"Unknown\":[]}]}",
+            ExplainPlan.class)).isEqualTo(partialPlan);
+    }
+}
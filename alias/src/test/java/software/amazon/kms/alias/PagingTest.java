@@ -0,0 +1,44 @@
+package software.amazon.kms.alias;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+public class PagingTest {
+    @Test
+    public void testFromMap() {
+        final Paging paging = Paging.fromMap(ImmutableMap.of(
+            Paging.PAGE_SIZE, " 500 ",
+            Paging.PREFETCH, "true"));
+
+        assertThat(paging).isEqualTo(Paging.builder().pageSize(500).prefetch(true).build());
+    }
+
+    @Test
+    public void testFromMap_Defaults() {
+        assertThat(Paging.fromMap(Collections.emptyMap())).isEqualTo(Paging.builder().build());
+    }
+
+    @Test
+    public void testFromMap_InvalidValues() {
+        assertThat(Paging.fromMap(ImmutableMap.of(Paging.PAGE_SIZE, "0", Paging.PREFETCH, "yes")))
+            .isEqualTo(Paging.builder().build());
+        assertThat(Paging.fromMap(ImmutableMap.of(Paging.PAGE_SIZE, "all")))
+            .isEqualTo(Paging.builder().build());
+    }
+
+    @Test
+    public void testFromEnvironment() {
+        assertThat(Paging.fromEnvironment()).isEqualTo(Paging.fromMap(System.getenv()));
+    }
+
+    @Test
+    public void testLimit() {
+        assertThat(Paging.builder().build().limit(100)).isNull();
+        assertThat(Paging.builder().pageSize(50).build().limit(100)).isEqualTo(50);
+        // Capped by the largest page the service returns
+        assertThat(Paging.builder().pageSize(5000).build().limit(100)).isEqualTo(100);
+    }
+}
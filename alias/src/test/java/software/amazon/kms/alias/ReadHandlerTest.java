@@ -7,6 +7,7 @@ import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 
 import java.time.Duration;
@@ -131,4 +132,46 @@ public class ReadHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
     }
+
+    @Test
+    public void handleRequest_ScanPrefetchesNextPage() {
+        final FanOutExecutor fanOutExecutor =
+            new FanOutExecutor(FanOutExecutor.Backend.PLATFORM, 2);
+        final PagePrefetcher pagePrefetcher =
+            new PagePrefetcher(fanOutExecutor, Duration.ofSeconds(30), System::nanoTime);
+        handler = new ReadHandler(aliasHelper,
+            Paging.builder().pageSize(500).prefetch(true).build(), pagePrefetcher);
+        final ListAliasesRequest firstPage = Translator.listAliasesRequest(model, null, 100);
+        final ListAliasesRequest secondPage =
+            Translator.listAliasesRequest(model, NEXT_MARKER, 100);
+        when(aliasHelper.listAliases(any(ListAliasesRequest.class), eq(proxyKmsClient)))
+            .thenAnswer(invocation -> firstPage.equals(invocation.getArgument(0))
+                ? ListAliasesResponse.builder()
+                    .aliases(Lists.newArrayList(AliasListEntry.builder()
+                        .aliasName(ALIAS_NAME_REQ1)
+                        .targetKeyId(KEY_ID).build()))
+                    .nextMarker(NEXT_MARKER)
+                    .build()
+                : ListAliasesResponse.builder()
+                    .aliases(Lists.newArrayList(AliasListEntry.builder()
+                        .aliasName(ALIAS_NAME_BASE)
+                        .targetKeyId(KEY_ID).build()))
+                    .build());
+
+        try {
+            final ProgressEvent<ResourceModel, CallbackContext> response = handler
+                .handleRequest(proxy, request, new CallbackContext(), proxyKmsClient, logger);
+
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            assertThat(response.getResourceModel()).isEqualTo(model);
+            // The second page was listed in the background while the first one was searched,
+            // with the page size capped at the largest page of ListAliases
+            verify(aliasHelper).listAliases(eq(firstPage), eq(proxyKmsClient));
+            verify(aliasHelper).listAliases(eq(secondPage), eq(proxyKmsClient));
+            assertThat(pagePrefetcher.size()).isZero();
+            assertThat(fanOutExecutor.snapshot().getTasks()).isEqualTo(1);
+        } finally {
+            fanOutExecutor.shutdown();
+        }
+    }
 }
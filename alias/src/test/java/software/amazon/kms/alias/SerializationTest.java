@@ -0,0 +1,129 @@
+package software.amazon.kms.alias;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.cloudformation.Action;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.HandlerRequest;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.RequestData;
+import software.amazon.cloudformation.resource.Serializer;
+
+/**
+ * Pins the wire format of the resource model and the callback context, as read and written
+ * by the serializer of the handler wrapper.
+ */
+public class SerializationTest extends AbstractTestBase {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<HandlerRequest<ResourceModel, CallbackContext>>
+        REQUEST_TYPE = new TypeReference<HandlerRequest<ResourceModel, CallbackContext>>() {
+        };
+
+    private Serializer serializer;
+
+    @BeforeEach
+    public void setup() {
+        serializer = new Serializer();
+    }
+
+    static Stream<Path> inputs() throws IOException {
+        return Files.list(Paths.get("inputs"))
+            .filter(input -> !input.getFileName().toString().contains("invalid"))
+            .sorted();
+    }
+
+    @ParameterizedTest
+    @MethodSource("inputs")
+    public void testResourceModelRoundTrip(final Path input) throws IOException {
+        final String json = new String(Files.readAllBytes(input), StandardCharsets.UTF_8);
+
+        final ResourceModel model =
+            serializer.deserialize(json, new TypeReference<ResourceModel>() {
+            });
+
+        assertThat(MAPPER.readTree(serializer.serialize(model))).isEqualTo(MAPPER.readTree(json));
+    }
+
+    @Test
+    public void testResourceModelFormat() throws IOException {
+        final ResourceModel model = ResourceModel.builder()
+            .aliasName("alias/mock-alias")
+            .targetKeyId("mock-key-id")
+            .build();
+
+        assertThat(MAPPER.readTree(serializer.serialize(model))).isEqualTo(MAPPER.readTree(
+            "{\"AliasName\":\"alias/mock-alias\",\"TargetKeyId\":\"mock-key-id\"}"));
+    }
+
+    @Test
+    public void testCallbackContextRoundTrip() throws IOException {
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.setPropagated(true);
+        callbackContext.setDryRun(true);
+        callbackContext.setExplainPlan(new ExplainPlan()
+            .addStage(Collections.singletonList(AliasHelper.CREATE_ALIAS), 1)
+            .addWait(60));
+
+        final String json = serializer.serialize(callbackContext);
+
+        assertThat(MAPPER.readTree(json).get("propagated").asBoolean()).isTrue();
+        assertThat(serializer.deserialize(json, new TypeReference<CallbackContext>() {
+        })).isEqualTo(callbackContext);
+    }
+
+    @Test
+    public void testHandlerRequestRoundTrip() throws IOException {
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.setPropagated(true);
+        final RequestData<ResourceModel> requestData = new RequestData<>();
+        requestData.setCallerCredentials(MOCK_CREDENTIALS);
+        requestData.setLogicalResourceId("Alias");
+        requestData.setResourceProperties(ResourceModel.builder()
+            .aliasName("alias/mock-alias").targetKeyId("mock-key-id").build());
+        requestData.setPreviousResourceProperties(ResourceModel.builder()
+            .aliasName("alias/mock-alias").targetKeyId("previous-key-id").build());
+        requestData.setStackTags(ImmutableMap.of("Key1", "Value1"));
+        final HandlerRequest<ResourceModel, CallbackContext> request = new HandlerRequest<>();
+        request.setAction(Action.UPDATE);
+        request.setAwsAccountId("123456789012");
+        request.setRegion("us-east-1");
+        request.setResourceType(ResourceModel.TYPE_NAME);
+        request.setRequestData(requestData);
+        request.setCallbackContext(callbackContext);
+
+        final HandlerRequest<ResourceModel, CallbackContext> deserialized =
+            serializer.deserialize(serializer.serialize(request), REQUEST_TYPE);
+
+        assertThat(deserialized).isEqualTo(request);
+    }
+
+    @Test
+    public void testProgressEventFormat() throws IOException {
+        final ProgressEvent<ResourceModel, CallbackContext> progressEvent =
+            ProgressEvent.failed(ResourceModel.builder().aliasName("alias/mock-alias").build(), null,
+                HandlerErrorCode.NotFound, "mock-message");
+
+        final JsonNode json = MAPPER.readTree(serializer.serialize(progressEvent));
+
+        assertThat(json.get("status").asText()).isEqualTo("FAILED");
+        assertThat(json.get("errorCode").asText()).isEqualTo("NotFound");
+        assertThat(json.get("message").asText()).isEqualTo("mock-message");
+        assertThat(json.get("resourceModel"))
+            .isEqualTo(MAPPER.readTree("{\"AliasName\":\"alias/mock-alias\"}"));
+    }
+}
@@ -1,13 +1,17 @@
 package software.amazon.kms.alias;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +19,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.UpdateAliasRequest;
+import software.amazon.awssdk.services.kms.model.UpdateAliasResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -96,4 +102,43 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
+
+    @Test
+    public void handleRequest_DryRunMatchesCalls() {
+        // The response is remembered by the context, so the call is not repeated by the
+        // callback
+        when(aliasHelper.updateAlias(any(UpdateAliasRequest.class), eq(proxyKmsClient)))
+            .thenReturn(UpdateAliasResponse.builder().build());
+
+        final CallbackContext dryRunContext = new CallbackContext();
+        dryRunContext.setDryRun(true);
+        final ProgressEvent<ResourceModel, CallbackContext> dryRun
+            = handler.handleRequest(proxy, request, dryRunContext, proxyKmsClient, logger);
+        final ExplainPlan explainPlan = dryRun.getCallbackContext().getExplainPlan();
+
+        assertThat(dryRun.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(dryRun.getMessage()).isEqualTo(explainPlan.describe());
+        assertThat(operationsCalled(aliasHelper)).isEmpty();
+
+        // Makes the calls, following the callbacks until the alias has propagated
+        CallbackContext callbackContext = new CallbackContext();
+        ProgressEvent<ResourceModel, CallbackContext> response;
+        int waits = 0;
+        do {
+            response = handler.handleRequest(proxy, request, callbackContext, proxyKmsClient,
+                logger);
+            callbackContext = response.getCallbackContext();
+            if (response.getCallbackDelaySeconds() > 0) {
+                waits++;
+            }
+        } while (response.getStatus() == OperationStatus.IN_PROGRESS);
+        final List<String> calls = operationsCalled(aliasHelper);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(calls).isEqualTo(Collections.singletonList(AliasHelper.UPDATE_ALIAS));
+        assertThat(explainPlan.getStages()).flatExtracting(ExplainPlan.Stage::getOperations)
+            .containsExactlyElementsOf(calls);
+        assertThat(explainPlan.getMutatingCalls()).isEqualTo(1);
+        assertThat(explainPlan.getWaits()).isEqualTo(waits);
+    }
 }
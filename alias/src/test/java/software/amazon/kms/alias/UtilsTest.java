@@ -0,0 +1,15 @@
+package software.amazon.kms.alias;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class UtilsTest {
+    @Test
+    public void testIsNullOrEmpty() {
+        assertTrue(Utils.isNullOrEmpty(null));
+        assertTrue(Utils.isNullOrEmpty(""));
+        assertFalse(Utils.isNullOrEmpty(" "));
+    }
+}
@@ -0,0 +1,113 @@
+package software.amazon.kms.key;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers read operations that KMS denied for a caller, so that the Read Handler can skip
+ * calls that are bound to fail again (e.g. drift detection with read-only roles). The cache is
+ * shared by all invocations in a container. Entries expire after a TTL, and are invalidated
+ * as soon as the key is successfully mutated through one of the handlers.
+ */
+public class AccessDeniedCache {
+    static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    static final int MAX_ENTRIES = 10_000;
+
+    private static final AccessDeniedCache INSTANCE = new AccessDeniedCache();
+
+    private final ConcurrentMap<Entry, Long> deniedUntil = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    public AccessDeniedCache() {
+        this(DEFAULT_TTL, System::nanoTime);
+    }
+
+    AccessDeniedCache(final Duration ttl, final LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Gets the cache shared by all handlers in this container.
+     */
+    public static AccessDeniedCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks whether the operation was denied for the caller on the key within the TTL.
+     *
+     * @param principal the scope of the caller the denial applies to, see
+     *                  BaseHandlerStd#callerPrincipal, null if it is unknown
+     * @param keyId     the key the operation targets
+     * @param operation the KMS operation name
+     * @return true if the call should be skipped
+     */
+    public boolean isDenied(final String principal, final String keyId, final String operation) {
+        if (principal == null) {
+            return false;
+        }
+
+        final Entry entry = new Entry(principal, keyId, operation);
+        final Long expiry = deniedUntil.get(entry);
+        if (expiry == null) {
+            return false;
+        }
+
+        if (expiry - nanoClock.getAsLong() <= 0) {
+            deniedUntil.remove(entry, expiry);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Records that the operation was denied for the caller on the key. Nothing is recorded for
+     * a caller whose identity is unknown, as the denial could not be told apart from others'.
+     */
+    public void recordDenied(final String principal, final String keyId, final String operation) {
+        if (principal == null) {
+            return;
+        }
+
+        final long now = nanoClock.getAsLong();
+        if (deniedUntil.size() >= MAX_ENTRIES) {
+            deniedUntil.values().removeIf(expiry -> expiry - now <= 0);
+            if (deniedUntil.size() >= MAX_ENTRIES) {
+                // The cache is an optimization only, start over rather than grow unbounded
+                deniedUntil.clear();
+            }
+        }
+
+        deniedUntil.put(new Entry(principal, keyId, operation), now + ttlNanos);
+    }
+
+    /**
+     * Forgets every denial recorded for the key, for all callers.
+     */
+    public void invalidate(final String keyId) {
+        deniedUntil.keySet().removeIf(entry -> Objects.equals(entry.keyId, keyId));
+    }
+
+    int size() {
+        return deniedUntil.size();
+    }
+
+    @lombok.EqualsAndHashCode
+    private static final class Entry {
+        private final String principal;
+        private final String keyId;
+        private final String operation;
+
+        private Entry(final String principal, final String keyId, final String operation) {
+            this.principal = principal;
+            this.keyId = keyId;
+            this.operation = operation;
+        }
+    }
+}
@@ -1,21 +1,28 @@
 package software.amazon.kms.key;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.CustomerMasterKeySpec;
 import software.amazon.awssdk.services.kms.model.KeyMetadata;
 import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.ListResourceTagsRequest;
+import software.amazon.awssdk.services.kms.model.ListResourceTagsResponse;
 import software.amazon.awssdk.services.kms.model.Tag;
 import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.exceptions.CfnNotUpdatableException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.CallChain;
 import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
@@ -23,15 +30,30 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
     protected static final int CALLBACK_DELAY_SECONDS = 60;
 
+    static {
+        // The handler wrapper creates the handlers during the init phase, before it reads its
+        // first request
+        ModelSerialization.registerWithWrapper();
+        Priming.primeContainer();
+    }
+
     final KeyHelper keyHelper;
+    final AccessDeniedCache accessDeniedCache;
+    // Runs independent KMS calls of a request concurrently
+    final FanOutExecutor fanOutExecutor = FanOutExecutor.getInstance();
 
     public BaseHandlerStd() {
         this(new KeyHelper());
     }
 
     public BaseHandlerStd(final KeyHelper keyHelper) {
-        // Allows for mocking key helper in our unit tests
+        this(keyHelper, AccessDeniedCache.getInstance());
+    }
+
+    BaseHandlerStd(final KeyHelper keyHelper, final AccessDeniedCache accessDeniedCache) {
+        // Allows for mocking key helper and isolating the denied calls cache in our unit tests
         this.keyHelper = keyHelper;
+        this.accessDeniedCache = accessDeniedCache;
     }
 
     @Override
@@ -44,7 +66,7 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
             proxy,
             request,
             callbackContext != null ? callbackContext : new CallbackContext(),
-            proxy.newProxy(ClientBuilder::getClient),
+            proxy.newProxy(() -> ClientBuilder.getClient(request.getRegion())),
             logger);
     }
 
@@ -62,6 +84,25 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         }
     }
 
+    // Attribute only lookup of the key, shared by reads and the pre-checks of other handlers
+    protected ProgressEvent<ResourceModel, CallbackContext> describeKey(
+        final AmazonWebServicesClientProxy proxy,
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final Function<KeyMetadata, ProgressEvent<ResourceModel, CallbackContext>> onDescribed) {
+        return proxy.initiate("kms::describe-key", proxyClient, model, callbackContext)
+            .translateToServiceRequest(Translator::describeKeyRequest)
+            .makeServiceCall(keyHelper::describeKey)
+            .done(describeKeyResponse -> {
+                final KeyMetadata keyMetadata = describeKeyResponse.keyMetadata();
+
+                resourceStateCheck(keyMetadata);
+
+                return onDescribed.apply(keyMetadata);
+            });
+    }
+
     protected ProgressEvent<ResourceModel, CallbackContext> updateKeyRotationStatus(
         final AmazonWebServicesClientProxy proxy,
         final ProxyClient<KmsClient> proxyClient,
@@ -90,14 +131,11 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
     ) {
         if (enabled) {
             callbackContext.setKeyEnabled(true);
+            // The update plan waits for the enabled state to propagate before updating rotation
             return proxy.initiate("kms::enable-key", proxyClient, model, callbackContext)
                 .translateToServiceRequest(Translator::enableKeyRequest)
                 .makeServiceCall(keyHelper::enableKey)
-                // Changing key status from disabled -> enabled might affect rotation update since
-                // it's only allowed on enabled keys. If enabled state hasn't been propagated then
-                // the rotation update might hit invalid state exception. Wait 1 min to make sure
-                // the changes propagate.
-                .progress(CALLBACK_DELAY_SECONDS);
+                .progress();
         }
 
         return proxy.initiate("kms::disable-key", proxyClient, model, callbackContext)
@@ -110,38 +148,92 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         final AmazonWebServicesClientProxy proxy,
         final ProxyClient<KmsClient> proxyClient,
         final ProgressEvent<ResourceModel, CallbackContext> progressEvent,
+        final String principal,
         final boolean softFailOnAccessDenied
     ) {
         final CallbackContext callbackContext = progressEvent.getCallbackContext();
+        if (softFailOnAccessDenied && accessDeniedCache.isDenied(principal,
+            progressEvent.getResourceModel().getKeyId(), KeyHelper.LIST_RESOURCE_TAGS)) {
+            return progressEvent;
+        }
+
         ProgressEvent<ResourceModel, CallbackContext> progress = progressEvent;
         do { // pagination to make sure that all the tags are retrieved
-            final Supplier<ProgressEvent<ResourceModel, CallbackContext>> progressEventSupplier =
-                () -> proxy
-                    .initiate("kms::list-tag-key:" + callbackContext.getMarker(), proxyClient,
-                        progressEvent.getResourceModel(), callbackContext)
-                    .translateToServiceRequest((model) -> Translator
-                        .listResourceTagsRequest(model, callbackContext.getMarker()))
+            final CallChain.Caller<ListResourceTagsRequest, KmsClient, ResourceModel,
+                CallbackContext> listResourceTagsCaller = proxy
+                .initiate("kms::list-tag-key:" + callbackContext.getMarker(), proxyClient,
+                    progressEvent.getResourceModel(), callbackContext)
+                .translateToServiceRequest((model) -> Translator
+                    .listResourceTagsRequest(model, callbackContext.getMarker()));
+
+            if (softFailOnAccessDenied) { // for Read Handler -> soft fail for GetAtt
+                progress = listResourceTagsCaller
+                    .makeServiceCall(keyHelper::tryListResourceTags)
+                    .done((listResourceTagsRequest, listResourceTagsResult, proxyInvocation,
+                            resourceModel, context) -> {
+                        if (listResourceTagsResult.isAccessDenied()) {
+                            // Stop paginating, the remaining pages would be denied as well
+                            context.setMarker(null);
+                        }
+                        return softFailAccessDenied(listResourceTagsResult, principal,
+                            KeyHelper.LIST_RESOURCE_TAGS,
+                            listResourceTagsResponse -> addExistingTags(
+                                listResourceTagsResponse, resourceModel, context),
+                            resourceModel, context);
+                    });
+            } else {
+                progress = listResourceTagsCaller
                     .makeServiceCall(keyHelper::listResourceTags)
-                    .done(
-                        (listResourceTagsRequest, listResourceTagsResponse, proxyInvocation,
-                         resourceModel, context) -> {
-                            final Set<Tag> existingTags =
-                                Optional.ofNullable(context.getExistingTags())
-                                    .orElse(new HashSet<>());
-                            existingTags.addAll(new HashSet<>(listResourceTagsResponse.tags()));
-                            context.setExistingTags(existingTags);
-                            context.setMarker(listResourceTagsResponse.nextMarker());
-                            return ProgressEvent.progress(resourceModel, context);
-                        });
-
-            // for Read Handler -> soft fail for GetAtt
-            progress = softFailOnAccessDenied ?
-                softFailAccessDenied(progressEventSupplier, progress.getResourceModel(),
-                    progress.getCallbackContext()) : progressEventSupplier.get();
+                    .done((listResourceTagsRequest, listResourceTagsResponse, proxyInvocation,
+                            resourceModel, context) ->
+                        addExistingTags(listResourceTagsResponse, resourceModel, context));
+            }
         } while (callbackContext.getMarker() != null);
         return progress;
     }
 
+    private static ProgressEvent<ResourceModel, CallbackContext> addExistingTags(
+        final ListResourceTagsResponse listResourceTagsResponse,
+        final ResourceModel resourceModel,
+        final CallbackContext context) {
+        final Set<Tag> existingTags = Optional.ofNullable(context.getExistingTags())
+            .orElse(new HashSet<>());
+        existingTags.addAll(new HashSet<>(listResourceTagsResponse.tags()));
+        context.setExistingTags(existingTags);
+        context.setMarker(listResourceTagsResponse.nextMarker());
+        return ProgressEvent.progress(resourceModel, context);
+    }
+
+    // Completes a dry run with the explained calls, in the message and the callback context
+    protected static ProgressEvent<ResourceModel, CallbackContext> explained(
+        final ExplainPlan explainPlan,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final Logger logger) {
+        return explained(explainPlan, Collections.emptyList(), model, callbackContext, logger);
+    }
+
+    // Completes a dry run that had to make reads to plan, which the message names, as a dry
+    // run is otherwise expected to make no calls
+    protected static ProgressEvent<ResourceModel, CallbackContext> explained(
+        final ExplainPlan explainPlan,
+        final List<String> dryRunCalls,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final Logger logger) {
+        logger.log(String.format("Dry run for key %s: %s", model.getKeyId(), explainPlan));
+        callbackContext.setExplainPlan(explainPlan);
+        final String message = dryRunCalls.isEmpty() ? explainPlan.describe()
+            : String.format("%s. To plan, the dry run called %s", explainPlan.describe(),
+            String.join(", ", dryRunCalls));
+        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+            .status(OperationStatus.SUCCESS)
+            .resourceModel(ModelAdapter.unsetWriteOnly(model))
+            .callbackContext(callbackContext)
+            .message(message)
+            .build();
+    }
+
     // final propagation before stack event is considered completed
     protected static ProgressEvent<ResourceModel, CallbackContext> propagate(
         final ProgressEvent<ResourceModel, CallbackContext> progressEvent
@@ -168,12 +260,48 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         }
     }
 
+    // Soft fail variant for results that carry access denied as a value (Read Handler only).
+    // Denials are remembered so that the call can be skipped for a while.
+    protected <T> ProgressEvent<ResourceModel, CallbackContext> softFailAccessDenied(
+        final KmsResult<T> result,
+        final String principal,
+        final String operation,
+        final Function<T, ProgressEvent<ResourceModel, CallbackContext>> onSuccess,
+        final ResourceModel model,
+        final CallbackContext callbackContext) {
+        if (result.isAccessDenied()) {
+            accessDeniedCache.recordDenied(principal, model.getKeyId(), operation);
+            return ProgressEvent.progress(model, callbackContext);
+        }
+
+        return onSuccess.apply(result.getOrThrow());
+    }
+
+    /**
+     * Identifies the caller of a request by what stays the same across its invocations, as the
+     * credentials are issued anew for each of them. The role of the caller is not part of the
+     * request, so the requests of a stack, which run as the role of the stack, are told apart
+     * by the stack, and other requests only by the account and region.
+     *
+     * @return the scope of the caller, null if the account of the request is unknown
+     */
+    protected static String callerPrincipal(final ResourceHandlerRequest<ResourceModel> request) {
+        if (request.getAwsAccountId() == null) {
+            return null;
+        }
+
+        return request.getStackId() != null ? request.getStackId()
+            : String.format("%s:%s", request.getAwsAccountId(), request.getRegion());
+    }
+
     /**
      * A helper method for validating that the requested resource model transition is possible.
+     * Updates are validated against the current state of the key, which is its actual state
+     * when reconciling, and the previous model otherwise.
      */
     protected static ProgressEvent<ResourceModel, CallbackContext> validateResourceModel(
         final ProgressEvent<ResourceModel, CallbackContext> progress,
-        final ResourceModel previousModel,
+        final ResourceModel currentModel,
         final ResourceModel model) {
         // If the key is asymmetric, we cannot enable key rotation
         if (!Objects
@@ -184,18 +312,19 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         }
 
         // Update specific validation
-        if (previousModel != null) {
+        if (currentModel != null) {
             // If the key is disabled, and will continue to be, we cannot modify the
             // EnableKeyRotation property
-            if (!previousModel.getEnabled() && !model.getEnabled()
-                && previousModel.getEnableKeyRotation() != model.getEnableKeyRotation()) {
+            if (!currentModel.getEnabled() && !model.getEnabled()
+                && !Objects.equals(currentModel.getEnableKeyRotation(),
+                model.getEnableKeyRotation())) {
                 throw new CfnInvalidRequestException("You cannot change the EnableKeyRotation "
                     + "property while the Enabled property is false.");
             }
 
             // If the key usage or spec changes, we need to trigger re-creation
-            if (!Objects.equals(previousModel.getKeyUsage(), model.getKeyUsage())
-                || !Objects.equals(previousModel.getKeySpec(), model.getKeySpec())) {
+            if (!Objects.equals(currentModel.getKeyUsage(), model.getKeyUsage())
+                || !Objects.equals(currentModel.getKeySpec(), model.getKeySpec())) {
                 throw new CfnNotUpdatableException(ResourceModel.TYPE_NAME,
                     Objects.toString(model.getKeyId()));
             }
@@ -1,5 +1,7 @@
 package software.amazon.kms.key;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import java.util.Set;
 import software.amazon.awssdk.services.kms.model.Tag;
 import software.amazon.cloudformation.proxy.StdCallbackContext;
@@ -8,10 +10,16 @@ import software.amazon.cloudformation.proxy.StdCallbackContext;
 @lombok.Setter
 @lombok.ToString
 @lombok.EqualsAndHashCode(callSuper = true)
+@JsonSerialize(using = ModelSerialization.CallbackContextSerializer.class)
 public class CallbackContext extends StdCallbackContext {
     protected boolean keyEnabled;
     protected boolean propagated;
     protected boolean keyPolicyUpdated;
     protected String marker;
+    @JsonDeserialize(contentUsing = ModelSerialization.SdkTagDeserializer.class)
     protected Set<Tag> existingTags;
+    protected Set<KeyUpdatePlan.Mutation> completedMutations;
+    // Set by the test entrypoint payload, to explain the calls instead of making them
+    protected boolean dryRun;
+    protected ExplainPlan explainPlan;
 }
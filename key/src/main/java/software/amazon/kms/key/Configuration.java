@@ -1,6 +1,5 @@
 package software.amazon.kms.key;
 
-import com.amazonaws.util.CollectionUtils;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.json.JSONObject;
@@ -8,17 +7,21 @@ import org.json.JSONTokener;
 
 class Configuration extends BaseConfiguration {
 
+    private static final String SCHEMA_FILENAME = "aws-kms-key.json";
+
     public Configuration() {
-        super("aws-kms-key.json");
+        super(SCHEMA_FILENAME);
     }
 
-    public JSONObject resourceSchemaJsonObject() {
-        return new JSONObject(
-            new JSONTokener(this.getClass().getClassLoader().getResourceAsStream(schemaFilename)));
+    // The schema cannot change for the lifetime of the container, so it is only parsed once.
+    // The schema is shared, and must not be modified.
+    @Override
+    public JSONObject resourceSchemaJSONObject() {
+        return SchemaHolder.RESOURCE_SCHEMA;
     }
 
     public Map<String, String> resourceDefinedTags(final ResourceModel resourceModel) {
-        if (CollectionUtils.isNullOrEmpty(resourceModel.getTags())) {
+        if (Utils.isNullOrEmpty(resourceModel.getTags())) {
             return null;
         }
 
@@ -26,4 +29,9 @@ class Configuration extends BaseConfiguration {
             .stream()
             .collect(Collectors.toMap(Tag::getKey, Tag::getValue, (value1, value2) -> value2));
     }
+
+    private static final class SchemaHolder {
+        private static final JSONObject RESOURCE_SCHEMA = new JSONObject(new JSONTokener(
+            Configuration.class.getClassLoader().getResourceAsStream(SCHEMA_FILENAME)));
+    }
 }
@@ -3,8 +3,7 @@ package software.amazon.kms.key;
 import static software.amazon.kms.key.ModelAdapter.setDefaults;
 import static software.amazon.kms.key.ModelAdapter.unsetWriteOnly;
 
-
-import com.amazonaws.util.StringUtils;
+import java.util.Collections;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
@@ -31,13 +30,16 @@ public class CreateHandler extends BaseHandlerStd {
 
         return ProgressEvent.progress(model, callbackContext)
             .then(progress -> validateResourceModel(progress, null, model))
+            .then(progress -> callbackContext.isDryRun()
+                ? explained(explainCreate(model, callbackContext), model, callbackContext, logger)
+                : progress)
             .then(progress -> proxy.initiate("kms::create-key", proxyClient, model, callbackContext)
                 .translateToServiceRequest((resourceModel) ->
                     Translator
                         .createCustomerMasterKey(resourceModel, request.getDesiredResourceTags()))
                 .makeServiceCall(keyHelper::createKey)
                 .done(createKeyResponse -> {
-                    if (!StringUtils.isNullOrEmpty(model.getKeyId())) {
+                    if (!Utils.isNullOrEmpty(model.getKeyId())) {
                         return ProgressEvent.progress(model, callbackContext);
                     }
 
@@ -70,4 +72,24 @@ public class CreateHandler extends BaseHandlerStd {
             .then(BaseHandlerStd::propagate)
             .then(progress -> ProgressEvent.defaultSuccessHandler(unsetWriteOnly(model)));
     }
+
+    // The calls above, as a dry run explains them
+    private static ExplainPlan explainCreate(final ResourceModel model,
+                                             final CallbackContext callbackContext) {
+        final ExplainPlan explainPlan = new ExplainPlan()
+            .addStage(Collections.singletonList(KeyHelper.CREATE_KEY), 1);
+        if (Utils.isNullOrEmpty(model.getKeyId())) {
+            explainPlan.addWait(CALLBACK_DELAY_SECONDS);
+        }
+        if (Boolean.TRUE.equals(model.getEnableKeyRotation())) {
+            explainPlan.addStage(Collections.singletonList(KeyHelper.ENABLE_KEY_ROTATION), 1);
+        }
+        if (Boolean.FALSE.equals(model.getEnabled())) {
+            explainPlan.addStage(Collections.singletonList(KeyHelper.DISABLE_KEY), 1);
+        }
+        if (!callbackContext.isPropagated()) {
+            explainPlan.addWait(CALLBACK_DELAY_SECONDS);
+        }
+        return explainPlan;
+    }
 }
@@ -1,5 +1,6 @@
 package software.amazon.kms.key;
 
+import java.time.Duration;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.KeyState;
 import software.amazon.awssdk.services.kms.model.KmsInvalidStateException;
@@ -7,13 +8,23 @@ import software.amazon.awssdk.services.kms.model.ScheduleKeyDeletionRequest;
 import software.amazon.awssdk.services.kms.model.ScheduleKeyDeletionResponse;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Delay;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.proxy.delay.Exponential;
 
+/**
+ * Schedules the deletion of a key. A key that is pending deletion cannot be used, so the key is
+ * deleted as soon as it is observed pending deletion, without waiting for propagation. The
+ * deletion date of the ScheduleKeyDeletion response is only set once the key is pending
+ * deletion, so that observation usually needs no DescribeKey call at all.
+ */
 public class DeleteHandler extends BaseHandlerStd {
+    private static final Duration STABILIZATION_TIMEOUT = Duration.ofMinutes(5);
+
     public DeleteHandler() {
         super();
     }
@@ -35,6 +46,7 @@ public class DeleteHandler extends BaseHandlerStd {
                 try {
                     return proxy.initiate("kms::delete-key", proxyClient, model, callbackContext)
                         .translateToServiceRequest(Translator::scheduleKeyDeletionRequest)
+                        .backoffDelay(stabilizationDelay())
                         .makeServiceCall(keyHelper::scheduleKeyDeletion)
                         .stabilize(this::isDeleted)
                         .done(scheduleKeyDeletionResponse -> progress);
@@ -48,8 +60,20 @@ public class DeleteHandler extends BaseHandlerStd {
                     throw e;
                 }
             })
-            .then(BaseHandlerStd::propagate)
-            .then(progress -> ProgressEvent.defaultSuccessHandler(null));
+            .then(progress -> {
+                accessDeniedCache.invalidate(model.getKeyId());
+                return ProgressEvent.defaultSuccessHandler(null);
+            });
+    }
+
+    // The key is usually pending deletion by the first poll, so polling starts short and
+    // backs off from there. The delay accrues across polls, so every call needs its own.
+    static Delay stabilizationDelay() {
+        return Exponential.of()
+            .minDelay(Duration.ofSeconds(1))
+            .powerBy(2)
+            .timeout(STABILIZATION_TIMEOUT)
+            .build();
     }
 
     private boolean isDeleted(final ScheduleKeyDeletionRequest scheduleKeyDeletionRequest,
@@ -57,6 +81,10 @@ public class DeleteHandler extends BaseHandlerStd {
                               final ProxyClient<KmsClient> proxyClient,
                               final ResourceModel resourceModel,
                               final CallbackContext callbackContext) {
+        if (scheduleKeyDeletionResponse.deletionDate() != null) {
+            return true;
+        }
+
         final KeyState keyState =
             keyHelper.describeKey(Translator.describeKeyRequest(resourceModel), proxyClient)
                 .keyMetadata().keyState();
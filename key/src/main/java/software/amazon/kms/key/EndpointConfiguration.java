@@ -0,0 +1,106 @@
+package software.amazon.kms.key;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsClient;
+
+/**
+ * Chooses the KMS endpoint of a region, read from the environment variables of the handler
+ * function. KMS_ENDPOINT overrides the endpoint, for example with an interface VPC endpoint
+ * or a local KMS stand-in, and KMS_ENDPOINT_VARIANT selects the FIPS and/or dual-stack
+ * endpoint instead. Both can be set for a single region by suffixing the variable with the
+ * region, as in KMS_ENDPOINT_US_EAST_1, which takes precedence. Misconfigured values are
+ * ignored, leaving the SDK to resolve the endpoint.
+ */
+public class EndpointConfiguration {
+    static final String ENDPOINT = "KMS_ENDPOINT";
+    static final String ENDPOINT_VARIANT = "KMS_ENDPOINT_VARIANT";
+
+    /**
+     * The endpoint variants KMS offers in addition to the default one.
+     */
+    public enum Variant {
+        DEFAULT,
+        FIPS,
+        DUALSTACK,
+        FIPS_DUALSTACK
+    }
+
+    private final Map<String, String> environment;
+
+    EndpointConfiguration(final Map<String, String> environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Reads the endpoint configuration from the environment variables of the handler function.
+     */
+    public static EndpointConfiguration fromEnvironment() {
+        return new EndpointConfiguration(System.getenv());
+    }
+
+    /**
+     * Resolves the configured endpoint of a region.
+     *
+     * @param region the region of the KMS client
+     * @return the endpoint to override the one of the SDK with, if any is configured
+     */
+    public Optional<URI> endpointFor(final Region region) {
+        final String endpoint = setting(ENDPOINT, region);
+        if (endpoint != null) {
+            return parseEndpoint(endpoint);
+        }
+
+        final String domain = region.metadata() == null ? "amazonaws.com"
+            : region.metadata().domain();
+        final String dualStackDomain = domain.endsWith(".cn") ? "api.amazonwebservices.com.cn"
+            : "api.aws";
+        switch (variant(region)) {
+            case FIPS:
+                return Optional.of(endpoint("kms-fips", region, domain));
+            case DUALSTACK:
+                return Optional.of(endpoint(KmsClient.SERVICE_NAME, region, dualStackDomain));
+            case FIPS_DUALSTACK:
+                return Optional.of(endpoint("kms-fips", region, dualStackDomain));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    Variant variant(final Region region) {
+        final String variant = setting(ENDPOINT_VARIANT, region);
+        if (variant == null) {
+            return Variant.DEFAULT;
+        }
+
+        try {
+            return Variant.valueOf(variant.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (final IllegalArgumentException e) {
+            return Variant.DEFAULT;
+        }
+    }
+
+    private String setting(final String name, final Region region) {
+        final String regionSetting = environment.get(name + "_"
+            + region.id().toUpperCase(Locale.ROOT).replace('-', '_'));
+        return regionSetting != null ? regionSetting : environment.get(name);
+    }
+
+    private static URI endpoint(final String prefix, final Region region, final String domain) {
+        return URI.create(String.format("https://%s.%s.%s", prefix, region.id(), domain));
+    }
+
+    // A host without a scheme is accepted, as VPC endpoint DNS names are usually copied as is
+    private static Optional<URI> parseEndpoint(final String endpoint) {
+        final String trimmed = endpoint.trim();
+        try {
+            final URI uri = URI.create(trimmed.contains("://") ? trimmed : "https://" + trimmed);
+            return uri.getHost() == null ? Optional.empty() : Optional.of(uri);
+        } catch (final IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package software.amazon.kms.key;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The KMS calls a handler would make for a request, as returned by a dry run. Stages run one
+ * after the other, the calls of a stage run concurrently, and a stage can be followed by a
+ * callback delay for its writes to propagate. The estimated time assumes that every call
+ * takes {@link #ESTIMATED_CALL_MILLIS}, and is mostly made of the callback delays.
+ */
+@lombok.Data
+@JsonSerialize(using = ModelSerialization.ExplainPlanSerializer.class)
+@JsonDeserialize(using = ModelSerialization.ExplainPlanDeserializer.class)
+public class ExplainPlan {
+    static final long ESTIMATED_CALL_MILLIS = 50;
+
+    private List<Stage> stages = new ArrayList<>();
+    private int calls;
+    private int mutatingCalls;
+    private int waits;
+    private long estimatedMillis;
+
+    /**
+     * Adds a stage of calls that run concurrently.
+     *
+     * @param operations      the KMS operations of the stage
+     * @param sequentialCalls the number of calls of the longest sequence of calls in the stage
+     * @return this plan
+     */
+    public ExplainPlan addStage(final List<String> operations, final int sequentialCalls) {
+        stages.add(new Stage(new ArrayList<>(operations), sequentialCalls, 0));
+        calls += operations.size();
+        mutatingCalls += (int) operations.stream().filter(ExplainPlan::isMutating).count();
+        estimatedMillis += sequentialCalls * ESTIMATED_CALL_MILLIS;
+        return this;
+    }
+
+    /**
+     * Adds a callback delay after the last stage.
+     *
+     * @param seconds the callback delay
+     * @return this plan
+     */
+    public ExplainPlan addWait(final int seconds) {
+        if (stages.isEmpty()) {
+            stages.add(new Stage(new ArrayList<>(), 0, 0));
+        }
+
+        final Stage stage = stages.get(stages.size() - 1);
+        stage.setWaitSeconds(stage.getWaitSeconds() + seconds);
+        waits++;
+        estimatedMillis += seconds * 1000L;
+        return this;
+    }
+
+    /**
+     * Summarizes the plan in a sentence, for the message of the dry run.
+     */
+    public String describe() {
+        return String.format("Dry run: %d KMS calls, %d of them mutating, in %d stages, with %d "
+                + "callback waits, about %d seconds", calls, mutatingCalls, stages.size(), waits,
+            (estimatedMillis + 999) / 1000);
+    }
+
+    // Reads are the only calls that dry runs make
+    static boolean isMutating(final String operation) {
+        return !operation.startsWith("Describe") && !operation.startsWith("Get")
+            && !operation.startsWith("List");
+    }
+
+    /**
+     * Calls that run concurrently, and the callback delay that follows them.
+     */
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class Stage {
+        private List<String> operations;
+        private int sequentialCalls;
+        private int waitSeconds;
+    }
+}
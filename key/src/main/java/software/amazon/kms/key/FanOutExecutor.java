@@ -0,0 +1,395 @@
+package software.amazon.kms.key;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
+
+/**
+ * Runs independent tasks concurrently for a handler, such as the KMS calls of a read or of a
+ * list enrichment, and waits for all of them. The executor is shared by every invocation in
+ * the container and bounds the number of tasks running at once, so that a large fan-out
+ * neither exhausts the function nor gets throttled by KMS.
+ *
+ * <p>Tasks run on virtual threads when the runtime supports them (Java 21 and later), and on
+ * a pool of platform threads sized for the vCPUs of the function otherwise. FAN_OUT_BACKEND
+ * forces either backend and FAN_OUT_MAX_CONCURRENCY overrides the bound.
+ *
+ * <p>A fan-out fails as soon as one of its tasks fails or its deadline passes, and the tasks
+ * still running are then cancelled. Tasks can read the remaining time with
+ * {@link #remainingTime()}, and tasks that fan out again run their subtasks inline rather
+ * than waiting on the executor they are holding.
+ */
+public final class FanOutExecutor {
+    static final String BACKEND = "FAN_OUT_BACKEND";
+    static final String MAX_CONCURRENCY = "FAN_OUT_MAX_CONCURRENCY";
+
+    // KMS calls mostly wait on the network, so the pool has several threads per vCPU
+    static final int THREADS_PER_PROCESSOR = 8;
+    static final int MIN_PLATFORM_THREADS = 8;
+    static final int MAX_PLATFORM_THREADS = 64;
+    static final int DEFAULT_VIRTUAL_CONCURRENCY = 128;
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+    private static final FanOutExecutor INSTANCE = fromMap(System.getenv());
+
+    /**
+     * The thread backends of the executor.
+     */
+    public enum Backend {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private final Backend backend;
+    private final int maxConcurrency;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Metrics metrics = new Metrics();
+
+    FanOutExecutor(final Backend backend, final Integer maxConcurrency) {
+        final Optional<ExecutorService> virtualThreadExecutor = backend == Backend.VIRTUAL
+            ? newVirtualThreadExecutor() : Optional.empty();
+        this.backend = virtualThreadExecutor.isPresent() ? Backend.VIRTUAL : Backend.PLATFORM;
+        if (maxConcurrency != null) {
+            this.maxConcurrency = Math.max(1, maxConcurrency);
+        } else {
+            this.maxConcurrency = this.backend == Backend.VIRTUAL ? DEFAULT_VIRTUAL_CONCURRENCY
+                : platformThreads();
+        }
+
+        this.executor = virtualThreadExecutor.orElseGet(() ->
+            newPlatformExecutor(this.maxConcurrency));
+        this.permits = new Semaphore(this.maxConcurrency);
+    }
+
+    /**
+     * Gets the executor shared by all handlers in this container.
+     */
+    public static FanOutExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    static FanOutExecutor fromMap(final Map<String, String> environment) {
+        return new FanOutExecutor(parseBackend(environment.get(BACKEND)),
+            parsePositive(environment.get(MAX_CONCURRENCY)));
+    }
+
+    /**
+     * Runs the tasks concurrently and waits for all of them.
+     *
+     * @param tasks   the tasks to run
+     * @param timeout the time the tasks have to complete, capped by the deadline of the
+     *                calling task when fanning out from a task
+     * @param <T>     the result type of the tasks
+     * @return the results of the tasks, in the order of the tasks
+     * @throws CfnServiceInternalErrorException if the tasks did not complete in time
+     * @throws CfnInternalFailureException      if the calling thread was interrupted
+     */
+    public <T> List<T> invokeAll(final List<? extends Callable<T>> tasks,
+                                 final Duration timeout) {
+        final long deadline = deadline(timeout);
+        if (DEADLINE.get() != null) {
+            return invokeInline(tasks, deadline);
+        }
+
+        final CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (final Callable<T> task : tasks) {
+                futures.add(completionService.submit(instrument(task, deadline)));
+            }
+
+            for (int i = 0; i < tasks.size(); i++) {
+                final Future<T> completed =
+                    completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (completed == null) {
+                    throw new TimeoutException(String.format(
+                        "%d of %d tasks did not complete in time", tasks.size() - i,
+                        tasks.size()));
+                }
+
+                // Fails the fan-out as soon as any task fails
+                completed.get();
+            }
+
+            final List<T> results = new ArrayList<>(tasks.size());
+            for (final Future<T> future : futures) {
+                results.add(future.get());
+            }
+
+            return results;
+        } catch (final ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (final TimeoutException e) {
+            metrics.recordTimeout();
+            throw new CfnServiceInternalErrorException(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        } finally {
+            // Interrupts the tasks still running after a failure, completed tasks are unaffected
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Starts a task in the background, for work that the caller only needs later, such as the
+     * next page of a listing. The task counts towards the bound like the tasks of a fan-out, and
+     * a task submitted from a fan-out task runs inline, like the subtasks of a nested fan-out.
+     *
+     * @param task    the task to run
+     * @param timeout the time the task has to start, capped by the deadline of the calling task
+     *                when submitted from a task
+     * @param <T>     the result type of the task
+     * @return the result of the task, completed exceptionally if the task fails
+     */
+    public <T> CompletableFuture<T> submit(final Callable<T> task, final Duration timeout) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        if (DEADLINE.get() != null) {
+            complete(future, task);
+        } else {
+            final Callable<T> instrumented = instrument(task, deadline(timeout));
+            executor.execute(() -> complete(future, instrumented));
+        }
+
+        return future;
+    }
+
+    /**
+     * Gets the time left before the deadline of the fan-out the calling task belongs to.
+     *
+     * @return the remaining time, or empty when not called from a fan-out task
+     */
+    public static Optional<Duration> remainingTime() {
+        final Long deadline = DEADLINE.get();
+        return deadline == null ? Optional.empty()
+            : Optional.of(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Gets the task statistics since the container started.
+     */
+    public Snapshot snapshot() {
+        return metrics.snapshot();
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static long deadline(final Duration timeout) {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        final Long parentDeadline = DEADLINE.get();
+        return parentDeadline != null && parentDeadline - deadline < 0 ? parentDeadline : deadline;
+    }
+
+    private <T> List<T> invokeInline(final List<? extends Callable<T>> tasks,
+                                     final long deadline) {
+        final Long parentDeadline = DEADLINE.get();
+        DEADLINE.set(deadline);
+        try {
+            final List<T> results = new ArrayList<>(tasks.size());
+            for (final Callable<T> task : tasks) {
+                if (deadline - System.nanoTime() <= 0) {
+                    metrics.recordTimeout();
+                    throw new CfnServiceInternalErrorException(
+                        new TimeoutException("Tasks did not complete in time"));
+                }
+
+                results.add(task.call());
+            }
+
+            return results;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        } catch (final Exception e) {
+            throw propagate(e);
+        } finally {
+            DEADLINE.set(parentDeadline);
+        }
+    }
+
+    private <T> Callable<T> instrument(final Callable<T> task, final long deadline) {
+        final long submitted = System.nanoTime();
+        return () -> {
+            permits.acquire();
+            final long started = System.nanoTime();
+            metrics.recordStart(started - submitted);
+            DEADLINE.set(deadline);
+            boolean succeeded = false;
+            try {
+                if (deadline - started <= 0) {
+                    throw new CancellationException("The fan-out deadline passed");
+                }
+
+                final T result = task.call();
+                succeeded = true;
+                return result;
+            } finally {
+                DEADLINE.remove();
+                // Before the permit is released, for the next task not to start while this one
+                // still counts as active
+                metrics.recordEnd(System.nanoTime() - started, succeeded);
+                permits.release();
+            }
+        };
+    }
+
+    private static <T> void complete(final CompletableFuture<T> future, final Callable<T> task) {
+        try {
+            future.complete(task.call());
+        } catch (final Exception e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static RuntimeException propagate(final Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+
+        return new CfnInternalFailureException(cause);
+    }
+
+    private static ExecutorService newPlatformExecutor(final int threads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+        // The pool shrinks back to nothing between invocations that do not fan out
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Looked up reflectively, the handlers are compiled for Java 8
+    private static Optional<ExecutorService> newVirtualThreadExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    static int platformThreads() {
+        final int threads = Runtime.getRuntime().availableProcessors() * THREADS_PER_PROCESSOR;
+        return Math.min(MAX_PLATFORM_THREADS, Math.max(MIN_PLATFORM_THREADS, threads));
+    }
+
+    private static Backend parseBackend(final String backend) {
+        if (backend == null) {
+            return Backend.VIRTUAL;
+        }
+
+        try {
+            return Backend.valueOf(backend.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            return Backend.VIRTUAL;
+        }
+    }
+
+    private static Integer parsePositive(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            final int parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : null;
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "fan-out-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static final class Metrics {
+        private long tasks;
+        private long failures;
+        private long timeouts;
+        private int active;
+        private int maxActive;
+        private long maxQueueNanos;
+        private long runNanos;
+        private long maxRunNanos;
+
+        private synchronized void recordStart(final long queueNanos) {
+            active++;
+            maxActive = Math.max(maxActive, active);
+            maxQueueNanos = Math.max(maxQueueNanos, queueNanos);
+        }
+
+        private synchronized void recordEnd(final long taskNanos, final boolean succeeded) {
+            active--;
+            tasks++;
+            failures += succeeded ? 0 : 1;
+            runNanos += taskNanos;
+            maxRunNanos = Math.max(maxRunNanos, taskNanos);
+        }
+
+        private synchronized void recordTimeout() {
+            timeouts++;
+        }
+
+        private synchronized Snapshot snapshot() {
+            return new Snapshot(tasks, failures, timeouts, maxActive,
+                TimeUnit.NANOSECONDS.toMillis(maxQueueNanos),
+                tasks == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(runNanos / tasks),
+                TimeUnit.NANOSECONDS.toMillis(maxRunNanos));
+        }
+    }
+
+    /**
+     * Task statistics. Failed tasks include the cancelled ones, and timeouts count the
+     * fan-outs that did not complete in time.
+     */
+    @lombok.Value
+    public static class Snapshot {
+        long tasks;
+        long failures;
+        long timeouts;
+        int maxActive;
+        long maxQueueMillis;
+        long averageRunMillis;
+        long maxRunMillis;
+    }
+}
@@ -1,6 +1,9 @@
 package software.amazon.kms.key;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.AlreadyExistsException;
 import software.amazon.awssdk.services.kms.model.CreateKeyRequest;
@@ -67,21 +70,21 @@ public class KeyHelper {
     static final String ACCESS_DENIED_ERROR_CODE = "AccessDeniedException";
     static final String VALIDATION_ERROR_CODE = "ValidationException";
 
-    private static final String CREATE_KEY = "CreateKey";
-    private static final String DESCRIBE_KEY = "DescribeKey";
-    private static final String DISABLE_KEY = "DisableKey";
-    private static final String ENABLE_KEY = "EnableKey";
-    private static final String DISABLE_KEY_ROTATION = "DisableKeyRotation";
-    private static final String ENABLE_KEY_ROTATION = "EnableKeyRotation";
-    private static final String GET_KEY_POLICY = "GetKeyPolicy";
-    private static final String GET_KEY_ROTATION_STATUS = "GetKeyRotationStatus";
+    static final String CREATE_KEY = "CreateKey";
+    static final String DESCRIBE_KEY = "DescribeKey";
+    static final String DISABLE_KEY = "DisableKey";
+    static final String ENABLE_KEY = "EnableKey";
+    static final String DISABLE_KEY_ROTATION = "DisableKeyRotation";
+    static final String ENABLE_KEY_ROTATION = "EnableKeyRotation";
+    static final String GET_KEY_POLICY = "GetKeyPolicy";
+    static final String GET_KEY_ROTATION_STATUS = "GetKeyRotationStatus";
     private static final String LIST_KEYS = "ListKeys";
-    private static final String LIST_RESOURCE_TAGS = "ListResourceTags";
-    private static final String PUT_KEY_POLICY = "PutKeyPolicy";
+    static final String LIST_RESOURCE_TAGS = "ListResourceTags";
+    static final String PUT_KEY_POLICY = "PutKeyPolicy";
     private static final String SCHEDULE_KEY_DELETION = "ScheduleKeyDeletion";
-    private static final String TAG_RESOURCE = "TagResource";
-    private static final String UNTAG_RESOURCE = "UntagResource";
-    private static final String UPDATE_KEY_DESCRIPTION = "UpdateKeyDescription";
+    static final String TAG_RESOURCE = "TagResource";
+    static final String UNTAG_RESOURCE = "UntagResource";
+    static final String UPDATE_KEY_DESCRIPTION = "UpdateKeyDescription";
 
     public CreateKeyResponse createKey(final CreateKeyRequest createKeyRequest,
                                        final ProxyClient<KmsClient> proxyClient) {
@@ -189,33 +192,402 @@ public class KeyHelper {
                 updateKeyDescriptionRequest, proxyClient.client()::updateKeyDescription));
     }
 
+    /**
+     * Retrieves a key policy, returning access denied as a result rather than throwing.
+     */
+    public KmsResult<GetKeyPolicyResponse> tryGetKeyPolicy(
+        final GetKeyPolicyRequest getKeyPolicyRequest,
+        final ProxyClient<KmsClient> proxyClient) {
+        return wrapKmsResult(GET_KEY_POLICY,
+            () -> proxyClient.injectCredentialsAndInvokeV2(getKeyPolicyRequest,
+                proxyClient.client()::getKeyPolicy));
+    }
+
+    /**
+     * Retrieves a key rotation status, returning access denied as a result rather than throwing.
+     */
+    public KmsResult<GetKeyRotationStatusResponse> tryGetKeyRotationStatus(
+        final GetKeyRotationStatusRequest getKeyRotationStatusRequest,
+        final ProxyClient<KmsClient> proxyClient) {
+        return wrapKmsResult(GET_KEY_ROTATION_STATUS,
+            () -> proxyClient.injectCredentialsAndInvokeV2(
+                getKeyRotationStatusRequest, proxyClient.client()::getKeyRotationStatus));
+    }
+
+    /**
+     * Retrieves a page of key tags, returning access denied as a result rather than throwing.
+     */
+    public KmsResult<ListResourceTagsResponse> tryListResourceTags(
+        final ListResourceTagsRequest listResourceTagsRequest,
+        final ProxyClient<KmsClient> proxyClient) {
+        return wrapKmsResult(LIST_RESOURCE_TAGS, () -> proxyClient.injectCredentialsAndInvokeV2(
+            listResourceTagsRequest, proxyClient.client()::listResourceTags));
+    }
+
+    // Async variants of the calls above, for callers that run several KMS calls at once. The
+    // returned futures fail with the same CloudFormation exceptions, wrapped in a
+    // CompletionException.
+    /**
+     * Calls CreateKey without blocking.
+     *
+     * @param createKeyRequest the request
+     * @param proxyClient      the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<CreateKeyResponse> createKeyAsync(
+        final CreateKeyRequest createKeyRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(CREATE_KEY,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                createKeyRequest, proxyClient.client()::createKey));
+    }
+
+    /**
+     * Calls DescribeKey without blocking.
+     *
+     * @param describeKeyRequest the request
+     * @param proxyClient        the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<DescribeKeyResponse> describeKeyAsync(
+        final DescribeKeyRequest describeKeyRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(DESCRIBE_KEY,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                describeKeyRequest, proxyClient.client()::describeKey));
+    }
+
+    /**
+     * Calls DisableKey without blocking.
+     *
+     * @param disableKeyRequest the request
+     * @param proxyClient       the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<DisableKeyResponse> disableKeyAsync(
+        final DisableKeyRequest disableKeyRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(DISABLE_KEY,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                disableKeyRequest, proxyClient.client()::disableKey));
+    }
+
+    /**
+     * Calls EnableKey without blocking.
+     *
+     * @param enableKeyRequest the request
+     * @param proxyClient      the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<EnableKeyResponse> enableKeyAsync(
+        final EnableKeyRequest enableKeyRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(ENABLE_KEY,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                enableKeyRequest, proxyClient.client()::enableKey));
+    }
+
+    /**
+     * Calls DisableKeyRotation without blocking.
+     *
+     * @param disableKeyRotationRequest the request
+     * @param proxyClient               the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<DisableKeyRotationResponse> disableKeyRotationAsync(
+        final DisableKeyRotationRequest disableKeyRotationRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(DISABLE_KEY_ROTATION,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                disableKeyRotationRequest, proxyClient.client()::disableKeyRotation));
+    }
+
+    /**
+     * Calls EnableKeyRotation without blocking.
+     *
+     * @param enableKeyRotationRequest the request
+     * @param proxyClient              the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<EnableKeyRotationResponse> enableKeyRotationAsync(
+        final EnableKeyRotationRequest enableKeyRotationRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(ENABLE_KEY_ROTATION,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                enableKeyRotationRequest, proxyClient.client()::enableKeyRotation));
+    }
+
+    /**
+     * Calls GetKeyPolicy without blocking.
+     *
+     * @param getKeyPolicyRequest the request
+     * @param proxyClient         the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<GetKeyPolicyResponse> getKeyPolicyAsync(
+        final GetKeyPolicyRequest getKeyPolicyRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(GET_KEY_POLICY,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                getKeyPolicyRequest, proxyClient.client()::getKeyPolicy));
+    }
+
+    /**
+     * Calls GetKeyRotationStatus without blocking.
+     *
+     * @param getKeyRotationStatusRequest the request
+     * @param proxyClient                 the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<GetKeyRotationStatusResponse> getKeyRotationStatusAsync(
+        final GetKeyRotationStatusRequest getKeyRotationStatusRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(GET_KEY_ROTATION_STATUS,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                getKeyRotationStatusRequest, proxyClient.client()::getKeyRotationStatus));
+    }
+
+    /**
+     * Calls ListKeys without blocking.
+     *
+     * @param listKeysRequest the request
+     * @param proxyClient     the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<ListKeysResponse> listKeysAsync(
+        final ListKeysRequest listKeysRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(LIST_KEYS,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                listKeysRequest, proxyClient.client()::listKeys));
+    }
+
+    /**
+     * Calls ListResourceTags without blocking.
+     *
+     * @param listResourceTagsRequest the request
+     * @param proxyClient             the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<ListResourceTagsResponse> listResourceTagsAsync(
+        final ListResourceTagsRequest listResourceTagsRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(LIST_RESOURCE_TAGS,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                listResourceTagsRequest, proxyClient.client()::listResourceTags));
+    }
+
+    /**
+     * Calls PutKeyPolicy without blocking.
+     *
+     * @param putKeyPolicyRequest the request
+     * @param proxyClient         the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<PutKeyPolicyResponse> putKeyPolicyAsync(
+        final PutKeyPolicyRequest putKeyPolicyRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(PUT_KEY_POLICY,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                putKeyPolicyRequest, proxyClient.client()::putKeyPolicy));
+    }
+
+    /**
+     * Calls ScheduleKeyDeletion without blocking.
+     *
+     * @param scheduleKeyDeletionRequest the request
+     * @param proxyClient                the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<ScheduleKeyDeletionResponse> scheduleKeyDeletionAsync(
+        final ScheduleKeyDeletionRequest scheduleKeyDeletionRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(SCHEDULE_KEY_DELETION,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                scheduleKeyDeletionRequest, proxyClient.client()::scheduleKeyDeletion));
+    }
+
+    /**
+     * Calls TagResource without blocking.
+     *
+     * @param tagResourceRequest the request
+     * @param proxyClient        the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<TagResourceResponse> tagResourceAsync(
+        final TagResourceRequest tagResourceRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(TAG_RESOURCE,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                tagResourceRequest, proxyClient.client()::tagResource));
+    }
+
+    /**
+     * Calls UntagResource without blocking.
+     *
+     * @param untagResourceRequest the request
+     * @param proxyClient          the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<UntagResourceResponse> untagResourceAsync(
+        final UntagResourceRequest untagResourceRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(UNTAG_RESOURCE,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                untagResourceRequest, proxyClient.client()::untagResource));
+    }
+
+    /**
+     * Calls UpdateKeyDescription without blocking.
+     *
+     * @param updateKeyDescriptionRequest the request
+     * @param proxyClient                 the proxy of the async KMS client
+     * @return the future response
+     */
+    public CompletableFuture<UpdateKeyDescriptionResponse> updateKeyDescriptionAsync(
+        final UpdateKeyDescriptionRequest updateKeyDescriptionRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsExceptionsAsync(UPDATE_KEY_DESCRIPTION,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                updateKeyDescriptionRequest, proxyClient.client()::updateKeyDescription));
+    }
+
+    /**
+     * Retrieves a key policy asynchronously, completing with access denied as a result.
+     */
+    public CompletableFuture<KmsResult<GetKeyPolicyResponse>> tryGetKeyPolicyAsync(
+        final GetKeyPolicyRequest getKeyPolicyRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsResultAsync(GET_KEY_POLICY,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                getKeyPolicyRequest, proxyClient.client()::getKeyPolicy));
+    }
+
+    /**
+     * Retrieves a key rotation status asynchronously, completing with access denied as a result.
+     */
+    public CompletableFuture<KmsResult<GetKeyRotationStatusResponse>> tryGetKeyRotationStatusAsync(
+        final GetKeyRotationStatusRequest getKeyRotationStatusRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsResultAsync(GET_KEY_ROTATION_STATUS,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                getKeyRotationStatusRequest, proxyClient.client()::getKeyRotationStatus));
+    }
+
+    /**
+     * Retrieves a page of key tags asynchronously, completing with access denied as a result.
+     */
+    public CompletableFuture<KmsResult<ListResourceTagsResponse>> tryListResourceTagsAsync(
+        final ListResourceTagsRequest listResourceTagsRequest,
+        final ProxyClient<KmsAsyncClient> proxyClient) {
+        return wrapKmsResultAsync(LIST_RESOURCE_TAGS,
+            () -> proxyClient.injectCredentialsAndInvokeV2Async(
+                listResourceTagsRequest, proxyClient.client()::listResourceTags));
+    }
+
     private <T> T wrapKmsExceptions(final String operation, final Supplier<T> serviceCall) {
         try {
             return serviceCall.get();
-        } catch (final AlreadyExistsException e) {
-            throw new CfnAlreadyExistsException(ResourceModel.TYPE_NAME, e.getMessage());
-        } catch (final KmsInvalidStateException | InvalidArnException | MalformedPolicyDocumentException |
-            TagException | UnsupportedOperationException | DisabledException e) {
-            throw new CfnInvalidRequestException(e);
-        } catch (final LimitExceededException e) {
-            throw new CfnServiceLimitExceededException(ResourceModel.TYPE_NAME, e.getMessage());
-        } catch (final InvalidMarkerException e) {
-            // We should never make a call with an invalid marker, if we did, there is an issue
-            throw new CfnInternalFailureException(e);
-        } catch (final KmsInternalException | DependencyTimeoutException e) {
-            throw new CfnServiceInternalErrorException(e);
-        } catch (final NotFoundException e) {
-            throw new CfnNotFoundException(e);
         } catch (final KmsException e) {
-            if (ACCESS_DENIED_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
-                throw new CfnAccessDeniedException(operation, e);
-            } else if (VALIDATION_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
-                throw new CfnInvalidRequestException(e);
-            } else if (THROTTLING_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
-                throw new CfnThrottlingException(operation, e);
+            throw translateKmsException(operation, e);
+        }
+    }
+
+    // Soft fail variant of wrapKmsExceptions, access denied is expected on these paths and
+    // does not need a CloudFormation exception (and its stack trace) to be built
+    private <T> KmsResult<T> wrapKmsResult(final String operation, final Supplier<T> serviceCall) {
+        try {
+            return KmsResult.success(serviceCall.get());
+        } catch (final KmsException e) {
+            if (isAccessDenied(e)) {
+                return KmsResult.accessDenied();
             }
 
-            throw new CfnGeneralServiceException(operation, e);
+            return KmsResult.error(translateKmsException(operation, e));
         }
     }
+
+    private <T> CompletableFuture<T> wrapKmsExceptionsAsync(
+        final String operation, final Supplier<CompletableFuture<T>> serviceCall) {
+        return invokeAsync(serviceCall).handle((response, exception) -> {
+            if (exception == null) {
+                return response;
+            }
+
+            final Throwable cause = unwrap(exception);
+            throw new CompletionException(cause instanceof KmsException
+                ? translateKmsException(operation, (KmsException) cause) : cause);
+        });
+    }
+
+    private <T> CompletableFuture<KmsResult<T>> wrapKmsResultAsync(
+        final String operation, final Supplier<CompletableFuture<T>> serviceCall) {
+        return invokeAsync(serviceCall).handle((response, exception) -> {
+            if (exception == null) {
+                return KmsResult.success(response);
+            }
+
+            final Throwable cause = unwrap(exception);
+            if (!(cause instanceof KmsException)) {
+                throw new CompletionException(cause);
+            } else if (isAccessDenied((KmsException) cause)) {
+                return KmsResult.accessDenied();
+            }
+
+            return KmsResult.error(translateKmsException(operation, (KmsException) cause));
+        });
+    }
+
+    // A call that fails before returning its future is handled like a failed request
+    private static <T> CompletableFuture<T> invokeAsync(
+        final Supplier<CompletableFuture<T>> serviceCall) {
+        try {
+            return serviceCall.get();
+        } catch (final RuntimeException e) {
+            final CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static Throwable unwrap(final Throwable exception) {
+        return exception instanceof CompletionException && exception.getCause() != null
+            ? exception.getCause() : exception;
+    }
+
+    static boolean isAccessDenied(final KmsException e) {
+        return e.awsErrorDetails() != null
+            && ACCESS_DENIED_ERROR_CODE.equals(e.awsErrorDetails().errorCode());
+    }
+
+    static RuntimeException translateKmsException(final String operation, final KmsException e) {
+        if (e instanceof AlreadyExistsException) {
+            return new CfnAlreadyExistsException(ResourceModel.TYPE_NAME, e.getMessage());
+        } else if (e instanceof KmsInvalidStateException || e instanceof InvalidArnException
+            || e instanceof MalformedPolicyDocumentException || e instanceof TagException
+            || e instanceof UnsupportedOperationException || e instanceof DisabledException) {
+            return new CfnInvalidRequestException(e);
+        } else if (e instanceof LimitExceededException) {
+            return new CfnServiceLimitExceededException(ResourceModel.TYPE_NAME, e.getMessage());
+        } else if (e instanceof InvalidMarkerException) {
+            // We should never make a call with an invalid marker, if we did, there is an issue
+            return new CfnInternalFailureException(e);
+        } else if (e instanceof KmsInternalException || e instanceof DependencyTimeoutException) {
+            return new CfnServiceInternalErrorException(e);
+        } else if (e instanceof NotFoundException) {
+            return new CfnNotFoundException(e);
+        } else if (isAccessDenied(e)) {
+            return new CfnAccessDeniedException(operation, e);
+        }
+
+        final String errorCode = e.awsErrorDetails() == null ? null
+            : e.awsErrorDetails().errorCode();
+        if (VALIDATION_ERROR_CODE.equals(errorCode)) {
+            return new CfnInvalidRequestException(e);
+        } else if (THROTTLING_ERROR_CODE.equals(errorCode)) {
+            return new CfnThrottlingException(operation, e);
+        }
+
+        return new CfnGeneralServiceException(operation, e);
+    }
 }
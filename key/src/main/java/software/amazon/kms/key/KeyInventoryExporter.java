@@ -0,0 +1,296 @@
+package software.amazon.kms.key;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyResponse;
+import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusResponse;
+import software.amazon.awssdk.services.kms.model.KeyListEntry;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.ListKeysResponse;
+import software.amazon.awssdk.services.kms.model.ListResourceTagsResponse;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Exports every key of an account and region, with its metadata, key policy, rotation status
+ * and tags, as one JSON object per line (NDJSON).
+ *
+ * <p>The keys are listed a page at a time, and the next page is listed in the background while
+ * the current one is exported. The keys of a page are read in batches on the fan-out executor,
+ * which bounds the KMS calls in flight, and every batch is written before the next one is read,
+ * so the memory used depends on the page and batch sizes rather than on the number of keys.
+ * The calls that follow DescribeKey are planned like the reads of the Read Handler, and the
+ * ones that are denied are listed in the record instead of failing the export.
+ *
+ * <p>Once the keys of a page are written and flushed, the listener gets a checkpoint with the
+ * marker of the next page and the running totals. An export started from a checkpoint resumes
+ * with that page, so a failed export repeats at most the keys of the page it failed in.
+ */
+public class KeyInventoryExporter {
+    static final int DEFAULT_BATCH_SIZE = 100;
+    // Longest time the reads of a batch, or the listing of a page, may take
+    static final Duration BATCH_TIMEOUT = Duration.ofMinutes(5);
+
+    private final KeyHelper keyHelper;
+    private final FanOutExecutor fanOutExecutor;
+    private final int batchSize;
+    private final LongSupplier nanoClock;
+
+    public KeyInventoryExporter(final KeyHelper keyHelper, final FanOutExecutor fanOutExecutor) {
+        this(keyHelper, fanOutExecutor, DEFAULT_BATCH_SIZE, System::nanoTime);
+    }
+
+    KeyInventoryExporter(final KeyHelper keyHelper, final FanOutExecutor fanOutExecutor,
+                         final int batchSize, final LongSupplier nanoClock) {
+        this.keyHelper = keyHelper;
+        this.fanOutExecutor = fanOutExecutor;
+        this.batchSize = batchSize;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Writes the keys listed from a checkpoint on.
+     *
+     * @param proxyClient the client of the account and region to export
+     * @param writer      the writer of the records, flushed after every page
+     * @param checkpoint  the checkpoint to resume from, {@link Checkpoint#START} for a new export
+     * @param listener    gets the checkpoint of every page written
+     * @return the checkpoint of the last page, which is complete
+     */
+    public Checkpoint export(final ProxyClient<KmsClient> proxyClient, final Writer writer,
+                             final Checkpoint checkpoint, final Consumer<Checkpoint> listener) {
+        if (checkpoint.isComplete()) {
+            return checkpoint;
+        }
+
+        Checkpoint progress = checkpoint;
+        CompletableFuture<ListKeysResponse> nextPage =
+            listKeys(proxyClient, checkpoint.getMarker());
+        while (nextPage != null) {
+            final long start = nanoClock.getAsLong();
+            final ListKeysResponse listKeysResponse = await(nextPage);
+            final String marker = listKeysResponse.nextMarker();
+            nextPage = marker == null ? null : listKeys(proxyClient, marker);
+
+            final LongAdder calls = new LongAdder();
+            long keys = 0;
+            long skippedKeys = 0;
+            for (final List<KeyListEntry> batch
+                : Utils.partition(listKeysResponse.keys(), batchSize)) {
+                final List<Callable<Optional<ObjectNode>>> tasks = new ArrayList<>(batch.size());
+                batch.forEach(key -> tasks.add(() -> readKey(proxyClient, key, calls)));
+                for (final Optional<ObjectNode> record
+                    : fanOutExecutor.invokeAll(tasks, BATCH_TIMEOUT)) {
+                    if (record.isPresent()) {
+                        write(writer, record.get());
+                        keys++;
+                    } else {
+                        skippedKeys++;
+                    }
+                }
+            }
+
+            flush(writer);
+            progress = progress.toBuilder()
+                .marker(marker)
+                .complete(marker == null)
+                .pages(progress.getPages() + 1)
+                .keys(progress.getKeys() + keys)
+                .skippedKeys(progress.getSkippedKeys() + skippedKeys)
+                // The listing of the page is counted with the reads of its keys
+                .calls(progress.getCalls() + calls.sum() + 1)
+                .elapsedMillis(progress.getElapsedMillis()
+                    + Duration.ofNanos(nanoClock.getAsLong() - start).toMillis())
+                .build();
+            listener.accept(progress);
+        }
+
+        return progress;
+    }
+
+    private CompletableFuture<ListKeysResponse> listKeys(final ProxyClient<KmsClient> proxyClient,
+                                                         final String marker) {
+        return fanOutExecutor.submit(() -> keyHelper.listKeys(
+            Translator.listKeysRequest(marker, ListHandler.MAX_PAGE_SIZE), proxyClient),
+            BATCH_TIMEOUT);
+    }
+
+    // Reads a key into its record, which is empty if the key was deleted since it was listed
+    private Optional<ObjectNode> readKey(final ProxyClient<KmsClient> proxyClient,
+                                         final KeyListEntry key, final LongAdder calls) {
+        final ResourceModel model = ResourceModel.builder().keyId(key.keyId()).build();
+        try {
+            calls.increment();
+            final KeyMetadata keyMetadata = keyHelper.describeKey(
+                Translator.describeKeyRequest(model), proxyClient).keyMetadata();
+            final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(keyMetadata);
+            final ObjectNode record = metadataRecord(keyMetadata);
+            final ArrayNode deniedOperations = Translator.MAPPER.createArrayNode();
+
+            calls.increment();
+            final KmsResult<GetKeyPolicyResponse> keyPolicy = keyHelper.tryGetKeyPolicy(
+                Translator.getKeyPolicyRequest(key.keyId()), proxyClient);
+            if (keyPolicy.isAccessDenied()) {
+                deniedOperations.add(KeyHelper.GET_KEY_POLICY);
+            } else {
+                record.set("KeyPolicy", parsePolicy(keyPolicy.getOrThrow().policy()));
+            }
+
+            if (readPlan.isFetchKeyRotationStatus()) {
+                calls.increment();
+                final KmsResult<GetKeyRotationStatusResponse> keyRotationStatus =
+                    keyHelper.tryGetKeyRotationStatus(
+                        Translator.getKeyRotationStatusRequest(model), proxyClient);
+                if (keyRotationStatus.isAccessDenied()) {
+                    deniedOperations.add(KeyHelper.GET_KEY_ROTATION_STATUS);
+                } else {
+                    record.put("EnableKeyRotation",
+                        keyRotationStatus.getOrThrow().keyRotationEnabled());
+                }
+            } else if (readPlan.getImpliedKeyRotation() != null) {
+                record.put("EnableKeyRotation", readPlan.getImpliedKeyRotation());
+            }
+
+            if (readPlan.isFetchTags()) {
+                final Optional<ObjectNode> tags = readTags(proxyClient, model, calls);
+                if (tags.isPresent()) {
+                    record.set("Tags", tags.get());
+                } else {
+                    deniedOperations.add(KeyHelper.LIST_RESOURCE_TAGS);
+                }
+            }
+
+            if (deniedOperations.size() > 0) {
+                record.set("DeniedOperations", deniedOperations);
+            }
+
+            return Optional.of(record);
+        } catch (final CfnNotFoundException e) {
+            // Deleted since it was listed
+            return Optional.empty();
+        }
+    }
+
+    // Reads every page of the tags of a key, which are empty if they are denied
+    private Optional<ObjectNode> readTags(final ProxyClient<KmsClient> proxyClient,
+                                          final ResourceModel model, final LongAdder calls) {
+        final ObjectNode tags = Translator.MAPPER.createObjectNode();
+        String marker = null;
+        do {
+            calls.increment();
+            final KmsResult<ListResourceTagsResponse> listResourceTags =
+                keyHelper.tryListResourceTags(
+                    Translator.listResourceTagsRequest(model, marker), proxyClient);
+            if (listResourceTags.isAccessDenied()) {
+                return Optional.empty();
+            }
+
+            final ListResourceTagsResponse listResourceTagsResponse =
+                listResourceTags.getOrThrow();
+            listResourceTagsResponse.tags().forEach(tag -> tags.put(tag.tagKey(), tag.tagValue()));
+            marker = listResourceTagsResponse.nextMarker();
+        } while (marker != null);
+
+        return Optional.of(tags);
+    }
+
+    private static ObjectNode metadataRecord(final KeyMetadata keyMetadata) {
+        final ObjectNode record = Translator.MAPPER.createObjectNode();
+        record.put("KeyId", keyMetadata.keyId());
+        record.put("Arn", keyMetadata.arn());
+        record.put("Description", keyMetadata.description());
+        record.put("Enabled", keyMetadata.enabled());
+        record.put("KeyState", keyMetadata.keyStateAsString());
+        record.put("KeyManager", keyMetadata.keyManagerAsString());
+        record.put("KeyUsage", keyMetadata.keyUsageAsString());
+        record.put("KeySpec", keyMetadata.customerMasterKeySpecAsString());
+        record.put("Origin", keyMetadata.originAsString());
+        Optional.ofNullable(keyMetadata.creationDate())
+            .ifPresent(creationDate -> record.put("CreationDate", creationDate.toString()));
+        Optional.ofNullable(keyMetadata.deletionDate())
+            .ifPresent(deletionDate -> record.put("DeletionDate", deletionDate.toString()));
+        return record;
+    }
+
+    private static ObjectNode parsePolicy(final String policy) {
+        try {
+            return (ObjectNode) Translator.MAPPER.readTree(policy);
+        } catch (final IOException | ClassCastException e) {
+            throw new CfnInternalFailureException(e);
+        }
+    }
+
+    private static void write(final Writer writer, final ObjectNode record) {
+        try {
+            // Line breaks within values are escaped, so every record is a single line
+            writer.write(Translator.MAPPER.writeValueAsString(record));
+            writer.write('\n');
+        } catch (final IOException e) {
+            throw new CfnInternalFailureException(e);
+        }
+    }
+
+    private static void flush(final Writer writer) {
+        try {
+            writer.flush();
+        } catch (final IOException e) {
+            throw new CfnInternalFailureException(e);
+        }
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new CfnInternalFailureException(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        }
+    }
+
+    /**
+     * Where an export is, and what it has done so far. The marker is the ListKeys marker of the
+     * next page to export, null for the first page, and the totals include the exports the
+     * checkpoint was resumed from.
+     */
+    @lombok.Value
+    @lombok.Builder(toBuilder = true)
+    public static class Checkpoint {
+        public static final Checkpoint START = Checkpoint.builder().build();
+
+        String marker;
+        boolean complete;
+        long pages;
+        long keys;
+        // Keys deleted between being listed and being read
+        long skippedKeys;
+        long calls;
+        long elapsedMillis;
+
+        /**
+         * Gets the keys exported per second of export time.
+         */
+        public double getKeysPerSecond() {
+            return elapsedMillis == 0 ? 0 : keys * 1000.0 / elapsedMillis;
+        }
+    }
+}
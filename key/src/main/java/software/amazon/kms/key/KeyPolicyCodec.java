@@ -0,0 +1,164 @@
+package software.amazon.kms.key;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.TerminalException;
+
+/**
+ * Converts key policies between the String form KMS uses and the Map or String form of the
+ * resource model. Strings are passed through as-is, and a codec instance remembers the
+ * serialized form of every policy object it has seen, so that a policy is serialized at most
+ * once per handler invocation. Use one instance per invocation, it is not thread safe.
+ */
+public class KeyPolicyCodec {
+    private static final ObjectReader POLICY_READER = Translator.MAPPER
+        .readerFor(new TypeReference<HashMap<String, Object>>() {
+        });
+    private static final ObjectWriter POLICY_WRITER = Translator.MAPPER.writer();
+
+    private final Map<Object, String> serializedPolicies = new IdentityHashMap<>();
+
+    /**
+     * Serializes a key policy, reusing the result of previous calls for the same policy object.
+     *
+     * @param policy the policy from the resource model, either a String or a Map
+     * @return the policy document
+     */
+    public String serialize(final Object policy) {
+        if (!(policy instanceof Map)) {
+            return serializePolicy(policy);
+        }
+
+        return serializedPolicies.computeIfAbsent(policy, KeyPolicyCodec::serializePolicy);
+    }
+
+    /**
+     * Compares two key policies by their content. A policy read from KMS keeps the formatting
+     * of the document that was put, so documents that differ are parsed and compared as JSON.
+     *
+     * @param policy a policy from the resource model or from KMS, either a String or a Map
+     * @param otherPolicy the policy to compare it with
+     * @return true if both policies are absent or have the same content
+     */
+    public boolean isEquivalent(final Object policy, final Object otherPolicy) {
+        final String document = serialize(policy);
+        final String otherDocument = serialize(otherPolicy);
+        if (Objects.equals(document, otherDocument)) {
+            return true;
+        }
+
+        if (document == null || otherDocument == null) {
+            return false;
+        }
+
+        try {
+            return Translator.MAPPER.readTree(document)
+                .equals(Translator.MAPPER.readTree(otherDocument));
+        } catch (final IOException e) {
+            // Documents that are not JSON can only be compared as they are
+            return false;
+        }
+    }
+
+    /**
+     * Serializes a key policy without caching.
+     *
+     * @param policy the policy from the resource model, either a String or a Map
+     * @return the policy document
+     */
+    public static String serializePolicy(final Object policy) {
+        if (policy instanceof LazyKeyPolicy) {
+            return ((LazyKeyPolicy) policy).toJson();
+        }
+
+        if (policy instanceof Map) {
+            try {
+                return POLICY_WRITER.writeValueAsString(policy);
+            } catch (final JsonProcessingException e) {
+                throw new TerminalException(e);
+            }
+        }
+
+        return (String) policy;
+    }
+
+    /**
+     * Wraps a policy document in a Map that is only parsed once its content is accessed, which
+     * is usually when the resource model is serialized in the handler response.
+     *
+     * @param policy the policy document
+     * @return the policy as a Map, or null if there is no policy
+     */
+    public static Map<String, Object> deserialize(final String policy) {
+        if (policy == null || policy.isEmpty()) {
+            return null;
+        }
+
+        return new LazyKeyPolicy(policy);
+    }
+
+    private static Map<String, Object> parse(final String policy) {
+        try {
+            return POLICY_READER.readValue(policy);
+        } catch (final IOException e) {
+            throw new CfnInternalFailureException(e);
+        }
+    }
+
+    private static final class LazyKeyPolicy extends AbstractMap<String, Object> {
+        private final String json;
+        private Map<String, Object> parsed;
+
+        private LazyKeyPolicy(final String json) {
+            this.json = json;
+        }
+
+        // Once parsed, the map may have been modified, so only the original document is reused
+        private String toJson() {
+            return parsed == null ? json : serializePolicy(parsed);
+        }
+
+        private Map<String, Object> parsed() {
+            if (parsed == null) {
+                parsed = parse(json);
+            }
+
+            return parsed;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return parsed().entrySet();
+        }
+
+        @Override
+        public int size() {
+            return parsed().size();
+        }
+
+        @Override
+        public Object get(final Object key) {
+            return parsed().get(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return parsed().containsKey(key);
+        }
+
+        @Override
+        public Object put(final String key, final Object value) {
+            return parsed().put(key, value);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package software.amazon.kms.key;
+
+import java.util.Objects;
+import software.amazon.awssdk.services.kms.model.CustomerMasterKeySpec;
+import software.amazon.awssdk.services.kms.model.KeyManagerType;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.OriginType;
+
+/**
+ * Decides which of the calls following DescribeKey are worth making when reading a key.
+ * Calls that are bound to fail for the key, or whose result is implied by the key metadata,
+ * are skipped. The key policy can be read in every key state, so it is always fetched.
+ * Missing metadata is treated conservatively, meaning that everything is fetched.
+ */
+@lombok.Value
+public class KeyReadPlan {
+    private static final KeyReadPlan FETCH_ALL = new KeyReadPlan(true, true, null, "Default");
+
+    boolean fetchKeyRotationStatus;
+    boolean fetchTags;
+    // The rotation status to report when it is not fetched, null if it is unknown
+    Boolean impliedKeyRotation;
+    String reason;
+
+    /**
+     * Plans the read calls for a key.
+     *
+     * @param keyMetadata the metadata returned by DescribeKey
+     * @return the read plan for the key
+     */
+    public static KeyReadPlan fromKeyMetadata(final KeyMetadata keyMetadata) {
+        // AWS managed keys are always rotated, and cannot be tagged
+        if (keyMetadata.keyManager() == KeyManagerType.AWS) {
+            return new KeyReadPlan(false, false, true, "AwsManagedKey");
+        }
+
+        // Rotation is only supported on symmetric keys
+        final String keySpec = keyMetadata.customerMasterKeySpecAsString();
+        if (keySpec != null
+            && !Objects.equals(keySpec, CustomerMasterKeySpec.SYMMETRIC_DEFAULT.toString())) {
+            return new KeyReadPlan(false, true, false, "AsymmetricKey");
+        }
+
+        // Rotation is not supported on keys with imported key material or in custom key stores,
+        // which are the only keys that can be pending import or unavailable
+        final KeyState keyState = keyMetadata.keyState();
+        if (keyState == KeyState.PENDING_IMPORT || keyState == KeyState.UNAVAILABLE) {
+            return new KeyReadPlan(false, true, false, "KeyState" + keyState);
+        }
+
+        final OriginType origin = keyMetadata.origin();
+        if (origin != null && origin != OriginType.AWS_KMS) {
+            return new KeyReadPlan(false, true, false, "Origin" + origin);
+        }
+
+        return FETCH_ALL;
+    }
+}
@@ -0,0 +1,158 @@
+package software.amazon.kms.key;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decides which KMS mutations an update makes, and in which order. Only the properties that
+ * differ between the previous and the desired model are mutated, and the mutations form a
+ * dependency graph: the key is enabled before its rotation is updated, the rotation is updated
+ * before the key is disabled, and the tags are updated after a new key policy. Every other
+ * mutation is independent and runs concurrently with the others.
+ *
+ * <p>Some dependencies need the first mutation to propagate before the second one can be
+ * made. Mutations waiting on those are left to the next invocation, after a callback delay,
+ * and every other mutation runs in the current one. The tags are always planned, since they
+ * are reconciled with the tags the key actually has.
+ */
+@lombok.ToString
+public class KeyUpdatePlan {
+    /**
+     * The mutations an update can make.
+     */
+    public enum Mutation {
+        ENABLE_KEY,
+        UPDATE_KEY_ROTATION,
+        DISABLE_KEY,
+        UPDATE_DESCRIPTION,
+        PUT_KEY_POLICY,
+        UPDATE_TAGS
+    }
+
+    // The mutations each mutation depends on, and whether they need to propagate first
+    private static final Map<Mutation, Map<Mutation, Boolean>> DEPENDENCIES =
+        new EnumMap<>(Mutation.class);
+
+    static {
+        // The rotation of a key can only be updated once it is enabled everywhere, or it
+        // might hit an invalid state exception
+        addDependency(Mutation.UPDATE_KEY_ROTATION, Mutation.ENABLE_KEY, true);
+        // The rotation of a disabled key cannot be updated
+        addDependency(Mutation.DISABLE_KEY, Mutation.UPDATE_KEY_ROTATION, false);
+        // The new key policy might grant the permissions to update the tags
+        addDependency(Mutation.UPDATE_TAGS, Mutation.PUT_KEY_POLICY, true);
+    }
+
+    private final Set<Mutation> mutations;
+
+    KeyUpdatePlan(final Set<Mutation> mutations) {
+        final Set<Mutation> planned = EnumSet.noneOf(Mutation.class);
+        planned.addAll(mutations);
+        this.mutations = Collections.unmodifiableSet(planned);
+    }
+
+    /**
+     * Plans the mutations of an update. The models are expected to have their defaults set
+     * and to have passed {@link BaseHandlerStd#validateResourceModel}.
+     *
+     * @param previousModel the model before the update
+     * @param model         the desired model
+     * @param policyCodec   the codec comparing the key policies
+     * @return the update plan
+     */
+    public static KeyUpdatePlan fromModels(final ResourceModel previousModel,
+                                           final ResourceModel model,
+                                           final KeyPolicyCodec policyCodec) {
+        final Set<Mutation> mutations = EnumSet.of(Mutation.UPDATE_TAGS);
+        if (!previousModel.getEnabled() && model.getEnabled()) {
+            mutations.add(Mutation.ENABLE_KEY);
+        } else if (previousModel.getEnabled() && !model.getEnabled()) {
+            mutations.add(Mutation.DISABLE_KEY);
+        }
+
+        if (!Objects.equals(previousModel.getEnableKeyRotation(), model.getEnableKeyRotation())) {
+            mutations.add(Mutation.UPDATE_KEY_ROTATION);
+        }
+
+        if (!Objects.equals(previousModel.getDescription(), model.getDescription())) {
+            mutations.add(Mutation.UPDATE_DESCRIPTION);
+        }
+
+        if (!policyCodec.isEquivalent(previousModel.getKeyPolicy(), model.getKeyPolicy())) {
+            mutations.add(Mutation.PUT_KEY_POLICY);
+        }
+
+        return new KeyUpdatePlan(mutations);
+    }
+
+    public Set<Mutation> getMutations() {
+        return mutations;
+    }
+
+    /**
+     * Schedules the mutations left after the completed ones for the current invocation.
+     *
+     * @param completed the mutations completed by previous invocations, which had the time to
+     *                  propagate
+     * @return the mutations to make in this invocation
+     */
+    public Schedule schedule(final Set<Mutation> completed) {
+        final Set<Mutation> remaining = EnumSet.noneOf(Mutation.class);
+        remaining.addAll(mutations);
+        remaining.removeAll(completed);
+        final Set<Mutation> scheduled = EnumSet.noneOf(Mutation.class);
+        final List<Set<Mutation>> stages = new ArrayList<>();
+        while (true) {
+            final Set<Mutation> stage = EnumSet.noneOf(Mutation.class);
+            for (final Mutation mutation : remaining) {
+                if (isReady(mutation, remaining, scheduled)) {
+                    stage.add(mutation);
+                }
+            }
+
+            if (stage.isEmpty()) {
+                return new Schedule(stages, !remaining.isEmpty());
+            }
+
+            stages.add(Collections.unmodifiableSet(stage));
+            remaining.removeAll(stage);
+            scheduled.addAll(stage);
+        }
+    }
+
+    // Ready once every dependency is either planned and made in an earlier stage of this
+    // invocation without needing to propagate, or not pending at all
+    private static boolean isReady(final Mutation mutation, final Set<Mutation> remaining,
+                                   final Set<Mutation> scheduled) {
+        return DEPENDENCIES.getOrDefault(mutation, Collections.emptyMap()).entrySet().stream()
+            .noneMatch(dependency -> remaining.contains(dependency.getKey())
+                || scheduled.contains(dependency.getKey()) && dependency.getValue());
+    }
+
+    static boolean dependsOn(final Mutation mutation, final Mutation dependency) {
+        return DEPENDENCIES.getOrDefault(mutation, Collections.emptyMap())
+            .containsKey(dependency);
+    }
+
+    private static void addDependency(final Mutation mutation, final Mutation dependency,
+                                      final boolean propagate) {
+        DEPENDENCIES.computeIfAbsent(mutation, key -> new EnumMap<>(Mutation.class))
+            .put(dependency, propagate);
+    }
+
+    /**
+     * The mutations of one invocation, in stages of independent mutations that run
+     * concurrently. Mutations waiting for others to propagate are left to the next invocation.
+     */
+    @lombok.Value
+    public static class Schedule {
+        List<Set<Mutation>> stages;
+        boolean awaitingPropagation;
+    }
+}
@@ -0,0 +1,56 @@
+package software.amazon.kms.key;
+
+/**
+ * The outcome of a KMS call made on a soft fail path. Access denied is an expected outcome
+ * on these paths, so it is returned as a value instead of being thrown as a
+ * CloudFormation exception. Any other failure is carried as the already translated
+ * CloudFormation exception and only thrown if the caller asks for the response.
+ *
+ * @param <T> the KMS response type
+ */
+public final class KmsResult<T> {
+    private static final KmsResult<?> ACCESS_DENIED = new KmsResult<>(null, null);
+
+    private final T response;
+    private final RuntimeException error;
+
+    private KmsResult(final T response, final RuntimeException error) {
+        this.response = response;
+        this.error = error;
+    }
+
+    public static <T> KmsResult<T> success(final T response) {
+        return new KmsResult<>(response, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> KmsResult<T> accessDenied() {
+        return (KmsResult<T>) ACCESS_DENIED;
+    }
+
+    public static <T> KmsResult<T> error(final RuntimeException error) {
+        return new KmsResult<>(null, error);
+    }
+
+    public boolean isAccessDenied() {
+        return this == ACCESS_DENIED;
+    }
+
+    /**
+     * Returns the response of a successful call, or throws the translated exception of a
+     * failed one. Callers are expected to have handled access denied beforehand.
+     *
+     * @return the KMS response
+     */
+    public T getOrThrow() {
+        if (error != null) {
+            throw error;
+        }
+
+        if (isAccessDenied()) {
+            throw new IllegalStateException("Access denied results do not have a response");
+        }
+
+        return response;
+    }
+}
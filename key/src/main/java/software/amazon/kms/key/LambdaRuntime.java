@@ -0,0 +1,191 @@
+package software.amazon.kms.key;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A minimal client of the Lambda custom runtime API. It is the entrypoint of the native image
+ * build of the handler (see the native profile), which runs on the provided runtime instead of
+ * the managed Java runtime. It polls the runtime API for invocations and passes each of them
+ * to the handler wrapper.
+ */
+public class LambdaRuntime {
+    private static final String API_PATH = "/2018-06-01/runtime";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String runtimeApi;
+    private final RequestStreamHandler handler;
+    private final Map<String, String> environment;
+
+    LambdaRuntime(final String runtimeApi, final RequestStreamHandler handler,
+                  final Map<String, String> environment) {
+        this.runtimeApi = runtimeApi;
+        this.handler = handler;
+        this.environment = environment;
+    }
+
+    /**
+     * Runs the runtime loop until the execution environment is shut down.
+     */
+    public static void main(final String[] args) throws IOException {
+        final String runtimeApi = System.getenv("AWS_LAMBDA_RUNTIME_API");
+        final RequestStreamHandler handler;
+        try {
+            handler = new HandlerWrapper();
+            Priming.primeContainer();
+        } catch (final RuntimeException e) {
+            post(runtimeApi, API_PATH + "/init/error", errorResponse(e));
+            throw e;
+        }
+
+        final LambdaRuntime runtime = new LambdaRuntime(runtimeApi, handler, System.getenv());
+        while (true) {
+            runtime.processNextInvocation();
+        }
+    }
+
+    /**
+     * Waits for the next invocation, invokes the handler, and reports the result.
+     */
+    void processNextInvocation() throws IOException {
+        final HttpURLConnection next = open(runtimeApi, API_PATH + "/invocation/next");
+        final String requestId = next.getHeaderField("Lambda-Runtime-Aws-Request-Id");
+        final InvocationContext context = new InvocationContext(requestId,
+            next.getHeaderField("Lambda-Runtime-Invoked-Function-Arn"),
+            parseLong(next.getHeaderField("Lambda-Runtime-Deadline-Ms")));
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream input = next.getInputStream()) {
+            handler.handleRequest(input, output, context);
+        } catch (final IOException | RuntimeException e) {
+            post(runtimeApi, API_PATH + "/invocation/" + requestId + "/error", errorResponse(e));
+            return;
+        }
+
+        post(runtimeApi, API_PATH + "/invocation/" + requestId + "/response",
+            output.toByteArray());
+    }
+
+    private static HttpURLConnection open(final String runtimeApi, final String path)
+        throws IOException {
+        final HttpURLConnection connection =
+            (HttpURLConnection) new URL("http://" + runtimeApi + path).openConnection();
+        // The next invocation can take arbitrarily long to arrive
+        connection.setReadTimeout(0);
+        return connection;
+    }
+
+    private static void post(final String runtimeApi, final String path, final byte[] body)
+        throws IOException {
+        final HttpURLConnection connection = open(runtimeApi, path);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(body);
+        }
+        connection.getResponseCode();
+        connection.disconnect();
+    }
+
+    private static byte[] errorResponse(final Throwable error) {
+        final StringWriter stackTrace = new StringWriter();
+        error.printStackTrace(new PrintWriter(stackTrace));
+        System.err.println(stackTrace);
+        return MAPPER.createObjectNode()
+            .put("errorMessage", String.valueOf(error.getMessage()))
+            .put("errorType", error.getClass().getName())
+            .toString()
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long parseLong(final String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @lombok.Getter
+    @lombok.RequiredArgsConstructor
+    private final class InvocationContext implements Context {
+        private final String awsRequestId;
+        private final String invokedFunctionArn;
+        @lombok.Getter(lombok.AccessLevel.NONE)
+        private final long deadlineMillis;
+
+        @Override
+        public String getLogGroupName() {
+            return environment.get("AWS_LAMBDA_LOG_GROUP_NAME");
+        }
+
+        @Override
+        public String getLogStreamName() {
+            return environment.get("AWS_LAMBDA_LOG_STREAM_NAME");
+        }
+
+        @Override
+        public String getFunctionName() {
+            return environment.get("AWS_LAMBDA_FUNCTION_NAME");
+        }
+
+        @Override
+        public String getFunctionVersion() {
+            return environment.get("AWS_LAMBDA_FUNCTION_VERSION");
+        }
+
+        @Override
+        public CognitoIdentity getIdentity() {
+            return null;
+        }
+
+        @Override
+        public ClientContext getClientContext() {
+            return null;
+        }
+
+        @Override
+        public int getRemainingTimeInMillis() {
+            return (int) Math.max(0, deadlineMillis - System.currentTimeMillis());
+        }
+
+        @Override
+        public int getMemoryLimitInMB() {
+            return (int) parseLong(environment.get("AWS_LAMBDA_FUNCTION_MEMORY_SIZE"));
+        }
+
+        @Override
+        public LambdaLogger getLogger() {
+            return StdoutLogger.INSTANCE;
+        }
+    }
+
+    // Standard output of the provided runtime is shipped to CloudWatch Logs
+    private enum StdoutLogger implements LambdaLogger {
+        INSTANCE;
+
+        @Override
+        public void log(final String message) {
+            System.out.println(message);
+        }
+
+        @Override
+        public void log(final byte[] message) {
+            log(new String(message, StandardCharsets.UTF_8));
+        }
+    }
+}
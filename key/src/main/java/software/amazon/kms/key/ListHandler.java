@@ -1,9 +1,19 @@
 package software.amazon.kms.key;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.KeyListEntry;
+import software.amazon.awssdk.services.kms.model.KeyManagerType;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.ListKeysRequest;
 import software.amazon.awssdk.services.kms.model.ListKeysResponse;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
@@ -12,12 +22,38 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class ListHandler extends BaseHandlerStd {
+    // The most keys ListKeys returns in a page
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final ListMode listMode;
+    private final Paging paging;
+    private final PagePrefetcher pagePrefetcher;
+
+    /**
+     * Builds the handler run by the handler wrapper, with the list mode of the environment and
+     * the caches shared by the container.
+     */
     public ListHandler() {
         super();
+        this.listMode = ListMode.fromEnvironment();
+        this.paging = Paging.fromEnvironment();
+        this.pagePrefetcher = PagePrefetcher.getInstance();
     }
 
     public ListHandler(final KeyHelper keyHelper) {
+        this(keyHelper, ListMode.IDS);
+    }
+
+    public ListHandler(final KeyHelper keyHelper, final ListMode listMode) {
+        this(keyHelper, listMode, Paging.builder().build(), PagePrefetcher.getInstance());
+    }
+
+    ListHandler(final KeyHelper keyHelper, final ListMode listMode, final Paging paging,
+                final PagePrefetcher pagePrefetcher) {
         super(keyHelper);
+        this.listMode = listMode;
+        this.paging = paging;
+        this.pagePrefetcher = pagePrefetcher;
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -26,13 +62,24 @@ public class ListHandler extends BaseHandlerStd {
         final CallbackContext callbackContext,
         final ProxyClient<KmsClient> proxyClient,
         final Logger logger) {
-        final ListKeysResponse listKeysResponse =
-            keyHelper.listKeys(Translator.listKeysRequest(request.getNextToken()),
-                proxyClient);
+        // The credentials are new for each invocation, pages are served by their marker
+        final String caller = callerPrincipal(request);
+        final Function<ListKeysRequest, ListKeysResponse> listKeys =
+            listKeysRequest -> keyHelper.listKeys(listKeysRequest, proxyClient);
+        final ListKeysResponse listKeysResponse = pagePrefetcher.fetch(caller,
+            Translator.listKeysRequest(request.getNextToken(), paging.limit(MAX_PAGE_SIZE)),
+            listKeys);
+        if (paging.isPrefetch() && listKeysResponse.nextMarker() != null) {
+            // The next List invocation asks for the next page while this one is converted
+            pagePrefetcher.prefetch(caller, Translator.listKeysRequest(
+                listKeysResponse.nextMarker(), paging.limit(MAX_PAGE_SIZE)), listKeys);
+        }
 
-        final List<ResourceModel> models = listKeysResponse.keys().stream()
-            .map(key -> ResourceModel.builder().keyId(key.keyId()).build())
-            .collect(Collectors.toList());
+        final List<ResourceModel> models = listMode.isDescribing()
+            ? describeKeys(proxyClient, listKeysResponse.keys())
+            : listKeysResponse.keys().stream()
+                .map(this::fromListEntry)
+                .collect(Collectors.toList());
 
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
             .resourceModels(models)
@@ -40,4 +87,53 @@ public class ListHandler extends BaseHandlerStd {
             .status(OperationStatus.SUCCESS)
             .build();
     }
+
+    private ResourceModel fromListEntry(final KeyListEntry key) {
+        final ResourceModel model = ResourceModel.builder().keyId(key.keyId()).build();
+        if (listMode != ListMode.IDS) {
+            model.setArn(key.keyArn());
+        }
+
+        return model;
+    }
+
+    // Describes the keys of the page concurrently, bounded by the fan-out executor, and keeps
+    // the order of the page
+    private List<ResourceModel> describeKeys(final ProxyClient<KmsClient> proxyClient,
+                                             final List<KeyListEntry> keys) {
+        final List<Callable<Optional<ResourceModel>>> tasks = new ArrayList<>(keys.size());
+        keys.forEach(key -> tasks.add(() -> describeKey(proxyClient, key)));
+
+        return fanOutExecutor.invokeAll(tasks, ProgressPipeline.STAGE_TIMEOUT).stream()
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
+    }
+
+    private Optional<ResourceModel> describeKey(final ProxyClient<KmsClient> proxyClient,
+                                                final KeyListEntry key) {
+        final KeyMetadata keyMetadata;
+        try {
+            keyMetadata = keyHelper.describeKey(
+                Translator.describeKeyRequest(fromListEntry(key)), proxyClient).keyMetadata();
+        } catch (final CfnNotFoundException e) {
+            // Deleted since it was listed
+            return Optional.empty();
+        }
+
+        if (listMode == ListMode.MANAGEABLE
+            && (keyMetadata.keyManager() == KeyManagerType.AWS
+            || keyMetadata.keyState() == KeyState.PENDING_DELETION)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(ResourceModel.builder()
+            .arn(keyMetadata.arn())
+            .keyId(keyMetadata.keyId())
+            .description(keyMetadata.description())
+            .enabled(keyMetadata.enabled())
+            .keyUsage(keyMetadata.keyUsageAsString())
+            .keySpec(keyMetadata.customerMasterKeySpecAsString())
+            .build());
+    }
 }
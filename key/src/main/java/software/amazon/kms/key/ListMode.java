@@ -0,0 +1,48 @@
+package software.amazon.kms.key;
+
+import java.util.Locale;
+
+/**
+ * Controls how much of each key the List Handler returns.
+ */
+public enum ListMode {
+    // Only sets the key id, as returned by ListKeys
+    IDS,
+    // Sets the key id and the ARN, both returned by ListKeys, without any extra call
+    ARNS,
+    // Describes every key of the page, and sets the properties that DescribeKey returns
+    DESCRIBED,
+    // Describes every key of the page, and leaves out the AWS managed keys and the keys pending
+    // deletion, which a stack cannot manage
+    MANAGEABLE;
+
+    static final String ENVIRONMENT_VARIABLE = "KEY_LIST_MODE";
+
+    /**
+     * Gets the list mode configured for the handler through the KEY_LIST_MODE environment
+     * variable, defaulting to the key ids only.
+     */
+    public static ListMode fromEnvironment() {
+        return fromString(System.getenv(ENVIRONMENT_VARIABLE));
+    }
+
+    static ListMode fromString(final String listMode) {
+        if (listMode == null) {
+            return IDS;
+        }
+
+        try {
+            return valueOf(listMode.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            // A misconfigured mode keeps the established behavior
+            return IDS;
+        }
+    }
+
+    /**
+     * Whether the mode describes every listed key.
+     */
+    public boolean isDescribing() {
+        return this == DESCRIBED || this == MANAGEABLE;
+    }
+}
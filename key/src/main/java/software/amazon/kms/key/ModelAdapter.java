@@ -1,6 +1,5 @@
 package software.amazon.kms.key;
 
-import com.amazonaws.util.StringUtils;
 import software.amazon.awssdk.services.kms.model.CustomerMasterKeySpec;
 import software.amazon.awssdk.services.kms.model.KeyUsageType;
 
@@ -26,13 +25,13 @@ public class ModelAdapter {
         final String keyUsage = model.getKeyUsage();
         final String keySpec = model.getKeySpec();
 
-        model.setDescription(StringUtils.isNullOrEmpty(description) ? DEFAULT_DESCRIPTION
+        model.setDescription(Utils.isNullOrEmpty(description) ? DEFAULT_DESCRIPTION
             : description);
         model.setEnabled(enabled == null ? DEFAULT_ENABLED : enabled);
         model.setEnableKeyRotation(enabledKeyRotation == null ? DEFAULT_ENABLE_KEY_ROTATION
             : enabledKeyRotation);
-        model.setKeyUsage(StringUtils.isNullOrEmpty(keyUsage) ? DEFAULT_KEY_USAGE : keyUsage);
-        model.setKeySpec(StringUtils.isNullOrEmpty(keySpec) ? DEFAULT_KEY_SPEC : keySpec);
+        model.setKeyUsage(Utils.isNullOrEmpty(keyUsage) ? DEFAULT_KEY_USAGE : keyUsage);
+        model.setKeySpec(Utils.isNullOrEmpty(keySpec) ? DEFAULT_KEY_SPEC : keySpec);
         return model;
     }
 
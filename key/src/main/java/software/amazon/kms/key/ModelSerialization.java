@@ -0,0 +1,467 @@
+package software.amazon.kms.key;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import software.amazon.cloudformation.proxy.StdCallbackContext;
+import software.amazon.cloudformation.resource.Serializer;
+
+/**
+ * Serializers of the resource model, its tags, the callback context and the explain plan that
+ * read and write the properties one by one, instead of binding the Lombok classes through
+ * reflection, which is what is slow on a cold JVM.
+ *
+ * <p>ResourceModel and Tag are generated on every build and cannot be annotated, so their
+ * serializers are a module, which {@link Translator#MAPPER} and, through
+ * {@link #registerWithWrapper()}, the mappers of the handler wrapper register. The callback
+ * context, its SDK tags and the explain plan name their serializers in annotations, which every
+ * mapper follows. The context is still read back by binding, as only
+ * the plugin can restore the call graphs of its base class, and its call graphs are written by
+ * the serializer of the plugin. Null properties are written or left out as the mapper is
+ * configured to, like binding does.
+ */
+public final class ModelSerialization {
+    static final Module MODULE = new SimpleModule(ModelSerialization.class.getSimpleName())
+        .addSerializer(ResourceModel.class, new ResourceModelSerializer())
+        .addDeserializer(ResourceModel.class, new ResourceModelDeserializer())
+        .addSerializer(Tag.class, new TagSerializer())
+        .addDeserializer(Tag.class, new TagDeserializer());
+
+    // The mappers the plugin keeps private to the serializer of the handler wrapper, for the
+    // requests and responses, and for validating the resource model
+    private static final String[] WRAPPER_MAPPERS = {"OBJECT_MAPPER", "STRICT_OBJECT_MAPPER"};
+
+    private ModelSerialization() {
+    }
+
+    /**
+     * Registers the module with the mappers of the handler wrapper. This is done before the
+     * wrapper reads its first request, as the mappers cache the serializers they look up.
+     *
+     * @return whether the module was registered with every mapper, false if the plugin no longer
+     *     keeps them, in which case the wrapper binds the models
+     */
+    public static boolean registerWithWrapper() {
+        final List<ObjectMapper> mappers = wrapperMappers();
+        mappers.forEach(mapper -> mapper.registerModule(MODULE));
+        return mappers.size() == WRAPPER_MAPPERS.length;
+    }
+
+    static List<ObjectMapper> wrapperMappers() {
+        final List<ObjectMapper> mappers = new ArrayList<>();
+        for (final String name : WRAPPER_MAPPERS) {
+            try {
+                final Field field = Serializer.class.getDeclaredField(name);
+                field.setAccessible(true);
+                mappers.add((ObjectMapper) field.get(null));
+            } catch (final ReflectiveOperationException | ClassCastException e) {
+                // Left to binding
+            }
+        }
+        return mappers;
+    }
+
+    public static final class ResourceModelSerializer extends JsonSerializer<ResourceModel> {
+        @Override
+        public void serialize(final ResourceModel model, final JsonGenerator gen,
+                              final SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeField(gen, provider, "Description", model.getDescription());
+            writeField(gen, provider, "Enabled", model.getEnabled());
+            writeField(gen, provider, "EnableKeyRotation", model.getEnableKeyRotation());
+            writeField(gen, provider, "KeyPolicy", model.getKeyPolicy());
+            writeField(gen, provider, "KeyUsage", model.getKeyUsage());
+            writeField(gen, provider, "KeySpec", model.getKeySpec());
+            writeField(gen, provider, "PendingWindowInDays", model.getPendingWindowInDays());
+            if (writeName(gen, provider, "Tags", model.getTags())) {
+                gen.writeStartArray();
+                for (final Tag tag : model.getTags()) {
+                    TagSerializer.write(tag, gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            writeField(gen, provider, "Arn", model.getArn());
+            writeField(gen, provider, "KeyId", model.getKeyId());
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class ResourceModelDeserializer extends JsonDeserializer<ResourceModel> {
+        @Override
+        public ResourceModel deserialize(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException {
+            final ResourceModel model = new ResourceModel();
+            readObject(p, ctxt, this, ResourceModel.class, name -> {
+                switch (name) {
+                    case "Description":
+                        model.setDescription(readValue(p, ctxt, String.class));
+                        return true;
+                    case "Enabled":
+                        model.setEnabled(readValue(p, ctxt, Boolean.class));
+                        return true;
+                    case "EnableKeyRotation":
+                        model.setEnableKeyRotation(readValue(p, ctxt, Boolean.class));
+                        return true;
+                    case "KeyPolicy":
+                        model.setKeyPolicy(readValue(p, ctxt, Object.class));
+                        return true;
+                    case "KeyUsage":
+                        model.setKeyUsage(readValue(p, ctxt, String.class));
+                        return true;
+                    case "KeySpec":
+                        model.setKeySpec(readValue(p, ctxt, String.class));
+                        return true;
+                    case "PendingWindowInDays":
+                        model.setPendingWindowInDays(readValue(p, ctxt, Integer.class));
+                        return true;
+                    case "Tags":
+                        model.setTags(readArray(p, ctxt, new HashSet<>(),
+                            () -> TagDeserializer.read(p, ctxt)));
+                        return true;
+                    case "Arn":
+                        model.setArn(readValue(p, ctxt, String.class));
+                        return true;
+                    case "KeyId":
+                        model.setKeyId(readValue(p, ctxt, String.class));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+            return model;
+        }
+    }
+
+    public static final class TagSerializer extends JsonSerializer<Tag> {
+        @Override
+        public void serialize(final Tag tag, final JsonGenerator gen,
+                              final SerializerProvider provider) throws IOException {
+            write(tag, gen, provider);
+        }
+
+        static void write(final Tag tag, final JsonGenerator gen,
+                          final SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeField(gen, provider, "Key", tag.getKey());
+            writeField(gen, provider, "Value", tag.getValue());
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class TagDeserializer extends JsonDeserializer<Tag> {
+        @Override
+        public Tag deserialize(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException {
+            return read(p, ctxt);
+        }
+
+        static Tag read(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException {
+            final Tag tag = new Tag();
+            readObject(p, ctxt, null, Tag.class, name -> {
+                switch (name) {
+                    case "Key":
+                        tag.setKey(readValue(p, ctxt, String.class));
+                        return true;
+                    case "Value":
+                        tag.setValue(readValue(p, ctxt, String.class));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+            return tag;
+        }
+    }
+
+    public static final class CallbackContextSerializer extends JsonSerializer<CallbackContext> {
+        private static final StdCallbackContext.Serializer CALL_GRAPHS_SERIALIZER =
+            new StdCallbackContext.Serializer();
+
+        @Override
+        public void serialize(final CallbackContext context, final JsonGenerator gen,
+                              final SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName("callGraphs");
+            CALL_GRAPHS_SERIALIZER.serialize(context.callGraphs(), gen, provider);
+            gen.writeBooleanField("keyEnabled", context.isKeyEnabled());
+            gen.writeBooleanField("propagated", context.isPropagated());
+            gen.writeBooleanField("keyPolicyUpdated", context.isKeyPolicyUpdated());
+            writeField(gen, provider, "marker", context.getMarker());
+            if (writeName(gen, provider, "existingTags", context.getExistingTags())) {
+                gen.writeStartArray();
+                for (final software.amazon.awssdk.services.kms.model.Tag tag
+                    : context.getExistingTags()) {
+                    SdkTagSerializer.write(tag, gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            if (writeName(gen, provider, "completedMutations", context.getCompletedMutations())) {
+                gen.writeStartArray();
+                for (final KeyUpdatePlan.Mutation mutation : context.getCompletedMutations()) {
+                    gen.writeString(mutation.name());
+                }
+                gen.writeEndArray();
+            }
+            gen.writeBooleanField("dryRun", context.isDryRun());
+            if (writeName(gen, provider, "explainPlan", context.getExplainPlan())) {
+                ExplainPlanSerializer.write(context.getExplainPlan(), gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    // The tags of the key in the callback context, in the format of the SDK model
+    public static final class SdkTagSerializer
+        extends JsonSerializer<software.amazon.awssdk.services.kms.model.Tag> {
+        @Override
+        public void serialize(final software.amazon.awssdk.services.kms.model.Tag tag,
+                              final JsonGenerator gen, final SerializerProvider provider)
+            throws IOException {
+            write(tag, gen, provider);
+        }
+
+        static void write(final software.amazon.awssdk.services.kms.model.Tag tag,
+                          final JsonGenerator gen, final SerializerProvider provider)
+            throws IOException {
+            gen.writeStartObject();
+            writeField(gen, provider, "TagKey", tag.tagKey());
+            writeField(gen, provider, "TagValue", tag.tagValue());
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class SdkTagDeserializer
+        extends JsonDeserializer<software.amazon.awssdk.services.kms.model.Tag> {
+        @Override
+        public software.amazon.awssdk.services.kms.model.Tag deserialize(
+            final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            final software.amazon.awssdk.services.kms.model.Tag.Builder tag =
+                software.amazon.awssdk.services.kms.model.Tag.builder();
+            readObject(p, ctxt, this, software.amazon.awssdk.services.kms.model.Tag.class,
+                name -> {
+                    switch (name) {
+                        case "TagKey":
+                            tag.tagKey(readValue(p, ctxt, String.class));
+                            return true;
+                        case "TagValue":
+                            tag.tagValue(readValue(p, ctxt, String.class));
+                            return true;
+                        default:
+                            return false;
+                    }
+                });
+            return tag.build();
+        }
+    }
+
+    public static final class ExplainPlanSerializer extends JsonSerializer<ExplainPlan> {
+        @Override
+        public void serialize(final ExplainPlan plan, final JsonGenerator gen,
+                              final SerializerProvider provider) throws IOException {
+            write(plan, gen);
+        }
+
+        static void write(final ExplainPlan plan, final JsonGenerator gen) throws IOException {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("stages");
+            for (final ExplainPlan.Stage stage : plan.getStages()) {
+                gen.writeStartObject();
+                gen.writeFieldName("operations");
+                writeStrings(gen, stage.getOperations());
+                gen.writeNumberField("sequentialCalls", stage.getSequentialCalls());
+                gen.writeNumberField("waitSeconds", stage.getWaitSeconds());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeNumberField("calls", plan.getCalls());
+            gen.writeNumberField("mutatingCalls", plan.getMutatingCalls());
+            gen.writeNumberField("waits", plan.getWaits());
+            gen.writeNumberField("estimatedMillis", plan.getEstimatedMillis());
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class ExplainPlanDeserializer extends JsonDeserializer<ExplainPlan> {
+        @Override
+        public ExplainPlan deserialize(final JsonParser p, final DeserializationContext ctxt)
+            throws IOException {
+            final ExplainPlan plan = new ExplainPlan();
+            readObject(p, ctxt, this, ExplainPlan.class, name -> {
+                switch (name) {
+                    case "stages":
+                        plan.setStages(readArray(p, ctxt, new ArrayList<>(),
+                            () -> readStage(p, ctxt)));
+                        return true;
+                    case "calls":
+                        plan.setCalls(p.getValueAsInt());
+                        return true;
+                    case "mutatingCalls":
+                        plan.setMutatingCalls(p.getValueAsInt());
+                        return true;
+                    case "waits":
+                        plan.setWaits(p.getValueAsInt());
+                        return true;
+                    case "estimatedMillis":
+                        plan.setEstimatedMillis(p.getValueAsLong());
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+            return plan;
+        }
+
+        private static ExplainPlan.Stage readStage(final JsonParser p,
+                                                   final DeserializationContext ctxt)
+            throws IOException {
+            final ExplainPlan.Stage stage = new ExplainPlan.Stage();
+            readObject(p, ctxt, null, ExplainPlan.Stage.class, name -> {
+                switch (name) {
+                    case "operations":
+                        stage.setOperations(readArray(p, ctxt, new ArrayList<>(),
+                            () -> readValue(p, ctxt, String.class)));
+                        return true;
+                    case "sequentialCalls":
+                        stage.setSequentialCalls(p.getValueAsInt());
+                        return true;
+                    case "waitSeconds":
+                        stage.setWaitSeconds(p.getValueAsInt());
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+            return stage;
+        }
+    }
+
+    // Writes the name of a property that is not null, or the null property if the mapper keeps
+    // nulls. Returns whether the value of the property is to be written.
+    private static boolean writeName(final JsonGenerator gen, final SerializerProvider provider,
+                                     final String name, final Object value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            return true;
+        }
+
+        final JsonInclude.Include inclusion =
+            provider.getConfig().getDefaultPropertyInclusion().getValueInclusion();
+        if (inclusion == JsonInclude.Include.ALWAYS
+            || inclusion == JsonInclude.Include.USE_DEFAULTS) {
+            gen.writeNullField(name);
+        }
+        return false;
+    }
+
+    // Scalars, lists and maps, which the mapper writes without introspection. Strings, booleans
+    // and integers are written directly, saving the lookup of their serializers.
+    private static void writeField(final JsonGenerator gen, final SerializerProvider provider,
+                                   final String name, final Object value) throws IOException {
+        if (!writeName(gen, provider, name, value)) {
+            return;
+        }
+
+        if (value instanceof String) {
+            gen.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            gen.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            gen.writeNumber((Integer) value);
+        } else {
+            provider.defaultSerializeValue(value, gen);
+        }
+    }
+
+    private static void writeStrings(final JsonGenerator gen, final Collection<String> values)
+        throws IOException {
+        gen.writeStartArray();
+        for (final String value : values) {
+            gen.writeString(value);
+        }
+        gen.writeEndArray();
+    }
+
+    @FunctionalInterface
+    private interface PropertyReader {
+        // Reads the value of a property, returns false if the property is unknown
+        boolean read(String name) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        T read() throws IOException;
+    }
+
+    // Reads the properties of an object, and leaves the unknown ones to the mapper, which
+    // fails or skips them as it is configured to
+    private static void readObject(final JsonParser p, final DeserializationContext ctxt,
+                                   final JsonDeserializer<?> deserializer, final Class<?> type,
+                                   final PropertyReader reader) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            ctxt.handleUnexpectedToken(type, p);
+        }
+
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            final String name = p.getCurrentName();
+            p.nextToken();
+            if (!reader.read(name)) {
+                ctxt.handleUnknownProperty(p, deserializer, type, name);
+            }
+        }
+    }
+
+    private static <T, C extends Collection<T>> C readArray(final JsonParser p,
+                                                            final DeserializationContext ctxt,
+                                                            final C elements,
+                                                            final ElementReader<T> reader)
+        throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            ctxt.handleUnexpectedToken(elements.getClass(), p);
+        }
+
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            elements.add(p.currentToken() == JsonToken.VALUE_NULL ? null : reader.read());
+        }
+        return elements;
+    }
+
+    // Reads strings, booleans and integers of the expected token directly, and leaves any other
+    // token to the mapper, which coerces it or fails as it is configured to
+    private static <T> T readValue(final JsonParser p, final DeserializationContext ctxt,
+                                   final Class<T> type) throws IOException {
+        final JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (type == String.class && token == JsonToken.VALUE_STRING) {
+            return type.cast(p.getText());
+        } else if (type == Boolean.class && token.isBoolean()) {
+            return type.cast(token == JsonToken.VALUE_TRUE);
+        } else if (type == Integer.class && token == JsonToken.VALUE_NUMBER_INT
+            && p.getNumberType() == JsonParser.NumberType.INT) {
+            return type.cast(p.getIntValue());
+        }
+        return ctxt.readValue(p, type);
+    }
+}
@@ -0,0 +1,126 @@
+package software.amazon.kms.key;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+
+/**
+ * Lists the next page of a listing in the background, on the fan-out executor, while the
+ * current page is processed, so that the next List invocation, or the next iteration of a scan,
+ * finds the page ready. Pages are shared by the invocations in a container, and are keyed by
+ * the scope of the caller, its stack or account and region, along with the request of the page.
+ * The request carries the marker of the page, which the service only returned to a caller
+ * allowed to list the page before it, so a page is only served to the listing that asked for
+ * it, whatever session credentials its next invocation runs with. A page is served once, and
+ * pages nobody asks for expire after a TTL.
+ *
+ * <p>Prefetching is an optimization only: a page that failed or is not ready in time is listed
+ * again by the caller that needs it.
+ */
+public class PagePrefetcher {
+    static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+    static final int MAX_ENTRIES = 1_000;
+
+    private static final PagePrefetcher INSTANCE =
+        new PagePrefetcher(FanOutExecutor.getInstance(), DEFAULT_TTL, System::nanoTime);
+
+    private final ConcurrentMap<PageKey, Entry> entries = new ConcurrentHashMap<>();
+    private final FanOutExecutor fanOutExecutor;
+    private final Duration ttl;
+    private final LongSupplier nanoClock;
+
+    PagePrefetcher(final FanOutExecutor fanOutExecutor, final Duration ttl,
+                   final LongSupplier nanoClock) {
+        this.fanOutExecutor = fanOutExecutor;
+        this.ttl = ttl;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Gets the prefetcher shared by all handlers in this container.
+     */
+    public static PagePrefetcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets a page, from the background listing when it was prefetched.
+     *
+     * @param caller   the scope of the caller, see BaseHandlerStd#callerPrincipal
+     * @param request  the request of the page
+     * @param listPage lists the page
+     * @param <RequestT>  the request type of the list call
+     * @param <ResponseT> the response type of the list call
+     * @return the page
+     */
+    public <RequestT, ResponseT> ResponseT fetch(final String caller, final RequestT request,
+                                                 final Function<RequestT, ResponseT> listPage) {
+        final Entry entry = entries.remove(new PageKey(caller, request));
+        if (entry != null && entry.expiry - nanoClock.getAsLong() > 0) {
+            try {
+                @SuppressWarnings("unchecked") final ResponseT page = (ResponseT) entry.page
+                    .get(entry.expiry - nanoClock.getAsLong(), TimeUnit.NANOSECONDS);
+                return page;
+            } catch (final ExecutionException | TimeoutException e) {
+                // Listed again below
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CfnInternalFailureException(e);
+            }
+        }
+
+        return listPage.apply(request);
+    }
+
+    /**
+     * Starts listing a page in the background, unless it is already being listed.
+     *
+     * @param caller   the scope of the caller, see BaseHandlerStd#callerPrincipal
+     * @param request  the request of the page
+     * @param listPage lists the page
+     * @param <RequestT>  the request type of the list call
+     * @param <ResponseT> the response type of the list call
+     */
+    public <RequestT, ResponseT> void prefetch(final String caller, final RequestT request,
+                                               final Function<RequestT, ResponseT> listPage) {
+        final long now = nanoClock.getAsLong();
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(entry -> entry.expiry - now <= 0);
+            if (entries.size() >= MAX_ENTRIES) {
+                // Listings are not waiting on that many pages, the callers went away
+                entries.clear();
+            }
+        }
+
+        entries.compute(new PageKey(caller, request), (key, entry) ->
+            entry != null && entry.expiry - now > 0 ? entry : new Entry(
+                fanOutExecutor.submit(() -> listPage.apply(request), ttl), now + ttl.toNanos()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @lombok.Value
+    private static class PageKey {
+        String caller;
+        Object request;
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<?> page;
+        private final long expiry;
+
+        private Entry(final CompletableFuture<?> page, final long expiry) {
+            this.page = page;
+            this.expiry = expiry;
+        }
+    }
+}
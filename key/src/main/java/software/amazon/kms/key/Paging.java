@@ -0,0 +1,58 @@
+package software.amazon.kms.key;
+
+import java.util.Map;
+
+/**
+ * Settings of the list calls, read from the environment variables of the handler function: the
+ * size of the pages, and whether the next page is listed in the background while the current
+ * one is processed. A page size that is not configured keeps the service default, and
+ * misconfigured values are ignored.
+ */
+@lombok.Value
+@lombok.Builder
+public class Paging {
+    static final String PAGE_SIZE = "KMS_LIST_PAGE_SIZE";
+    static final String PREFETCH = "KMS_LIST_PREFETCH";
+
+    Integer pageSize;
+    // Lists the next page in the background, see PagePrefetcher
+    boolean prefetch;
+
+    /**
+     * Reads the paging settings from the environment variables of the handler function.
+     */
+    public static Paging fromEnvironment() {
+        return fromMap(System.getenv());
+    }
+
+    static Paging fromMap(final Map<String, String> environment) {
+        return Paging.builder()
+            .pageSize(parsePositive(environment.get(PAGE_SIZE)))
+            .prefetch(Boolean.parseBoolean(environment.get(PREFETCH)))
+            .build();
+    }
+
+    /**
+     * Gets the page size to request from a list call.
+     *
+     * @param maxPageSize the largest page the list call returns
+     * @return the configured page size, capped by the largest page, or null for the service
+     *     default
+     */
+    public Integer limit(final int maxPageSize) {
+        return pageSize == null ? null : Math.min(pageSize, maxPageSize);
+    }
+
+    private static Integer parsePositive(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            final int parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : null;
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package software.amazon.kms.key;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+/**
+ * A handler pipeline of steps that each return a future of a progress event, the non-blocking
+ * counterpart of chaining {@link ProgressEvent#then(Function)}. Steps run in the order they are
+ * added, and independent steps added together with {@link #thenAll(List)} run concurrently on
+ * the fan-out executor.
+ *
+ * <p>The pipeline keeps the semantics of a chain of progress events: a step only runs while the
+ * previous event can continue, i.e. it is in progress without a callback delay, and otherwise
+ * the event is passed on to the end of the pipeline. Exceptions thrown by a step fail the
+ * pipeline as they are, as they would fail a chain.
+ */
+public final class ProgressPipeline {
+    // Longest time a stage of independent steps may take, a callback delay is no longer
+    static final Duration STAGE_TIMEOUT =
+        Duration.ofSeconds(BaseHandlerStd.CALLBACK_DELAY_SECONDS);
+
+    private final CompletableFuture<ProgressEvent<ResourceModel, CallbackContext>> progress;
+    private final FanOutExecutor fanOutExecutor;
+    private final Duration stageTimeout;
+
+    private ProgressPipeline(
+        final CompletableFuture<ProgressEvent<ResourceModel, CallbackContext>> progress,
+        final FanOutExecutor fanOutExecutor,
+        final Duration stageTimeout) {
+        this.progress = progress;
+        this.fanOutExecutor = fanOutExecutor;
+        this.stageTimeout = stageTimeout;
+    }
+
+    /**
+     * Starts a pipeline.
+     *
+     * @param progressEvent  the event the first step receives
+     * @param fanOutExecutor the executor running the independent steps
+     * @return the pipeline
+     */
+    public static ProgressPipeline start(
+        final ProgressEvent<ResourceModel, CallbackContext> progressEvent,
+        final FanOutExecutor fanOutExecutor) {
+        return start(progressEvent, fanOutExecutor, STAGE_TIMEOUT);
+    }
+
+    static ProgressPipeline start(
+        final ProgressEvent<ResourceModel, CallbackContext> progressEvent,
+        final FanOutExecutor fanOutExecutor,
+        final Duration stageTimeout) {
+        return new ProgressPipeline(CompletableFuture.completedFuture(progressEvent),
+            fanOutExecutor, stageTimeout);
+    }
+
+    /**
+     * Adds a step that runs on the thread completing the previous step.
+     */
+    public ProgressPipeline then(
+        final Function<ProgressEvent<ResourceModel, CallbackContext>,
+            ProgressEvent<ResourceModel, CallbackContext>> step) {
+        return thenCompose(progressEvent ->
+            CompletableFuture.completedFuture(step.apply(progressEvent)));
+    }
+
+    /**
+     * Adds a step that returns a future, such as a step calling the asynchronous KMS client.
+     */
+    public ProgressPipeline thenCompose(
+        final Function<ProgressEvent<ResourceModel, CallbackContext>,
+            CompletableFuture<ProgressEvent<ResourceModel, CallbackContext>>> step) {
+        return new ProgressPipeline(progress.thenCompose(progressEvent ->
+            progressEvent.canContinueProgress() ? step.apply(progressEvent)
+                : CompletableFuture.completedFuture(progressEvent)),
+            fanOutExecutor, stageTimeout);
+    }
+
+    /**
+     * Adds steps that do not depend on each other. They all receive the event of the previous
+     * step and run concurrently, and the next step waits for all of them.
+     *
+     * <p>Steps of a stage share the model and the callback context, so they must not update the
+     * same properties. The stage continues with the event of its last step if every step can
+     * continue. Otherwise it stops with the first failed event, then with the first successful
+     * event, and then with the longest callback delay, so that a step waiting for propagation
+     * makes the whole stage wait.
+     */
+    public ProgressPipeline thenAll(
+        final List<Function<ProgressEvent<ResourceModel, CallbackContext>,
+            ProgressEvent<ResourceModel, CallbackContext>>> steps) {
+        return then(progressEvent -> {
+            final List<Callable<ProgressEvent<ResourceModel, CallbackContext>>> tasks =
+                new ArrayList<>(steps.size());
+            steps.forEach(step -> tasks.add(() -> step.apply(progressEvent)));
+            return combine(progressEvent, fanOutExecutor.invokeAll(tasks, stageTimeout));
+        });
+    }
+
+    /**
+     * Waits for the pipeline to complete.
+     *
+     * @return the event of the last step that ran
+     */
+    public ProgressEvent<ResourceModel, CallbackContext> run() {
+        try {
+            return progress.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new CfnInternalFailureException(cause);
+        }
+    }
+
+    private static ProgressEvent<ResourceModel, CallbackContext> combine(
+        final ProgressEvent<ResourceModel, CallbackContext> progressEvent,
+        final List<ProgressEvent<ResourceModel, CallbackContext>> results) {
+        ProgressEvent<ResourceModel, CallbackContext> combined = progressEvent;
+        for (final ProgressEvent<ResourceModel, CallbackContext> result : results) {
+            if (result.isFailed()) {
+                return result;
+            }
+
+            final int rank = rank(result);
+            if (rank > rank(combined) || rank == rank(combined) && (rank == 0
+                || result.getCallbackDelaySeconds() > combined.getCallbackDelaySeconds())) {
+                combined = result;
+            }
+        }
+
+        return combined;
+    }
+
+    // Successful events outrank delayed ones, which outrank the events that can continue
+    private static int rank(final ProgressEvent<ResourceModel, CallbackContext> progressEvent) {
+        if (progressEvent.isSuccess()) {
+            return 2;
+        }
+
+        return progressEvent.canContinueProgress() ? 0 : 1;
+    }
+}
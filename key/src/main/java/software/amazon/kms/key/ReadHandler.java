@@ -1,14 +1,7 @@
 package software.amazon.kms.key;
 
-import com.amazonaws.util.StringUtils;
-import com.fasterxml.jackson.core.type.TypeReference;
-import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
-import org.apache.commons.collections.CollectionUtils;
 import software.amazon.awssdk.services.kms.KmsClient;
-import software.amazon.awssdk.services.kms.model.KeyMetadata;
-import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -16,12 +9,21 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 public class ReadHandler extends BaseHandlerStd {
+    private final ReadPlanMetrics readPlanMetrics;
+
     public ReadHandler() {
         super();
+        this.readPlanMetrics = ReadPlanMetrics.getInstance();
     }
 
     public ReadHandler(final KeyHelper keyHelper) {
-        super(keyHelper);
+        this(keyHelper, AccessDeniedCache.getInstance(), ReadPlanMetrics.getInstance());
+    }
+
+    ReadHandler(final KeyHelper keyHelper, final AccessDeniedCache accessDeniedCache,
+                final ReadPlanMetrics readPlanMetrics) {
+        super(keyHelper, accessDeniedCache);
+        this.readPlanMetrics = readPlanMetrics;
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -31,75 +33,112 @@ public class ReadHandler extends BaseHandlerStd {
         final ProxyClient<KmsClient> proxyClient,
         final Logger logger) {
         final ResourceModel model = request.getDesiredResourceState();
+        final String principal = callerPrincipal(request);
 
         return ProgressEvent.progress(model, callbackContext)
-            .then(
-                progress -> proxy.initiate("kms::describe-key", proxyClient, model, callbackContext)
-                    .translateToServiceRequest(Translator::describeKeyRequest)
-                    .makeServiceCall(keyHelper::describeKey)
-                    .done(describeKeyResponse -> {
-                        final KeyMetadata keyMetadata = describeKeyResponse.keyMetadata();
+            .then(progress -> describeKey(proxy, proxyClient, model, callbackContext,
+                keyMetadata -> {
+                    model.setArn(keyMetadata.arn());
+                    model.setKeyId(keyMetadata.keyId());
+                    model.setDescription(keyMetadata.description());
+                    model.setEnabled(keyMetadata.enabled());
+                    model.setKeyUsage(keyMetadata.keyUsageAsString());
+                    model.setKeySpec(keyMetadata.customerMasterKeySpecAsString());
 
-                        resourceStateCheck(keyMetadata);
+                    // Only make the calls that can succeed for this kind of key
+                    final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(keyMetadata);
+                    logger.log(String.format("Read plan for key %s: %s",
+                        keyMetadata.keyId(), readPlan));
+                    readPlanMetrics.recordPlan(readPlan);
+                    return readKeyAttributes(proxy, proxyClient, model, callbackContext,
+                        principal, readPlan);
+                }))
+            .then(progress -> {
+                if (!Utils.isNullOrEmpty(callbackContext.getExistingTags())) {
+                    model.setTags(
+                        Translator.translateTagsFromSdk(callbackContext.getExistingTags()));
+                }
+                return ProgressEvent.defaultSuccessHandler(model);
+            });
+    }
 
-                        model.setArn(keyMetadata.arn());
-                        model.setKeyId(keyMetadata.keyId());
-                        model.setDescription(keyMetadata.description());
-                        model.setEnabled(keyMetadata.enabled());
-                        model.setKeyUsage(keyMetadata.keyUsageAsString());
-                        model.setKeySpec(keyMetadata.customerMasterKeySpecAsString());
-                        return ProgressEvent.progress(model, callbackContext);
-                    })
-            )
+    private ProgressEvent<ResourceModel, CallbackContext> readKeyAttributes(
+        final AmazonWebServicesClientProxy proxy,
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final String principal,
+        final KeyReadPlan readPlan) {
+        return ProgressEvent.progress(model, callbackContext)
             // Retrieving the key policy can potentially cause an access denied exception
-            .then(progress -> softFailAccessDenied(() -> proxy
-                .initiate("kms::get-key-policy", proxyClient, model, callbackContext)
-                .translateToServiceRequest((m) -> Translator.getKeyPolicyRequest(m.getKeyId()))
-                .makeServiceCall(keyHelper::getKeyPolicy)
-                .done(getKeyPolicyResponse -> {
-                    model.setKeyPolicy(deserializeKeyPolicy(getKeyPolicyResponse.policy()));
-                    return ProgressEvent.progress(model, callbackContext);
-                }), model, callbackContext)
-            )
+            .then(progress -> {
+                // Skip the call if it was recently denied for this caller
+                if (accessDeniedCache
+                    .isDenied(principal, model.getKeyId(), KeyHelper.GET_KEY_POLICY)) {
+                    readPlanMetrics.recordDenied();
+                    return progress;
+                }
+
+                return proxy.initiate("kms::get-key-policy", proxyClient, model, callbackContext)
+                    .translateToServiceRequest((m) -> Translator.getKeyPolicyRequest(m.getKeyId()))
+                    .makeServiceCall(keyHelper::tryGetKeyPolicy)
+                    .done(getKeyPolicyResult -> softFailAccessDenied(getKeyPolicyResult, principal,
+                        KeyHelper.GET_KEY_POLICY, getKeyPolicyResponse -> {
+                            model.setKeyPolicy(
+                                deserializeKeyPolicy(getKeyPolicyResponse.policy()));
+                            return ProgressEvent.progress(model, callbackContext);
+                        }, model, callbackContext));
+            })
             // Retrieving the rotation status can potentially cause an access denied exception
-            .then(progress -> softFailAccessDenied(() -> proxy
-                .initiate("kms::get-key-rotation-status", proxyClient, model, callbackContext)
-                .translateToServiceRequest(Translator::getKeyRotationStatusRequest)
-                .makeServiceCall(keyHelper::getKeyRotationStatus)
-                .done(getKeyRotationStatusResponse -> {
-                    model.setEnableKeyRotation(getKeyRotationStatusResponse.keyRotationEnabled());
-                    return ProgressEvent.progress(model, callbackContext);
-                }), model, callbackContext)
-            )
+            .then(progress -> {
+                if (!readPlan.isFetchKeyRotationStatus()) {
+                    if (readPlan.getImpliedKeyRotation() != null) {
+                        model.setEnableKeyRotation(readPlan.getImpliedKeyRotation());
+                    }
+                    return progress;
+                }
+
+                if (accessDeniedCache
+                    .isDenied(principal, model.getKeyId(), KeyHelper.GET_KEY_ROTATION_STATUS)) {
+                    readPlanMetrics.recordDenied();
+                    return progress;
+                }
+
+                return proxy
+                    .initiate("kms::get-key-rotation-status", proxyClient, model, callbackContext)
+                    .translateToServiceRequest(Translator::getKeyRotationStatusRequest)
+                    .makeServiceCall(keyHelper::tryGetKeyRotationStatus)
+                    .done(getKeyRotationStatusResult -> softFailAccessDenied(
+                        getKeyRotationStatusResult, principal, KeyHelper.GET_KEY_ROTATION_STATUS,
+                        getKeyRotationStatusResponse -> {
+                            model.setEnableKeyRotation(
+                                getKeyRotationStatusResponse.keyRotationEnabled());
+                            return ProgressEvent.progress(model, callbackContext);
+                        }, model, callbackContext));
+            })
             // Retrieving the tags can potentially cause an access denied exception
-            .then(
-                progress -> retrieveResourceTags(proxy, proxyClient, progress, true))
             .then(progress -> {
-                if (!CollectionUtils.isEmpty(callbackContext.getExistingTags())) {
-                    model.setTags(
-                        Translator.translateTagsFromSdk(callbackContext.getExistingTags()));
+                if (!readPlan.isFetchTags()) {
+                    return progress;
                 }
-                return ProgressEvent.defaultSuccessHandler(model);
+
+                if (accessDeniedCache
+                    .isDenied(principal, model.getKeyId(), KeyHelper.LIST_RESOURCE_TAGS)) {
+                    readPlanMetrics.recordDenied();
+                    return progress;
+                }
+
+                return retrieveResourceTags(proxy, proxyClient, progress, principal, true);
             });
     }
 
     /**
-     * Deserializes a key policy from a string.
+     * Deserializes a key policy from a string. The policy is only parsed once it is accessed.
      *
      * @param keyPolicy the policy to deserialize
      * @return the deserialized policy
      */
     public static Map<String, Object> deserializeKeyPolicy(final String keyPolicy) {
-        if (StringUtils.isNullOrEmpty(keyPolicy)) {
-            return null;
-        }
-
-        try {
-            return Translator.MAPPER
-                .readValue(keyPolicy, new TypeReference<HashMap<String, Object>>() {
-                });
-        } catch (final IOException e) {
-            throw new CfnInternalFailureException(e);
-        }
+        return KeyPolicyCodec.deserialize(keyPolicy);
     }
 }
@@ -0,0 +1,62 @@
+package software.amazon.kms.key;
+
+/**
+ * Counts the calls following DescribeKey that the read plans of the Read Handler make or
+ * leave out. A call is planned when the plan makes it and skipped when the key metadata rules
+ * it out. A planned call is also counted as denied when it is not made because the caller was
+ * recently denied it.
+ */
+public class ReadPlanMetrics {
+    // GetKeyPolicy, GetKeyRotationStatus and ListResourceTags
+    static final int READ_CALLS = 3;
+
+    private static final ReadPlanMetrics INSTANCE = new ReadPlanMetrics();
+
+    private long reads;
+    private long plannedCalls;
+    private long skippedCalls;
+    private long deniedCalls;
+
+    public static ReadPlanMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records the calls of a read plan.
+     *
+     * @param readPlan the plan of a read
+     */
+    public synchronized void recordPlan(final KeyReadPlan readPlan) {
+        // The key policy is always fetched
+        final int planned = 1 + (readPlan.isFetchKeyRotationStatus() ? 1 : 0)
+            + (readPlan.isFetchTags() ? 1 : 0);
+        reads++;
+        plannedCalls += planned;
+        skippedCalls += READ_CALLS - planned;
+    }
+
+    /**
+     * Records a planned call that is not made, as it was recently denied.
+     */
+    public synchronized void recordDenied() {
+        deniedCalls++;
+    }
+
+    /**
+     * Gets the call counts since the container started.
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(reads, plannedCalls, skippedCalls, deniedCalls);
+    }
+
+    /**
+     * Read call counts.
+     */
+    @lombok.Value
+    public static class Snapshot {
+        long reads;
+        long plannedCalls;
+        long skippedCalls;
+        long deniedCalls;
+    }
+}
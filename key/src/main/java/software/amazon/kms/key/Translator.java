@@ -1,6 +1,5 @@
 package software.amazon.kms.key;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Collection;
 import java.util.Collections;
@@ -26,11 +25,11 @@ import software.amazon.awssdk.services.kms.model.Tag;
 import software.amazon.awssdk.services.kms.model.TagResourceRequest;
 import software.amazon.awssdk.services.kms.model.UntagResourceRequest;
 import software.amazon.awssdk.services.kms.model.UpdateKeyDescriptionRequest;
-import software.amazon.cloudformation.exceptions.TerminalException;
 
 public class Translator {
     private static final String DEFAULT_POLICY_NAME = "default";
-    public static final ObjectMapper MAPPER = new ObjectMapper();
+    public static final ObjectMapper MAPPER =
+        new ObjectMapper().registerModule(ModelSerialization.MODULE);
 
     private Translator() {
         // Prevent instantiation
@@ -94,24 +93,22 @@ public class Translator {
     }
 
     static PutKeyPolicyRequest putKeyPolicyRequest(final ResourceModel resourceModel) {
+        return putKeyPolicyRequest(resourceModel, new KeyPolicyCodec());
+    }
+
+    // Reuses the policy already serialized by the codec, e.g. to compare it with the previous one
+    static PutKeyPolicyRequest putKeyPolicyRequest(final ResourceModel resourceModel,
+                                                   final KeyPolicyCodec policyCodec) {
         return PutKeyPolicyRequest.builder()
             .keyId(resourceModel.getKeyId())
             .policyName(DEFAULT_POLICY_NAME)
-            .policy(translatePolicyInput(resourceModel.getKeyPolicy()))
+            .policy(policyCodec.serialize(resourceModel.getKeyPolicy()))
             .build();
     }
 
     static String translatePolicyInput(
         final Object policy) { // KeyPolicy could be either String or JSONObject
-        // this is a helper to write policy correctly
-        if (policy instanceof Map) {
-            try {
-                return MAPPER.writeValueAsString(policy);
-            } catch (final JsonProcessingException e) {
-                throw new TerminalException(e);
-            }
-        }
-        return (String) policy;
+        return KeyPolicyCodec.serializePolicy(policy);
     }
 
     static UntagResourceRequest untagResourceRequest(final String keyId,
@@ -141,8 +138,13 @@ public class Translator {
 
     // List handler
     static ListKeysRequest listKeysRequest(final String marker) {
+        return listKeysRequest(marker, null);
+    }
+
+    static ListKeysRequest listKeysRequest(final String marker, final Integer limit) {
         return ListKeysRequest.builder()
             .marker(marker)
+            .limit(limit)
             .build();
     }
 
@@ -2,28 +2,61 @@ package software.amazon.kms.key;
 
 import static software.amazon.kms.key.ModelAdapter.setDefaults;
 import static software.amazon.kms.key.ModelAdapter.unsetWriteOnly;
-import static software.amazon.kms.key.Translator.translatePolicyInput;
 
-
-import com.google.common.collect.Sets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.core.exception.RetryableException;
 import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
 import software.amazon.awssdk.services.kms.model.Tag;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Delay;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.proxy.delay.Exponential;
 
 public class UpdateHandler extends BaseHandlerStd {
+    // A throttled tag write is made this many times in all before the update fails
+    static final int TAG_WRITE_ATTEMPTS = 4;
+
+    private final UpdateMode updateMode;
+
+    /**
+     * Builds the handler run by the handler wrapper, with the update mode of the environment and
+     * the caches shared by the container.
+     */
     public UpdateHandler() {
         super();
+        this.updateMode = UpdateMode.fromEnvironment();
     }
 
     public UpdateHandler(final KeyHelper keyHelper) {
-        super(keyHelper);
+        this(keyHelper, UpdateMode.PREVIOUS_STATE);
+    }
+
+    public UpdateHandler(final KeyHelper keyHelper, final UpdateMode updateMode) {
+        this(keyHelper, AccessDeniedCache.getInstance(), updateMode);
+    }
+
+    UpdateHandler(final KeyHelper keyHelper, final AccessDeniedCache accessDeniedCache,
+                  final UpdateMode updateMode) {
+        super(keyHelper, accessDeniedCache);
+        this.updateMode = updateMode;
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -34,116 +67,413 @@ public class UpdateHandler extends BaseHandlerStd {
         final Logger logger) {
         final ResourceModel model = setDefaults(request.getDesiredResourceState());
         final ResourceModel previousModel = setDefaults(request.getPreviousResourceState());
+        // The actual state of the key when reconciling, properties that could not be read
+        // are null
+        final AtomicReference<ResourceModel> actualModel = new AtomicReference<>();
+        // The reads of the actual state, for dry runs to explain
+        final List<String> readOperations = new ArrayList<>();
+        // Serializes each policy of the models once, for the comparison and for PutKeyPolicy
+        final KeyPolicyCodec policyCodec = new KeyPolicyCodec();
 
-        return ProgressEvent.progress(model, callbackContext)
-            .then(progress -> proxy.initiate("kms::update-key", proxyClient, model, callbackContext)
-                .translateToServiceRequest(Translator::describeKeyRequest)
-                .makeServiceCall(keyHelper::describeKey)
-                .done(describeKeyResponse -> {
-                    resourceStateCheck(describeKeyResponse.keyMetadata());
-
-                    return progress;
-                })
-            )
-            .then(progress -> validateResourceModel(progress, previousModel, model))
+        return ProgressPipeline.start(ProgressEvent.progress(model, callbackContext),
+                fanOutExecutor)
+            // Only the key state is needed to check that the key can be updated
+            .then(progress -> describeKey(proxy, proxyClient, model, callbackContext,
+                keyMetadata -> updateMode == UpdateMode.RECONCILE
+                    ? readActualState(proxy, proxyClient, request, model, callbackContext,
+                    keyMetadata, actualModel, readOperations) : progress))
             .then(progress -> {
-                // If the key is disabled, then it needs to get enabled before updating rotation
-                // Check if key has been enabled and propagated otherwise eventual inconsistency
-                // might occur and rotation status update might hit an invalid state exception
-                if (!previousModel.getEnabled() && model.getEnabled()
-                    && !callbackContext.isKeyEnabled()) {
-                    return updateKeyStatus(proxy, proxyClient, model, callbackContext,
-                        model.getEnabled());
+                // Properties that could not be read are assumed to be as in the previous model
+                final ResourceModel currentModel = actualModel.get() == null ? previousModel
+                    : assumePrevious(actualModel.get(), previousModel);
+                // The update must be possible from the state the key is actually in
+                validateResourceModel(progress, currentModel, model);
+                final KeyUpdatePlan updatePlan =
+                    KeyUpdatePlan.fromModels(currentModel, model, policyCodec);
+                logger.log(String.format("Update plan for key %s from the %s: %s",
+                    model.getKeyId(), updateMode, updatePlan));
+                if (callbackContext.isDryRun()) {
+                    return explained(explainUpdate(proxy, proxyClient, request, model,
+                        callbackContext, updatePlan, readOperations),
+                        dryRunCalls(readOperations), model, callbackContext, logger);
                 }
-                return progress;
+                return applyUpdatePlan(proxy, proxyClient, request, model, callbackContext,
+                    updatePlan, policyCodec, progress);
             })
+            // The whole plan shares a single wait for the mutations to converge
+            .then(BaseHandlerStd::propagate)
             .then(progress -> {
-                // Update rotation if necessary
-                if (previousModel.getEnableKeyRotation() != model.getEnableKeyRotation()) {
-                    return updateKeyRotationStatus(proxy, proxyClient, model, callbackContext,
-                        model.getEnableKeyRotation());
-                }
-                return progress;
+                // The key was mutated, previously denied reads might be allowed now
+                accessDeniedCache.invalidate(model.getKeyId());
+                return ProgressEvent.defaultSuccessHandler(unsetWriteOnly(model));
             })
+            .run();
+    }
+
+    // Reads the actual state of the key in reconcile mode. DescribeKey has already returned
+    // whether the key is enabled and its description, and the key policy and rotation status
+    // are read concurrently. The state is always read afresh, as changes made out of band are
+    // what reconciling is for. Reads that are denied to the caller soft fail, and leave the
+    // property unknown.
+    private ProgressEvent<ResourceModel, CallbackContext> readActualState(
+        final AmazonWebServicesClientProxy proxy,
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final KeyMetadata keyMetadata,
+        final AtomicReference<ResourceModel> readModel,
+        final List<String> readOperations) {
+        final String principal = callerPrincipal(request);
+        final ResourceModel actualModel = ResourceModel.builder().keyId(model.getKeyId()).build();
+        actualModel.setEnabled(keyMetadata.enabled());
+        actualModel.setDescription(keyMetadata.description());
+        actualModel.setKeyUsage(keyMetadata.keyUsageAsString());
+        actualModel.setKeySpec(keyMetadata.customerMasterKeySpecAsString());
+
+        final List<Function<ProgressEvent<ResourceModel, CallbackContext>,
+            ProgressEvent<ResourceModel, CallbackContext>>> reads = new ArrayList<>();
+        if (!accessDeniedCache.isDenied(principal, model.getKeyId(), KeyHelper.GET_KEY_POLICY)) {
+            readOperations.add(KeyHelper.GET_KEY_POLICY);
+            reads.add(progress -> proxy
+                .initiate("kms::get-key-policy", proxyClient, model, callbackContext)
+                .translateToServiceRequest((m) -> Translator.getKeyPolicyRequest(m.getKeyId()))
+                .makeServiceCall(keyHelper::tryGetKeyPolicy)
+                .done(getKeyPolicyResult -> softFailAccessDenied(getKeyPolicyResult, principal,
+                    KeyHelper.GET_KEY_POLICY, getKeyPolicyResponse -> {
+                        actualModel.setKeyPolicy(
+                            KeyPolicyCodec.deserialize(getKeyPolicyResponse.policy()));
+                        return progress;
+                    }, model, callbackContext)));
+        }
+
+        final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(keyMetadata);
+        if (!readPlan.isFetchKeyRotationStatus()) {
+            actualModel.setEnableKeyRotation(readPlan.getImpliedKeyRotation());
+        } else if (!accessDeniedCache
+            .isDenied(principal, model.getKeyId(), KeyHelper.GET_KEY_ROTATION_STATUS)) {
+            readOperations.add(KeyHelper.GET_KEY_ROTATION_STATUS);
+            reads.add(progress -> proxy
+                .initiate("kms::get-key-rotation-status", proxyClient, model, callbackContext)
+                .translateToServiceRequest(Translator::getKeyRotationStatusRequest)
+                .makeServiceCall(keyHelper::tryGetKeyRotationStatus)
+                .done(getKeyRotationStatusResult -> softFailAccessDenied(
+                    getKeyRotationStatusResult, principal, KeyHelper.GET_KEY_ROTATION_STATUS,
+                    getKeyRotationStatusResponse -> {
+                        actualModel.setEnableKeyRotation(
+                            getKeyRotationStatusResponse.keyRotationEnabled());
+                        return progress;
+                    }, model, callbackContext)));
+        }
+
+        return ProgressPipeline.start(ProgressEvent.progress(model, callbackContext),
+                fanOutExecutor)
+            .thenAll(reads)
             .then(progress -> {
-                // Disable the key if necessary
-                // This won't affect other updates since the rotation update already happened and
-                // the other updates are allowed with disabled keys
-                if (previousModel.getEnabled() && !model.getEnabled()) {
-                    // Disable key
-                    return updateKeyStatus(proxy, proxyClient, model, callbackContext,
-                        model.getEnabled());
-                }
+                readModel.set(actualModel);
                 return progress;
             })
-            .then(progress -> {
-                if (!previousModel.getDescription().equals(model.getDescription())) {
-                    return proxy.initiate("kms::update-key-description", proxyClient, model,
-                        callbackContext)
-                        .translateToServiceRequest(Translator::updateKeyDescriptionRequest)
-                        .makeServiceCall(keyHelper::updateKeyDescription)
-                        .progress();
+            .run();
+    }
+
+    private static ResourceModel assumePrevious(final ResourceModel actualModel,
+                                                final ResourceModel previousModel) {
+        return ResourceModel.builder()
+            .keyId(actualModel.getKeyId())
+            .description(Optional.ofNullable(actualModel.getDescription())
+                .orElse(previousModel.getDescription()))
+            .enabled(Optional.ofNullable(actualModel.getEnabled())
+                .orElse(previousModel.getEnabled()))
+            .enableKeyRotation(Optional.ofNullable(actualModel.getEnableKeyRotation())
+                .orElse(previousModel.getEnableKeyRotation()))
+            .keyPolicy(Optional.ofNullable(actualModel.getKeyPolicy())
+                .orElse(previousModel.getKeyPolicy()))
+            .keyUsage(Optional.ofNullable(actualModel.getKeyUsage())
+                .orElse(previousModel.getKeyUsage()))
+            .keySpec(Optional.ofNullable(actualModel.getKeySpec())
+                .orElse(previousModel.getKeySpec()))
+            .build();
+    }
+
+    // Makes the mutations that can be made in this invocation, stage by stage, and waits for
+    // them to propagate if mutations depending on them are left.
+    private ProgressEvent<ResourceModel, CallbackContext> applyUpdatePlan(
+        final AmazonWebServicesClientProxy proxy,
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final KeyUpdatePlan updatePlan,
+        final KeyPolicyCodec policyCodec,
+        final ProgressEvent<ResourceModel, CallbackContext> progressEvent) {
+        final KeyUpdatePlan.Schedule schedule =
+            updatePlan.schedule(completedMutations(callbackContext));
+        ProgressPipeline pipeline = ProgressPipeline.start(progressEvent, fanOutExecutor);
+        for (final Set<KeyUpdatePlan.Mutation> stage : schedule.getStages()) {
+            pipeline = pipeline
+                .thenAll(stage.stream()
+                    .map(mutation -> mutate(proxy, proxyClient, request, model,
+                        callbackContext, mutation, policyCodec))
+                    .collect(Collectors.toList()))
+                .then(progress -> {
+                    final Set<KeyUpdatePlan.Mutation> completed =
+                        completedMutations(callbackContext);
+                    completed.addAll(stage);
+                    callbackContext.setCompletedMutations(completed);
+                    return progress;
+                });
+        }
+
+        return pipeline
+            .then(progress -> schedule.isAwaitingPropagation()
+                ? ProgressEvent.defaultInProgressHandler(callbackContext, CALLBACK_DELAY_SECONDS,
+                model) : progress)
+            .run();
+    }
+
+    // The calls that applying the update plan would make, as a dry run explains them. The
+    // tags are listed, to only explain the tag calls that are needed.
+    private ExplainPlan explainUpdate(
+        final AmazonWebServicesClientProxy proxy,
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final KeyUpdatePlan updatePlan,
+        final List<String> readOperations) {
+        final ExplainPlan explainPlan = new ExplainPlan()
+            .addStage(Collections.singletonList(KeyHelper.DESCRIBE_KEY), 1);
+        if (!readOperations.isEmpty()) {
+            explainPlan.addStage(readOperations, 1);
+        }
+
+        softFailAccessDenied(() -> retrieveResourceTags(proxy, proxyClient,
+            ProgressEvent.progress(model, callbackContext), callerPrincipal(request), false),
+            model, callbackContext);
+        final List<String> tagOperations = new ArrayList<>();
+        tagOperations.add(KeyHelper.LIST_RESOURCE_TAGS);
+        if (!tagsToRemove(request, callbackContext).isEmpty()) {
+            tagOperations.add(KeyHelper.UNTAG_RESOURCE);
+        }
+        if (!tagsToAdd(request, callbackContext).isEmpty()) {
+            tagOperations.add(KeyHelper.TAG_RESOURCE);
+        }
+
+        final Set<KeyUpdatePlan.Mutation> completed = completedMutations(callbackContext);
+        KeyUpdatePlan.Schedule schedule;
+        do {
+            schedule = updatePlan.schedule(completed);
+            for (final Set<KeyUpdatePlan.Mutation> stage : schedule.getStages()) {
+                final List<String> operations = new ArrayList<>();
+                int sequentialCalls = 0;
+                for (final KeyUpdatePlan.Mutation mutation : stage) {
+                    final List<String> mutationOperations =
+                        mutation == KeyUpdatePlan.Mutation.UPDATE_TAGS ? tagOperations
+                            : Collections.singletonList(operation(mutation, model));
+                    operations.addAll(mutationOperations);
+                    sequentialCalls = Math.max(sequentialCalls, mutationOperations.size());
                 }
 
-                return progress;
-            })
-            .then(progress -> {
-                final String previousKeyPolicy = translatePolicyInput(previousModel.getKeyPolicy());
-                final String currentKeyPolicy = translatePolicyInput(model.getKeyPolicy());
-                if (!previousKeyPolicy.equals(currentKeyPolicy) && !callbackContext
-                    .isKeyPolicyUpdated()) { // context carries policy propagation status
+                explainPlan.addStage(operations, sequentialCalls);
+                completed.addAll(stage);
+            }
+
+            if (schedule.isAwaitingPropagation()) {
+                explainPlan.addWait(CALLBACK_DELAY_SECONDS);
+            }
+        } while (schedule.isAwaitingPropagation());
+
+        if (!callbackContext.isPropagated()) {
+            explainPlan.addWait(CALLBACK_DELAY_SECONDS);
+        }
+        return explainPlan;
+    }
+
+    // The reads that a dry run of the update makes itself, as the plan depends on the key state
+    // and the tags
+    private static List<String> dryRunCalls(final List<String> readOperations) {
+        final List<String> dryRunCalls = new ArrayList<>();
+        dryRunCalls.add(KeyHelper.DESCRIBE_KEY);
+        dryRunCalls.addAll(readOperations);
+        dryRunCalls.add(KeyHelper.LIST_RESOURCE_TAGS);
+        return dryRunCalls;
+    }
+
+    private static String operation(final KeyUpdatePlan.Mutation mutation,
+                                    final ResourceModel model) {
+        switch (mutation) {
+            case ENABLE_KEY:
+                return KeyHelper.ENABLE_KEY;
+            case UPDATE_KEY_ROTATION:
+                return model.getEnableKeyRotation() ? KeyHelper.ENABLE_KEY_ROTATION
+                    : KeyHelper.DISABLE_KEY_ROTATION;
+            case DISABLE_KEY:
+                return KeyHelper.DISABLE_KEY;
+            case UPDATE_DESCRIPTION:
+                return KeyHelper.UPDATE_KEY_DESCRIPTION;
+            default:
+                return KeyHelper.PUT_KEY_POLICY;
+        }
+    }
+
+    // Contexts of earlier handler versions only track the key enablement and the key policy
+    private static Set<KeyUpdatePlan.Mutation> completedMutations(
+        final CallbackContext callbackContext) {
+        final Set<KeyUpdatePlan.Mutation> completed = EnumSet.noneOf(KeyUpdatePlan.Mutation.class);
+        Optional.ofNullable(callbackContext.getCompletedMutations()).ifPresent(completed::addAll);
+        if (callbackContext.isKeyEnabled()) {
+            completed.add(KeyUpdatePlan.Mutation.ENABLE_KEY);
+        }
+        if (callbackContext.isKeyPolicyUpdated()) {
+            completed.add(KeyUpdatePlan.Mutation.PUT_KEY_POLICY);
+        }
+        return completed;
+    }
+
+    private Function<ProgressEvent<ResourceModel, CallbackContext>,
+        ProgressEvent<ResourceModel, CallbackContext>> mutate(
+        final AmazonWebServicesClientProxy proxy,
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final KeyUpdatePlan.Mutation mutation,
+        final KeyPolicyCodec policyCodec) {
+        switch (mutation) {
+            case ENABLE_KEY:
+                return progress -> updateKeyStatus(proxy, proxyClient, model, callbackContext,
+                    true);
+            case UPDATE_KEY_ROTATION:
+                return progress -> updateKeyRotationStatus(proxy, proxyClient, model,
+                    callbackContext, model.getEnableKeyRotation());
+            case DISABLE_KEY:
+                return progress -> updateKeyStatus(proxy, proxyClient, model, callbackContext,
+                    false);
+            case UPDATE_DESCRIPTION:
+                return progress -> proxy.initiate("kms::update-key-description", proxyClient,
+                    model, callbackContext)
+                    .translateToServiceRequest(Translator::updateKeyDescriptionRequest)
+                    .makeServiceCall(keyHelper::updateKeyDescription)
+                    .progress();
+            case PUT_KEY_POLICY:
+                return progress -> {
+                    // context carries policy propagation status
                     callbackContext.setKeyPolicyUpdated(true);
                     return proxy
                         .initiate("kms::update-key-keypolicy", proxyClient, model, callbackContext)
-                        .translateToServiceRequest(Translator::putKeyPolicyRequest)
+                        .translateToServiceRequest(
+                            (m) -> Translator.putKeyPolicyRequest(m, policyCodec))
                         .makeServiceCall(keyHelper::putKeyPolicy)
-                        .progress(BaseHandlerStd.CALLBACK_DELAY_SECONDS);
-                    // This requires some propagation delay because the updated policy
-                    // might provision new permissions which are required by the next events
+                        .progress();
+                };
+            default:
+                return progress -> updateTags(proxy, proxyClient, request, model,
+                    callbackContext);
+        }
+    }
+
+    // The tags are written with one UntagResource and one TagResource call, as a key has at
+    // most as many tags as a call can carry
+    private ProgressEvent<ResourceModel, CallbackContext> updateTags(
+        final AmazonWebServicesClientProxy proxy,
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final ResourceModel model,
+        final CallbackContext callbackContext) {
+        return softFailAccessDenied(
+            () -> ProgressEvent.progress(model, callbackContext)
+                .then(progressEvent -> retrieveResourceTags(proxy, proxyClient, progressEvent,
+                    callerPrincipal(request), false))
+                .then(progressEvent -> {
+                    final Set<Tag> tagsToRemove = tagsToRemove(request, callbackContext);
+                    if (!tagsToRemove.isEmpty()) {
+                        return writeTags(proxy, proxyClient, model, callbackContext,
+                            "kms::untag-key",
+                            (m) -> Translator.untagResourceRequest(m.getKeyId(), tagsToRemove),
+                            keyHelper::untagResource);
+                    }
+
+                    return progressEvent;
+                })
+                .then(progressEvent -> {
+                    final Set<Tag> tagsToAdd = tagsToAdd(request, callbackContext);
+                    if (!tagsToAdd.isEmpty()) {
+                        return writeTags(proxy, proxyClient, model, callbackContext,
+                            "kms::tag-key",
+                            (m) -> Translator.tagResourceRequest(m.getKeyId(), tagsToAdd),
+                            keyHelper::tagResource);
+                    }
+
+                    return progressEvent;
+                }), model, callbackContext);
+    }
+
+    // Makes a tag call, retrying it with an exponential backoff while it is throttled. The proxy
+    // rethrows the errors the helper translated without retrying them, so throttling reaches
+    // the proxy as a retryable error, and fails the call as throttled once it is out of attempts.
+    // A call that succeeded is not made again when the handler is invoked again.
+    private <RequestT extends AwsRequest, ResponseT> ProgressEvent<ResourceModel,
+        CallbackContext> writeTags(
+        final AmazonWebServicesClientProxy proxy,
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final String callGraph,
+        final Function<ResourceModel, RequestT> translator,
+        final BiFunction<RequestT, ProxyClient<KmsClient>, ResponseT> call) {
+        return proxy.initiate(callGraph, proxyClient, model, callbackContext)
+            .translateToServiceRequest(translator)
+            .backoffDelay(tagWriteDelay())
+            .makeServiceCall((tagRequest, client) -> {
+                try {
+                    return call.apply(tagRequest, client);
+                } catch (final CfnThrottlingException e) {
+                    throw RetryableException.builder().message(e.getMessage()).cause(e).build();
+                }
+            })
+            .handleError((tagRequest, e, client, m, context) -> {
+                // The attempts count the retries made so far
+                if (e instanceof RetryableException
+                    && context.attempts(callGraph) >= TAG_WRITE_ATTEMPTS - 1) {
+                    return ProgressEvent.defaultFailureHandler(e.getCause(),
+                        HandlerErrorCode.Throttling);
                 }
 
-                return progress;
+                throw e;
             })
-            .then(progress -> softFailAccessDenied(
-                () -> ProgressEvent.progress(model, callbackContext)
-                    .then(progressEvent -> retrieveResourceTags(proxy, proxyClient, progressEvent,
-                        false))
-                    .then(progressEvent -> {
-                        final Set<Tag> existingTags =
-                            Optional.ofNullable(callbackContext.getExistingTags())
-                                .orElse(new HashSet<>());
-                        final Set<Tag> tagsToRemove = Sets.difference(existingTags,
-                            Translator.translateTagsToSdk(request.getDesiredResourceTags()));
-                        if (!tagsToRemove.isEmpty()) {
-                            return proxy
-                                .initiate("kms::untag-key", proxyClient, model, callbackContext)
-                                .translateToServiceRequest((m) -> Translator
-                                    .untagResourceRequest(m.getKeyId(), tagsToRemove))
-                                .makeServiceCall(keyHelper::untagResource)
-                                .progress();
-                        }
-
-                        return progressEvent;
-                    })
-                    .then(progressEvent -> {
-                        final Set<Tag> existingTags =
-                            Optional.ofNullable(callbackContext.getExistingTags())
-                                .orElse(new HashSet<>());
-                        final Set<Tag> tagsToAdd = Sets.difference(
-                            Translator.translateTagsToSdk(request.getDesiredResourceTags()),
-                            existingTags);
-                        if (!tagsToAdd.isEmpty()) {
-                            return proxy
-                                .initiate("kms::tag-key", proxyClient, model, callbackContext)
-                                .translateToServiceRequest((m) -> Translator
-                                    .tagResourceRequest(m.getKeyId(), tagsToAdd))
-                                .makeServiceCall(keyHelper::tagResource)
-                                .progress();
-                        }
-
-                        return progressEvent;
-                    }), model, callbackContext))
-            .then(BaseHandlerStd::propagate)
-            .then(progress -> ProgressEvent.defaultSuccessHandler(unsetWriteOnly(model)));
+            .progress();
+    }
+
+    // Backs off 2, 4 and 8 seconds, the timeout only bounds the attempts left after a
+    // re-invocation. The delay accrues across retries, so every call needs its own.
+    static Delay tagWriteDelay() {
+        return Exponential.of()
+            .minDelay(Duration.ofSeconds(1))
+            .powerBy(2)
+            .timeout(Duration.ofSeconds(30))
+            .build();
+    }
+
+    // The tag keys that are tagged with a new value are not untagged, as tagging overwrites
+    // their value
+    private static Set<Tag> tagsToRemove(final ResourceHandlerRequest<ResourceModel> request,
+                                         final CallbackContext callbackContext) {
+        final Set<String> retaggedKeys = tagsToAdd(request, callbackContext).stream()
+            .map(Tag::tagKey)
+            .collect(Collectors.toSet());
+        return Utils.difference(existingTags(callbackContext),
+            Translator.translateTagsToSdk(request.getDesiredResourceTags())).stream()
+            .filter(tag -> !retaggedKeys.contains(tag.tagKey()))
+            .collect(Collectors.toSet());
+    }
+
+    private static Set<Tag> tagsToAdd(final ResourceHandlerRequest<ResourceModel> request,
+                                      final CallbackContext callbackContext) {
+        return Utils.difference(Translator.translateTagsToSdk(request.getDesiredResourceTags()),
+            existingTags(callbackContext));
+    }
+
+    private static Set<Tag> existingTags(final CallbackContext callbackContext) {
+        return Optional.ofNullable(callbackContext.getExistingTags()).orElse(new HashSet<>());
     }
 }
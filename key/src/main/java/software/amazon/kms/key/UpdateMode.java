@@ -0,0 +1,38 @@
+package software.amazon.kms.key;
+
+import java.util.Locale;
+
+/**
+ * Controls what the Update Handler compares the desired model with to decide which writes to
+ * make.
+ */
+public enum UpdateMode {
+    // Compares with the previous model, as CloudFormation last saw the key
+    PREVIOUS_STATE,
+    // Compares with the actual state of the key, read from KMS or from a recent read, and only
+    // makes the writes that have not converged yet
+    RECONCILE;
+
+    static final String ENVIRONMENT_VARIABLE = "KEY_UPDATE_MODE";
+
+    /**
+     * Gets the update mode configured for the handler through the KEY_UPDATE_MODE environment
+     * variable, defaulting to comparing with the previous model.
+     */
+    public static UpdateMode fromEnvironment() {
+        return fromString(System.getenv(ENVIRONMENT_VARIABLE));
+    }
+
+    static UpdateMode fromString(final String updateMode) {
+        if (updateMode == null) {
+            return PREVIOUS_STATE;
+        }
+
+        try {
+            return valueOf(updateMode.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            // A misconfigured mode keeps the established behavior
+            return PREVIOUS_STATE;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package software.amazon.kms.key;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Small helpers used on the handler path, so that the handlers do not need to load the
+ * utility classes of larger libraries.
+ */
+public final class Utils {
+    private Utils() {
+        // Prevent instantiation
+    }
+
+    public static boolean isNullOrEmpty(final String value) {
+        return value == null || value.isEmpty();
+    }
+
+    public static boolean isNullOrEmpty(final Collection<?> collection) {
+        return collection == null || collection.isEmpty();
+    }
+
+    /**
+     * Returns the elements of a set that are not in another set.
+     *
+     * @param set   the set to take the elements from
+     * @param other the set of elements to leave out
+     * @return a new set with the difference
+     */
+    public static <T> Set<T> difference(final Set<T> set, final Set<T> other) {
+        final Set<T> difference = new HashSet<>(set);
+        difference.removeAll(other);
+        return difference;
+    }
+
+    /**
+     * Splits a list into consecutive chunks of at most a given size.
+     *
+     * @param list the list to split
+     * @param size the largest size of a chunk
+     * @return the chunks, the last one holding the remaining elements
+     */
+    public static <T> List<List<T>> partition(final List<T> list, final int size) {
+        final List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+        for (int start = 0; start < list.size(); start += size) {
+            chunks.add(new ArrayList<>(list.subList(start, Math.min(list.size(), start + size))));
+        }
+        return chunks;
+    }
+}
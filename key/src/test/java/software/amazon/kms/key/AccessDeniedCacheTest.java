@@ -0,0 +1,113 @@
+package software.amazon.kms.key;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AccessDeniedCacheTest {
+    private static final String PRINCIPAL = "mock-caller-identity";
+    private static final String KEY_ID = "mock-key-id";
+
+    private AtomicLong clock;
+    private AccessDeniedCache accessDeniedCache;
+
+    @BeforeEach
+    public void setup() {
+        clock = new AtomicLong();
+        accessDeniedCache = new AccessDeniedCache(Duration.ofMinutes(5), clock::get);
+    }
+
+    @Test
+    public void testGetInstance() {
+        assertSame(AccessDeniedCache.getInstance(), AccessDeniedCache.getInstance());
+    }
+
+    @Test
+    public void testRecordDenied() {
+        assertFalse(accessDeniedCache.isDenied(PRINCIPAL, KEY_ID, KeyHelper.GET_KEY_POLICY));
+
+        accessDeniedCache.recordDenied(PRINCIPAL, KEY_ID, KeyHelper.GET_KEY_POLICY);
+
+        assertTrue(accessDeniedCache.isDenied(PRINCIPAL, KEY_ID, KeyHelper.GET_KEY_POLICY));
+        assertFalse(accessDeniedCache.isDenied(PRINCIPAL, KEY_ID, KeyHelper.LIST_RESOURCE_TAGS));
+        assertFalse(accessDeniedCache.isDenied("other-caller-identity", KEY_ID,
+            KeyHelper.GET_KEY_POLICY));
+        assertFalse(accessDeniedCache.isDenied(PRINCIPAL, "other-key-id",
+            KeyHelper.GET_KEY_POLICY));
+    }
+
+    @Test
+    public void testRecordDeniedNullValues() {
+        accessDeniedCache.recordDenied(PRINCIPAL, null, KeyHelper.GET_KEY_POLICY);
+
+        assertTrue(accessDeniedCache.isDenied(PRINCIPAL, null, KeyHelper.GET_KEY_POLICY));
+
+        accessDeniedCache.invalidate(null);
+
+        assertFalse(accessDeniedCache.isDenied(PRINCIPAL, null, KeyHelper.GET_KEY_POLICY));
+    }
+
+    @Test
+    public void testRecordDeniedUnknownCaller() {
+        // A denial of an unknown caller would apply to every other unknown caller
+        accessDeniedCache.recordDenied(null, KEY_ID, KeyHelper.GET_KEY_POLICY);
+
+        assertFalse(accessDeniedCache.isDenied(null, KEY_ID, KeyHelper.GET_KEY_POLICY));
+        assertEquals(0, accessDeniedCache.size());
+    }
+
+    @Test
+    public void testExpiry() {
+        accessDeniedCache.recordDenied(PRINCIPAL, KEY_ID, KeyHelper.GET_KEY_POLICY);
+
+        clock.addAndGet(Duration.ofMinutes(5).toNanos() - 1);
+        assertTrue(accessDeniedCache.isDenied(PRINCIPAL, KEY_ID, KeyHelper.GET_KEY_POLICY));
+
+        clock.incrementAndGet();
+        assertFalse(accessDeniedCache.isDenied(PRINCIPAL, KEY_ID, KeyHelper.GET_KEY_POLICY));
+        assertEquals(0, accessDeniedCache.size());
+    }
+
+    @Test
+    public void testInvalidate() {
+        accessDeniedCache.recordDenied(PRINCIPAL, KEY_ID, KeyHelper.GET_KEY_POLICY);
+        accessDeniedCache.recordDenied("other-caller-identity", KEY_ID, KeyHelper.LIST_RESOURCE_TAGS);
+        accessDeniedCache.recordDenied(PRINCIPAL, "other-key-id", KeyHelper.GET_KEY_POLICY);
+
+        accessDeniedCache.invalidate(KEY_ID);
+
+        assertFalse(accessDeniedCache.isDenied(PRINCIPAL, KEY_ID, KeyHelper.GET_KEY_POLICY));
+        assertFalse(accessDeniedCache.isDenied("other-caller-identity", KEY_ID,
+            KeyHelper.LIST_RESOURCE_TAGS));
+        assertTrue(accessDeniedCache.isDenied(PRINCIPAL, "other-key-id",
+            KeyHelper.GET_KEY_POLICY));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        for (int i = 0; i < AccessDeniedCache.MAX_ENTRIES; i++) {
+            accessDeniedCache.recordDenied(PRINCIPAL, "key-" + i, KeyHelper.GET_KEY_POLICY);
+        }
+        assertEquals(AccessDeniedCache.MAX_ENTRIES, accessDeniedCache.size());
+
+        // Expired entries are purged first
+        clock.addAndGet(Duration.ofMinutes(5).toNanos());
+        accessDeniedCache.recordDenied(PRINCIPAL, KEY_ID, KeyHelper.GET_KEY_POLICY);
+        assertEquals(1, accessDeniedCache.size());
+
+        // Live entries are dropped when nothing has expired
+        for (int i = 1; i < AccessDeniedCache.MAX_ENTRIES; i++) {
+            accessDeniedCache.recordDenied(PRINCIPAL, "key-" + i, KeyHelper.GET_KEY_POLICY);
+        }
+        accessDeniedCache.recordDenied(PRINCIPAL, "one-too-many", KeyHelper.GET_KEY_POLICY);
+        assertEquals(1, accessDeniedCache.size());
+        assertTrue(accessDeniedCache.isDenied(PRINCIPAL, "one-too-many",
+            KeyHelper.GET_KEY_POLICY));
+    }
+}
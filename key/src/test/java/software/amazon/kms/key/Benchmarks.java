@@ -0,0 +1,38 @@
+package software.amazon.kms.key;
+
+import java.util.Arrays;
+
+/**
+ * Timing helpers of the benchmarks run by the benchmark profile, see the README.
+ */
+final class Benchmarks {
+    private Benchmarks() {
+    }
+
+    /**
+     * Times an operation after a warm-up round.
+     *
+     * @param operation  the operation to time
+     * @param operations the operations per round
+     * @param rounds     the measured rounds
+     * @return the median time of an operation over the rounds, in nanoseconds
+     */
+    static double medianNanos(final Runnable operation, final int operations, final int rounds) {
+        // Warms up the JIT with a round that is not measured
+        for (int i = 0; i < operations; i++) {
+            operation.run();
+        }
+
+        final long[] roundNanos = new long[rounds];
+        for (int round = 0; round < rounds; round++) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                operation.run();
+            }
+            roundNanos[round] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(roundNanos);
+        return (double) roundNanos[rounds / 2] / operations;
+    }
+}
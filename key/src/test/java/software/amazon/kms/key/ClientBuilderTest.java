@@ -0,0 +1,97 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.cloudformation.LambdaWrapper;
+
+public class ClientBuilderTest {
+    @BeforeAll
+    public static void setupRegion() {
+        // Lets the clients be built without an AWS_REGION environment variable
+        System.setProperty("aws.region", "us-east-1");
+    }
+
+    @AfterAll
+    public static void tearDownRegion() {
+        System.clearProperty("aws.region");
+    }
+
+    @Test
+    public void testGetClient() {
+        assertThat(ClientBuilder.getClient()).isSameAs(ClientBuilder.getClient());
+        assertThat(ClientBuilder.getHttpClient()).isSameAs(LambdaWrapper.HTTP_CLIENT);
+    }
+
+    @Test
+    public void testGetClient_Region() {
+        assertThat(ClientBuilder.getClient("us-east-1")).isSameAs(ClientBuilder.getClient());
+        assertThat(ClientBuilder.getClient("eu-west-1"))
+            .isSameAs(ClientBuilder.getClient("eu-west-1"))
+            .isNotSameAs(ClientBuilder.getClient());
+    }
+
+    @Test
+    public void testGetAsyncClient() {
+        assertThat(ClientBuilder.getAsyncClient(null))
+            .isSameAs(ClientBuilder.getAsyncClient("us-east-1"));
+        assertThat(ClientBuilder.getAsyncClient("eu-west-1"))
+            .isNotSameAs(ClientBuilder.getAsyncClient(null));
+    }
+
+    @Test
+    public void testBuildAsyncClient_PoolMetrics() {
+        try (SdkAsyncHttpClient asyncHttpClient =
+                 ClientConfiguration.builder().build().buildAsyncHttpClient();
+             KmsAsyncClient client = ClientBuilder.buildAsyncClient(
+                 ClientConfiguration.builder().poolMetrics(true).build(),
+                 new EndpointConfiguration(
+                     Collections.singletonMap(EndpointConfiguration.ENDPOINT_VARIANT, "FIPS")),
+                 asyncHttpClient, Region.US_WEST_2)) {
+            assertThat(client.serviceName()).isEqualTo(KmsClient.SERVICE_NAME);
+        }
+    }
+
+    @Test
+    public void testBuildClient_PoolMetrics() {
+        try (KmsClient client = ClientBuilder.buildClient(
+            ClientConfiguration.builder().poolMetrics(true).build(),
+            new EndpointConfiguration(Collections.emptyMap()),
+            LambdaWrapper.HTTP_CLIENT, Region.US_EAST_1)) {
+            assertThat(client.serviceName()).isEqualTo(KmsClient.SERVICE_NAME);
+        }
+    }
+
+    @Test
+    public void testBuildClient_PoolMetricsUrlConnection() {
+        final ClientConfiguration configuration = ClientConfiguration.builder()
+            .httpClientType(ClientConfiguration.HttpClientType.URL_CONNECTION)
+            .poolMetrics(true)
+            .build();
+        try (SdkHttpClient httpClient = configuration.buildHttpClient();
+             KmsClient client = ClientBuilder.buildClient(configuration,
+                 new EndpointConfiguration(Collections.emptyMap()), httpClient,
+                 Region.US_EAST_1)) {
+            assertThat(client.serviceName()).isEqualTo(KmsClient.SERVICE_NAME);
+        }
+    }
+
+    @Test
+    public void testBuildClient_EndpointOverride() {
+        try (KmsClient client = ClientBuilder.buildClient(
+            ClientConfiguration.builder().build(),
+            new EndpointConfiguration(
+                Collections.singletonMap(EndpointConfiguration.ENDPOINT, "localhost:4566")),
+            LambdaWrapper.HTTP_CLIENT, Region.US_WEST_2)) {
+            assertThat(client.serviceName()).isEqualTo(KmsClient.SERVICE_NAME);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Map;
 
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
 import com.google.common.collect.ImmutableMap;
@@ -25,4 +26,12 @@ class ConfigurationTest {
 
     }
 
+    @Test
+    public void testResourceSchemaIsParsedOnce() {
+        final JSONObject resourceSchema = new Configuration().resourceSchemaJSONObject();
+
+        assertEquals(ResourceModel.TYPE_NAME, resourceSchema.getString("typeName"));
+        assertSame(resourceSchema, new Configuration().resourceSchemaJSONObject());
+    }
+
 }
@@ -10,6 +10,7 @@ import static org.mockito.Mockito.when;
 
 
 import java.time.Duration;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -188,6 +189,67 @@ public class CreateHandlerTest extends AbstractTestBase {
         verifyServiceNameCalledAtLeastOnce();
     }
 
+    @Test
+    public void handleRequest_DryRunMatchesCalls() {
+        final CreateKeyResponse createKeyResponse = CreateKeyResponse.builder()
+            .keyMetadata(KeyMetadata.builder().keyId("mock-key-id").arn("mock-arn").build())
+            .build();
+        when(keyHelper.createKey(any(CreateKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(createKeyResponse);
+
+        final EnableKeyRotationResponse enableKeyRotationResponse =
+            EnableKeyRotationResponse.builder().build();
+        when(keyHelper.enableKeyRotation(any(EnableKeyRotationRequest.class), eq(proxyKmsClient)))
+            .thenReturn(enableKeyRotationResponse);
+
+        final DisableKeyResponse disableKeyResponse = DisableKeyResponse.builder().build();
+        when(keyHelper.disableKey(any(DisableKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(disableKeyResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder()
+                    .enabled(false)
+                    .enableKeyRotation(true)
+                    .keyPolicy(KEY_POLICY)
+                    .build())
+                .desiredResourceTags(MODEL_TAGS)
+                .build();
+
+        final CallbackContext dryRunContext = new CallbackContext();
+        dryRunContext.setDryRun(true);
+        final ProgressEvent<ResourceModel, CallbackContext> dryRun =
+            handler.handleRequest(proxy, request, dryRunContext, proxyKmsClient, logger);
+        final ExplainPlan explainPlan = dryRun.getCallbackContext().getExplainPlan();
+
+        assertThat(dryRun.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(dryRun.getMessage()).isEqualTo(explainPlan.describe());
+        assertThat(operationsCalled(keyHelper)).isEmpty();
+
+        // Makes the calls, following the callbacks until the key is created
+        CallbackContext callbackContext = new CallbackContext();
+        ProgressEvent<ResourceModel, CallbackContext> response;
+        int waits = 0;
+        do {
+            response = handler.handleRequest(proxy, request, callbackContext, proxyKmsClient,
+                logger);
+            callbackContext = response.getCallbackContext();
+            if (response.getCallbackDelaySeconds() > 0) {
+                waits++;
+            }
+            assertThat(waits).isLessThanOrEqualTo(explainPlan.getWaits());
+        } while (response.getStatus() == OperationStatus.IN_PROGRESS);
+        final List<String> calls = operationsCalled(keyHelper);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(explainPlan.getStages()).flatExtracting(ExplainPlan.Stage::getOperations)
+            .containsExactlyElementsOf(calls);
+        assertThat(explainPlan.getCalls()).isEqualTo(calls.size());
+        assertThat(explainPlan.getWaits()).isEqualTo(waits);
+        verify(kms, atLeastOnce()).serviceName();
+        verifyNoMoreInteractions(keyHelper);
+    }
+
     @Test
     public void handleRequest_AsymmetricRotationEnabled() {
         final ResourceHandlerRequest<ResourceModel> request =
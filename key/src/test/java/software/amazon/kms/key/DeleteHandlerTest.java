@@ -4,12 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 
 import java.time.Duration;
+import java.time.Instant;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +28,7 @@ import software.amazon.awssdk.services.kms.model.ScheduleKeyDeletionRequest;
 import software.amazon.awssdk.services.kms.model.ScheduleKeyDeletionResponse;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Delay;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -61,19 +64,14 @@ public class DeleteHandlerTest extends AbstractTestBase {
     }
 
     @Test
-    public void handleRequest_PartiallyPropagate() {
+    public void handleRequest_SimpleSuccess() {
+        // The deletion date is only set once the key is pending deletion
         final ScheduleKeyDeletionResponse scheduleKeyDeletionResponse =
-            ScheduleKeyDeletionResponse.builder().build();
+            ScheduleKeyDeletionResponse.builder().deletionDate(Instant.now()).build();
         when(keyHelper
             .scheduleKeyDeletion(any(ScheduleKeyDeletionRequest.class), eq(proxyKmsClient)))
             .thenReturn(scheduleKeyDeletionResponse);
 
-        final DescribeKeyResponse describeKeyResponse = DescribeKeyResponse.builder()
-            .keyMetadata(KeyMetadata.builder().keyState(KeyState.PENDING_DELETION).build())
-            .build();
-        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
-            .thenReturn(describeKeyResponse);
-
         final ResourceHandlerRequest<ResourceModel> request =
             ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(ResourceModel.builder().build())
@@ -84,55 +82,55 @@ public class DeleteHandlerTest extends AbstractTestBase {
                 new CallbackContext(), proxyKmsClient, logger);
 
         assertThat(response).isNotNull();
-        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
-        assertThat(response.getCallbackContext()).isNotNull();
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
-        assertThat(response.getCallbackContext().isPropagated()).isTrue();
-        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
 
         verify(keyHelper)
             .scheduleKeyDeletion(any(ScheduleKeyDeletionRequest.class), eq(proxyKmsClient));
-        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
     }
 
     @Test
-    public void handleRequest_SimpleSuccess() {
+    public void handleRequest_StabilizeWithoutDeletionDate() {
         final ScheduleKeyDeletionResponse scheduleKeyDeletionResponse =
-                ScheduleKeyDeletionResponse.builder().build();
+            ScheduleKeyDeletionResponse.builder().build();
         when(keyHelper
-                .scheduleKeyDeletion(any(ScheduleKeyDeletionRequest.class), eq(proxyKmsClient)))
-                .thenReturn(scheduleKeyDeletionResponse);
+            .scheduleKeyDeletion(any(ScheduleKeyDeletionRequest.class), eq(proxyKmsClient)))
+            .thenReturn(scheduleKeyDeletionResponse);
 
-        final DescribeKeyResponse describeKeyResponse = DescribeKeyResponse.builder()
-                .keyMetadata(KeyMetadata.builder().keyState(KeyState.PENDING_DELETION).build())
-                .build();
         when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
-                .thenReturn(describeKeyResponse);
+            .thenReturn(describeKeyResponse(KeyState.ENABLED))
+            .thenReturn(describeKeyResponse(KeyState.PENDING_DELETION));
 
         final ResourceHandlerRequest<ResourceModel> request =
-                ResourceHandlerRequest.<ResourceModel>builder()
-                        .desiredResourceState(ResourceModel.builder().build())
-                        .build();
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().build())
+                .build();
 
-        final CallbackContext callbackContext = new CallbackContext();
-        callbackContext.setPropagated(true);
-        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request,
-                callbackContext, proxyKmsClient, logger);
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request,
+                new CallbackContext(), proxyKmsClient, logger);
 
+        // Once the key is observed pending deletion, there is no propagation wait
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
         assertThat(response.getCallbackContext()).isNull();
         assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
-        assertThat(response.getResourceModels()).isNull();
-        assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
 
         verify(keyHelper)
-                .scheduleKeyDeletion(any(ScheduleKeyDeletionRequest.class), eq(proxyKmsClient));
-        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+            .scheduleKeyDeletion(any(ScheduleKeyDeletionRequest.class), eq(proxyKmsClient));
+        verify(keyHelper, times(2))
+            .describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+
+        final Delay delay = DeleteHandler.stabilizationDelay();
+        assertThat(delay.nextDelay(1)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(delay.nextDelay(2)).isEqualTo(Duration.ofSeconds(4));
+        // Polling gives up once the delays add up to the timeout
+        assertThat(delay.nextDelay(10)).isEqualTo(Duration.ZERO);
     }
 
     // Key has been scheduled for deletion out of band -> considered deleted
@@ -162,4 +160,10 @@ public class DeleteHandlerTest extends AbstractTestBase {
         verify(keyHelper)
             .scheduleKeyDeletion(any(ScheduleKeyDeletionRequest.class), eq(proxyKmsClient));
     }
+
+    private static DescribeKeyResponse describeKeyResponse(final KeyState keyState) {
+        return DescribeKeyResponse.builder()
+            .keyMetadata(KeyMetadata.builder().keyState(keyState).build())
+            .build();
+    }
 }
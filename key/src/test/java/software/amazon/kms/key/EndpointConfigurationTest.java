@@ -0,0 +1,119 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.regions.Region;
+
+public class EndpointConfigurationTest {
+    private Map<String, String> environment;
+    private EndpointConfiguration configuration;
+
+    @BeforeEach
+    public void setup() {
+        environment = new HashMap<>();
+        configuration = new EndpointConfiguration(environment);
+    }
+
+    @Test
+    public void testEndpointFor_NotConfigured() {
+        assertThat(configuration.endpointFor(Region.US_EAST_1)).isEmpty();
+        assertThat(configuration.variant(Region.US_EAST_1))
+            .isEqualTo(EndpointConfiguration.Variant.DEFAULT);
+    }
+
+    @Test
+    public void testEndpointFor_Override() {
+        environment.put(EndpointConfiguration.ENDPOINT, " http://localhost:4566 ");
+        environment.put(EndpointConfiguration.ENDPOINT_VARIANT, "FIPS");
+
+        assertThat(configuration.endpointFor(Region.US_EAST_1))
+            .contains(URI.create("http://localhost:4566"));
+    }
+
+    @Test
+    public void testEndpointFor_OverrideWithoutScheme() {
+        environment.put(EndpointConfiguration.ENDPOINT,
+            "vpce-0123-abcd.kms.eu-west-1.vpce.amazonaws.com");
+
+        assertThat(configuration.endpointFor(Region.EU_WEST_1))
+            .contains(URI.create("https://vpce-0123-abcd.kms.eu-west-1.vpce.amazonaws.com"));
+    }
+
+    @Test
+    public void testEndpointFor_InvalidOverride() {
+        environment.put(EndpointConfiguration.ENDPOINT, "http://");
+        assertThat(configuration.endpointFor(Region.US_EAST_1)).isEmpty();
+
+        environment.put(EndpointConfiguration.ENDPOINT, "local host");
+        assertThat(configuration.endpointFor(Region.US_EAST_1)).isEmpty();
+    }
+
+    @Test
+    public void testEndpointFor_RegionOverride() {
+        environment.put(EndpointConfiguration.ENDPOINT, "https://kms.example.com");
+        environment.put(EndpointConfiguration.ENDPOINT + "_US_WEST_2",
+            "https://kms.us-west-2.example.com");
+
+        assertThat(configuration.endpointFor(Region.US_WEST_2))
+            .contains(URI.create("https://kms.us-west-2.example.com"));
+        assertThat(configuration.endpointFor(Region.US_EAST_1))
+            .contains(URI.create("https://kms.example.com"));
+    }
+
+    @Test
+    public void testEndpointFor_Variants() {
+        environment.put(EndpointConfiguration.ENDPOINT_VARIANT, "fips");
+        assertThat(configuration.endpointFor(Region.US_EAST_1))
+            .contains(URI.create("https://kms-fips.us-east-1.amazonaws.com"));
+
+        environment.put(EndpointConfiguration.ENDPOINT_VARIANT, "dualstack");
+        assertThat(configuration.endpointFor(Region.US_EAST_1))
+            .contains(URI.create("https://kms.us-east-1.api.aws"));
+
+        environment.put(EndpointConfiguration.ENDPOINT_VARIANT, "fips-dualstack");
+        assertThat(configuration.endpointFor(Region.US_EAST_1))
+            .contains(URI.create("https://kms-fips.us-east-1.api.aws"));
+
+        environment.put(EndpointConfiguration.ENDPOINT_VARIANT, "DEFAULT");
+        assertThat(configuration.endpointFor(Region.US_EAST_1)).isEmpty();
+    }
+
+    @Test
+    public void testEndpointFor_RegionVariant() {
+        environment.put(EndpointConfiguration.ENDPOINT_VARIANT + "_US_GOV_WEST_1", "FIPS");
+
+        assertThat(configuration.endpointFor(Region.US_GOV_WEST_1))
+            .contains(URI.create("https://kms-fips.us-gov-west-1.amazonaws.com"));
+        assertThat(configuration.endpointFor(Region.US_EAST_1)).isEmpty();
+    }
+
+    @Test
+    public void testEndpointFor_ChinaDualStack() {
+        environment.put(EndpointConfiguration.ENDPOINT_VARIANT, "DUALSTACK");
+
+        assertThat(configuration.endpointFor(Region.CN_NORTH_1))
+            .contains(URI.create("https://kms.cn-north-1.api.amazonwebservices.com.cn"));
+    }
+
+    @Test
+    public void testEndpointFor_UnknownRegion() {
+        environment.put(EndpointConfiguration.ENDPOINT_VARIANT, "FIPS");
+
+        assertThat(configuration.endpointFor(Region.of("local-1")))
+            .contains(URI.create("https://kms-fips.local-1.amazonaws.com"));
+    }
+
+    @Test
+    public void testVariant_Invalid() {
+        environment.put(EndpointConfiguration.ENDPOINT_VARIANT, "IPV6");
+
+        assertThat(configuration.variant(Region.US_EAST_1))
+            .isEqualTo(EndpointConfiguration.Variant.DEFAULT);
+        assertThat(configuration.endpointFor(Region.US_EAST_1)).isEmpty();
+    }
+}
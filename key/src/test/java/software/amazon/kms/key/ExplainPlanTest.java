@@ -0,0 +1,49 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+public class ExplainPlanTest {
+    @Test
+    public void testAddStage() {
+        final ExplainPlan explainPlan = new ExplainPlan()
+            .addStage(Collections.singletonList(KeyHelper.DESCRIBE_KEY), 1)
+            .addStage(Arrays.asList(KeyHelper.PUT_KEY_POLICY, KeyHelper.LIST_RESOURCE_TAGS,
+                KeyHelper.TAG_RESOURCE), 2)
+            .addWait(60);
+
+        assertThat(explainPlan.getStages()).containsExactly(
+            new ExplainPlan.Stage(Collections.singletonList(KeyHelper.DESCRIBE_KEY), 1, 0),
+            new ExplainPlan.Stage(Arrays.asList(KeyHelper.PUT_KEY_POLICY,
+                KeyHelper.LIST_RESOURCE_TAGS, KeyHelper.TAG_RESOURCE), 2, 60));
+        assertThat(explainPlan.getCalls()).isEqualTo(4);
+        assertThat(explainPlan.getMutatingCalls()).isEqualTo(2);
+        assertThat(explainPlan.getWaits()).isEqualTo(1);
+        assertThat(explainPlan.getEstimatedMillis())
+            .isEqualTo(3 * ExplainPlan.ESTIMATED_CALL_MILLIS + 60_000);
+        assertThat(explainPlan.describe()).isEqualTo("Dry run: 4 KMS calls, 2 of them mutating, "
+            + "in 2 stages, with 1 callback waits, about 61 seconds");
+    }
+
+    @Test
+    public void testAddWait_NoStages() {
+        final ExplainPlan explainPlan = new ExplainPlan().addWait(60).addWait(60);
+
+        assertThat(explainPlan.getStages())
+            .containsExactly(new ExplainPlan.Stage(Collections.emptyList(), 0, 120));
+        assertThat(explainPlan.getCalls()).isZero();
+        assertThat(explainPlan.getWaits()).isEqualTo(2);
+    }
+
+    @Test
+    public void testIsMutating() {
+        assertThat(ExplainPlan.isMutating(KeyHelper.DESCRIBE_KEY)).isFalse();
+        assertThat(ExplainPlan.isMutating(KeyHelper.GET_KEY_POLICY)).isFalse();
+        assertThat(ExplainPlan.isMutating(KeyHelper.LIST_RESOURCE_TAGS)).isFalse();
+        assertThat(ExplainPlan.isMutating(KeyHelper.CREATE_KEY)).isTrue();
+        assertThat(ExplainPlan.isMutating(KeyHelper.UNTAG_RESOURCE)).isTrue();
+    }
+}
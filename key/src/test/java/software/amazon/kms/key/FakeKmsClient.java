@@ -0,0 +1,230 @@
+package software.amazon.kms.key;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.CustomerMasterKeySpec;
+import software.amazon.awssdk.services.kms.model.DescribeKeyRequest;
+import software.amazon.awssdk.services.kms.model.DescribeKeyResponse;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyRequest;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyResponse;
+import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusRequest;
+import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusResponse;
+import software.amazon.awssdk.services.kms.model.KeyListEntry;
+import software.amazon.awssdk.services.kms.model.KeyManagerType;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.KeyUsageType;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.awssdk.services.kms.model.KmsInternalException;
+import software.amazon.awssdk.services.kms.model.ListKeysRequest;
+import software.amazon.awssdk.services.kms.model.ListKeysResponse;
+import software.amazon.awssdk.services.kms.model.ListResourceTagsRequest;
+import software.amazon.awssdk.services.kms.model.ListResourceTagsResponse;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+import software.amazon.awssdk.services.kms.model.OriginType;
+import software.amazon.awssdk.services.kms.model.Tag;
+
+/**
+ * An in-process KMS holding a given number of keys, for tests that go through the account
+ * wide calls at scale. The keys are derived from their index, so the fake holds no state per
+ * key: keys 0, 10, 20... are AWS managed, keys 1, 11, 21... are asymmetric, keys 2, 102,
+ * 202... deny their key policy, and keys 999, 1999... are deleted once they are listed. Every
+ * key has three tags, returned two per page.
+ *
+ * <p>The fake counts the calls in flight, and the keys described that have not been written
+ * or found deleted, as counted by the writer given to it.
+ */
+final class FakeKmsClient implements KmsClient {
+    static final Instant CREATION_DATE = Instant.parse("2020-01-01T00:00:00Z");
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int TAGS_PER_PAGE = 2;
+    private static final List<Tag> TAGS = Arrays.asList(tag("Team", "Security"),
+        tag("Environment", "Production"), tag("CostCenter", "1234"));
+
+    private final int keyCount;
+    private final Set<String> failingMarkers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong describedKeys = new AtomicLong();
+    private final AtomicLong deletedKeys = new AtomicLong();
+    private final AtomicLong maxPendingKeys = new AtomicLong();
+    private volatile LongSupplier writtenKeys = () -> 0;
+
+    FakeKmsClient(final int keyCount) {
+        this.keyCount = keyCount;
+    }
+
+    static String keyId(final int index) {
+        return String.format("key-%06d", index);
+    }
+
+    static boolean isAwsManaged(final int index) {
+        return index % 10 == 0;
+    }
+
+    static boolean isAsymmetric(final int index) {
+        return index % 10 == 1;
+    }
+
+    static boolean isPolicyDenied(final int index) {
+        return index % 100 == 2;
+    }
+
+    static boolean isDeleted(final int index) {
+        return index % 1000 == 999;
+    }
+
+    // The next ListKeys call with the marker fails, null for the first page
+    void failListKeysOnce(final String marker) {
+        failingMarkers.add(String.valueOf(marker));
+    }
+
+    void countWrittenKeys(final LongSupplier writtenKeys) {
+        this.writtenKeys = writtenKeys;
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    long getMaxPendingKeys() {
+        return maxPendingKeys.get();
+    }
+
+    @Override
+    public ListKeysResponse listKeys(final ListKeysRequest listKeysRequest) {
+        return call(() -> {
+            if (failingMarkers.remove(String.valueOf(listKeysRequest.marker()))) {
+                throw KmsInternalException.builder().message("Injected failure").build();
+            }
+
+            final int start = listKeysRequest.marker() == null ? 0
+                : Integer.parseInt(listKeysRequest.marker());
+            final int end = Math.min(keyCount, start + (listKeysRequest.limit() == null
+                ? DEFAULT_PAGE_SIZE : listKeysRequest.limit()));
+            final List<KeyListEntry> keys = new ArrayList<>(end - start);
+            for (int index = start; index < end; index++) {
+                keys.add(KeyListEntry.builder().keyId(keyId(index)).keyArn(arn(index)).build());
+            }
+
+            return ListKeysResponse.builder()
+                .keys(keys)
+                .nextMarker(end < keyCount ? String.valueOf(end) : null)
+                .truncated(end < keyCount)
+                .build();
+        });
+    }
+
+    @Override
+    public DescribeKeyResponse describeKey(final DescribeKeyRequest describeKeyRequest) {
+        return call(() -> {
+            final int index = index(describeKeyRequest.keyId());
+            final long pendingKeys = describedKeys.incrementAndGet() - deletedKeys.get()
+                - writtenKeys.getAsLong();
+            maxPendingKeys.accumulateAndGet(pendingKeys, Math::max);
+            if (isDeleted(index)) {
+                deletedKeys.incrementAndGet();
+                throw NotFoundException.builder().message("Key not found").build();
+            }
+
+            return DescribeKeyResponse.builder()
+                .keyMetadata(KeyMetadata.builder()
+                    .keyId(keyId(index))
+                    .arn(arn(index))
+                    .description("Key " + index)
+                    .enabled(true)
+                    .keyState(KeyState.ENABLED)
+                    .keyManager(isAwsManaged(index) ? KeyManagerType.AWS : KeyManagerType.CUSTOMER)
+                    .keyUsage(isAsymmetric(index) ? KeyUsageType.SIGN_VERIFY
+                        : KeyUsageType.ENCRYPT_DECRYPT)
+                    .customerMasterKeySpec(isAsymmetric(index) ? CustomerMasterKeySpec.RSA_2048
+                        : CustomerMasterKeySpec.SYMMETRIC_DEFAULT)
+                    .origin(OriginType.AWS_KMS)
+                    .creationDate(CREATION_DATE)
+                    .build())
+                .build();
+        });
+    }
+
+    @Override
+    public GetKeyPolicyResponse getKeyPolicy(final GetKeyPolicyRequest getKeyPolicyRequest) {
+        return call(() -> {
+            if (isPolicyDenied(index(getKeyPolicyRequest.keyId()))) {
+                throw KmsException.builder()
+                    .awsErrorDetails(AwsErrorDetails.builder()
+                        .errorCode(KeyHelper.ACCESS_DENIED_ERROR_CODE)
+                        .build())
+                    .build();
+            }
+
+            return GetKeyPolicyResponse.builder()
+                .policy("{\"Version\":\"2012-10-17\",\"Id\":\"" + getKeyPolicyRequest.keyId()
+                    + "\"}")
+                .build();
+        });
+    }
+
+    @Override
+    public GetKeyRotationStatusResponse getKeyRotationStatus(
+        final GetKeyRotationStatusRequest getKeyRotationStatusRequest) {
+        return call(() -> GetKeyRotationStatusResponse.builder()
+            .keyRotationEnabled(index(getKeyRotationStatusRequest.keyId()) % 2 == 0)
+            .build());
+    }
+
+    @Override
+    public ListResourceTagsResponse listResourceTags(
+        final ListResourceTagsRequest listResourceTagsRequest) {
+        return call(() -> {
+            final int start = listResourceTagsRequest.marker() == null ? 0
+                : Integer.parseInt(listResourceTagsRequest.marker());
+            final int end = Math.min(TAGS.size(), start + TAGS_PER_PAGE);
+            return ListResourceTagsResponse.builder()
+                .tags(TAGS.subList(start, end))
+                .nextMarker(end < TAGS.size() ? String.valueOf(end) : null)
+                .truncated(end < TAGS.size())
+                .build();
+        });
+    }
+
+    @Override
+    public String serviceName() {
+        return KmsClient.SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    private <T> T call(final Supplier<T> response) {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            return response.get();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static int index(final String keyId) {
+        return Integer.parseInt(keyId.substring(keyId.indexOf('-') + 1));
+    }
+
+    private static String arn(final int index) {
+        return "arn:aws:kms:us-east-1:123456789012:key/" + keyId(index);
+    }
+
+    private static Tag tag(final String tagKey, final String tagValue) {
+        return Tag.builder().tagKey(tagKey).tagValue(tagValue).build();
+    }
+}
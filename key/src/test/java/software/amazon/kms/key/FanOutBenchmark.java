@@ -0,0 +1,160 @@
+package software.amazon.kms.key;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.DescribeKeyRequest;
+import software.amazon.awssdk.services.kms.model.DescribeKeyResponse;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Compares the backends of the fan-out executor for 10 to 1,000 concurrent DescribeKey calls,
+ * made through KeyHelper against a fake KMS client that sleeps for the latency of a call.
+ * Run it with the benchmark profile, see the README.
+ *
+ * <p>System properties: benchmark.latencyMs (default 20) and benchmark.jitterMs (default 10)
+ * shape the latency of the fake client, benchmark.rounds (default 5) sets the measured rounds
+ * per case, and FAN_OUT_MAX_CONCURRENCY applies as in the handlers.
+ */
+public final class FanOutBenchmark {
+    private static final List<Integer> CALLS = Arrays.asList(10, 100, 1_000);
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+
+    private FanOutBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        final long latencyMs = Long.getLong("benchmark.latencyMs", 20);
+        final long jitterMs = Long.getLong("benchmark.jitterMs", 10);
+        final int rounds = Integer.getInteger("benchmark.rounds", 5);
+        final ProxyClient<KmsClient> proxyClient =
+            new PassThroughProxyClient(new LatencyKmsClient(latencyMs, jitterMs));
+
+        System.out.printf("Java %s, %d vCPUs, latency %d ms +- %d ms, %d rounds%n",
+            System.getProperty("java.version"), Runtime.getRuntime().availableProcessors(),
+            latencyMs, jitterMs, rounds);
+        System.out.printf("%-8s %6s %11s %8s %10s %10s %12s %8s%n", "backend", "calls",
+            "concurrency", "wall ms", "calls/s", "task avg", "queue max ms", "threads");
+
+        for (final FanOutExecutor.Backend backend : FanOutExecutor.Backend.values()) {
+            final FanOutExecutor probe = FanOutExecutor.fromMap(Collections.singletonMap(
+                FanOutExecutor.BACKEND, backend.name()));
+            probe.shutdown();
+            if (probe.getBackend() != backend) {
+                System.out.printf("%-8s not supported by this runtime%n", backend);
+                continue;
+            }
+
+            for (final int calls : CALLS) {
+                run(backend, calls, rounds, proxyClient);
+            }
+        }
+    }
+
+    private static void run(final FanOutExecutor.Backend backend, final int calls,
+                            final int rounds, final ProxyClient<KmsClient> proxyClient) {
+        final KeyHelper keyHelper = new KeyHelper();
+        final List<Callable<DescribeKeyResponse>> tasks = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            final DescribeKeyRequest request = DescribeKeyRequest.builder()
+                .keyId("benchmark-key-" + i)
+                .build();
+            tasks.add(() -> keyHelper.describeKey(request, proxyClient));
+        }
+
+        final Map<String, String> environment = new HashMap<>(System.getenv());
+        environment.put(FanOutExecutor.BACKEND, backend.name());
+        final FanOutExecutor fanOutExecutor = FanOutExecutor.fromMap(environment);
+        try {
+            // Warms up the threads and the call path
+            fanOutExecutor.invokeAll(tasks, TIMEOUT);
+
+            final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            final long[] wallNanos = new long[rounds];
+            for (int round = 0; round < rounds; round++) {
+                final long start = System.nanoTime();
+                fanOutExecutor.invokeAll(tasks, TIMEOUT);
+                wallNanos[round] = System.nanoTime() - start;
+            }
+
+            Arrays.sort(wallNanos);
+            final double medianMillis = wallNanos[rounds / 2] / 1_000_000.0;
+            final FanOutExecutor.Snapshot snapshot = fanOutExecutor.snapshot();
+            System.out.printf("%-8s %6d %11d %8.1f %10.0f %10d %12d %8d%n", backend, calls,
+                fanOutExecutor.getMaxConcurrency(), medianMillis, calls * 1000 / medianMillis,
+                snapshot.getAverageRunMillis(), snapshot.getMaxQueueMillis(),
+                threads.getPeakThreadCount());
+        } finally {
+            fanOutExecutor.shutdown();
+        }
+    }
+
+    // Blocks like the synchronous client does while it waits for KMS
+    private static final class LatencyKmsClient implements KmsClient {
+        private final long latencyMs;
+        private final long jitterMs;
+
+        private LatencyKmsClient(final long latencyMs, final long jitterMs) {
+            this.latencyMs = latencyMs;
+            this.jitterMs = jitterMs;
+        }
+
+        @Override
+        public DescribeKeyResponse describeKey(final DescribeKeyRequest describeKeyRequest) {
+            try {
+                Thread.sleep(latencyMs + ThreadLocalRandom.current().nextLong(jitterMs + 1));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+
+            return DescribeKeyResponse.builder()
+                .keyMetadata(KeyMetadata.builder().keyId(describeKeyRequest.keyId()).build())
+                .build();
+        }
+
+        @Override
+        public String serviceName() {
+            return KmsClient.SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+
+    private static final class PassThroughProxyClient implements ProxyClient<KmsClient> {
+        private final KmsClient client;
+
+        private PassThroughProxyClient(final KmsClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT
+            injectCredentialsAndInvokeV2(final RequestT request,
+                                         final Function<RequestT, ResponseT> requestFunction) {
+            return requestFunction.apply(request);
+        }
+
+        @Override
+        public KmsClient client() {
+            return client;
+        }
+    }
+}
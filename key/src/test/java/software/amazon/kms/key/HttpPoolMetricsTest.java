@@ -0,0 +1,84 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+public class HttpPoolMetricsTest {
+    private List<String> logged;
+    private HttpPoolMetrics httpPoolMetrics;
+
+    @BeforeEach
+    public void setup() {
+        logged = new ArrayList<>();
+        httpPoolMetrics = new HttpPoolMetrics(logged::add);
+    }
+
+    @Test
+    public void testGetInstance() {
+        assertThat(HttpPoolMetrics.getInstance()).isSameAs(HttpPoolMetrics.getInstance());
+    }
+
+    @Test
+    public void testPublish() {
+        httpPoolMetrics.publish(apiCall("DescribeKey", 3, 1, 100));
+        httpPoolMetrics.publish(apiCall("GetKeyPolicy", 1, 2, 300));
+        httpPoolMetrics.close();
+
+        assertThat(logged).containsExactly(
+            "KMS DescribeKey: 3 leased, 1 pending, 47 available of 50 connections, "
+                + "service call 100 ms",
+            "KMS GetKeyPolicy: 1 leased, 2 pending, 49 available of 50 connections, "
+                + "service call 300 ms");
+        assertThat(httpPoolMetrics.snapshot())
+            .isEqualTo(new HttpPoolMetrics.Snapshot(2, 3, 2, 200, 300));
+    }
+
+    @Test
+    public void testPublish_NoPoolMetrics() {
+        httpPoolMetrics.publish(MetricCollector.create("ApiCall").collect());
+
+        assertThat(logged).containsExactly("KMS Unknown: 0 leased, 0 pending, 0 available of 0 "
+            + "connections, service call 0 ms");
+    }
+
+    @Test
+    public void testWarnUnpooled() {
+        httpPoolMetrics.warnUnpooled("URL_CONNECTION");
+
+        assertThat(logged).containsExactly("KMS pool metrics are not published for the "
+            + "URL_CONNECTION HTTP client, which does not report its connection pool");
+        assertThat(httpPoolMetrics.snapshot())
+            .isEqualTo(new HttpPoolMetrics.Snapshot(0, 0, 0, 0, 0));
+    }
+
+    @Test
+    public void testSnapshot_NoCalls() {
+        assertThat(httpPoolMetrics.snapshot())
+            .isEqualTo(new HttpPoolMetrics.Snapshot(0, 0, 0, 0, 0));
+    }
+
+    // Mirrors the collections of the SDK, where the HTTP client reports into an attempt
+    private static MetricCollection apiCall(final String operation, final int leased,
+                                            final int pending, final long serviceCallMillis) {
+        final MetricCollector apiCall = MetricCollector.create("ApiCall");
+        apiCall.reportMetric(CoreMetric.OPERATION_NAME, operation);
+        final MetricCollector attempt = apiCall.createChild("ApiCallAttempt");
+        attempt.reportMetric(CoreMetric.SERVICE_CALL_DURATION,
+            Duration.ofMillis(serviceCallMillis));
+        final MetricCollector httpClient = attempt.createChild("HttpClient");
+        httpClient.reportMetric(HttpMetric.MAX_CONCURRENCY, 50);
+        httpClient.reportMetric(HttpMetric.LEASED_CONCURRENCY, leased);
+        httpClient.reportMetric(HttpMetric.AVAILABLE_CONCURRENCY, 50 - leased);
+        httpClient.reportMetric(HttpMetric.PENDING_CONCURRENCY_ACQUIRES, pending);
+        return apiCall.collect();
+    }
+}
@@ -1,17 +1,24 @@
 package software.amazon.kms.key;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static software.amazon.kms.key.AbstractTestBase.MOCK_ASYNC_PROXY;
 import static software.amazon.kms.key.AbstractTestBase.MOCK_PROXY;
 import static software.amazon.kms.key.KeyHelper.ACCESS_DENIED_ERROR_CODE;
 import static software.amazon.kms.key.KeyHelper.THROTTLING_ERROR_CODE;
 import static software.amazon.kms.key.KeyHelper.VALIDATION_ERROR_CODE;
 
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,9 +26,13 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.kms.KmsAsyncClient;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.AlreadyExistsException;
 import software.amazon.awssdk.services.kms.model.CreateKeyRequest;
@@ -84,16 +95,21 @@ public class KeyHelperTest {
     @Mock
     private KmsClient kms;
 
+    @Mock
+    private KmsAsyncClient kmsAsync;
+
     @Mock
     private AmazonWebServicesClientProxy proxy;
 
     private KeyHelper keyHelper;
     private ProxyClient<KmsClient> proxyKmsClient;
+    private ProxyClient<KmsAsyncClient> proxyKmsAsyncClient;
 
     @BeforeEach
     public void setup() {
         keyHelper = new KeyHelper();
         proxyKmsClient = MOCK_PROXY(proxy, kms);
+        proxyKmsAsyncClient = MOCK_ASYNC_PROXY(proxy, kmsAsync);
     }
 
     @Test
@@ -284,6 +300,80 @@ public class KeyHelperTest {
             keyHelper.updateKeyDescription(updateKeyDescriptionRequest, proxyKmsClient));
     }
 
+    @Test
+    public void testTryGetKeyPolicy() {
+        final GetKeyPolicyRequest getKeyPolicyRequest = GetKeyPolicyRequest.builder().build();
+        final GetKeyPolicyResponse getKeyPolicyResponse = GetKeyPolicyResponse.builder().build();
+
+        doReturn(getKeyPolicyResponse).when(proxy)
+            .injectCredentialsAndInvokeV2(same(getKeyPolicyRequest), any());
+
+        final KmsResult<GetKeyPolicyResponse> result =
+            keyHelper.tryGetKeyPolicy(getKeyPolicyRequest, proxyKmsClient);
+        assertFalse(result.isAccessDenied());
+        assertEquals(getKeyPolicyResponse, result.getOrThrow());
+    }
+
+    @Test
+    public void testTryGetKeyRotationStatus() {
+        final GetKeyRotationStatusRequest getKeyRotationStatusRequest =
+            GetKeyRotationStatusRequest.builder().build();
+        final GetKeyRotationStatusResponse getKeyRotationStatusResponse =
+            GetKeyRotationStatusResponse.builder().build();
+
+        doReturn(getKeyRotationStatusResponse).when(proxy)
+            .injectCredentialsAndInvokeV2(same(getKeyRotationStatusRequest), any());
+
+        assertEquals(getKeyRotationStatusResponse, keyHelper
+            .tryGetKeyRotationStatus(getKeyRotationStatusRequest, proxyKmsClient).getOrThrow());
+    }
+
+    @Test
+    public void testTryListResourceTags() {
+        final ListResourceTagsRequest listResourceTagsRequest =
+            ListResourceTagsRequest.builder().build();
+        final ListResourceTagsResponse listResourceTagsResponse =
+            ListResourceTagsResponse.builder().build();
+
+        doReturn(listResourceTagsResponse).when(proxy)
+            .injectCredentialsAndInvokeV2(same(listResourceTagsRequest), any());
+
+        assertEquals(listResourceTagsResponse, keyHelper
+            .tryListResourceTags(listResourceTagsRequest, proxyKmsClient).getOrThrow());
+    }
+
+    @Test
+    public void testTryAccessDenied() {
+        final AwsServiceException accessDeniedException = KmsException.builder().awsErrorDetails(
+            AwsErrorDetails.builder()
+                .sdkHttpResponse(SdkHttpResponse.builder()
+                    .statusCode(400)
+                    .build())
+                .errorCode(ACCESS_DENIED_ERROR_CODE)
+                .build())
+            .build();
+        doThrow(accessDeniedException).when(proxy).injectCredentialsAndInvokeV2(any(), any());
+
+        final KmsResult<GetKeyPolicyResponse> getKeyPolicyResult =
+            keyHelper.tryGetKeyPolicy(GetKeyPolicyRequest.builder().build(), proxyKmsClient);
+        assertTrue(getKeyPolicyResult.isAccessDenied());
+        assertThrows(IllegalStateException.class, getKeyPolicyResult::getOrThrow);
+        assertTrue(keyHelper.tryGetKeyRotationStatus(
+            GetKeyRotationStatusRequest.builder().build(), proxyKmsClient).isAccessDenied());
+        assertTrue(keyHelper.tryListResourceTags(
+            ListResourceTagsRequest.builder().build(), proxyKmsClient).isAccessDenied());
+    }
+
+    @Test
+    public void testTryOtherErrors() {
+        doThrow(NotFoundException.class).when(proxy).injectCredentialsAndInvokeV2(any(), any());
+
+        final KmsResult<GetKeyPolicyResponse> getKeyPolicyResult =
+            keyHelper.tryGetKeyPolicy(GetKeyPolicyRequest.builder().build(), proxyKmsClient);
+        assertFalse(getKeyPolicyResult.isAccessDenied());
+        assertThrows(CfnNotFoundException.class, getKeyPolicyResult::getOrThrow);
+    }
+
     @Test
     public void testAlreadyExists() {
         doThrow(AlreadyExistsException.class).when(proxy)
@@ -389,6 +479,125 @@ public class KeyHelperTest {
         assertAllRequestsThrow(CfnGeneralServiceException.class);
     }
 
+    @Test
+    public void testAsyncRequests() {
+        assertAsyncRequest(CreateKeyRequest.builder().build(),
+            CreateKeyResponse.builder().build(), keyHelper::createKeyAsync);
+        assertAsyncRequest(DescribeKeyRequest.builder().build(),
+            DescribeKeyResponse.builder().build(), keyHelper::describeKeyAsync);
+        assertAsyncRequest(DisableKeyRequest.builder().build(),
+            DisableKeyResponse.builder().build(), keyHelper::disableKeyAsync);
+        assertAsyncRequest(EnableKeyRequest.builder().build(),
+            EnableKeyResponse.builder().build(), keyHelper::enableKeyAsync);
+        assertAsyncRequest(DisableKeyRotationRequest.builder().build(),
+            DisableKeyRotationResponse.builder().build(), keyHelper::disableKeyRotationAsync);
+        assertAsyncRequest(EnableKeyRotationRequest.builder().build(),
+            EnableKeyRotationResponse.builder().build(), keyHelper::enableKeyRotationAsync);
+        assertAsyncRequest(GetKeyPolicyRequest.builder().build(),
+            GetKeyPolicyResponse.builder().build(), keyHelper::getKeyPolicyAsync);
+        assertAsyncRequest(GetKeyRotationStatusRequest.builder().build(),
+            GetKeyRotationStatusResponse.builder().build(), keyHelper::getKeyRotationStatusAsync);
+        assertAsyncRequest(ListKeysRequest.builder().build(),
+            ListKeysResponse.builder().build(), keyHelper::listKeysAsync);
+        assertAsyncRequest(ListResourceTagsRequest.builder().build(),
+            ListResourceTagsResponse.builder().build(), keyHelper::listResourceTagsAsync);
+        assertAsyncRequest(PutKeyPolicyRequest.builder().build(),
+            PutKeyPolicyResponse.builder().build(), keyHelper::putKeyPolicyAsync);
+        assertAsyncRequest(ScheduleKeyDeletionRequest.builder().build(),
+            ScheduleKeyDeletionResponse.builder().build(), keyHelper::scheduleKeyDeletionAsync);
+        assertAsyncRequest(TagResourceRequest.builder().build(),
+            TagResourceResponse.builder().build(), keyHelper::tagResourceAsync);
+        assertAsyncRequest(UntagResourceRequest.builder().build(),
+            UntagResourceResponse.builder().build(), keyHelper::untagResourceAsync);
+        assertAsyncRequest(UpdateKeyDescriptionRequest.builder().build(),
+            UpdateKeyDescriptionResponse.builder().build(), keyHelper::updateKeyDescriptionAsync);
+    }
+
+    @Test
+    public void testTryAsyncRequests() {
+        assertAsyncRequest(GetKeyPolicyRequest.builder().build(),
+            GetKeyPolicyResponse.builder().build(), (request, proxyClient) -> keyHelper
+                .tryGetKeyPolicyAsync(request, proxyClient).thenApply(KmsResult::getOrThrow));
+        assertAsyncRequest(GetKeyRotationStatusRequest.builder().build(),
+            GetKeyRotationStatusResponse.builder().build(), (request, proxyClient) -> keyHelper
+                .tryGetKeyRotationStatusAsync(request, proxyClient)
+                .thenApply(KmsResult::getOrThrow));
+        assertAsyncRequest(ListResourceTagsRequest.builder().build(),
+            ListResourceTagsResponse.builder().build(), (request, proxyClient) -> keyHelper
+                .tryListResourceTagsAsync(request, proxyClient).thenApply(KmsResult::getOrThrow));
+    }
+
+    @Test
+    public void testAsyncNotFound() {
+        doReturn(failedFuture(NotFoundException.builder().build())).when(proxy)
+            .injectCredentialsAndInvokeV2Async(any(), any());
+
+        assertAllAsyncRequestsFail(CfnNotFoundException.class);
+    }
+
+    @Test
+    public void testAsyncAccessDenied() {
+        final AwsServiceException accessDeniedException = KmsException.builder().awsErrorDetails(
+            AwsErrorDetails.builder()
+                .errorCode(ACCESS_DENIED_ERROR_CODE)
+                .build())
+            .build();
+        doReturn(failedFuture(new CompletionException(accessDeniedException))).when(proxy)
+            .injectCredentialsAndInvokeV2Async(any(), any());
+
+        assertAllAsyncRequestsFail(CfnAccessDeniedException.class);
+        assertTrue(keyHelper.tryGetKeyPolicyAsync(GetKeyPolicyRequest.builder().build(),
+            proxyKmsAsyncClient).join().isAccessDenied());
+        assertTrue(keyHelper.tryGetKeyRotationStatusAsync(
+            GetKeyRotationStatusRequest.builder().build(), proxyKmsAsyncClient).join()
+            .isAccessDenied());
+        assertTrue(keyHelper.tryListResourceTagsAsync(ListResourceTagsRequest.builder().build(),
+            proxyKmsAsyncClient).join().isAccessDenied());
+    }
+
+    @Test
+    public void testAsyncThrottling() {
+        // Failures before the future is returned complete the future as well
+        doThrow(KmsException.builder().awsErrorDetails(AwsErrorDetails.builder()
+            .errorCode(THROTTLING_ERROR_CODE)
+            .build()).build()).when(proxy).injectCredentialsAndInvokeV2Async(any(), any());
+
+        assertAllAsyncRequestsFail(CfnThrottlingException.class);
+    }
+
+    @Test
+    public void testTryAsyncOtherErrors() {
+        doReturn(failedFuture(KmsInternalException.builder().build())).when(proxy)
+            .injectCredentialsAndInvokeV2Async(any(), any());
+
+        final KmsResult<GetKeyPolicyResponse> getKeyPolicyResult = keyHelper
+            .tryGetKeyPolicyAsync(GetKeyPolicyRequest.builder().build(), proxyKmsAsyncClient)
+            .join();
+        assertFalse(getKeyPolicyResult.isAccessDenied());
+        assertThrows(CfnServiceInternalErrorException.class, getKeyPolicyResult::getOrThrow);
+    }
+
+    @Test
+    public void testAsyncClientErrors() {
+        // Errors that do not come from KMS are passed through as is
+        final SdkClientException clientException =
+            SdkClientException.builder().message("Unable to execute HTTP request").build();
+        doReturn(failedFuture(clientException)).when(proxy)
+            .injectCredentialsAndInvokeV2Async(any(), any());
+
+        assertAllAsyncRequestsFail(SdkClientException.class);
+        assertAsyncFailure(SdkClientException.class, keyHelper.tryListResourceTagsAsync(
+            ListResourceTagsRequest.builder().build(), proxyKmsAsyncClient));
+
+        final CompletionException completionException = new CompletionException("Failed", null);
+        doReturn(failedFuture(completionException)).when(proxy)
+            .injectCredentialsAndInvokeV2Async(any(), any());
+
+        final CompletionException e = assertThrows(CompletionException.class, () -> keyHelper
+            .describeKeyAsync(DescribeKeyRequest.builder().build(), proxyKmsAsyncClient).join());
+        assertSame(completionException, e.getCause());
+    }
+
     private void assertAllRequestsThrow(final Class<? extends Throwable> cfnException) {
         final CreateKeyRequest createKeyRequest = CreateKeyRequest.builder().build();
         assertThrows(cfnException, () -> keyHelper.createKey(createKeyRequest, proxyKmsClient));
@@ -450,4 +659,73 @@ public class KeyHelperTest {
         assertThrows(cfnException,
             () -> keyHelper.updateKeyDescription(updateKeyDescriptionRequest, proxyKmsClient));
     }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> void assertAsyncRequest(
+        final RequestT request,
+        final ResponseT response,
+        final BiFunction<RequestT, ProxyClient<KmsAsyncClient>, CompletableFuture<ResponseT>> call) {
+        doReturn(CompletableFuture.completedFuture(response)).when(proxy)
+            .injectCredentialsAndInvokeV2Async(same(request), any());
+
+        assertEquals(response, call.apply(request, proxyKmsAsyncClient).join());
+    }
+
+    private void assertAllAsyncRequestsFail(final Class<? extends Throwable> cfnException) {
+        assertAsyncFailure(cfnException, keyHelper.createKeyAsync(
+            CreateKeyRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.describeKeyAsync(
+            DescribeKeyRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.disableKeyAsync(
+            DisableKeyRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.enableKeyAsync(
+            EnableKeyRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.disableKeyRotationAsync(
+            DisableKeyRotationRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.enableKeyRotationAsync(
+            EnableKeyRotationRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.getKeyPolicyAsync(
+            GetKeyPolicyRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.getKeyRotationStatusAsync(
+            GetKeyRotationStatusRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.listKeysAsync(
+            ListKeysRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.listResourceTagsAsync(
+            ListResourceTagsRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.putKeyPolicyAsync(
+            PutKeyPolicyRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.scheduleKeyDeletionAsync(
+            ScheduleKeyDeletionRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.tagResourceAsync(
+            TagResourceRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.untagResourceAsync(
+            UntagResourceRequest.builder().build(), proxyKmsAsyncClient));
+
+        assertAsyncFailure(cfnException, keyHelper.updateKeyDescriptionAsync(
+            UpdateKeyDescriptionRequest.builder().build(), proxyKmsAsyncClient));
+    }
+
+    private static void assertAsyncFailure(final Class<? extends Throwable> expected,
+                                           final CompletableFuture<?> future) {
+        final CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertTrue(expected.isInstance(e.getCause()), () -> "Unexpected " + e.getCause());
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(final Throwable exception) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        return future;
+    }
 }
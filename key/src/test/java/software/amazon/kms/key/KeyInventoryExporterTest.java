@@ -0,0 +1,261 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+public class KeyInventoryExporterTest extends AbstractTestBase {
+    private static final int KEY_COUNT = 100_000;
+    private static final int MAX_CONCURRENCY = 16;
+    private static final int BATCH_SIZE = 50;
+    private static final int SAMPLE_SIZE = 20;
+
+    private FanOutExecutor fanOutExecutor;
+    private KeyInventoryExporter exporter;
+    private AmazonWebServicesClientProxy proxy;
+
+    @BeforeEach
+    public void setup() {
+        fanOutExecutor = new FanOutExecutor(FanOutExecutor.Backend.PLATFORM, MAX_CONCURRENCY);
+        exporter = new KeyInventoryExporter(new KeyHelper(), fanOutExecutor, BATCH_SIZE,
+            System::nanoTime);
+        proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS,
+            () -> Duration.ofSeconds(600).toMillis());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fanOutExecutor.shutdown();
+    }
+
+    @Test
+    public void testExport_AllKeys() {
+        final FakeKmsClient kms = new FakeKmsClient(KEY_COUNT);
+        final RecordWriter writer = new RecordWriter();
+        kms.countWrittenKeys(writer::getRecords);
+        final List<KeyInventoryExporter.Checkpoint> checkpoints = new ArrayList<>();
+
+        final KeyInventoryExporter.Checkpoint checkpoint = exporter.export(proxyClient(kms),
+            writer, KeyInventoryExporter.Checkpoint.START, checkpoints::add);
+
+        final long deletedKeys = KEY_COUNT / 1000;
+        assertThat(writer.getRecords()).isEqualTo(KEY_COUNT - deletedKeys);
+        assertThat(writer.getDuplicates()).isZero();
+        for (int index = 0; index < KEY_COUNT; index++) {
+            assertThat(writer.getKeys().get(index)).isEqualTo(!FakeKmsClient.isDeleted(index));
+        }
+
+        assertThat(checkpoint.isComplete()).isTrue();
+        assertThat(checkpoint.getMarker()).isNull();
+        assertThat(checkpoint.getPages()).isEqualTo(KEY_COUNT / ListHandler.MAX_PAGE_SIZE);
+        assertThat(checkpoint.getKeys()).isEqualTo(writer.getRecords());
+        assertThat(checkpoint.getSkippedKeys()).isEqualTo(deletedKeys);
+        assertThat(checkpoint.getCalls()).isGreaterThan(4L * (KEY_COUNT - deletedKeys));
+        assertThat(checkpoint.getKeysPerSecond()).isPositive();
+        // A checkpoint for every page, each written and flushed before it
+        assertThat(checkpoints).hasSize((int) checkpoint.getPages()).last().isEqualTo(checkpoint);
+        assertThat(checkpoints.get(0).getMarker()).isEqualTo("1000");
+        assertThat(writer.getFlushedRecords()).isEqualTo(writer.getRecords());
+        // The KMS calls in flight stay within the bound of the executor, and the keys read
+        // ahead of the writer within a batch, however many keys the account has
+        assertThat(kms.getMaxInFlight()).isLessThanOrEqualTo(MAX_CONCURRENCY);
+        assertThat(kms.getMaxPendingKeys()).isLessThanOrEqualTo(BATCH_SIZE);
+    }
+
+    @Test
+    public void testExport_Records() {
+        final RecordWriter writer = new RecordWriter();
+
+        exporter.export(proxyClient(new FakeKmsClient(20)), writer,
+            KeyInventoryExporter.Checkpoint.START, checkpoint -> { });
+
+        final JsonNode customerKey = writer.getRecord(FakeKmsClient.keyId(4));
+        assertThat(customerKey.get("Arn").asText()).endsWith(":key/key-000004");
+        assertThat(customerKey.get("KeyManager").asText()).isEqualTo("CUSTOMER");
+        assertThat(customerKey.get("KeySpec").asText()).isEqualTo("SYMMETRIC_DEFAULT");
+        assertThat(customerKey.get("CreationDate").asText())
+            .isEqualTo(FakeKmsClient.CREATION_DATE.toString());
+        assertThat(customerKey.get("KeyPolicy").get("Id").asText()).isEqualTo("key-000004");
+        assertThat(customerKey.get("EnableKeyRotation").asBoolean()).isTrue();
+        // Every page of the tags
+        assertThat(customerKey.get("Tags").size()).isEqualTo(3);
+        assertThat(customerKey.get("Tags").get("CostCenter").asText()).isEqualTo("1234");
+        assertThat(customerKey.has("DeniedOperations")).isFalse();
+
+        // Rotated, and not tagged
+        final JsonNode awsManagedKey = writer.getRecord(FakeKmsClient.keyId(10));
+        assertThat(awsManagedKey.get("EnableKeyRotation").asBoolean()).isTrue();
+        assertThat(awsManagedKey.has("Tags")).isFalse();
+
+        final JsonNode asymmetricKey = writer.getRecord(FakeKmsClient.keyId(11));
+        assertThat(asymmetricKey.get("EnableKeyRotation").asBoolean()).isFalse();
+        assertThat(asymmetricKey.get("KeyUsage").asText()).isEqualTo("SIGN_VERIFY");
+
+        final JsonNode deniedPolicyKey = writer.getRecord(FakeKmsClient.keyId(2));
+        assertThat(deniedPolicyKey.has("KeyPolicy")).isFalse();
+        assertThat(deniedPolicyKey.get("DeniedOperations").get(0).asText())
+            .isEqualTo(KeyHelper.GET_KEY_POLICY);
+        assertThat(deniedPolicyKey.get("Tags").size()).isEqualTo(3);
+    }
+
+    @Test
+    public void testExport_ResumesFromCheckpoint() {
+        final FakeKmsClient kms = new FakeKmsClient(5_000);
+        final RecordWriter writer = new RecordWriter();
+        final List<KeyInventoryExporter.Checkpoint> checkpoints = new ArrayList<>();
+        // The third page cannot be listed
+        kms.failListKeysOnce("2000");
+
+        assertThrows(CfnServiceInternalErrorException.class, () -> exporter.export(
+            proxyClient(kms), writer, KeyInventoryExporter.Checkpoint.START, checkpoints::add));
+
+        final KeyInventoryExporter.Checkpoint failed = checkpoints.get(checkpoints.size() - 1);
+        assertThat(failed.isComplete()).isFalse();
+        assertThat(failed.getMarker()).isEqualTo("2000");
+        assertThat(failed.getPages()).isEqualTo(2);
+        assertThat(writer.getFlushedRecords()).isEqualTo(failed.getKeys());
+
+        final KeyInventoryExporter.Checkpoint checkpoint =
+            exporter.export(proxyClient(kms), writer, failed, checkpoints::add);
+
+        // The totals carry on, and no key is written twice
+        assertThat(checkpoint.isComplete()).isTrue();
+        assertThat(checkpoint.getPages()).isEqualTo(5);
+        assertThat(checkpoint.getKeys()).isEqualTo(5_000 - 5);
+        assertThat(checkpoint.getSkippedKeys()).isEqualTo(5);
+        assertThat(checkpoint.getElapsedMillis())
+            .isGreaterThanOrEqualTo(failed.getElapsedMillis());
+        assertThat(writer.getRecords()).isEqualTo(checkpoint.getKeys());
+        assertThat(writer.getDuplicates()).isZero();
+    }
+
+    @Test
+    public void testExport_Complete() {
+        final KeyInventoryExporter.Checkpoint complete = KeyInventoryExporter.Checkpoint.builder()
+            .complete(true)
+            .pages(3)
+            .build();
+        final RecordWriter writer = new RecordWriter();
+
+        assertThat(exporter.export(proxyClient(new FakeKmsClient(1)), writer, complete,
+            checkpoint -> { })).isSameAs(complete);
+        assertThat(writer.getRecords()).isZero();
+    }
+
+    @Test
+    public void testExport_Empty() {
+        final RecordWriter writer = new RecordWriter();
+
+        final KeyInventoryExporter.Checkpoint checkpoint = exporter.export(
+            proxyClient(new FakeKmsClient(0)), writer, KeyInventoryExporter.Checkpoint.START,
+            progress -> { });
+
+        assertThat(checkpoint.isComplete()).isTrue();
+        assertThat(checkpoint.getPages()).isEqualTo(1);
+        assertThat(checkpoint.getCalls()).isEqualTo(1);
+        assertThat(checkpoint.getKeysPerSecond()).isGreaterThanOrEqualTo(0);
+        assertThat(writer.getRecords()).isZero();
+    }
+
+    private ProxyClient<KmsClient> proxyClient(final FakeKmsClient kms) {
+        return MOCK_PROXY(proxy, kms);
+    }
+
+    // Checks the records as they are written, only keeping which keys were written, so that
+    // the test itself does not hold the export
+    private static final class RecordWriter extends Writer {
+        private final StringBuilder line = new StringBuilder();
+        private final BitSet keys;
+        private final AtomicLong records = new AtomicLong();
+        private long flushedRecords;
+        private long duplicates;
+        // The first records, to look into
+        private final List<JsonNode> sample = new ArrayList<>();
+
+        private RecordWriter() {
+            this.keys = new BitSet();
+        }
+
+        @Override
+        public void write(final char[] buffer, final int offset, final int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    record(line.toString());
+                    line.setLength(0);
+                } else {
+                    line.append(buffer[i]);
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+            assertThat(line.length()).isZero();
+            flushedRecords = records.get();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+
+        private void record(final String json) {
+            final JsonNode record;
+            try {
+                record = Translator.MAPPER.readTree(json);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            final String keyId = record.get("KeyId").asText();
+            final int index = Integer.parseInt(keyId.substring(keyId.indexOf('-') + 1));
+            if (keys.get(index)) {
+                duplicates++;
+            }
+            keys.set(index);
+            if (sample.size() < SAMPLE_SIZE) {
+                sample.add(record);
+            }
+            records.incrementAndGet();
+        }
+
+        private JsonNode getRecord(final String keyId) {
+            return sample.stream()
+                .filter(record -> record.get("KeyId").asText().equals(keyId))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No record for " + keyId));
+        }
+
+        private BitSet getKeys() {
+            return keys;
+        }
+
+        private long getRecords() {
+            return records.get();
+        }
+
+        private long getFlushedRecords() {
+            return flushedRecords;
+        }
+
+        private long getDuplicates() {
+            return duplicates;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package software.amazon.kms.key;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.TerminalException;
+
+public class KeyPolicyCodecTest {
+    private static final String KEY_POLICY = "{\"foo\":\"bar\"}";
+
+    @Test
+    public void testSerializeString() {
+        assertSame(KEY_POLICY, new KeyPolicyCodec().serialize(KEY_POLICY));
+        assertNull(new KeyPolicyCodec().serialize(null));
+    }
+
+    @Test
+    public void testSerializeMap() {
+        final KeyPolicyCodec policyCodec = new KeyPolicyCodec();
+        final Map<String, Object> policy = new HashMap<>(ImmutableMap.of("foo", "bar"));
+
+        final String serializedPolicy = policyCodec.serialize(policy);
+
+        assertEquals(KEY_POLICY, serializedPolicy);
+        // The same policy object is only serialized once
+        assertSame(serializedPolicy, policyCodec.serialize(policy));
+        // An equal policy object is serialized again
+        assertEquals(KEY_POLICY, policyCodec.serialize(new HashMap<>(policy)));
+    }
+
+    @Test
+    public void testSerializeMapFailure() {
+        final Map<String, Object> policy = ImmutableMap.of("foo", new Object());
+
+        assertThrows(TerminalException.class, () -> new KeyPolicyCodec().serialize(policy));
+    }
+
+    @Test
+    public void testIsEquivalent() {
+        final KeyPolicyCodec policyCodec = new KeyPolicyCodec();
+
+        assertTrue(policyCodec.isEquivalent(null, null));
+        assertTrue(policyCodec.isEquivalent(KEY_POLICY, ImmutableMap.of("foo", "bar")));
+        // KMS returns the document in the formatting it was put with
+        assertTrue(policyCodec.isEquivalent("{\n  \"foo\" : \"bar\"\n}",
+            ImmutableMap.of("foo", "bar")));
+        assertTrue(policyCodec.isEquivalent("{\"a\":1,\"b\":2}", "{\"b\":2,\"a\":1}"));
+        assertFalse(policyCodec.isEquivalent(KEY_POLICY, ImmutableMap.of("foo", "baz")));
+        assertFalse(policyCodec.isEquivalent(KEY_POLICY, null));
+        assertFalse(policyCodec.isEquivalent(null, KEY_POLICY));
+        // Documents that are not JSON are only equivalent when they are equal
+        assertFalse(policyCodec.isEquivalent("not a policy", KEY_POLICY));
+        assertTrue(policyCodec.isEquivalent("not a policy", "not a policy"));
+    }
+
+    @Test
+    public void testDeserialize() {
+        assertNull(KeyPolicyCodec.deserialize(null));
+        assertNull(KeyPolicyCodec.deserialize(""));
+
+        final Map<String, Object> policy = KeyPolicyCodec.deserialize(KEY_POLICY);
+
+        assertEquals(ImmutableMap.of("foo", "bar"), policy);
+        assertEquals(1, policy.size());
+        assertEquals("bar", policy.get("foo"));
+        assertTrue(policy.containsKey("foo"));
+    }
+
+    @Test
+    public void testDeserializeIsLazy() {
+        final Map<String, Object> policy = KeyPolicyCodec.deserialize("not a policy");
+
+        // The policy is only parsed when it is accessed
+        assertSame("not a policy", KeyPolicyCodec.serializePolicy(policy));
+        assertThrows(CfnInternalFailureException.class, policy::size);
+    }
+
+    @Test
+    public void testDeserializeModified() {
+        final Map<String, Object> policy = KeyPolicyCodec.deserialize(KEY_POLICY);
+
+        policy.put("foo", "baz");
+
+        assertEquals("{\"foo\":\"baz\"}", KeyPolicyCodec.serializePolicy(policy));
+    }
+
+    @Test
+    public void testRoundTripLargePolicy() {
+        final List<Map<String, Object>> statements = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            statements.add(ImmutableMap.of(
+                "Sid", "Statement" + i,
+                "Effect", "Allow",
+                "Principal", ImmutableMap.of("AWS", "arn:aws:iam::123456789012:role/role" + i),
+                "Action", "kms:*",
+                "Resource", "*"));
+        }
+        final Map<String, Object> policy = ImmutableMap.of(
+            "Version", "2012-10-17",
+            "Statement", statements);
+
+        final String serializedPolicy = new KeyPolicyCodec().serialize(policy);
+
+        assertTrue(serializedPolicy.length() > 32 * 1024);
+        assertEquals(policy, KeyPolicyCodec.deserialize(serializedPolicy));
+    }
+}
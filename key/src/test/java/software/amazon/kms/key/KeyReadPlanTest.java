@@ -0,0 +1,98 @@
+package software.amazon.kms.key;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.kms.model.CustomerMasterKeySpec;
+import software.amazon.awssdk.services.kms.model.KeyManagerType;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.OriginType;
+
+public class KeyReadPlanTest {
+    private static final KeyMetadata CUSTOMER_KEY = KeyMetadata.builder()
+        .keyManager(KeyManagerType.CUSTOMER)
+        .customerMasterKeySpec(CustomerMasterKeySpec.SYMMETRIC_DEFAULT)
+        .keyState(KeyState.ENABLED)
+        .origin(OriginType.AWS_KMS)
+        .build();
+
+    @Test
+    public void testFetchAll() {
+        final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(CUSTOMER_KEY);
+
+        assertTrue(readPlan.isFetchKeyRotationStatus());
+        assertTrue(readPlan.isFetchTags());
+        assertNull(readPlan.getImpliedKeyRotation());
+    }
+
+    @Test
+    public void testMissingMetadata() {
+        final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(KeyMetadata.builder().build());
+
+        assertTrue(readPlan.isFetchKeyRotationStatus());
+        assertTrue(readPlan.isFetchTags());
+        assertNull(readPlan.getImpliedKeyRotation());
+    }
+
+    @Test
+    public void testAwsManagedKey() {
+        final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(CUSTOMER_KEY.toBuilder()
+            .keyManager(KeyManagerType.AWS)
+            .build());
+
+        assertFalse(readPlan.isFetchKeyRotationStatus());
+        assertFalse(readPlan.isFetchTags());
+        assertTrue(readPlan.getImpliedKeyRotation());
+        assertEquals("AwsManagedKey", readPlan.getReason());
+    }
+
+    @Test
+    public void testAsymmetricKey() {
+        final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(CUSTOMER_KEY.toBuilder()
+            .customerMasterKeySpec(CustomerMasterKeySpec.ECC_NIST_P256)
+            .build());
+
+        assertFalse(readPlan.isFetchKeyRotationStatus());
+        assertTrue(readPlan.isFetchTags());
+        assertFalse(readPlan.getImpliedKeyRotation());
+        assertEquals("AsymmetricKey", readPlan.getReason());
+    }
+
+    @Test
+    public void testPendingImportKey() {
+        final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(CUSTOMER_KEY.toBuilder()
+            .keyState(KeyState.PENDING_IMPORT)
+            .origin((OriginType) null)
+            .build());
+
+        assertFalse(readPlan.isFetchKeyRotationStatus());
+        assertTrue(readPlan.isFetchTags());
+        assertFalse(readPlan.getImpliedKeyRotation());
+    }
+
+    @Test
+    public void testUnavailableKey() {
+        final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(CUSTOMER_KEY.toBuilder()
+            .keyState(KeyState.UNAVAILABLE)
+            .build());
+
+        assertFalse(readPlan.isFetchKeyRotationStatus());
+        assertTrue(readPlan.isFetchTags());
+    }
+
+    @Test
+    public void testExternalKey() {
+        final KeyReadPlan readPlan = KeyReadPlan.fromKeyMetadata(CUSTOMER_KEY.toBuilder()
+            .origin(OriginType.EXTERNAL)
+            .build());
+
+        assertFalse(readPlan.isFetchKeyRotationStatus());
+        assertTrue(readPlan.isFetchTags());
+        assertFalse(readPlan.getImpliedKeyRotation());
+        assertEquals("OriginEXTERNAL", readPlan.getReason());
+    }
+}
@@ -0,0 +1,246 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.kms.model.CustomerMasterKeySpec;
+import software.amazon.awssdk.services.kms.model.KeyUsageType;
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.exceptions.CfnNotUpdatableException;
+
+/**
+ * Checks the properties of the update plan for every transition between models built from
+ * the values of the properties that the plan and the validation of the models look at.
+ */
+public class KeyUpdatePlanTest {
+    private static final KeyPolicyCodec POLICY_CODEC = new KeyPolicyCodec();
+    private static final boolean[] BOOLEANS = {false, true};
+    private static final String[] KEY_SPECS = {CustomerMasterKeySpec.SYMMETRIC_DEFAULT.toString(),
+        CustomerMasterKeySpec.RSA_2048.toString()};
+    private static final String[] KEY_USAGES = {KeyUsageType.ENCRYPT_DECRYPT.toString(),
+        KeyUsageType.SIGN_VERIFY.toString()};
+    private static final String[] DESCRIPTIONS = {"", "description"};
+    private static final String[] KEY_POLICIES = {"{old policy}", "{new policy}"};
+    // The enabled key and the new key policy propagate during the same callback delay
+    private static final int MAX_INVOCATIONS = 2;
+
+    @Test
+    public void testValidation() {
+        forEachTransition((previousModel, model) -> {
+            final boolean asymmetricRotation = model.getEnableKeyRotation()
+                && !model.getKeySpec().equals(CustomerMasterKeySpec.SYMMETRIC_DEFAULT.toString());
+            final boolean rotationOfDisabledKey = !previousModel.getEnabled()
+                && !model.getEnabled()
+                && previousModel.getEnableKeyRotation() != model.getEnableKeyRotation();
+            final boolean replacement = !previousModel.getKeySpec().equals(model.getKeySpec())
+                || !previousModel.getKeyUsage().equals(model.getKeyUsage());
+
+            if (asymmetricRotation || rotationOfDisabledKey) {
+                assertThrows(CfnInvalidRequestException.class,
+                    () -> validate(previousModel, model));
+            } else if (replacement) {
+                assertThrows(CfnNotUpdatableException.class, () -> validate(previousModel, model));
+            } else {
+                assertDoesNotThrow(() -> validate(previousModel, model));
+            }
+        });
+    }
+
+    @Test
+    public void testFromModels_OnlyChangedProperties() {
+        forEachValidTransition((previousModel, model, updatePlan) -> {
+            final Set<KeyUpdatePlan.Mutation> mutations = updatePlan.getMutations();
+
+            assertThat(mutations.contains(KeyUpdatePlan.Mutation.ENABLE_KEY))
+                .isEqualTo(!previousModel.getEnabled() && model.getEnabled());
+            assertThat(mutations.contains(KeyUpdatePlan.Mutation.DISABLE_KEY))
+                .isEqualTo(previousModel.getEnabled() && !model.getEnabled());
+            assertThat(mutations.contains(KeyUpdatePlan.Mutation.UPDATE_KEY_ROTATION))
+                .isEqualTo(previousModel.getEnableKeyRotation() != model.getEnableKeyRotation());
+            assertThat(mutations.contains(KeyUpdatePlan.Mutation.UPDATE_DESCRIPTION))
+                .isEqualTo(!previousModel.getDescription().equals(model.getDescription()));
+            assertThat(mutations.contains(KeyUpdatePlan.Mutation.PUT_KEY_POLICY))
+                .isEqualTo(!previousModel.getKeyPolicy().equals(model.getKeyPolicy()));
+            // The tags are reconciled with the actual tags of the key
+            assertThat(mutations).contains(KeyUpdatePlan.Mutation.UPDATE_TAGS);
+        });
+    }
+
+    @Test
+    public void testSchedule_StagesAreIndependent() {
+        forEachValidTransition((previousModel, model, updatePlan) ->
+            updatePlan.schedule(EnumSet.noneOf(KeyUpdatePlan.Mutation.class)).getStages()
+                .forEach(stage -> stage.forEach(mutation -> assertThat(stage)
+                    .noneMatch(other -> KeyUpdatePlan.dependsOn(mutation, other)))));
+    }
+
+    @Test
+    public void testSchedule_Execution() {
+        forEachValidTransition((previousModel, model, updatePlan) -> {
+            final Set<KeyUpdatePlan.Mutation> completed =
+                EnumSet.noneOf(KeyUpdatePlan.Mutation.class);
+            final List<KeyUpdatePlan.Mutation> made = new ArrayList<>();
+            boolean enabled = previousModel.getEnabled();
+            boolean rotation = previousModel.getEnableKeyRotation();
+            int invocations = 0;
+            KeyUpdatePlan.Schedule schedule;
+            do {
+                invocations++;
+                assertThat(invocations).isLessThanOrEqualTo(MAX_INVOCATIONS);
+                // Mutations of this invocation have not propagated yet
+                final Set<KeyUpdatePlan.Mutation> propagated =
+                    EnumSet.noneOf(KeyUpdatePlan.Mutation.class);
+                propagated.addAll(completed);
+                schedule = updatePlan.schedule(completed);
+                for (final Set<KeyUpdatePlan.Mutation> stage : schedule.getStages()) {
+                    for (final KeyUpdatePlan.Mutation mutation : stage) {
+                        switch (mutation) {
+                            case ENABLE_KEY:
+                                enabled = true;
+                                break;
+                            case UPDATE_KEY_ROTATION:
+                                // The rotation is only updated on a key that is enabled
+                                // everywhere
+                                assertThat(enabled).isTrue();
+                                assertThat(!updatePlan.getMutations()
+                                    .contains(KeyUpdatePlan.Mutation.ENABLE_KEY)
+                                    || propagated.contains(KeyUpdatePlan.Mutation.ENABLE_KEY))
+                                    .isTrue();
+                                rotation = model.getEnableKeyRotation();
+                                break;
+                            case DISABLE_KEY:
+                                assertThat(!updatePlan.getMutations()
+                                    .contains(KeyUpdatePlan.Mutation.UPDATE_KEY_ROTATION)
+                                    || completed.contains(
+                                    KeyUpdatePlan.Mutation.UPDATE_KEY_ROTATION)).isTrue();
+                                enabled = false;
+                                break;
+                            case UPDATE_TAGS:
+                                // A new key policy has propagated before the tags are updated
+                                assertThat(!updatePlan.getMutations()
+                                    .contains(KeyUpdatePlan.Mutation.PUT_KEY_POLICY)
+                                    || propagated.contains(KeyUpdatePlan.Mutation.PUT_KEY_POLICY))
+                                    .isTrue();
+                                break;
+                            default:
+                                break;
+                        }
+                        made.add(mutation);
+                    }
+
+                    completed.addAll(stage);
+                }
+            } while (schedule.isAwaitingPropagation());
+
+            // Every mutation is made once, and the key ends up in the desired state
+            assertThat(made).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(updatePlan.getMutations());
+            assertThat(enabled).isEqualTo(model.getEnabled());
+            assertThat(rotation).isEqualTo(model.getEnableKeyRotation());
+        });
+    }
+
+    @Test
+    public void testSchedule_SingleWaitWithoutDependencies() {
+        // Without enabling the key or changing the policy, nothing waits for propagation
+        forEachValidTransition((previousModel, model, updatePlan) -> {
+            final KeyUpdatePlan.Schedule schedule =
+                updatePlan.schedule(EnumSet.noneOf(KeyUpdatePlan.Mutation.class));
+            final boolean propagates = updatePlan.getMutations()
+                .contains(KeyUpdatePlan.Mutation.PUT_KEY_POLICY)
+                || updatePlan.getMutations().contains(KeyUpdatePlan.Mutation.ENABLE_KEY)
+                && updatePlan.getMutations().contains(KeyUpdatePlan.Mutation.UPDATE_KEY_ROTATION);
+
+            assertThat(schedule.isAwaitingPropagation()).isEqualTo(propagates);
+        });
+    }
+
+    @Test
+    public void testSchedule_Completed() {
+        final KeyUpdatePlan updatePlan =
+            new KeyUpdatePlan(EnumSet.allOf(KeyUpdatePlan.Mutation.class));
+
+        final KeyUpdatePlan.Schedule schedule =
+            updatePlan.schedule(EnumSet.allOf(KeyUpdatePlan.Mutation.class));
+
+        assertThat(schedule.getStages()).isEmpty();
+        assertThat(schedule.isAwaitingPropagation()).isFalse();
+    }
+
+    @Test
+    public void testSchedule_NoMutations() {
+        final KeyUpdatePlan updatePlan =
+            new KeyUpdatePlan(EnumSet.noneOf(KeyUpdatePlan.Mutation.class));
+
+        assertThat(updatePlan.schedule(EnumSet.noneOf(KeyUpdatePlan.Mutation.class)).getStages())
+            .isEmpty();
+        assertThat(updatePlan.toString()).contains("mutations=[]");
+    }
+
+    private static void validate(final ResourceModel previousModel, final ResourceModel model) {
+        BaseHandlerStd.validateResourceModel(null, previousModel, model);
+    }
+
+    private static void forEachValidTransition(final TransitionProperty property) {
+        forEachTransition((previousModel, model) -> {
+            try {
+                validate(previousModel, model);
+            } catch (final BaseHandlerException e) {
+                // The handler fails before planning invalid transitions
+                return;
+            }
+
+            property.check(previousModel, model,
+                KeyUpdatePlan.fromModels(previousModel, model, POLICY_CODEC));
+        });
+    }
+
+    private static void forEachTransition(
+        final BiConsumer<ResourceModel, ResourceModel> property) {
+        final List<ResourceModel> models = models();
+        for (final ResourceModel previousModel : models) {
+            for (final ResourceModel model : models) {
+                property.accept(previousModel, model);
+            }
+        }
+    }
+
+    private static List<ResourceModel> models() {
+        final List<ResourceModel> models = new ArrayList<>();
+        for (final boolean enabled : BOOLEANS) {
+            for (final boolean rotation : BOOLEANS) {
+                for (final String keySpec : KEY_SPECS) {
+                    for (final String keyUsage : KEY_USAGES) {
+                        for (final String description : DESCRIPTIONS) {
+                            for (final String keyPolicy : KEY_POLICIES) {
+                                models.add(ModelAdapter.setDefaults(ResourceModel.builder()
+                                    .enabled(enabled)
+                                    .enableKeyRotation(rotation)
+                                    .keySpec(keySpec)
+                                    .keyUsage(keyUsage)
+                                    .description(description)
+                                    .keyPolicy(keyPolicy)
+                                    .build()));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return models;
+    }
+
+    @FunctionalInterface
+    private interface TransitionProperty {
+        void check(ResourceModel previousModel, ResourceModel model, KeyUpdatePlan updatePlan);
+    }
+}
@@ -0,0 +1,140 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsClient;
+
+public class KmsClientPoolTest {
+    private AtomicLong clock;
+    private Map<Region, KmsClient> builtClients;
+    private AtomicInteger builds;
+    private KmsClientPool<KmsClient> clientPool;
+
+    @BeforeEach
+    public void setup() {
+        clock = new AtomicLong();
+        builtClients = new ConcurrentHashMap<>();
+        builds = new AtomicInteger();
+        clientPool = new KmsClientPool<>(this::buildClient, 2, Duration.ofMinutes(10), clock::get);
+    }
+
+    @Test
+    public void testGetClient() {
+        final KmsClient client = clientPool.getClient(Region.US_EAST_1);
+
+        assertThat(clientPool.getClient(Region.US_EAST_1)).isSameAs(client);
+        assertThat(clientPool.getClient(Region.EU_WEST_1)).isNotSameAs(client);
+        assertThat(builds).hasValue(2);
+        assertThat(clientPool.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testEvictIdleClients() {
+        clientPool.getClient(Region.US_EAST_1);
+        clock.addAndGet(Duration.ofMinutes(5).toNanos());
+        clientPool.getClient(Region.US_WEST_2);
+        clock.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        clientPool.getClient(Region.EU_WEST_1);
+
+        assertThat(clientPool.size()).isEqualTo(2);
+        assertThat(clientPool.retiredSize()).isEqualTo(1);
+        verify(builtClients.get(Region.US_EAST_1), never()).close();
+
+        // A retired client that is still idle is closed by the next eviction
+        clientPool.getClient(Region.AP_NORTHEAST_1);
+
+        verify(builtClients.get(Region.US_EAST_1)).close();
+        verify(builtClients.get(Region.US_WEST_2), never()).close();
+        assertThat(clientPool.retiredSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedClients() {
+        clientPool.getClient(Region.US_EAST_1);
+        clock.incrementAndGet();
+        clientPool.getClient(Region.US_WEST_2);
+        clock.incrementAndGet();
+        clientPool.getClient(Region.US_EAST_1);
+        clock.incrementAndGet();
+
+        clientPool.getClient(Region.EU_WEST_1);
+
+        assertThat(clientPool.size()).isEqualTo(2);
+        assertThat(clientPool.retiredSize()).isEqualTo(1);
+
+        // An evicted region gets a new client on its next use
+        final KmsClient retiredClient = builtClients.get(Region.US_WEST_2);
+        clientPool.getClient(Region.US_WEST_2);
+        assertThat(builds).hasValue(4);
+        assertThat(builtClients.get(Region.US_WEST_2)).isNotSameAs(retiredClient);
+        assertThat(clientPool.retiredSize()).isEqualTo(2);
+        // Retired clients were used within the idle timeout, a request may still hold them
+        verify(retiredClient, never()).close();
+        verify(builtClients.get(Region.US_EAST_1), never()).close();
+
+        clock.addAndGet(Duration.ofMinutes(10).toNanos());
+        clientPool.getClient(Region.AP_NORTHEAST_1);
+
+        verify(retiredClient).close();
+        verify(builtClients.get(Region.US_EAST_1)).close();
+    }
+
+    @Test
+    public void testGetClient_Concurrently() throws Exception {
+        clientPool = new KmsClientPool<>(this::buildClient);
+        final List<Region> regions = Arrays.asList(Region.US_EAST_1, Region.US_WEST_2,
+            Region.EU_WEST_1, Region.AP_NORTHEAST_1);
+        final int threads = 16;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<KmsClient>> clients = new ArrayList<>();
+            for (int i = 0; i < threads * 8; i++) {
+                final Region region = regions.get(i % regions.size());
+                clients.add(executor.submit(() -> {
+                    start.await();
+                    return clientPool.getClient(region);
+                }));
+            }
+
+            start.countDown();
+            for (int i = 0; i < clients.size(); i++) {
+                final Region region = regions.get(i % regions.size());
+                assertThat(clients.get(i).get(10, TimeUnit.SECONDS))
+                    .isSameAs(builtClients.get(region));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(builds).hasValue(regions.size());
+        assertThat(clientPool.size()).isEqualTo(regions.size());
+    }
+
+    private KmsClient buildClient(final Region region) {
+        builds.incrementAndGet();
+        final KmsClient client = mock(KmsClient.class);
+        builtClients.put(region, client);
+        return client;
+    }
+}
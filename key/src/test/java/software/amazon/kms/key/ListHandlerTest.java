@@ -3,13 +3,18 @@ package software.amazon.kms.key;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,10 +22,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.CustomerMasterKeySpec;
+import software.amazon.awssdk.services.kms.model.DescribeKeyRequest;
+import software.amazon.awssdk.services.kms.model.DescribeKeyResponse;
 import software.amazon.awssdk.services.kms.model.KeyListEntry;
+import software.amazon.awssdk.services.kms.model.KeyManagerType;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.KeyUsageType;
 import software.amazon.awssdk.services.kms.model.ListKeysRequest;
 import software.amazon.awssdk.services.kms.model.ListKeysResponse;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
@@ -89,4 +103,252 @@ public class ListHandlerTest extends AbstractTestBase {
 
         verify(keyHelper).listKeys(any(ListKeysRequest.class), eq(proxyKmsClient));
     }
+
+    @Test
+    public void handleRequest_Arns() {
+        handler = new ListHandler(keyHelper, ListMode.ARNS);
+        when(keyHelper.listKeys(any(ListKeysRequest.class), eq(proxyKmsClient)))
+            .thenReturn(ListKeysResponse.builder()
+                .keys(Collections.singletonList(listEntry(KEY_ID)))
+                .build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, listRequest(), new CallbackContext(), proxyKmsClient,
+                logger);
+
+        // The ARN comes with the listed key, without any extra call
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).containsExactly(
+            ResourceModel.builder().keyId(KEY_ID).arn(arn(KEY_ID)).build());
+        assertThat(response.getNextToken()).isNull();
+
+        verify(keyHelper).listKeys(any(ListKeysRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_Described() {
+        handler = new ListHandler(keyHelper, ListMode.DESCRIBED);
+        when(keyHelper.listKeys(any(ListKeysRequest.class), eq(proxyKmsClient)))
+            .thenReturn(ListKeysResponse.builder()
+                .keys(Arrays.asList(listEntry("key-1"), listEntry("key-2"),
+                    listEntry("key-3")))
+                .nextMarker(NEXT_TOKEN)
+                .build());
+        // The keys are only described if they are described at the same time
+        final CountDownLatch describing = new CountDownLatch(2);
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenAnswer(invocation -> {
+                describing.countDown();
+                describing.await(5, TimeUnit.SECONDS);
+                final DescribeKeyRequest describeKeyRequest = invocation.getArgument(0);
+                return describeKeyResponse(describeKeyRequest.keyId(), KeyManagerType.CUSTOMER,
+                    KeyState.ENABLED);
+            });
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, listRequest(), new CallbackContext(), proxyKmsClient,
+                logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).containsExactly(
+            describedModel("key-1", "described"),
+            describedModel("key-2", "described"),
+            describedModel("key-3", "described"));
+        assertThat(response.getNextToken()).isEqualTo(NEXT_TOKEN);
+        assertThat(describing.getCount()).isZero();
+
+        verify(keyHelper).listKeys(any(ListKeysRequest.class), eq(proxyKmsClient));
+        verify(keyHelper, times(3))
+            .describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_Manageable() {
+        handler = new ListHandler(keyHelper, ListMode.MANAGEABLE);
+        when(keyHelper.listKeys(any(ListKeysRequest.class), eq(proxyKmsClient)))
+            .thenReturn(ListKeysResponse.builder()
+                .keys(Arrays.asList(listEntry("customer-key"), listEntry("aws-key"),
+                    listEntry("pending-deletion-key"), listEntry("deleted-key")))
+                .build());
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenAnswer(invocation -> {
+                final DescribeKeyRequest describeKeyRequest = invocation.getArgument(0);
+                switch (describeKeyRequest.keyId()) {
+                    case "aws-key":
+                        return describeKeyResponse("aws-key", KeyManagerType.AWS,
+                            KeyState.ENABLED);
+                    case "pending-deletion-key":
+                        return describeKeyResponse("pending-deletion-key",
+                            KeyManagerType.CUSTOMER, KeyState.PENDING_DELETION);
+                    case "deleted-key":
+                        throw new CfnNotFoundException(ResourceModel.TYPE_NAME, "deleted-key");
+                    default:
+                        return describeKeyResponse(describeKeyRequest.keyId(),
+                            KeyManagerType.CUSTOMER, KeyState.ENABLED);
+                }
+            });
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, listRequest(), new CallbackContext(), proxyKmsClient,
+                logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels())
+            .containsExactly(describedModel("customer-key", "described"));
+
+        verify(keyHelper).listKeys(any(ListKeysRequest.class), eq(proxyKmsClient));
+        verify(keyHelper, times(4))
+            .describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_PageSizeAndPrefetch() {
+        final FanOutExecutor fanOutExecutor =
+            new FanOutExecutor(FanOutExecutor.Backend.PLATFORM, 2);
+        final PagePrefetcher pagePrefetcher =
+            new PagePrefetcher(fanOutExecutor, Duration.ofSeconds(30), System::nanoTime);
+        handler = new ListHandler(keyHelper, ListMode.IDS,
+            Paging.builder().pageSize(5000).prefetch(true).build(), pagePrefetcher);
+        final ListKeysRequest firstPage = Translator.listKeysRequest(null, 1000);
+        final ListKeysRequest secondPage = Translator.listKeysRequest(NEXT_TOKEN, 1000);
+        when(keyHelper.listKeys(any(ListKeysRequest.class), eq(proxyKmsClient)))
+            .thenAnswer(invocation -> firstPage.equals(invocation.getArgument(0))
+                ? ListKeysResponse.builder()
+                    .keys(Collections.singletonList(listEntry("key-1")))
+                    .nextMarker(NEXT_TOKEN)
+                    .build()
+                : ListKeysResponse.builder()
+                    .keys(Collections.singletonList(listEntry("key-2")))
+                    .build());
+
+        try {
+            final ProgressEvent<ResourceModel, CallbackContext> firstResponse =
+                handler.handleRequest(proxy, listRequest(), new CallbackContext(),
+                    proxyKmsClient, logger);
+            final ResourceHandlerRequest<ResourceModel> nextRequest = listRequest();
+            nextRequest.setNextToken(firstResponse.getNextToken());
+            final ProgressEvent<ResourceModel, CallbackContext> secondResponse =
+                handler.handleRequest(proxy, nextRequest, new CallbackContext(),
+                    proxyKmsClient, logger);
+
+            assertThat(firstResponse.getResourceModels())
+                .containsExactly(ResourceModel.builder().keyId("key-1").build());
+            assertThat(secondResponse.getResourceModels())
+                .containsExactly(ResourceModel.builder().keyId("key-2").build());
+            assertThat(secondResponse.getNextToken()).isNull();
+            // The second page was listed in the background, once, and served to the second
+            // invocation, with the page size capped at the largest page of ListKeys
+            verify(keyHelper).listKeys(eq(firstPage), eq(proxyKmsClient));
+            verify(keyHelper).listKeys(eq(secondPage), eq(proxyKmsClient));
+            assertThat(pagePrefetcher.size()).isZero();
+            assertThat(fanOutExecutor.snapshot().getTasks()).isEqualTo(1);
+        } finally {
+            fanOutExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void handleRequest_PrefetchedPageServedToSameAccount() {
+        final FanOutExecutor fanOutExecutor =
+            new FanOutExecutor(FanOutExecutor.Backend.PLATFORM, 2);
+        final PagePrefetcher pagePrefetcher =
+            new PagePrefetcher(fanOutExecutor, Duration.ofSeconds(30), System::nanoTime);
+        handler = new ListHandler(keyHelper, ListMode.IDS,
+            Paging.builder().prefetch(true).build(), pagePrefetcher);
+        // The next invocation of the listing runs with new session credentials
+        final AmazonWebServicesClientProxy otherProxy = new AmazonWebServicesClientProxy(logger,
+            new Credentials("otherAccessKey", "otherSecretKey", "otherToken"),
+            () -> Duration.ofSeconds(600).toMillis());
+        final ProxyClient<KmsClient> otherProxyKmsClient = MOCK_PROXY(otherProxy, kms);
+        final ListKeysRequest secondPage = Translator.listKeysRequest(NEXT_TOKEN, null);
+        when(keyHelper.listKeys(any(ListKeysRequest.class), any()))
+            .thenAnswer(invocation -> ((ListKeysRequest) invocation.getArgument(0))
+                .marker() == null
+                ? ListKeysResponse.builder()
+                    .keys(Collections.singletonList(listEntry("key-1")))
+                    .nextMarker(NEXT_TOKEN)
+                    .build()
+                : ListKeysResponse.builder()
+                    .keys(Collections.singletonList(listEntry("key-2")))
+                    .build());
+
+        try {
+            handler.handleRequest(proxy, accountRequest("mock-account-id", null),
+                new CallbackContext(), proxyKmsClient, logger);
+            verify(keyHelper, timeout(5000)).listKeys(eq(secondPage), eq(proxyKmsClient));
+
+            // Another account asking for the same marker lists the page itself
+            final ProgressEvent<ResourceModel, CallbackContext> otherResponse =
+                handler.handleRequest(otherProxy, accountRequest("other-account-id", NEXT_TOKEN),
+                    new CallbackContext(), otherProxyKmsClient, logger);
+            assertThat(otherResponse.getResourceModels())
+                .containsExactly(ResourceModel.builder().keyId("key-2").build());
+            assertThat(pagePrefetcher.size()).isEqualTo(1);
+
+            // while the listing of the account is served the prefetched page
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(otherProxy, accountRequest("mock-account-id", NEXT_TOKEN),
+                    new CallbackContext(), otherProxyKmsClient, logger);
+            assertThat(response.getResourceModels())
+                .containsExactly(ResourceModel.builder().keyId("key-2").build());
+            assertThat(pagePrefetcher.size()).isZero();
+            verify(keyHelper).listKeys(eq(Translator.listKeysRequest(null, null)),
+                eq(proxyKmsClient));
+            verify(keyHelper).listKeys(eq(secondPage), eq(otherProxyKmsClient));
+        } finally {
+            fanOutExecutor.shutdown();
+        }
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> listRequest() {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().build())
+            .build();
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> accountRequest(
+        final String awsAccountId, final String nextToken) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .awsAccountId(awsAccountId)
+            .region("us-east-1")
+            .desiredResourceState(ResourceModel.builder().build())
+            .nextToken(nextToken)
+            .build();
+    }
+
+    private static KeyListEntry listEntry(final String keyId) {
+        return KeyListEntry.builder().keyId(keyId).keyArn(arn(keyId)).build();
+    }
+
+    private static String arn(final String keyId) {
+        return "arn:aws:kms:us-east-1:123456789012:key/" + keyId;
+    }
+
+    private static DescribeKeyResponse describeKeyResponse(final String keyId,
+                                                           final KeyManagerType keyManager,
+                                                           final KeyState keyState) {
+        return DescribeKeyResponse.builder()
+            .keyMetadata(KeyMetadata.builder()
+                .keyId(keyId)
+                .arn(arn(keyId))
+                .description("described")
+                .enabled(keyState == KeyState.ENABLED)
+                .keyManager(keyManager)
+                .keyState(keyState)
+                .keyUsage(KeyUsageType.ENCRYPT_DECRYPT)
+                .customerMasterKeySpec(CustomerMasterKeySpec.SYMMETRIC_DEFAULT)
+                .build())
+            .build();
+    }
+
+    private static ResourceModel describedModel(final String keyId, final String description) {
+        return ResourceModel.builder()
+            .keyId(keyId)
+            .arn(arn(keyId))
+            .description(description)
+            .enabled(true)
+            .keyUsage(KeyUsageType.ENCRYPT_DECRYPT.toString())
+            .keySpec(CustomerMasterKeySpec.SYMMETRIC_DEFAULT.toString())
+            .build();
+    }
 }
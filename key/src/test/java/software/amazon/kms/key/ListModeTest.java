@@ -0,0 +1,31 @@
+package software.amazon.kms.key;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ListModeTest {
+    @Test
+    public void testFromString() {
+        assertEquals(ListMode.IDS, ListMode.fromString(null));
+        assertEquals(ListMode.ARNS, ListMode.fromString("arns"));
+        assertEquals(ListMode.MANAGEABLE, ListMode.fromString(" Manageable "));
+        assertEquals(ListMode.IDS, ListMode.fromString("unknown"));
+    }
+
+    @Test
+    public void testFromEnvironment() {
+        assertEquals(ListMode.fromString(System.getenv(ListMode.ENVIRONMENT_VARIABLE)),
+            ListMode.fromEnvironment());
+    }
+
+    @Test
+    public void testIsDescribing() {
+        assertFalse(ListMode.IDS.isDescribing());
+        assertFalse(ListMode.ARNS.isDescribing());
+        assertTrue(ListMode.DESCRIBED.isDescribing());
+        assertTrue(ListMode.MANAGEABLE.isDescribing());
+    }
+}
@@ -0,0 +1,247 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class ModelSerializationTest extends AbstractTestBase {
+    // Binds the models through reflection, as the serializers replace
+    private static final ObjectMapper BINDING_MAPPER = new ObjectMapper();
+    // Leaves nulls out and skips unknown properties, like the serializer of the handler wrapper
+    private static final ObjectMapper WRAPPER_MAPPER = new ObjectMapper()
+        .registerModule(ModelSerialization.MODULE)
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ResourceModel FULL_MODEL = ResourceModel.builder()
+        .description("mock-description")
+        .enabled(true)
+        .enableKeyRotation(false)
+        .keyPolicy(ImmutableMap.of("Version", "2012-10-17",
+            "Statement", Collections.singletonList(ImmutableMap.of("Effect", "Allow"))))
+        .keyUsage("ENCRYPT_DECRYPT")
+        .keySpec("SYMMETRIC_DEFAULT")
+        .pendingWindowInDays(7)
+        .tags(Sets.newHashSet(new Tag("Key1", "Value1"), new Tag("Key2", null)))
+        .arn("mock-arn")
+        .keyId("mock-key-id")
+        .build();
+
+    @Test
+    public void testRegisterWithWrapper() throws IOException {
+        assertThat(ModelSerialization.registerWithWrapper()).isTrue();
+        // A copy looks the serializers up again, instead of reading the cache of the mapper
+        final List<ObjectMapper> mappers = ModelSerialization.wrapperMappers();
+
+        assertThat(mappers).hasSize(2);
+        for (final ObjectMapper mapper : mappers) {
+            assertThat(mapper.copy().getSerializerProviderInstance()
+                .findValueSerializer(ResourceModel.class))
+                .isInstanceOf(ModelSerialization.ResourceModelSerializer.class);
+        }
+    }
+
+    @Test
+    public void testSerializers_WriteEveryField() throws IOException {
+        for (final Class<?> model : Arrays.<Class<?>>asList(ResourceModel.class, Tag.class)) {
+            final Object empty = BINDING_MAPPER.readValue("{}", model);
+
+            assertThat(fieldNames(Translator.MAPPER.valueToTree(empty)))
+                .isEqualTo(Arrays.stream(model.getDeclaredFields())
+                    .filter(field -> field.isAnnotationPresent(JsonProperty.class))
+                    .map(field -> field.getAnnotation(JsonProperty.class).value())
+                    .collect(Collectors.toSet()));
+        }
+        // The call graphs are the state of the base class
+        final Set<String> contextFields = Arrays.stream(CallbackContext.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+            .map(Field::getName)
+            .collect(Collectors.toSet());
+        contextFields.add("callGraphs");
+        assertThat(fieldNames(Translator.MAPPER.valueToTree(new CallbackContext())))
+            .isEqualTo(contextFields);
+    }
+
+    private static Set<String> fieldNames(final JsonNode node) {
+        final Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    static Stream<Path> inputs() throws IOException {
+        return SerializationTest.inputs();
+    }
+
+    @ParameterizedTest
+    @MethodSource("inputs")
+    public void testResourceModel_ReadsInputs(final Path input) throws IOException {
+        final String json = new String(Files.readAllBytes(input), StandardCharsets.UTF_8);
+
+        assertThat(Translator.MAPPER.readValue(json, ResourceModel.class))
+            .isEqualTo(BINDING_MAPPER.readValue(json, ResourceModel.class));
+    }
+
+    @Test
+    public void testResourceModel_WritesAsBinding() throws IOException {
+        for (final ResourceModel model : Arrays.asList(FULL_MODEL, new ResourceModel())) {
+            assertThat(Translator.MAPPER.writeValueAsString(model))
+                .isEqualTo(BINDING_MAPPER.writeValueAsString(model));
+            assertThat(WRAPPER_MAPPER.writeValueAsString(model)).isEqualTo(BINDING_MAPPER.copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .writeValueAsString(model));
+        }
+    }
+
+    @Test
+    public void testResourceModel_RoundTrip() throws IOException {
+        assertThat(Translator.MAPPER.readValue(
+            Translator.MAPPER.writeValueAsString(FULL_MODEL), ResourceModel.class))
+            .isEqualTo(FULL_MODEL);
+        assertThat(WRAPPER_MAPPER.readValue(
+            WRAPPER_MAPPER.writeValueAsString(new ResourceModel()), ResourceModel.class))
+            .isEqualTo(new ResourceModel());
+    }
+
+    @Test
+    public void testResourceModel_CoercesScalars() throws IOException {
+        // CloudFormation passes the properties of templates as strings
+        final String json = "{\"Enabled\":\"true\",\"PendingWindowInDays\":\"7\","
+            + "\"KeyPolicy\":\"{}\",\"Tags\":null,\"Description\":null}";
+
+        assertThat(Translator.MAPPER.readValue(json, ResourceModel.class))
+            .isEqualTo(BINDING_MAPPER.readValue(json, ResourceModel.class))
+            .isEqualTo(ResourceModel.builder()
+                .enabled(true)
+                .pendingWindowInDays(7)
+                .keyPolicy("{}")
+                .build());
+    }
+
+    @Test
+    public void testResourceModel_NullTag() throws IOException {
+        final ResourceModel model = Translator.MAPPER.readValue(
+            "{\"Tags\":[null,{\"Key\":\"Key1\",\"Value\":null}]}", ResourceModel.class);
+
+        assertThat(model.getTags()).containsExactlyInAnyOrder(null, new Tag("Key1", null));
+    }
+
+    @Test
+    public void testResourceModel_UnknownProperty() throws IOException {
+        final String json = "{\"KeyId\":\"mock-key-id\",\"Unknown\":{\"Nested\":[1]},"
+            + "\"Tags\":[{\"Key\":\"Key1\",\"Unknown\":1}]}";
+
+        assertThrows(UnrecognizedPropertyException.class,
+            () -> Translator.MAPPER.readValue(json, ResourceModel.class));
+        assertThat(WRAPPER_MAPPER.readValue(json, ResourceModel.class))
+            .isEqualTo(ResourceModel.builder()
+                .keyId("mock-key-id")
+                .tags(Collections.singleton(new Tag("Key1", null)))
+                .build());
+    }
+
+    @Test
+    public void testResourceModel_UnexpectedToken() {
+        assertThrows(MismatchedInputException.class,
+            () -> Translator.MAPPER.readValue("[]", ResourceModel.class));
+        assertThrows(MismatchedInputException.class,
+            () -> Translator.MAPPER.readValue("{\"Tags\":\"Key1\"}", ResourceModel.class));
+    }
+
+    @Test
+    public void testTag_RoundTrip() throws IOException {
+        final Tag tag = new Tag("Key1", "Value1");
+
+        assertThat(Translator.MAPPER.writeValueAsString(tag))
+            .isEqualTo(BINDING_MAPPER.writeValueAsString(tag));
+        assertThat(Translator.MAPPER.readValue(Translator.MAPPER.writeValueAsString(tag),
+            Tag.class)).isEqualTo(tag);
+    }
+
+    @Test
+    public void testCallbackContext_Format() throws IOException {
+        final CallbackContext callbackContext = new CallbackContext();
+
+        assertThat(WRAPPER_MAPPER.writeValueAsString(callbackContext)).isEqualTo(
+            "{\"callGraphs\":{},\"keyEnabled\":false,\"propagated\":false,"
+                + "\"keyPolicyUpdated\":false,\"dryRun\":false}");
+        assertThat(Translator.MAPPER.writeValueAsString(callbackContext)).isEqualTo(
+            "{\"callGraphs\":{},\"keyEnabled\":false,\"propagated\":false,"
+                + "\"keyPolicyUpdated\":false,\"marker\":null,\"existingTags\":null,"
+                + "\"completedMutations\":null,\"dryRun\":false,\"explainPlan\":null}");
+
+        callbackContext.attempts("kms::describe-key", 2);
+        callbackContext.setKeyEnabled(true);
+        callbackContext.setMarker("mock-marker");
+        callbackContext.setExistingTags(Collections.singleton(
+            software.amazon.awssdk.services.kms.model.Tag.builder().tagKey("Key1").build()));
+        callbackContext.setCompletedMutations(EnumSet.of(KeyUpdatePlan.Mutation.ENABLE_KEY));
+        callbackContext.setExplainPlan(new ExplainPlan()
+            .addStage(Collections.singletonList(KeyHelper.CREATE_KEY), 1)
+            .addWait(60));
+
+        final String json = WRAPPER_MAPPER.writeValueAsString(callbackContext);
+
+        assertThat(json).isEqualTo("{\"callGraphs\":{\"kms::describe-key.attempts\":2},"
+            + "\"keyEnabled\":true,\"propagated\":false,\"keyPolicyUpdated\":false,"
+            + "\"marker\":\"mock-marker\",\"existingTags\":[{\"TagKey\":\"Key1\"}],"
+            + "\"completedMutations\":[\"ENABLE_KEY\"],\"dryRun\":false,"
+            + "\"explainPlan\":{\"stages\":[{\"operations\":[\"CreateKey\"],"
+            + "\"sequentialCalls\":1,\"waitSeconds\":60}],\"calls\":1,\"mutatingCalls\":1,"
+            + "\"waits\":1,\"estimatedMillis\":60050}}");
+        assertThat(WRAPPER_MAPPER.readValue(json, CallbackContext.class))
+            .isEqualTo(callbackContext);
+    }
+
+    @Test
+    public void testSdkTag_UnknownProperty() throws IOException {
+        final String json = "{\"existingTags\":[{\"TagKey\":\"Key1\",\"Unknown\":1}]}";
+
+        assertThrows(UnrecognizedPropertyException.class,
+            () -> Translator.MAPPER.readValue(json, CallbackContext.class));
+        assertThat(WRAPPER_MAPPER.readValue(json, CallbackContext.class).getExistingTags())
+            .containsExactly(
+                software.amazon.awssdk.services.kms.model.Tag.builder().tagKey("Key1").build());
+    }
+
+    @Test
+    public void testExplainPlan_RoundTrip() throws IOException {
+        final ExplainPlan explainPlan = new ExplainPlan()
+            .addStage(Arrays.asList(KeyHelper.DESCRIBE_KEY, KeyHelper.GET_KEY_POLICY), 1)
+            .addStage(Collections.singletonList(KeyHelper.PUT_KEY_POLICY), 1)
+            .addWait(60);
+
+        assertThat(Translator.MAPPER.readValue(Translator.MAPPER.writeValueAsString(explainPlan),
+            ExplainPlan.class)).isEqualTo(explainPlan);
+        final ExplainPlan partialPlan = new ExplainPlan();
+        partialPlan.getStages().add(new ExplainPlan.Stage(null, 0, 5));
+        partialPlan.setCalls(2);
+        assertThat(WRAPPER_MAPPER.readValue("{\"calls\":2,\"Unknown\":true,"
+            + "\"stages\":[{\"operations\":null,\"waitSeconds\":5,\"Unknown\":[]}]}",
+            ExplainPlan.class)).isEqualTo(partialPlan);
+    }
+}
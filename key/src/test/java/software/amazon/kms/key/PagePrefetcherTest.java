@@ -0,0 +1,131 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PagePrefetcherTest {
+    private static final String CALLER = "123456789012:us-east-1";
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Function<String, String> listPage = marker -> {
+        calls.incrementAndGet();
+        return "page after " + marker;
+    };
+
+    private FanOutExecutor fanOutExecutor;
+    private PagePrefetcher pagePrefetcher;
+
+    @BeforeEach
+    public void setup() {
+        fanOutExecutor = new FanOutExecutor(FanOutExecutor.Backend.PLATFORM, 4);
+        pagePrefetcher = new PagePrefetcher(fanOutExecutor, TTL, nanos::get);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fanOutExecutor.shutdown();
+    }
+
+    @Test
+    public void testGetInstance() {
+        assertThat(PagePrefetcher.getInstance()).isSameAs(PagePrefetcher.getInstance());
+    }
+
+    @Test
+    public void testFetch_NotPrefetched() {
+        assertThat(pagePrefetcher.fetch(CALLER, "marker", listPage))
+            .isEqualTo("page after marker");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void testFetch_Prefetched() {
+        pagePrefetcher.prefetch(CALLER, "marker", listPage);
+        // Already being listed
+        pagePrefetcher.prefetch(CALLER, "marker", listPage);
+
+        assertThat(pagePrefetcher.fetch(CALLER, "marker", listPage))
+            .isEqualTo("page after marker");
+        assertThat(calls).hasValue(1);
+        // A page is only served once
+        assertThat(pagePrefetcher.size()).isZero();
+        assertThat(pagePrefetcher.fetch(CALLER, "marker", listPage))
+            .isEqualTo("page after marker");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void testFetch_OtherCaller() {
+        pagePrefetcher.prefetch(CALLER, "marker", listPage);
+
+        assertThat(pagePrefetcher.fetch("210987654321:us-east-1", "marker", listPage))
+            .isEqualTo("page after marker");
+        assertThat(pagePrefetcher.fetch(CALLER, "marker", listPage))
+            .isEqualTo("page after marker");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void testFetch_FailedPrefetch() {
+        pagePrefetcher.prefetch(CALLER, "marker", marker -> {
+            throw new IllegalStateException("throttled");
+        });
+
+        // The caller lists the page again
+        assertThat(pagePrefetcher.fetch(CALLER, "marker", listPage))
+            .isEqualTo("page after marker");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void testFetch_Expired() {
+        pagePrefetcher.prefetch(CALLER, "marker", listPage);
+        nanos.addAndGet(TTL.toNanos());
+
+        assertThat(pagePrefetcher.fetch(CALLER, "marker", listPage))
+            .isEqualTo("page after marker");
+        assertThat(pagePrefetcher.size()).isZero();
+    }
+
+    @Test
+    public void testPrefetch_ReplacesExpired() throws InterruptedException {
+        final CountDownLatch listed = new CountDownLatch(1);
+        pagePrefetcher.prefetch(CALLER, "marker", marker -> {
+            final String page = listPage.apply(marker);
+            listed.countDown();
+            return page;
+        });
+        // The expired page was listed, whether or not it is served
+        assertThat(listed.await(5, TimeUnit.SECONDS)).isTrue();
+        nanos.addAndGet(TTL.toNanos());
+
+        pagePrefetcher.prefetch(CALLER, "marker", listPage);
+
+        assertThat(pagePrefetcher.fetch(CALLER, "marker", listPage))
+            .isEqualTo("page after marker");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void testPrefetch_Bounded() {
+        for (int i = 0; i < PagePrefetcher.MAX_ENTRIES; i++) {
+            pagePrefetcher.prefetch(CALLER, "marker-" + i, marker -> marker);
+        }
+        assertThat(pagePrefetcher.size()).isEqualTo(PagePrefetcher.MAX_ENTRIES);
+
+        pagePrefetcher.prefetch(CALLER, "marker", listPage);
+
+        assertThat(pagePrefetcher.size()).isEqualTo(1);
+    }
+}
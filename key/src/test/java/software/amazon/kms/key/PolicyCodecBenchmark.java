@@ -0,0 +1,106 @@
+package software.amazon.kms.key;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the key policy handling before and after KeyPolicyCodec, for policies of 1KB to
+ * 32KB. A policy read from KMS used to be parsed into a Map straight away, and is now wrapped
+ * and passed through as-is when it is written back unchanged. A policy of the model used to be
+ * serialized for the comparison with the previous policy and again for PutKeyPolicy, and is now
+ * serialized once per codec. Run it with the benchmark profile, see the README.
+ *
+ * <p>System properties: benchmark.rounds (default 5) sets the measured rounds.
+ */
+public final class PolicyCodecBenchmark {
+    private static final List<Integer> SIZES = Arrays.asList(1_024, 4_096, 16_384, 32_768);
+    private static final int OPERATIONS = 20_000;
+
+    private PolicyCodecBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        final int rounds = Integer.getInteger("benchmark.rounds", 5);
+
+        System.out.printf("Java %s, %d rounds of %d operations%n",
+            System.getProperty("java.version"), rounds, OPERATIONS);
+        System.out.printf("%-8s %-16s %12s %12s%n", "size", "case", "map ns/op", "codec ns/op");
+
+        for (final int size : SIZES) {
+            final Map<String, Object> policy = policy(size);
+            final String document = write(policy);
+
+            // Read: the policy from KMS, written back unchanged
+            final double mapReadNanos = Benchmarks.medianNanos(
+                () -> write(read(document)), OPERATIONS, rounds);
+            final double codecReadNanos = Benchmarks.medianNanos(
+                () -> KeyPolicyCodec.serializePolicy(KeyPolicyCodec.deserialize(document)),
+                OPERATIONS, rounds);
+            // Update: the policy of the model, compared and then put
+            final double mapUpdateNanos = Benchmarks.medianNanos(() -> {
+                write(policy);
+                write(policy);
+            }, OPERATIONS, rounds);
+            final double codecUpdateNanos = Benchmarks.medianNanos(() -> {
+                final KeyPolicyCodec policyCodec = new KeyPolicyCodec();
+                policyCodec.serialize(policy);
+                policyCodec.serialize(policy);
+            }, OPERATIONS, rounds);
+
+            System.out.printf("%-8d %-16s %12.0f %12.0f%n", document.length(), "read, write",
+                mapReadNanos, codecReadNanos);
+            System.out.printf("%-8d %-16s %12.0f %12.0f%n", document.length(), "compare, put",
+                mapUpdateNanos, codecUpdateNanos);
+        }
+    }
+
+    // A policy of the given size at least, made of statements granting a role key usage
+    private static Map<String, Object> policy(final int size) {
+        final List<Object> statements = new ArrayList<>();
+        final Map<String, Object> policy = new LinkedHashMap<>();
+        policy.put("Version", "2012-10-17");
+        policy.put("Id", "benchmark-policy");
+        policy.put("Statement", statements);
+
+        while (write(policy).length() < size) {
+            final Map<String, Object> statement = new LinkedHashMap<>();
+            statement.put("Sid", "Statement" + statements.size());
+            statement.put("Effect", "Allow");
+            statement.put("Principal", Collections.singletonMap("AWS",
+                "arn:aws:iam::123456789012:role/Role" + statements.size()));
+            statement.put("Action", Arrays.asList("kms:Encrypt", "kms:Decrypt",
+                "kms:ReEncrypt*", "kms:GenerateDataKey*", "kms:DescribeKey"));
+            statement.put("Resource", "*");
+            statements.add(statement);
+        }
+
+        return policy;
+    }
+
+    private static Map<String, Object> read(final String document) {
+        try {
+            return Translator.MAPPER.readValue(document,
+                new TypeReference<HashMap<String, Object>>() {
+                });
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String write(final Map<String, Object> policy) {
+        try {
+            return Translator.MAPPER.writeValueAsString(policy);
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.cloudformation.proxy.Logger;
+
+@ExtendWith(MockitoExtension.class)
+public class PrimingTest {
+    @Mock
+    private SdkHttpClient httpClient;
+
+    @Mock
+    private ExecutableHttpRequest executableHttpRequest;
+
+    @Mock
+    private Logger logger;
+
+    private Map<String, String> environment;
+    private Priming priming;
+
+    @BeforeAll
+    public static void setupRegion() {
+        // Lets the shared client be built without an AWS_REGION environment variable
+        System.setProperty("aws.region", "us-east-1");
+    }
+
+    @AfterAll
+    public static void tearDownRegion() {
+        System.clearProperty("aws.region");
+    }
+
+    @BeforeEach
+    public void setup() {
+        environment = new HashMap<>();
+        environment.put("AWS_LAMBDA_FUNCTION_NAME", "mock-function");
+        environment.put("AWS_REGION", "us-east-1");
+        priming = new Priming(environment, httpClient, logger);
+    }
+
+    @Test
+    public void testIsEnabled() {
+        assertThat(priming.isEnabled()).isTrue();
+
+        environment.put(Priming.ENVIRONMENT_VARIABLE, "false");
+        assertThat(priming.isEnabled()).isFalse();
+
+        environment.remove(Priming.ENVIRONMENT_VARIABLE);
+        environment.remove("AWS_LAMBDA_FUNCTION_NAME");
+        assertThat(priming.isEnabled()).isFalse();
+    }
+
+    @Test
+    public void testPrimeOnce() throws IOException {
+        final ByteArrayInputStream body =
+            new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8));
+        when(httpClient.prepareRequest(any())).thenReturn(executableHttpRequest);
+        when(executableHttpRequest.call()).thenReturn(HttpExecuteResponse.builder()
+            .response(SdkHttpResponse.builder().statusCode(400).build())
+            .responseBody(AbortableInputStream.create(body))
+            .build());
+
+        priming.primeOnce();
+        priming.primeOnce();
+
+        verify(logger, never()).log(anyString());
+        final ArgumentCaptor<HttpExecuteRequest> request =
+            ArgumentCaptor.forClass(HttpExecuteRequest.class);
+        verify(httpClient, times(1)).prepareRequest(request.capture());
+        assertThat(request.getValue().httpRequest().getUri())
+            .isEqualTo(URI.create("https://kms.us-east-1.amazonaws.com"));
+        assertThat(body.available()).isZero();
+    }
+
+    @Test
+    public void testPrimeConnection_EndpointOverride() throws IOException {
+        environment.put(EndpointConfiguration.ENDPOINT,
+            "vpce-0123.kms.us-east-1.vpce.amazonaws.com");
+        when(httpClient.prepareRequest(any())).thenReturn(executableHttpRequest);
+        when(executableHttpRequest.call()).thenReturn(HttpExecuteResponse.builder()
+            .response(SdkHttpResponse.builder().statusCode(400).build())
+            .build());
+
+        priming.primeConnection();
+
+        final ArgumentCaptor<HttpExecuteRequest> request =
+            ArgumentCaptor.forClass(HttpExecuteRequest.class);
+        verify(httpClient).prepareRequest(request.capture());
+        assertThat(request.getValue().httpRequest().getUri())
+            .isEqualTo(URI.create("https://vpce-0123.kms.us-east-1.vpce.amazonaws.com"));
+    }
+
+    @Test
+    public void testPrimeOnce_Disabled() {
+        environment.put(Priming.ENVIRONMENT_VARIABLE, "false");
+
+        priming.primeOnce();
+
+        verifyZeroInteractions(httpClient);
+    }
+
+    @Test
+    public void testPrimeConnection_Failure() throws IOException {
+        when(httpClient.prepareRequest(any())).thenReturn(executableHttpRequest);
+        when(executableHttpRequest.call()).thenThrow(new IOException("Connection refused"));
+
+        priming.primeConnection();
+
+        verify(executableHttpRequest).call();
+        final ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(logger).log(message.capture());
+        assertThat(message.getValue())
+            .startsWith("Priming the KMS connection failed: java.io.UncheckedIOException")
+            .contains("Caused by: java.io.IOException: Connection refused")
+            .contains("\tat software.amazon.kms.key.Priming.connect(");
+    }
+
+    @Test
+    public void testPrimeConnection_NoRegion() {
+        environment.remove("AWS_REGION");
+
+        priming.primeConnection();
+
+        verifyZeroInteractions(httpClient);
+    }
+
+    @Test
+    public void testCheckpointAndRestore() throws IOException {
+        when(httpClient.prepareRequest(any())).thenReturn(executableHttpRequest);
+        when(executableHttpRequest.call()).thenReturn(HttpExecuteResponse.builder()
+            .response(SdkHttpResponse.builder().statusCode(400).build())
+            .build());
+
+        priming.beforeCheckpoint(null);
+        verifyZeroInteractions(httpClient);
+
+        priming.afterRestore(null);
+        verify(executableHttpRequest).call();
+    }
+}
@@ -0,0 +1,217 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+public class ProgressPipelineTest {
+    private FanOutExecutor fanOutExecutor;
+    private ResourceModel model;
+    private CallbackContext callbackContext;
+
+    @BeforeEach
+    public void setup() {
+        fanOutExecutor = new FanOutExecutor(FanOutExecutor.Backend.PLATFORM, 4);
+        model = ResourceModel.builder().keyId("mock-key-id").build();
+        callbackContext = new CallbackContext();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fanOutExecutor.shutdown();
+    }
+
+    @Test
+    public void testRun() {
+        final ProgressEvent<ResourceModel, CallbackContext> response = start()
+            .then(progress -> {
+                model.setDescription("description");
+                return progress;
+            })
+            .thenCompose(progress -> CompletableFuture.supplyAsync(() -> {
+                model.setEnabled(true);
+                return progress;
+            }))
+            .then(progress -> ProgressEvent.defaultSuccessHandler(model))
+            .run();
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(model.getDescription()).isEqualTo("description");
+        assertThat(model.getEnabled()).isTrue();
+    }
+
+    @Test
+    public void testRun_StopsOnCallbackDelay() {
+        final AtomicBoolean skipped = new AtomicBoolean(true);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = start()
+            .then(progress -> ProgressEvent.defaultInProgressHandler(callbackContext, 60, model))
+            .then(progress -> {
+                skipped.set(false);
+                return progress;
+            })
+            .thenCompose(progress -> {
+                skipped.set(false);
+                return CompletableFuture.completedFuture(progress);
+            })
+            .run();
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
+        assertThat(skipped).isTrue();
+    }
+
+    @Test
+    public void testThenAll() {
+        // Both steps only complete if they run at the same time
+        final CountDownLatch running = new CountDownLatch(2);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = start()
+            .thenAll(Arrays.asList(
+                progress -> await(running, progress),
+                progress -> await(running, ProgressEvent.progress(model, callbackContext))))
+            .run();
+
+        assertThat(response.canContinueProgress()).isTrue();
+        assertThat(running.getCount()).isZero();
+    }
+
+    @Test
+    public void testThenAll_Empty() {
+        final ProgressEvent<ResourceModel, CallbackContext> progressEvent =
+            ProgressEvent.progress(model, callbackContext);
+
+        assertSame(progressEvent, ProgressPipeline.start(progressEvent, fanOutExecutor)
+            .thenAll(Collections.emptyList())
+            .run());
+    }
+
+    @Test
+    public void testThenAll_LongestCallbackDelay() {
+        final ProgressEvent<ResourceModel, CallbackContext> response = start()
+            .thenAll(Arrays.asList(
+                progress -> ProgressEvent.defaultInProgressHandler(callbackContext, 30, model),
+                progress -> ProgressEvent.defaultInProgressHandler(callbackContext, 60, model),
+                progress -> progress))
+            .then(progress -> ProgressEvent.defaultSuccessHandler(model))
+            .run();
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
+    }
+
+    @Test
+    public void testThenAll_SuccessOutranksCallbackDelay() {
+        final ProgressEvent<ResourceModel, CallbackContext> success =
+            ProgressEvent.defaultSuccessHandler(model);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = start()
+            .thenAll(Arrays.asList(
+                progress -> ProgressEvent.defaultInProgressHandler(callbackContext, 60, model),
+                progress -> success,
+                progress -> ProgressEvent.defaultSuccessHandler(model)))
+            .run();
+
+        assertSame(success, response);
+    }
+
+    @Test
+    public void testThenAll_FirstFailure() {
+        final ProgressEvent<ResourceModel, CallbackContext> failure = ProgressEvent.failed(
+            model, callbackContext, HandlerErrorCode.InvalidRequest, "first");
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = start()
+            .thenAll(Arrays.asList(
+                progress -> ProgressEvent.defaultSuccessHandler(model),
+                progress -> failure,
+                progress -> ProgressEvent.failed(model, callbackContext,
+                    HandlerErrorCode.InternalFailure, "second")))
+            .run();
+
+        assertSame(failure, response);
+    }
+
+    @Test
+    public void testThenAll_Exception() {
+        final ProgressPipeline pipeline = start()
+            .thenAll(Arrays.asList(
+                progress -> progress,
+                progress -> {
+                    throw new CfnNotFoundException(ResourceModel.TYPE_NAME, "mock-key-id");
+                }));
+
+        assertThrows(CfnNotFoundException.class, pipeline::run);
+    }
+
+    @Test
+    public void testThenAll_Timeout() {
+        final ProgressPipeline pipeline = ProgressPipeline.start(
+            ProgressEvent.progress(model, callbackContext), fanOutExecutor, Duration.ofMillis(20))
+            .thenAll(Collections.singletonList(
+                progress -> await(new CountDownLatch(2), progress)));
+
+        assertThrows(CfnServiceInternalErrorException.class, pipeline::run);
+    }
+
+    @Test
+    public void testRun_CheckedException() {
+        final ProgressPipeline pipeline = start()
+            .thenCompose(progress -> {
+                final CompletableFuture<ProgressEvent<ResourceModel, CallbackContext>> future =
+                    new CompletableFuture<>();
+                future.completeExceptionally(new IOException("Connection reset"));
+                return future;
+            });
+
+        final CfnInternalFailureException e =
+            assertThrows(CfnInternalFailureException.class, pipeline::run);
+        assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testRun_Error() {
+        final ProgressPipeline pipeline = start()
+            .then(progress -> {
+                throw new AssertionError("step");
+            });
+
+        assertThrows(AssertionError.class, pipeline::run);
+    }
+
+    private ProgressPipeline start() {
+        return ProgressPipeline.start(ProgressEvent.progress(model, callbackContext),
+            fanOutExecutor);
+    }
+
+    private static ProgressEvent<ResourceModel, CallbackContext> await(
+        final CountDownLatch latch,
+        final ProgressEvent<ResourceModel, CallbackContext> progressEvent) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS) ? progressEvent : ProgressEvent.failed(
+                progressEvent.getResourceModel(), progressEvent.getCallbackContext(),
+                HandlerErrorCode.InternalFailure, "Steps did not run concurrently");
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        }
+    }
+}
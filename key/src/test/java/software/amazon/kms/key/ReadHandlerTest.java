@@ -5,12 +5,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,7 +20,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.CustomerMasterKeySpec;
 import software.amazon.awssdk.services.kms.model.DescribeKeyRequest;
@@ -27,15 +28,15 @@ import software.amazon.awssdk.services.kms.model.GetKeyPolicyRequest;
 import software.amazon.awssdk.services.kms.model.GetKeyPolicyResponse;
 import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusRequest;
 import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusResponse;
+import software.amazon.awssdk.services.kms.model.KeyManagerType;
 import software.amazon.awssdk.services.kms.model.KeyMetadata;
 import software.amazon.awssdk.services.kms.model.KeyState;
 import software.amazon.awssdk.services.kms.model.KeyUsageType;
-import software.amazon.awssdk.services.kms.model.KmsException;
 import software.amazon.awssdk.services.kms.model.ListResourceTagsRequest;
 import software.amazon.awssdk.services.kms.model.ListResourceTagsResponse;
-import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
 import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
@@ -45,6 +46,8 @@ import software.amazon.kms.key.ResourceModel.ResourceModelBuilder;
 @ExtendWith(MockitoExtension.class)
 public class ReadHandlerTest extends AbstractTestBase {
     private static final String KEY_POLICY = "{\"foo\":\"bar\"}";
+    private static final String STACK_ID =
+        "arn:aws:cloudformation:us-east-1:123456789012:stack/mock-stack/mock-stack-uuid";
     private static final ResourceModelBuilder KEY_MODEL_BUILDER = ResourceModel.builder()
         .keyId("mock-key-id")
         .arn("mock-arn")
@@ -77,13 +80,17 @@ public class ReadHandlerTest extends AbstractTestBase {
     @Mock
     private KeyHelper keyHelper;
 
+    private AccessDeniedCache accessDeniedCache;
+    private ReadPlanMetrics readPlanMetrics;
     private ReadHandler handler;
     private AmazonWebServicesClientProxy proxy;
     private ProxyClient<KmsClient> proxyKmsClient;
 
     @BeforeEach
     public void setup() {
-        handler = new ReadHandler(keyHelper);
+        accessDeniedCache = new AccessDeniedCache();
+        readPlanMetrics = new ReadPlanMetrics();
+        handler = new ReadHandler(keyHelper, accessDeniedCache, readPlanMetrics);
         proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS,
             () -> Duration.ofSeconds(600).toMillis());
         proxyKmsClient = MOCK_PROXY(proxy, kms);
@@ -105,23 +112,23 @@ public class ReadHandlerTest extends AbstractTestBase {
 
         final GetKeyPolicyResponse getKeyPolicyResponse =
             GetKeyPolicyResponse.builder().policy(KEY_POLICY).build();
-        when(keyHelper.getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
-            .thenReturn(getKeyPolicyResponse);
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyPolicyResponse));
 
         final GetKeyRotationStatusResponse getKeyRotationStatusResponse =
             GetKeyRotationStatusResponse.builder()
                 .keyRotationEnabled(KEY_MODEL.getEnableKeyRotation())
                 .build();
         when(keyHelper
-            .getKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient)))
-            .thenReturn(getKeyRotationStatusResponse);
+            .tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyRotationStatusResponse));
 
         final ListResourceTagsResponse listTagsForResourceResponse =
             ListResourceTagsResponse.builder()
                 .tags(SDK_TAGS)
                 .build();
-        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
-            .thenReturn(listTagsForResourceResponse);
+        when(keyHelper.tryListResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(listTagsForResourceResponse));
 
         final ResourceHandlerRequest<ResourceModel> request =
             ResourceHandlerRequest.<ResourceModel>builder()
@@ -140,12 +147,14 @@ public class ReadHandlerTest extends AbstractTestBase {
         assertThat(response.getResourceModel()).isEqualTo(KEY_MODEL);
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
+        assertThat(readPlanMetrics.snapshot()).isEqualTo(new ReadPlanMetrics.Snapshot(1, 3, 0, 0));
 
         verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
-        verify(keyHelper).getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
         verify(keyHelper)
-            .getKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient));
-        verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+            .tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient));
+        verify(keyHelper)
+            .tryListResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
     }
 
     @Test
@@ -155,24 +164,19 @@ public class ReadHandlerTest extends AbstractTestBase {
         when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
             .thenReturn(describeKeyResponse);
 
-        final CfnAccessDeniedException exception =
-            new CfnAccessDeniedException(KmsException.builder()
-                .awsErrorDetails(AwsErrorDetails.builder()
-                    .errorCode("AccessDeniedException").build())
-                .build());
-        when(keyHelper.getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
-            .thenThrow(exception);
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.accessDenied());
 
         final GetKeyRotationStatusResponse getKeyRotationStatusResponse =
             GetKeyRotationStatusResponse.builder()
                 .keyRotationEnabled(KEY_MODEL.getEnableKeyRotation())
                 .build();
         when(keyHelper
-            .getKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient)))
-            .thenReturn(getKeyRotationStatusResponse);
+            .tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyRotationStatusResponse));
 
-        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
-            .thenThrow(exception);
+        when(keyHelper.tryListResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.accessDenied());
 
         final ResourceHandlerRequest<ResourceModel> request =
             ResourceHandlerRequest.<ResourceModel>builder()
@@ -193,10 +197,220 @@ public class ReadHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
 
         verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
-        verify(keyHelper).getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper)
+            .tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient));
+        verify(keyHelper)
+            .tryListResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_SkipsRecentlyDenied() {
+        // Each invocation of the stack runs with new session credentials
+        final ProxyClient<KmsClient> nextKmsClient = MOCK_PROXY(
+            new AmazonWebServicesClientProxy(logger,
+                new Credentials("nextAccessKey", "nextSecretKey", "nextToken"),
+                () -> Duration.ofSeconds(600).toMillis()), kms);
+
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(KEY_METADATA).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), any()))
+            .thenReturn(describeKeyResponse);
+
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.accessDenied());
+
+        final GetKeyRotationStatusResponse getKeyRotationStatusResponse =
+            GetKeyRotationStatusResponse.builder()
+                .keyRotationEnabled(KEY_MODEL.getEnableKeyRotation())
+                .build();
+        when(keyHelper.tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class), any()))
+            .thenReturn(KmsResult.success(getKeyRotationStatusResponse));
+
+        when(keyHelper.tryListResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.accessDenied());
+
+        for (final ProxyClient<KmsClient> kmsClient : Arrays.asList(proxyKmsClient,
+            nextKmsClient)) {
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, stackRequest(STACK_ID), new CallbackContext(),
+                    kmsClient, logger);
+
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+            assertThat(response.getResourceModel()).isEqualTo(KEY_MODEL_NULL_TAGS_NULL_POLICY);
+        }
+
+        // The denied calls are only made once
+        assertThat(readPlanMetrics.snapshot()).isEqualTo(new ReadPlanMetrics.Snapshot(2, 6, 0, 2));
+        verify(keyHelper, times(2)).describeKey(any(DescribeKeyRequest.class), any());
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper, times(2))
+            .tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class), any());
         verify(keyHelper)
-            .getKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient));
-        verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+            .tryListResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+
+        // Mutating the key clears the denials
+        assertThat(accessDeniedCache.isDenied(STACK_ID, KEY_MODEL.getKeyId(),
+            KeyHelper.GET_KEY_POLICY)).isTrue();
+        accessDeniedCache.invalidate(KEY_MODEL.getKeyId());
+        assertThat(accessDeniedCache.isDenied(STACK_ID, KEY_MODEL.getKeyId(),
+            KeyHelper.GET_KEY_POLICY)).isFalse();
+    }
+
+    @Test
+    public void handleRequest_DenialsArePerStack() {
+        // Two stacks of the same account, the role of the first of which is denied the key
+        // policy
+        final ProxyClient<KmsClient> allowedKmsClient = MOCK_PROXY(
+            new AmazonWebServicesClientProxy(logger,
+                new Credentials("otherAccessKey", "otherSecretKey", "otherToken"),
+                () -> Duration.ofSeconds(600).toMillis()), kms);
+        final String otherStackId = STACK_ID.replace("mock-stack", "other-stack");
+
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(KEY_METADATA).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), any()))
+            .thenReturn(describeKeyResponse);
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.accessDenied());
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(allowedKmsClient)))
+            .thenReturn(KmsResult.success(
+                GetKeyPolicyResponse.builder().policy(KEY_POLICY).build()));
+        when(keyHelper.tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class), any()))
+            .thenReturn(KmsResult.success(GetKeyRotationStatusResponse.builder()
+                .keyRotationEnabled(KEY_MODEL.getEnableKeyRotation())
+                .build()));
+        when(keyHelper.tryListResourceTags(any(ListResourceTagsRequest.class), any()))
+            .thenReturn(KmsResult.success(
+                ListResourceTagsResponse.builder().tags(SDK_TAGS).build()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> deniedResponse =
+            handler.handleRequest(proxy, stackRequest(STACK_ID), new CallbackContext(),
+                proxyKmsClient, logger);
+        final ProgressEvent<ResourceModel, CallbackContext> allowedResponse =
+            handler.handleRequest(proxy, stackRequest(otherStackId), new CallbackContext(),
+                allowedKmsClient, logger);
+
+        assertThat(deniedResponse.getResourceModel().getKeyPolicy()).isNull();
+        // The denial of the first stack is not assumed of the second
+        assertThat(allowedResponse.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(allowedResponse.getResourceModel().getKeyPolicy())
+            .isEqualTo(KEY_MODEL.getKeyPolicy());
+        // Requests outside of a stack are told apart by account and region only
+        assertThat(BaseHandlerStd.callerPrincipal(stackRequest(null)))
+            .isEqualTo("mock-account-id:us-east-1");
+        assertThat(BaseHandlerStd.callerPrincipal(ResourceHandlerRequest.<ResourceModel>builder()
+            .build())).isNull();
+
+        verify(keyHelper, times(2)).describeKey(any(DescribeKeyRequest.class), any());
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(allowedKmsClient));
+        verify(keyHelper, times(2))
+            .tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class), any());
+        verify(keyHelper, times(2))
+            .tryListResourceTags(any(ListResourceTagsRequest.class), any());
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> stackRequest(final String stackId) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .awsAccountId("mock-account-id")
+            .region("us-east-1")
+            .stackId(stackId)
+            .desiredResourceState(ResourceModel.builder().build())
+            .build();
+    }
+
+    @Test
+    public void handleRequest_AsymmetricKey() {
+        final KeyMetadata asymmetricKeyMetadata = KEY_METADATA.toBuilder()
+            .customerMasterKeySpec(CustomerMasterKeySpec.RSA_2048)
+            .keyUsage(KeyUsageType.SIGN_VERIFY)
+            .build();
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(asymmetricKeyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final GetKeyPolicyResponse getKeyPolicyResponse =
+            GetKeyPolicyResponse.builder().policy(KEY_POLICY).build();
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyPolicyResponse));
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder()
+                .tags(SDK_TAGS)
+                .build();
+        when(keyHelper.tryListResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(listTagsForResourceResponse));
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().build())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request,
+                new CallbackContext(), proxyKmsClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(ResourceModel.builder()
+            .keyId(KEY_MODEL.getKeyId())
+            .arn(KEY_MODEL.getArn())
+            .enableKeyRotation(false)
+            .keySpec(CustomerMasterKeySpec.RSA_2048.toString())
+            .keyUsage(KeyUsageType.SIGN_VERIFY.toString())
+            .description(KEY_MODEL.getDescription())
+            .enabled(KEY_MODEL.getEnabled())
+            .keyPolicy(KEY_MODEL.getKeyPolicy())
+            .tags(KEY_MODEL.getTags())
+            .build());
+
+        // Rotation is not supported on asymmetric keys, so the status is not retrieved
+        assertThat(readPlanMetrics.snapshot()).isEqualTo(new ReadPlanMetrics.Snapshot(1, 2, 1, 0));
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper)
+            .tryListResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_AwsManagedKey() {
+        final DescribeKeyResponse describeKeyResponse = DescribeKeyResponse.builder()
+            .keyMetadata(KEY_METADATA.toBuilder().keyManager(KeyManagerType.AWS).build())
+            .build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final GetKeyPolicyResponse getKeyPolicyResponse =
+            GetKeyPolicyResponse.builder().policy(KEY_POLICY).build();
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyPolicyResponse));
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().build())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request,
+                new CallbackContext(), proxyKmsClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(ResourceModel.builder()
+            .keyId(KEY_MODEL.getKeyId())
+            .arn(KEY_MODEL.getArn())
+            .enableKeyRotation(true)
+            .keySpec(KEY_MODEL.getKeySpec())
+            .keyUsage(KEY_MODEL.getKeyUsage())
+            .description(KEY_MODEL.getDescription())
+            .enabled(KEY_MODEL.getEnabled())
+            .keyPolicy(KEY_MODEL.getKeyPolicy())
+            .build());
+
+        // AWS managed keys are always rotated and cannot be tagged
+        assertThat(readPlanMetrics.snapshot()).isEqualTo(new ReadPlanMetrics.Snapshot(1, 1, 2, 0));
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
     }
 
     @Test
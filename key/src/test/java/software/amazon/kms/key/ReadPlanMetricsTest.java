@@ -0,0 +1,44 @@
+package software.amazon.kms.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.kms.model.CustomerMasterKeySpec;
+import software.amazon.awssdk.services.kms.model.KeyManagerType;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+
+public class ReadPlanMetricsTest {
+    private ReadPlanMetrics readPlanMetrics;
+
+    @BeforeEach
+    public void setup() {
+        readPlanMetrics = new ReadPlanMetrics();
+    }
+
+    @Test
+    public void testGetInstance() {
+        assertThat(ReadPlanMetrics.getInstance()).isSameAs(ReadPlanMetrics.getInstance());
+    }
+
+    @Test
+    public void testRecordPlan() {
+        readPlanMetrics.recordPlan(KeyReadPlan.fromKeyMetadata(KeyMetadata.builder().build()));
+        readPlanMetrics.recordPlan(KeyReadPlan.fromKeyMetadata(KeyMetadata.builder()
+            .customerMasterKeySpec(CustomerMasterKeySpec.RSA_2048)
+            .build()));
+        readPlanMetrics.recordPlan(KeyReadPlan.fromKeyMetadata(KeyMetadata.builder()
+            .keyManager(KeyManagerType.AWS)
+            .build()));
+        readPlanMetrics.recordDenied();
+
+        assertThat(readPlanMetrics.snapshot())
+            .isEqualTo(new ReadPlanMetrics.Snapshot(3, 6, 3, 1));
+    }
+
+    @Test
+    public void testSnapshot_NoReads() {
+        assertThat(readPlanMetrics.snapshot())
+            .isEqualTo(new ReadPlanMetrics.Snapshot(0, 0, 0, 0));
+    }
+}
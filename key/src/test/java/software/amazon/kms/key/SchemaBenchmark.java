@@ -0,0 +1,53 @@
+package software.amazon.kms.key;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Compares parsing the resource schema on every request, as the configuration did before,
+ * with the schema that Configuration parses once per container. The first call is timed on
+ * its own, as it is the one the init phase or the first request pays for. Run it with the
+ * benchmark profile, see the README.
+ *
+ * <p>System properties: benchmark.rounds (default 5) sets the measured rounds.
+ */
+public final class SchemaBenchmark {
+    private static final String SCHEMA_FILENAME = "aws-kms-key.json";
+    private static final int OPERATIONS = 2_000;
+
+    private SchemaBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        final int rounds = Integer.getInteger("benchmark.rounds", 5);
+        final Configuration configuration = new Configuration();
+
+        final long start = System.nanoTime();
+        configuration.resourceSchemaJSONObject();
+        final long firstCallNanos = System.nanoTime() - start;
+
+        final double parsedNanos =
+            Benchmarks.medianNanos(SchemaBenchmark::parseSchema, OPERATIONS, rounds);
+        final double cachedNanos = Benchmarks.medianNanos(
+            configuration::resourceSchemaJSONObject, OPERATIONS, rounds);
+
+        System.out.printf("Java %s, %d rounds of %d schema lookups%n",
+            System.getProperty("java.version"), rounds, OPERATIONS);
+        System.out.printf("%-22s %12s%n", "schema", "ns/call");
+        System.out.printf("%-22s %12d%n", "cached, first call", firstCallNanos);
+        System.out.printf("%-22s %12.0f%n", "cached", cachedNanos);
+        System.out.printf("%-22s %12.0f%n", "parsed on every call", parsedNanos);
+    }
+
+    private static JSONObject parseSchema() {
+        try (InputStream schema =
+                 SchemaBenchmark.class.getClassLoader().getResourceAsStream(SCHEMA_FILENAME)) {
+            return new JSONObject(new JSONTokener(schema));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package software.amazon.kms.key;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.function.Supplier;
+
+/**
+ * Compares reading and writing the resource model through reflective binding with the
+ * serializers of ModelSerialization. The cold case uses a new mapper for every operation, so
+ * it includes the introspection of the classes that a cold JVM pays for on its first requests,
+ * and the warm case reuses one mapper. Run it with the benchmark profile, see the README.
+ *
+ * <p>System properties: benchmark.rounds (default 5) sets the measured rounds.
+ */
+public final class SerializationBenchmark {
+    private static final int WARM_OPERATIONS = 100_000;
+    private static final int COLD_OPERATIONS = 1_000;
+    private static final ResourceModel MODEL = ResourceModel.builder()
+        .description("Benchmark key")
+        .enabled(true)
+        .enableKeyRotation(true)
+        .keyPolicy(Collections.singletonMap("Version", "2012-10-17"))
+        .keyUsage("ENCRYPT_DECRYPT")
+        .keySpec("SYMMETRIC_DEFAULT")
+        .pendingWindowInDays(7)
+        .tags(new HashSet<>(Arrays.asList(new Tag("Team", "Security"),
+            new Tag("Environment", "Production"))))
+        .arn("arn:aws:kms:us-east-1:123456789012:key/benchmark-key")
+        .keyId("benchmark-key")
+        .build();
+
+    private SerializationBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        final int rounds = Integer.getInteger("benchmark.rounds", 5);
+        final Supplier<ObjectMapper> bindingMapper = ObjectMapper::new;
+        final Supplier<ObjectMapper> serializersMapper =
+            () -> new ObjectMapper().registerModule(ModelSerialization.MODULE);
+
+        final ObjectMapper warmBindingMapper = bindingMapper.get();
+        final ObjectMapper warmSerializersMapper = serializersMapper.get();
+        // Both mappers run before either is measured, as the JIT otherwise favours the first one
+        roundTrips(warmBindingMapper);
+        roundTrips(warmSerializersMapper);
+        final double bindingWarmNanos = Benchmarks.medianNanos(
+            () -> roundTrip(warmBindingMapper), WARM_OPERATIONS, rounds);
+        final double serializersWarmNanos = Benchmarks.medianNanos(
+            () -> roundTrip(warmSerializersMapper), WARM_OPERATIONS, rounds);
+        final double bindingColdNanos = Benchmarks.medianNanos(
+            () -> roundTrip(bindingMapper.get()), COLD_OPERATIONS, rounds);
+        final double serializersColdNanos = Benchmarks.medianNanos(
+            () -> roundTrip(serializersMapper.get()), COLD_OPERATIONS, rounds);
+
+        System.out.printf("Java %s, %d rounds, resource model written and read back%n",
+            System.getProperty("java.version"), rounds);
+        System.out.printf("%-6s %14s %17s%n", "mapper", "binding ns/op", "serializers ns/op");
+        System.out.printf("%-6s %14.0f %17.0f%n", "warm", bindingWarmNanos, serializersWarmNanos);
+        System.out.printf("%-6s %14.0f %17.0f%n", "cold", bindingColdNanos, serializersColdNanos);
+    }
+
+    private static void roundTrips(final ObjectMapper mapper) {
+        for (int i = 0; i < WARM_OPERATIONS; i++) {
+            roundTrip(mapper);
+        }
+    }
+
+    private static void roundTrip(final ObjectMapper mapper) {
+        try {
+            mapper.readValue(mapper.writeValueAsString(MODEL), ResourceModel.class);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package software.amazon.kms.key;
+
+import java.util.function.Function;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyRequest;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Compares the two ways of reading a denied key policy on the Read soft-fail path: catching
+ * the CfnAccessDeniedException that getKeyPolicy throws, and checking the result that
+ * tryGetKeyPolicy returns. The fake client throws the same AccessDenied exception every time,
+ * so only the cost of the handler side is measured. Run it with the benchmark profile, see the
+ * README.
+ *
+ * <p>System properties: benchmark.rounds (default 5) sets the measured rounds.
+ */
+public final class SoftFailBenchmark {
+    private static final int OPERATIONS = 200_000;
+
+    private SoftFailBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        final int rounds = Integer.getInteger("benchmark.rounds", 5);
+        final KeyHelper keyHelper = new KeyHelper();
+        final ProxyClient<KmsClient> proxyClient = new DeniedProxyClient();
+        final GetKeyPolicyRequest request = Translator.getKeyPolicyRequest("benchmark-key");
+
+        final double exceptionNanos = Benchmarks.medianNanos(() -> {
+            try {
+                keyHelper.getKeyPolicy(request, proxyClient);
+                throw new IllegalStateException("The call was not denied");
+            } catch (final CfnAccessDeniedException e) {
+                // The path the Read Handler took before, once per denied call
+            }
+        }, OPERATIONS, rounds);
+        final double resultNanos = Benchmarks.medianNanos(() -> {
+            if (!keyHelper.tryGetKeyPolicy(request, proxyClient).isAccessDenied()) {
+                throw new IllegalStateException("The call was not denied");
+            }
+        }, OPERATIONS, rounds);
+
+        System.out.printf("Java %s, %d rounds of %d denied GetKeyPolicy calls%n",
+            System.getProperty("java.version"), rounds, OPERATIONS);
+        System.out.printf("%-10s %10s%n", "path", "ns/call");
+        System.out.printf("%-10s %10.0f%n", "exception", exceptionNanos);
+        System.out.printf("%-10s %10.0f%n", "result", resultNanos);
+    }
+
+    private static final class DeniedProxyClient implements ProxyClient<KmsClient> {
+        private static final KmsException ACCESS_DENIED = (KmsException) KmsException.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .errorCode(KeyHelper.ACCESS_DENIED_ERROR_CODE)
+                .build())
+            .build();
+        private static final KmsClient CLIENT = new DeniedKmsClient();
+
+        @Override
+        public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT
+            injectCredentialsAndInvokeV2(final RequestT request,
+                                         final Function<RequestT, ResponseT> requestFunction) {
+            throw ACCESS_DENIED;
+        }
+
+        @Override
+        public KmsClient client() {
+            return CLIENT;
+        }
+    }
+
+    // Never called, the proxy client denies every call
+    private static final class DeniedKmsClient implements KmsClient {
+        @Override
+        public String serviceName() {
+            return KmsClient.SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+}
@@ -11,12 +11,20 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 
+import com.google.common.collect.ImmutableMap;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
@@ -33,6 +41,10 @@ import software.amazon.awssdk.services.kms.model.EnableKeyRequest;
 import software.amazon.awssdk.services.kms.model.EnableKeyResponse;
 import software.amazon.awssdk.services.kms.model.EnableKeyRotationRequest;
 import software.amazon.awssdk.services.kms.model.EnableKeyRotationResponse;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyRequest;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyResponse;
+import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusRequest;
+import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusResponse;
 import software.amazon.awssdk.services.kms.model.KeyMetadata;
 import software.amazon.awssdk.services.kms.model.KeyState;
 import software.amazon.awssdk.services.kms.model.KeyUsageType;
@@ -50,7 +62,9 @@ import software.amazon.awssdk.services.kms.model.UpdateKeyDescriptionResponse;
 import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.exceptions.CfnNotUpdatableException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
@@ -144,7 +158,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
     }
 
     // SCENARIO 1: Enables Key, Disables Rotation
-    // Step 1: Enable Key wait for 1 min
+    // Step 1: Enable Key, Update Description, Put Policy, wait for 1 min
     @Test
     public void handleRequest_UpdateCase1EnableKeyStep() {
         final KeyMetadata keyMetadata = KeyMetadata.builder().keyState(KeyState.DISABLED).build();
@@ -158,6 +172,16 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(keyHelper.enableKey(any(EnableKeyRequest.class), eq(proxyKmsClient)))
             .thenReturn(enableKeyResponse);
 
+        final UpdateKeyDescriptionResponse updateKeyDescriptionResponse =
+            UpdateKeyDescriptionResponse.builder().build();
+        when(keyHelper
+            .updateKeyDescription(any(UpdateKeyDescriptionRequest.class), eq(proxyKmsClient)))
+            .thenReturn(updateKeyDescriptionResponse);
+
+        final PutKeyPolicyResponse putKeyPolicyResponse = PutKeyPolicyResponse.builder().build();
+        when(keyHelper.putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(putKeyPolicyResponse);
+
         final ResourceHandlerRequest<ResourceModel> request =
             ResourceHandlerRequest.<ResourceModel>builder()
                 .desiredResourceState(DESIRED_STATE_SCENARIO_1)
@@ -171,12 +195,19 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getCallbackContext()).isNotNull();
         assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
+        // The rotation is only updated once the enabled state has propagated
+        assertThat(response.getCallbackContext().getCompletedMutations()).containsOnly(
+            KeyUpdatePlan.Mutation.ENABLE_KEY, KeyUpdatePlan.Mutation.UPDATE_DESCRIPTION,
+            KeyUpdatePlan.Mutation.PUT_KEY_POLICY);
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
 
         verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
         verify(keyHelper).enableKey(any(EnableKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper)
+            .updateKeyDescription(any(UpdateKeyDescriptionRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
     }
 
     // SCENARIO 1: Enables Key, Disables Rotation
@@ -234,6 +265,59 @@ public class UpdateHandlerTest extends AbstractTestBase {
         verify(keyHelper).putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
     }
 
+    // SCENARIO 1: Enables Key, Disables Rotation
+    // Step 3: Disable Key Rotation, Update Tags, wait for 1 min
+    @Test
+    public void handleRequest_UpdateCase1RemainingMutationsStep() {
+        final KeyMetadata keyMetadata = KeyMetadata.builder().keyState(KeyState.ENABLED).build();
+
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final DisableKeyRotationResponse disableKeyRotationResponse =
+            DisableKeyRotationResponse.builder().build();
+        when(keyHelper.disableKeyRotation(any(DisableKeyRotationRequest.class), eq(proxyKmsClient)))
+            .thenReturn(disableKeyRotationResponse);
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder().nextMarker(null).build();
+        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(listTagsForResourceResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(DESIRED_STATE_SCENARIO_1)
+                .previousResourceState(PREVIOUS_STATE_SCENARIO_1)
+                .build();
+
+        // The context of step 1
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.setKeyEnabled(true);
+        callbackContext.setKeyPolicyUpdated(true);
+        callbackContext.setCompletedMutations(EnumSet.of(KeyUpdatePlan.Mutation.ENABLE_KEY,
+            KeyUpdatePlan.Mutation.UPDATE_DESCRIPTION, KeyUpdatePlan.Mutation.PUT_KEY_POLICY));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, callbackContext, proxyKmsClient, logger);
+
+        // The mutations of step 1 are not made again, and the plan converges in a single wait
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
+        assertThat(response.getCallbackContext().isPropagated()).isTrue();
+        assertThat(response.getCallbackContext().getCompletedMutations()).containsOnly(
+            KeyUpdatePlan.Mutation.ENABLE_KEY, KeyUpdatePlan.Mutation.UPDATE_KEY_ROTATION,
+            KeyUpdatePlan.Mutation.UPDATE_DESCRIPTION, KeyUpdatePlan.Mutation.PUT_KEY_POLICY,
+            KeyUpdatePlan.Mutation.UPDATE_TAGS);
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper)
+            .disableKeyRotation(any(DisableKeyRotationRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+    }
+
     // SCENARIO 2: Disables Key, Enables Rotation
     // Step: Enable Key Rotation, Disable Key, Put Policy, wait for 1 min
     @Test
@@ -358,6 +442,40 @@ public class UpdateHandlerTest extends AbstractTestBase {
         verify(keyHelper).putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
     }
 
+    @Test
+    public void handleRequest_PolicySerializedPerInvocation() {
+        final DescribeKeyResponse describeKeyResponse = DescribeKeyResponse.builder()
+            .keyMetadata(KeyMetadata.builder().keyState(KeyState.ENABLED).build())
+            .build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+        when(keyHelper.putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(PutKeyPolicyResponse.builder().build());
+        final Map<String, Object> keyPolicy = new HashMap<>();
+        keyPolicy.put("Version", "2012-10-17");
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().keyPolicy(keyPolicy).build())
+                .previousResourceState(PREVIOUS_STATE_SCENARIO_3)
+                .build();
+
+        handler.handleRequest(proxy, request, new CallbackContext(), proxyKmsClient, logger);
+        // The same policy object, changed by the next invocation of the handler
+        keyPolicy.put("Id", "changed");
+        handler.handleRequest(proxy, request, new CallbackContext(), proxyKmsClient, logger);
+
+        final ArgumentCaptor<PutKeyPolicyRequest> putKeyPolicyRequests =
+            ArgumentCaptor.forClass(PutKeyPolicyRequest.class);
+        verify(keyHelper, times(2)).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper, times(2))
+            .putKeyPolicy(putKeyPolicyRequests.capture(), eq(proxyKmsClient));
+        assertThat(putKeyPolicyRequests.getAllValues())
+            .extracting(PutKeyPolicyRequest::policy)
+            .containsExactly("{\"Version\":\"2012-10-17\"}",
+                Translator.translatePolicyInput(keyPolicy));
+        assertThat(putKeyPolicyRequests.getAllValues().get(1).policy()).contains("changed");
+    }
+
     // SCENARIO 5: Ivalid: Key isn't updated and disabled and Rotation is disabled
     // Step: throw exception
     @Test
@@ -564,6 +682,211 @@ public class UpdateHandlerTest extends AbstractTestBase {
         verify(keyHelper).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
     }
 
+    @Test
+    public void handleRequest_TagUpdateRetriesThrottling() {
+        final KeyMetadata keyMetadata = KeyMetadata.builder().keyState(KeyState.ENABLED).build();
+
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder().nextMarker(null).build();
+        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(listTagsForResourceResponse);
+
+        when(keyHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenThrow(new CfnThrottlingException(KeyHelper.TAG_RESOURCE, null))
+            .thenReturn(TagResourceResponse.builder().build());
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceTags(MODEL_TAGS)
+                .desiredResourceState(ResourceModel.builder().keyPolicy("").build())
+                .previousResourceState(ResourceModel.builder().keyPolicy("").build())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request,
+                new CallbackContext(), proxyKmsClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
+        assertThat(response.getErrorCode()).isNull();
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+        verify(keyHelper, times(2))
+            .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_TagUpdateThrottledOutOfAttempts() {
+        final KeyMetadata keyMetadata = KeyMetadata.builder().keyState(KeyState.ENABLED).build();
+
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder().nextMarker(null).build();
+        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(listTagsForResourceResponse);
+
+        when(keyHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenThrow(new CfnThrottlingException(KeyHelper.TAG_RESOURCE, null));
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceTags(MODEL_TAGS)
+                .desiredResourceState(ResourceModel.builder().keyPolicy("").build())
+                .previousResourceState(ResourceModel.builder().keyPolicy("").build())
+                .build();
+
+        // The earlier invocations already retried the call
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.attempts("kms::tag-key", UpdateHandler.TAG_WRITE_ATTEMPTS - 1);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, callbackContext, proxyKmsClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_RetaggedKeyNotUntagged() {
+        final KeyMetadata keyMetadata = KeyMetadata.builder().keyState(KeyState.ENABLED).build();
+
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder()
+                .tags(software.amazon.awssdk.services.kms.model.Tag.builder()
+                    .tagKey("Key2").tagValue("OldValue").build())
+                .nextMarker(null)
+                .build();
+        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(listTagsForResourceResponse);
+
+        when(keyHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(TagResourceResponse.builder().build());
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceTags(MODEL_TAGS)
+                .desiredResourceState(ResourceModel.builder().keyPolicy("").build())
+                .previousResourceState(ResourceModel.builder().keyPolicy("").build())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request,
+                new CallbackContext(), proxyKmsClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getErrorCode()).isNull();
+
+        // Tagging overwrites the value of the key, so it is not untagged first
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_DescriptionAndTagUpdate() {
+        final KeyMetadata keyMetadata = KeyMetadata.builder().keyState(KeyState.ENABLED).build();
+
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final UpdateKeyDescriptionResponse updateKeyDescriptionResponse =
+            UpdateKeyDescriptionResponse.builder().build();
+        when(keyHelper
+            .updateKeyDescription(any(UpdateKeyDescriptionRequest.class), eq(proxyKmsClient)))
+            .thenReturn(updateKeyDescriptionResponse);
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder().nextMarker(null).build();
+        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(listTagsForResourceResponse);
+
+        final TagResourceResponse tagResourceResponse = TagResourceResponse.builder().build();
+        when(keyHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(tagResourceResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceTags(MODEL_TAGS)
+                .desiredResourceState(ResourceModel.builder()
+                    .description("new description")
+                    .keyPolicy("")
+                    .build())
+                .previousResourceState(ResourceModel.builder().keyPolicy("").build())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request,
+                new CallbackContext(), proxyKmsClient, logger);
+
+        // Both updates are made in the same invocation, before the final propagation
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
+        assertThat(response.getCallbackContext().propagated).isEqualTo(true);
+        assertThat(response.getErrorCode()).isNull();
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper)
+            .updateKeyDescription(any(UpdateKeyDescriptionRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_TagUpdateWaitsForKeyPolicy() {
+        final KeyMetadata keyMetadata = KeyMetadata.builder().keyState(KeyState.ENABLED).build();
+
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final PutKeyPolicyResponse putKeyPolicyResponse = PutKeyPolicyResponse.builder().build();
+        when(keyHelper.putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(putKeyPolicyResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceTags(MODEL_TAGS)
+                .desiredResourceState(DESIRED_STATE_SCENARIO_3)
+                .previousResourceState(PREVIOUS_STATE_SCENARIO_3)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, new CallbackContext(), proxyKmsClient, logger);
+
+        // The new policy might grant the permissions to tag the key, so tagging waits for it
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().isKeyPolicyUpdated()).isEqualTo(true);
+        assertThat(response.getCallbackContext().propagated).isEqualTo(false);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
+    }
+
     @Test
     public void handleRequest_ListTagSoftFailUpdate() {
         final KeyMetadata keyMetadata = KeyMetadata.builder().keyState(KeyState.ENABLED).build();
@@ -789,4 +1112,431 @@ public class UpdateHandlerTest extends AbstractTestBase {
         verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
         verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
     }
+
+    @Test
+    public void handleRequest_ReconcileConverged() {
+        handler = new UpdateHandler(keyHelper, new AccessDeniedCache(), UpdateMode.RECONCILE);
+
+        final KeyMetadata keyMetadata = KeyMetadata.builder()
+            .keyState(KeyState.ENABLED)
+            .enabled(true)
+            .description("sample")
+            .build();
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final GetKeyPolicyResponse getKeyPolicyResponse =
+            GetKeyPolicyResponse.builder().policy("{new policy}").build();
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyPolicyResponse));
+
+        final GetKeyRotationStatusResponse getKeyRotationStatusResponse =
+            GetKeyRotationStatusResponse.builder().keyRotationEnabled(false).build();
+        when(keyHelper.tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient))).thenReturn(KmsResult.success(getKeyRotationStatusResponse));
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder().tags(SDK_TAGS).build();
+        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(listTagsForResourceResponse);
+
+        // An earlier attempt already made every write of the update
+        DESIRED_STATE_SCENARIO_1.setKeyId("mock-key-id");
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceTags(Collections.singletonMap("Key1", "Value1"))
+                .desiredResourceState(DESIRED_STATE_SCENARIO_1)
+                .previousResourceState(PREVIOUS_STATE_SCENARIO_1)
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, new CallbackContext(), proxyKmsClient, logger);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getCompletedMutations())
+            .containsOnly(KeyUpdatePlan.Mutation.UPDATE_TAGS);
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient));
+        verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_ReconcileDrift() {
+        handler = new UpdateHandler(keyHelper, new AccessDeniedCache(), UpdateMode.RECONCILE);
+
+        final KeyMetadata keyMetadata = KeyMetadata.builder()
+            .keyState(KeyState.ENABLED)
+            .enabled(true)
+            .description("")
+            .build();
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        // The policy was changed out of band, and the rotation was enabled
+        final GetKeyPolicyResponse getKeyPolicyResponse =
+            GetKeyPolicyResponse.builder().policy("{other policy}").build();
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyPolicyResponse));
+
+        final GetKeyRotationStatusResponse getKeyRotationStatusResponse =
+            GetKeyRotationStatusResponse.builder().keyRotationEnabled(true).build();
+        when(keyHelper.tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient))).thenReturn(KmsResult.success(getKeyRotationStatusResponse));
+
+        final DisableKeyRotationResponse disableKeyRotationResponse =
+            DisableKeyRotationResponse.builder().build();
+        when(keyHelper.disableKeyRotation(any(DisableKeyRotationRequest.class),
+            eq(proxyKmsClient))).thenReturn(disableKeyRotationResponse);
+
+        final PutKeyPolicyResponse putKeyPolicyResponse = PutKeyPolicyResponse.builder().build();
+        when(keyHelper.putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(putKeyPolicyResponse);
+
+        // The template only changes the description, which KMS already has
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder()
+                    .keyId("mock-key-id")
+                    .keyPolicy("{new policy}")
+                    .build())
+                .previousResourceState(ResourceModel.builder()
+                    .description("sample")
+                    .keyPolicy("{new policy}")
+                    .build())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, new CallbackContext(), proxyKmsClient, logger);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(60);
+        // The tags wait for the key policy to propagate
+        assertThat(response.getCallbackContext().getCompletedMutations()).containsOnly(
+            KeyUpdatePlan.Mutation.UPDATE_KEY_ROTATION, KeyUpdatePlan.Mutation.PUT_KEY_POLICY);
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient));
+        verify(keyHelper)
+            .disableKeyRotation(any(DisableKeyRotationRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_ReconcileFormattedPolicy() {
+        handler = new UpdateHandler(keyHelper, new AccessDeniedCache(), UpdateMode.RECONCILE);
+
+        final KeyMetadata keyMetadata = KeyMetadata.builder()
+            .keyState(KeyState.ENABLED)
+            .enabled(true)
+            .description("sample")
+            .build();
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        // KMS returns the policy in the formatting it was put with
+        final GetKeyPolicyResponse getKeyPolicyResponse = GetKeyPolicyResponse.builder()
+            .policy("{\n  \"Version\" : \"2012-10-17\",\n  \"Statement\" : [ ]\n}")
+            .build();
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyPolicyResponse));
+
+        final GetKeyRotationStatusResponse getKeyRotationStatusResponse =
+            GetKeyRotationStatusResponse.builder().keyRotationEnabled(false).build();
+        when(keyHelper.tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient))).thenReturn(KmsResult.success(getKeyRotationStatusResponse));
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder().build();
+        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(listTagsForResourceResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder()
+                    .keyId("mock-key-id")
+                    .description("sample")
+                    .keyPolicy(ImmutableMap.of("Statement", Collections.emptyList(),
+                        "Version", "2012-10-17"))
+                    .build())
+                .previousResourceState(ResourceModel.builder()
+                    .keyPolicy("{old policy}")
+                    .build())
+                .build();
+
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.setPropagated(true);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, callbackContext, proxyKmsClient, logger);
+
+        // The policy has the desired content, so it is not put again
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient));
+        verify(keyHelper).listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_ReconcileValidatesActualState() {
+        handler = new UpdateHandler(keyHelper, new AccessDeniedCache(), UpdateMode.RECONCILE);
+
+        // The key was disabled out of band, although the previous model has it enabled
+        final KeyMetadata keyMetadata = KeyMetadata.builder()
+            .keyState(KeyState.DISABLED)
+            .enabled(false)
+            .build();
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final GetKeyPolicyResponse getKeyPolicyResponse =
+            GetKeyPolicyResponse.builder().policy("{new policy}").build();
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyPolicyResponse));
+
+        final GetKeyRotationStatusResponse getKeyRotationStatusResponse =
+            GetKeyRotationStatusResponse.builder().keyRotationEnabled(false).build();
+        when(keyHelper.tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient))).thenReturn(KmsResult.success(getKeyRotationStatusResponse));
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder()
+                    .keyId("mock-key-id")
+                    .enabled(false)
+                    .enableKeyRotation(true)
+                    .keyPolicy("{new policy}")
+                    .build())
+                .previousResourceState(ResourceModel.builder()
+                    .enabled(true)
+                    .enableKeyRotation(false)
+                    .keyPolicy("{new policy}")
+                    .build())
+                .build();
+
+        // The rotation of the disabled key cannot be changed
+        try {
+            handler.handleRequest(proxy, request, new CallbackContext(), proxyKmsClient, logger);
+            fail();
+        } catch (final CfnInvalidRequestException e) {
+            assertThat(e.getMessage()).isEqualTo(
+                "Invalid request provided: You cannot change the EnableKeyRotation property while the Enabled property is false.");
+        }
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_ReconcileAccessDenied() {
+        handler = new UpdateHandler(keyHelper, new AccessDeniedCache(), UpdateMode.RECONCILE);
+
+        // Rotation is not supported on asymmetric keys, so it is not read
+        final KeyMetadata keyMetadata = KeyMetadata.builder()
+            .keyState(KeyState.ENABLED)
+            .customerMasterKeySpec(CustomerMasterKeySpec.RSA_2048)
+            .keyUsage(KeyUsageType.SIGN_VERIFY)
+            .build();
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.accessDenied());
+
+        final PutKeyPolicyResponse putKeyPolicyResponse = PutKeyPolicyResponse.builder().build();
+        when(keyHelper.putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(putKeyPolicyResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder()
+                    .keyId("mock-key-id")
+                    .keySpec(CustomerMasterKeySpec.RSA_2048.toString())
+                    .keyUsage(KeyUsageType.SIGN_VERIFY.toString())
+                    .keyPolicy("{new policy}")
+                    .build())
+                .previousResourceState(ResourceModel.builder()
+                    .keySpec(CustomerMasterKeySpec.RSA_2048.toString())
+                    .keyUsage(KeyUsageType.SIGN_VERIFY.toString())
+                    .keyPolicy("{old policy}")
+                    .build())
+                .build();
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, new CallbackContext(), proxyKmsClient, logger);
+
+        // The policy that cannot be read is assumed to be the previous one
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getCompletedMutations())
+            .containsOnly(KeyUpdatePlan.Mutation.PUT_KEY_POLICY);
+
+        verify(keyHelper).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyHelper).putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_ReconcileDryRun() {
+        handler = new UpdateHandler(keyHelper, new AccessDeniedCache(), UpdateMode.RECONCILE);
+
+        final KeyMetadata keyMetadata = KeyMetadata.builder()
+            .keyState(KeyState.ENABLED)
+            .enabled(true)
+            .description("sample")
+            .build();
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final GetKeyPolicyResponse getKeyPolicyResponse =
+            GetKeyPolicyResponse.builder().policy("{other policy}").build();
+        when(keyHelper.tryGetKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(KmsResult.success(getKeyPolicyResponse));
+
+        final GetKeyRotationStatusResponse getKeyRotationStatusResponse =
+            GetKeyRotationStatusResponse.builder().keyRotationEnabled(false).build();
+        when(keyHelper.tryGetKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient))).thenReturn(KmsResult.success(getKeyRotationStatusResponse));
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder().build();
+        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(listTagsForResourceResponse);
+
+        DESIRED_STATE_SCENARIO_1.setKeyId("mock-key-id");
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(DESIRED_STATE_SCENARIO_1)
+                .previousResourceState(PREVIOUS_STATE_SCENARIO_1)
+                .build();
+
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.setDryRun(true);
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, callbackContext, proxyKmsClient, logger);
+
+        // The reads of the actual state are named along with the others
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getMessage()).isEqualTo(
+            response.getCallbackContext().getExplainPlan().describe()
+                + ". To plan, the dry run called DescribeKey, GetKeyPolicy, GetKeyRotationStatus,"
+                + " ListResourceTags");
+        assertThat(operationsCalled(keyHelper)).containsExactlyInAnyOrder(KeyHelper.DESCRIBE_KEY,
+            KeyHelper.GET_KEY_POLICY, KeyHelper.GET_KEY_ROTATION_STATUS,
+            KeyHelper.LIST_RESOURCE_TAGS);
+    }
+
+    @Test
+    public void handleRequest_DryRunMatchesCalls() {
+        final KeyMetadata keyMetadata = KeyMetadata.builder().keyState(KeyState.DISABLED).build();
+        final DescribeKeyResponse describeKeyResponse =
+            DescribeKeyResponse.builder().keyMetadata(keyMetadata).build();
+        when(keyHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(describeKeyResponse);
+
+        final EnableKeyResponse enableKeyResponse = EnableKeyResponse.builder().build();
+        when(keyHelper.enableKey(any(EnableKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(enableKeyResponse);
+
+        final UpdateKeyDescriptionResponse updateKeyDescriptionResponse =
+            UpdateKeyDescriptionResponse.builder().build();
+        when(keyHelper
+            .updateKeyDescription(any(UpdateKeyDescriptionRequest.class), eq(proxyKmsClient)))
+            .thenReturn(updateKeyDescriptionResponse);
+
+        final PutKeyPolicyResponse putKeyPolicyResponse = PutKeyPolicyResponse.builder().build();
+        when(keyHelper.putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(putKeyPolicyResponse);
+
+        final DisableKeyRotationResponse disableKeyRotationResponse =
+            DisableKeyRotationResponse.builder().build();
+        when(keyHelper.disableKeyRotation(any(DisableKeyRotationRequest.class),
+            eq(proxyKmsClient))).thenReturn(disableKeyRotationResponse);
+
+        final ListResourceTagsResponse listTagsForResourceResponse =
+            ListResourceTagsResponse.builder().tags(SDK_TAGS).build();
+        when(keyHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(listTagsForResourceResponse);
+
+        final UntagResourceResponse untagResourceResponse = UntagResourceResponse.builder().build();
+        when(keyHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(untagResourceResponse);
+
+        final TagResourceResponse tagResourceResponse = TagResourceResponse.builder().build();
+        when(keyHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(tagResourceResponse);
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceTags(MODEL_TAGS)
+                .desiredResourceState(DESIRED_STATE_SCENARIO_1)
+                .previousResourceState(PREVIOUS_STATE_SCENARIO_1)
+                .build();
+
+        final CallbackContext dryRunContext = new CallbackContext();
+        dryRunContext.setDryRun(true);
+        final ProgressEvent<ResourceModel, CallbackContext> dryRun =
+            handler.handleRequest(proxy, request, dryRunContext, proxyKmsClient, logger);
+        final ExplainPlan explainPlan = dryRun.getCallbackContext().getExplainPlan();
+
+        assertThat(dryRun.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        // A dry run only reads, and says which reads it made
+        assertThat(operationsCalled(keyHelper)).containsExactly(KeyHelper.DESCRIBE_KEY,
+            KeyHelper.LIST_RESOURCE_TAGS);
+        assertThat(dryRun.getMessage()).isEqualTo(explainPlan.describe()
+            + ". To plan, the dry run called DescribeKey, ListResourceTags");
+        // The key is enabled and the policy put before the rotation and the tags are updated
+        assertThat(explainPlan.getStages()).extracting(ExplainPlan.Stage::getOperations)
+            .isEqualTo(Arrays.asList(
+                Collections.singletonList(KeyHelper.DESCRIBE_KEY),
+                Arrays.asList(KeyHelper.ENABLE_KEY, KeyHelper.UPDATE_KEY_DESCRIPTION,
+                    KeyHelper.PUT_KEY_POLICY),
+                Arrays.asList(KeyHelper.DISABLE_KEY_ROTATION, KeyHelper.LIST_RESOURCE_TAGS,
+                    KeyHelper.UNTAG_RESOURCE, KeyHelper.TAG_RESOURCE)));
+
+        // Makes the update, following the callbacks until it completes
+        CallbackContext callbackContext = new CallbackContext();
+        ProgressEvent<ResourceModel, CallbackContext> response;
+        int waits = 0;
+        do {
+            response = handler.handleRequest(proxy, request, callbackContext, proxyKmsClient,
+                logger);
+            callbackContext = response.getCallbackContext();
+            if (response.getCallbackDelaySeconds() > 0) {
+                waits++;
+            }
+            assertThat(waits).isLessThanOrEqualTo(explainPlan.getWaits());
+        } while (response.getStatus() == OperationStatus.IN_PROGRESS);
+        final List<String> calls = operationsCalled(keyHelper);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(explainPlan.getStages()).flatExtracting(ExplainPlan.Stage::getOperations)
+            .containsExactlyInAnyOrderElementsOf(calls);
+        assertThat(explainPlan.getMutatingCalls()).isEqualTo(6);
+        assertThat(explainPlan.getWaits()).isEqualTo(waits);
+    }
 }
@@ -0,0 +1,21 @@
+package software.amazon.kms.key;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class UpdateModeTest {
+    @Test
+    public void testFromString() {
+        assertEquals(UpdateMode.PREVIOUS_STATE, UpdateMode.fromString(null));
+        assertEquals(UpdateMode.PREVIOUS_STATE, UpdateMode.fromString("previous_state"));
+        assertEquals(UpdateMode.RECONCILE, UpdateMode.fromString(" Reconcile "));
+        assertEquals(UpdateMode.PREVIOUS_STATE, UpdateMode.fromString("unknown"));
+    }
+
+    @Test
+    public void testFromEnvironment() {
+        assertEquals(UpdateMode.fromString(System.getenv(UpdateMode.ENVIRONMENT_VARIABLE)),
+            UpdateMode.fromEnvironment());
+    }
+}
@@ -0,0 +1,48 @@
+package software.amazon.kms.key;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class UtilsTest {
+    @Test
+    public void testIsNullOrEmptyString() {
+        assertTrue(Utils.isNullOrEmpty((String) null));
+        assertTrue(Utils.isNullOrEmpty(""));
+        assertFalse(Utils.isNullOrEmpty(" "));
+    }
+
+    @Test
+    public void testIsNullOrEmptyCollection() {
+        assertTrue(Utils.isNullOrEmpty((Collection<?>) null));
+        assertTrue(Utils.isNullOrEmpty(Collections.emptySet()));
+        assertFalse(Utils.isNullOrEmpty(ImmutableList.of("value")));
+    }
+
+    @Test
+    public void testDifference() {
+        final Set<String> set = ImmutableSet.of("a", "b", "c");
+
+        assertEquals(ImmutableSet.of("a", "c"), Utils.difference(set, ImmutableSet.of("b", "d")));
+        assertEquals(set, Utils.difference(set, Collections.emptySet()));
+        assertEquals(Collections.emptySet(), Utils.difference(Collections.emptySet(), set));
+    }
+
+    @Test
+    public void testPartition() {
+        final List<String> list = ImmutableList.of("a", "b", "c", "d", "e");
+
+        assertEquals(ImmutableList.of(ImmutableList.of("a", "b"), ImmutableList.of("c", "d"),
+            ImmutableList.of("e")), Utils.partition(list, 2));
+        assertEquals(ImmutableList.of(list), Utils.partition(list, 5));
+        assertEquals(Collections.emptyList(), Utils.partition(Collections.emptyList(), 2));
+    }
+}
@@ -0,0 +1,105 @@
+#!/usr/bin/env bash
+#
+# Builds an AppCDS archive for a resource handler jar, and measures the handler
+# start-up time with and without it.
+#
+# usage: appcds.sh <module-dir> <shaded-jar> <type-name> [build|measure [runs]]
+#
+# The handler is trained by invoking the executable handler wrapper with every
+# create/update input in <module-dir>/inputs. The inputs carry dummy credentials,
+# so the KMS calls fail, but the whole request handling path gets loaded.
+#
+# An archive is only valid for the JVM that created it and for the same class
+# path, so it is built next to a copy of the jar that is referenced by a
+# relative path. Both are packaged as <shaded-jar>-appcds.zip. Extract the zip
+# and start the handler from that directory with:
+#
+#   java -XX:SharedArchiveFile=handler.jsa -Xshare:auto -cp handler.jar ...
+#
+# AppCDS requires JDK 11 or later. With older JDKs the script exits without
+# doing anything, so the profile never breaks the build.
+
+set -euo pipefail
+
+# shellcheck source=handler-request.sh
+. "$(dirname "$0")/handler-request.sh"
+
+module_dir=$(cd "$1" && pwd)
+shaded_jar=$(cd "$(dirname "$2")" && pwd)/$(basename "$2")
+type_name=$3
+mode=${4:-build}
+runs=${5:-10}
+
+java_bin=${JAVA_HOME:+$JAVA_HOME/bin/}java
+jar_bin=${JAVA_HOME:+$JAVA_HOME/bin/}jar
+java_version=$("$java_bin" -version 2>&1 | sed -n 's/.*version "\([^"]*\)".*/\1/p' | head -1)
+java_major=${java_version#1.}
+java_major=${java_major%%[.+-]*}
+if [ "${java_major:-0}" -lt 11 ]; then
+    echo "AppCDS requires JDK 11 or later, found ${java_version:-unknown}. Skipping."
+    exit 0
+fi
+
+package=$(echo "$type_name" | tr '[:upper:]' '[:lower:]' \
+    | sed 's/::/./g; s/^aws\./software.amazon./')
+main_class="$package.HandlerWrapperExecutable"
+work_dir="$module_dir/target/appcds"
+bundle="${shaded_jar%.jar}-appcds.zip"
+
+# Invokes the handler once per training input, with the given JVM options. The wrapper
+# empties the temporary directory after each request, so it gets a private one.
+run_handler() {
+    mkdir -p tmp
+    for request in inputs/*.json; do
+        "$java_bin" "$@" -Djava.io.tmpdir=tmp -cp handler.jar "$main_class" "$(cat "$request")" \
+            > /dev/null 2>&1 || true
+    done
+    # The executable wrapper writes every response to a file in the working directory
+    rm -f ./*.txt
+}
+
+build() {
+    rm -rf "$work_dir"
+    mkdir -p "$work_dir/inputs"
+    cp "$shaded_jar" "$work_dir/handler.jar"
+    cd "$work_dir"
+
+    handler_requests "$module_dir" inputs "$type_name"
+
+    echo "Training the $type_name handler with $(ls inputs | wc -l) inputs"
+    run_handler -Xshare:off -XX:DumpLoadedClassList=classes.lst
+
+    echo "Dumping $(wc -l < classes.lst) classes to handler.jsa"
+    "$java_bin" -Xshare:dump -XX:SharedClassListFile=classes.lst \
+        -XX:SharedArchiveFile=handler.jsa -cp handler.jar > dump.log 2>&1
+
+    rm -f "$bundle"
+    "$jar_bin" --create --no-manifest --file "$bundle" handler.jar handler.jsa
+    echo "Packaged $bundle"
+}
+
+# Median wall clock time of invoking the handler with every input
+measure() {
+    for _ in $(seq "$runs"); do
+        start=$(date +%s%N)
+        run_handler "$@"
+        echo $(( ($(date +%s%N) - start) / 1000000 ))
+    done | sort -n | awk '{ t[NR] = $1 } END { print t[int((NR + 1) / 2)] }'
+}
+
+case "$mode" in
+    build)
+        build
+        ;;
+    measure)
+        [ -f "$work_dir/handler.jsa" ] || (build)
+        cd "$work_dir"
+        echo "Median time to invoke the handler with every input over $runs runs"
+        echo "  without archive: $(measure -Xshare:off) ms"
+        echo "  with archive:    $(measure -XX:SharedArchiveFile=handler.jsa -Xshare:auto) ms"
+        ;;
+    *)
+        echo "Unknown mode $mode, expected build or measure" >&2
+        exit 1
+        ;;
+esac
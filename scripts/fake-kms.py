@@ -0,0 +1,213 @@
+#!/usr/bin/env python3
+"""
+A fake KMS endpoint for running the handlers locally against KMS_ENDPOINT.
+
+usage: fake-kms.py <port> [<seeded-keys>]
+
+Serves the KMS JSON protocol over HTTP, for the operations the handlers call, from
+state kept in memory. Requests are not authenticated. Key N, counting the seeded keys
+first, has the ID 00000000-0000-4000-8000-00000000000N, so that the update inputs
+and the aliases can refer to the keys before they are created. Prints one line per
+call with the operation and the response status.
+"""
+
+import http.server
+import json
+import sys
+import time
+
+ACCOUNT = "123456789012"
+REGION = "us-east-1"
+DEFAULT_POLICY = json.dumps({
+    "Version": "2012-10-17",
+    "Id": "key-default-1",
+    "Statement": [{
+        "Sid": "Enable IAM User Permissions",
+        "Effect": "Allow",
+        "Principal": {"AWS": "arn:aws:iam::%s:root" % ACCOUNT},
+        "Action": "kms:*",
+        "Resource": "*",
+    }],
+})
+
+
+class KmsError(Exception):
+    def __init__(self, error_type, message):
+        super().__init__(message)
+        self.error_type = error_type
+
+
+class Kms:
+    def __init__(self, seeded_keys):
+        self.keys = {}
+        self.aliases = {}
+        for _ in range(seeded_keys):
+            self.CreateKey({})
+
+    def key(self, request):
+        key_id = request.get("KeyId") or request.get("TargetKeyId") or ""
+        if key_id.startswith("alias/"):
+            key_id = self.aliases.get(key_id, "")
+        key_id = key_id.rsplit("/", 1)[-1]
+        if key_id not in self.keys:
+            raise KmsError("NotFoundException", "Key '%s' does not exist" % key_id)
+        return self.keys[key_id]
+
+    def CreateKey(self, request):
+        key_id = "00000000-0000-4000-8000-%012d" % (len(self.keys) + 1)
+        spec = request.get("KeySpec", request.get("CustomerMasterKeySpec", "SYMMETRIC_DEFAULT"))
+        self.keys[key_id] = {
+            "metadata": {
+                "AWSAccountId": ACCOUNT,
+                "KeyId": key_id,
+                "Arn": "arn:aws:kms:%s:%s:key/%s" % (REGION, ACCOUNT, key_id),
+                "CreationDate": time.time(),
+                "Enabled": True,
+                "Description": request.get("Description", ""),
+                "KeyUsage": request.get("KeyUsage", "ENCRYPT_DECRYPT"),
+                "KeyState": "Enabled",
+                "Origin": "AWS_KMS",
+                "KeyManager": "CUSTOMER",
+                "CustomerMasterKeySpec": spec,
+                "KeySpec": spec,
+            },
+            "policy": request.get("Policy", DEFAULT_POLICY),
+            "rotation": False,
+            "tags": {tag["TagKey"]: tag["TagValue"] for tag in request.get("Tags", [])},
+        }
+        return {"KeyMetadata": self.keys[key_id]["metadata"]}
+
+    def DescribeKey(self, request):
+        return {"KeyMetadata": self.key(request)["metadata"]}
+
+    def EnableKey(self, request):
+        self.key(request)["metadata"].update(Enabled=True, KeyState="Enabled")
+        return {}
+
+    def DisableKey(self, request):
+        self.key(request)["metadata"].update(Enabled=False, KeyState="Disabled")
+        return {}
+
+    def UpdateKeyDescription(self, request):
+        self.key(request)["metadata"]["Description"] = request["Description"]
+        return {}
+
+    def GetKeyPolicy(self, request):
+        return {"Policy": self.key(request)["policy"]}
+
+    def PutKeyPolicy(self, request):
+        self.key(request)["policy"] = request["Policy"]
+        return {}
+
+    def GetKeyRotationStatus(self, request):
+        return {"KeyRotationEnabled": self.key(request)["rotation"]}
+
+    def EnableKeyRotation(self, request):
+        self.key(request)["rotation"] = True
+        return {}
+
+    def DisableKeyRotation(self, request):
+        self.key(request)["rotation"] = False
+        return {}
+
+    def ListResourceTags(self, request):
+        tags = self.key(request)["tags"]
+        return {"Tags": [{"TagKey": k, "TagValue": v} for k, v in sorted(tags.items())],
+                "Truncated": False}
+
+    def TagResource(self, request):
+        self.key(request)["tags"].update(
+            {tag["TagKey"]: tag["TagValue"] for tag in request["Tags"]})
+        return {}
+
+    def UntagResource(self, request):
+        tags = self.key(request)["tags"]
+        for tag_key in request["TagKeys"]:
+            tags.pop(tag_key, None)
+        return {}
+
+    def ScheduleKeyDeletion(self, request):
+        metadata = self.key(request)["metadata"]
+        metadata.update(Enabled=False, KeyState="PendingDeletion")
+        return {"KeyId": metadata["KeyId"], "DeletionDate": time.time() + 7 * 86400}
+
+    def ListKeys(self, request):
+        return {"Keys": [{"KeyId": key["metadata"]["KeyId"], "KeyArn": key["metadata"]["Arn"]}
+                         for key in self.keys.values()],
+                "Truncated": False}
+
+    def CreateAlias(self, request):
+        if request["AliasName"] in self.aliases:
+            raise KmsError("AlreadyExistsException",
+                           "Alias %s already exists" % request["AliasName"])
+        self.aliases[request["AliasName"]] = self.key(request)["metadata"]["KeyId"]
+        return {}
+
+    def UpdateAlias(self, request):
+        if request["AliasName"] not in self.aliases:
+            raise KmsError("NotFoundException",
+                           "Alias %s does not exist" % request["AliasName"])
+        self.aliases[request["AliasName"]] = self.key(request)["metadata"]["KeyId"]
+        return {}
+
+    def DeleteAlias(self, request):
+        if self.aliases.pop(request["AliasName"], None) is None:
+            raise KmsError("NotFoundException",
+                           "Alias %s does not exist" % request["AliasName"])
+        return {}
+
+    def ListAliases(self, request):
+        key_id = request.get("KeyId")
+        return {"Aliases": [{"AliasName": name,
+                             "AliasArn": "arn:aws:kms:%s:%s:%s" % (REGION, ACCOUNT, name),
+                             "TargetKeyId": target}
+                            for name, target in sorted(self.aliases.items())
+                            if key_id is None or key_id == target],
+                "Truncated": False}
+
+
+class KmsApi(http.server.BaseHTTPRequestHandler):
+    kms = None
+
+    def do_GET(self):
+        # The handlers prime their connection with a GET, which KMS rejects as well
+        self.respond(400, {"__type": "UnsupportedOperationException",
+                           "message": "Only POST requests are supported"})
+
+    def do_POST(self):
+        length = int(self.headers.get("Content-Length", 0))
+        request = json.loads(self.rfile.read(length) or b"{}")
+        operation = self.headers.get("X-Amz-Target", "").rsplit(".", 1)[-1]
+        method = getattr(self.kms, operation, None) if operation[:1].isupper() else None
+        try:
+            if method is None:
+                raise KmsError("UnsupportedOperationException",
+                               "%s is not supported by the fake" % operation)
+            status, body = 200, method(request)
+        except KmsError as e:
+            status, body = 400, {"__type": e.error_type, "message": str(e)}
+        print("%s %d" % (operation, status), flush=True)
+        self.respond(status, body)
+
+    def respond(self, status, body):
+        payload = json.dumps(body).encode("utf-8")
+        self.send_response(status)
+        self.send_header("Content-Type", "application/x-amz-json-1.1")
+        self.send_header("Content-Length", str(len(payload)))
+        self.send_header("x-amzn-RequestId", "fake-kms")
+        self.end_headers()
+        self.wfile.write(payload)
+
+    def log_message(self, format, *args):
+        pass
+
+
+def main():
+    port = int(sys.argv[1])
+    KmsApi.kms = Kms(int(sys.argv[2]) if len(sys.argv) > 2 else 0)
+    server = http.server.HTTPServer(("localhost", port), KmsApi)
+    server.serve_forever()
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,80 @@
+#!/usr/bin/env python3
+"""
+A fake Lambda runtime API for running a custom runtime handler locally.
+
+usage: fake-lambda-runtime.py <port> <event-file>...
+
+Hands out every event once, in order, and prints one line per event with its status
+and duration. The first line reports when the handler first polled for an event, in
+milliseconds since the epoch, to measure the handler initialization. Once every event
+is handled, it prints "done" and leaves the next poll of the handler hanging, like
+Lambda freezing the execution environment, until it is killed.
+"""
+
+import http.server
+import sys
+import time
+
+API_PATH = "/2018-06-01/runtime"
+
+
+class RuntimeApi(http.server.BaseHTTPRequestHandler):
+    events = []
+    next_event = 0
+    started = None
+    first_poll = None
+
+    def do_GET(self):
+        if self.path != API_PATH + "/invocation/next":
+            self.send_error(404)
+            return
+
+        cls = type(self)
+        if cls.first_poll is None:
+            cls.first_poll = int(time.time() * 1000)
+            print("first-poll %d" % cls.first_poll, flush=True)
+
+        if cls.next_event == len(cls.events):
+            print("done", flush=True)
+            while True:
+                time.sleep(60)
+
+        with open(cls.events[cls.next_event], "rb") as event:
+            body = event.read()
+        cls.started = time.monotonic()
+        self.send_response(200)
+        self.send_header("Lambda-Runtime-Aws-Request-Id", str(cls.next_event))
+        self.send_header("Lambda-Runtime-Deadline-Ms", str(int(time.time() * 1000) + 60000))
+        self.send_header("Lambda-Runtime-Invoked-Function-Arn",
+                         "arn:aws:lambda:us-east-1:123456789012:function:local")
+        self.send_header("Content-Length", str(len(body)))
+        self.end_headers()
+        self.wfile.write(body)
+
+    def do_POST(self):
+        cls = type(self)
+        length = int(self.headers.get("Content-Length", 0))
+        body = self.rfile.read(length).decode("utf-8")
+        self.send_response(202)
+        self.send_header("Content-Length", "0")
+        self.end_headers()
+
+        status = self.path.rsplit("/", 1)[-1]
+        elapsed = (time.monotonic() - cls.started) * 1000
+        print("%s %s %.0fms %s" % (cls.events[cls.next_event], status, elapsed, body),
+              flush=True)
+        cls.next_event += 1
+
+    def log_message(self, format, *args):
+        pass
+
+
+def main():
+    port = int(sys.argv[1])
+    RuntimeApi.events = sys.argv[2:]
+    server = http.server.HTTPServer(("localhost", port), RuntimeApi)
+    server.serve_forever()
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,111 @@
+#!/usr/bin/env bash
+#
+# Runs a handler on the custom runtime API with every create/update input in
+# <module-dir>/inputs, as the native executable built by the native profile
+# (target/bootstrap), and on the JVM from the shaded jar with and without priming
+# (see Priming). It reports the initialization time, the time of each invocation
+# and the peak memory use of each. Priming moves work from the first invocation
+# to the initialization.
+#
+# usage: native-test.sh <module-dir> <type-name>
+#
+# Either build is skipped when it is missing. The fake runtime API is served by
+# fake-lambda-runtime.py, and the handler is pointed at the fake KMS endpoint of
+# fake-kms.py with KMS_ENDPOINT (see EndpointConfiguration), so the inputs run the
+# handlers through their KMS calls. The contract test placeholders of the inputs are
+# filled in with the account, and with the keys the fake KMS creates or seeds. An
+# update of a key updates the key of the create input with the same number.
+
+set -euo pipefail
+
+script_dir=$(cd "$(dirname "$0")" && pwd)
+# shellcheck source=handler-request.sh
+. "$script_dir/handler-request.sh"
+
+module_dir=$(cd "$1" && pwd)
+type_name=$2
+
+java_bin=${JAVA_HOME:+$JAVA_HOME/bin/}java
+package=$(echo "$type_name" | tr '[:upper:]' '[:lower:]' \
+    | sed 's/::/./g; s/^aws\./software.amazon./')
+work_dir="$module_dir/target/native-test"
+port=${RUNTIME_API_PORT:-9001}
+kms_port=${KMS_PORT:-9002}
+
+# fake_key_id <n> prints the ID fake-kms.py gives its nth key
+fake_key_id() {
+    printf '00000000-0000-4000-8000-%012d' "$1"
+}
+
+rm -rf "$work_dir"
+mkdir -p "$work_dir/inputs" "$work_dir/tmp"
+cd "$work_dir"
+handler_requests "$module_dir" inputs "$type_name"
+
+sed -i 's/{{AWSPartition}}/aws/g; s/{{AWSAccountId}}/123456789012/g' inputs/*.json
+seeded_keys=0
+for n in $(grep -oh '{{ContractTestAliasKey[0-9]*}}' inputs/*.json | tr -dc '0-9\n' | sort -un); do
+    sed -i "s/{{ContractTestAliasKey$n}}/$(fake_key_id "$n")/g" inputs/*.json
+    seeded_keys=$n
+done
+if [ "$type_name" = AWS::KMS::Key ]; then
+    for request in inputs/inputs_*_update.json; do
+        [ -f "$request" ] || continue
+        n=${request#inputs/inputs_}
+        sed -i "s/\"\(previousR\|r\)esourceProperties\": {/&\"KeyId\": \"$(fake_key_id "${n%%_*}")\", /" \
+            "$request"
+    done
+fi
+
+# run <name> <command>... starts the handler against the fake runtime API and a fresh
+# fake KMS, and waits for it to handle every input. The wrapper empties the temporary
+# directory after each request, so the commands give the handler a private one.
+run() {
+    local name=$1 runtime kms handler start first_poll rss
+    shift
+    "$script_dir/fake-lambda-runtime.py" "$port" inputs/*.json > "$name.log" &
+    runtime=$!
+    "$script_dir/fake-kms.py" "$kms_port" "$seeded_keys" > "$name-kms.log" &
+    kms=$!
+    sleep 0.5
+
+    start=$(date +%s%3N)
+    AWS_LAMBDA_RUNTIME_API="localhost:$port" AWS_REGION=us-east-1 \
+        AWS_LAMBDA_FUNCTION_NAME=local AWS_LAMBDA_FUNCTION_MEMORY_SIZE=512 \
+        KMS_ENDPOINT="http://localhost:$kms_port" \
+        "$@" > "$name-handler.log" 2>&1 &
+    handler=$!
+
+    until grep -q '^done$' "$name.log"; do
+        if ! kill -0 "$handler" 2> /dev/null; then
+            echo "$name: the handler exited, see $work_dir/$name-handler.log" >&2
+            kill "$runtime" "$kms"
+            return 1
+        fi
+        sleep 0.1
+    done
+
+    rss=$(awk '/VmHWM/ { print $2 " " $3 }' "/proc/$handler/status")
+    kill "$handler" "$runtime" "$kms"
+    wait "$handler" "$runtime" "$kms" 2> /dev/null || true
+
+    first_poll=$(awk '/^first-poll/ { print $2 }' "$name.log")
+    echo "$name: initialization $((first_poll - start)) ms, peak memory $rss," \
+        "$(wc -l < "$name-kms.log") KMS calls"
+    grep -v '^first-poll\|^done$' "$name.log" | cut -c1-160 | sed 's/^/  /'
+}
+
+if [ -x "$module_dir/target/bootstrap" ]; then
+    run native "$module_dir/target/bootstrap" -Djava.io.tmpdir=tmp
+else
+    echo "native: no target/bootstrap, build it with mvn package -Pnative"
+fi
+
+jar=$(ls "$module_dir"/target/*-handler-*.jar 2> /dev/null | grep -v original | head -1 || true)
+if [ -n "$jar" ]; then
+    run jvm "$java_bin" -Djava.io.tmpdir=tmp -cp "$jar" "$package.LambdaRuntime"
+    run jvm-unprimed env HANDLER_PRIMING=false \
+        "$java_bin" -Djava.io.tmpdir=tmp -cp "$jar" "$package.LambdaRuntime"
+else
+    echo "jvm: no shaded jar in target, build it with mvn package"
+fi